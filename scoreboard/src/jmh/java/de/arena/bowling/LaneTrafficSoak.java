@@ -0,0 +1,846 @@
+package de.arena.bowling;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Soak test with the traffic of a league night, run by the 'soak' profile of the build after the package phase.
+ * It only uses the JDK, so the build runs it from its source file.
+ * <p>
+ * Every lane is played by a team of bowlers, who roll their frames in turns like on the lanes: the next ball of a
+ * frame follows after the ball return, the next bowler after the walk-up, and a new set of games after a break. The
+ * pins follow the skill of every bowler, from the strikes and the leaves of the first ball to the converted spares.
+ * The lanes are spread over the clients of the application:
+ * <ul>
+ * <li>'view' - the kiosk on the lane, which starts the games on '/start' and rolls on '/score'</li>
+ * <li>'api' - a lane controller, which creates the games and rolls on '/api/games'</li>
+ * <li>'batch' - lane controllers sending the rolls of all their lanes together to '/api/rolls'</li>
+ * <li>'session' - a lane controller playing all the bowlers of the lane in one session on '/api/sessions'</li>
+ * </ul>
+ * The displays above the 'api', 'batch' and 'session' lanes poll the game in turn with its version.
+ * <p>
+ * Without 'soak.base-url' the packaged application is started with its embedded MongoDB and stopped at the end.
+ * Every 'soak.report-interval-seconds' the throughput, the latency percentiles and the errors of every request, and
+ * the heap of the application from '/actuator/prometheus' are printed and appended to 'soak-intervals.csv'. The
+ * summary covers the run after the warmup; the run fails if the rate of the errors is above 'soak.max-error-rate'.
+ * <p>
+ * The options are system properties: 'soak.jar' the application jar, 'soak.directory' the directory of the reports
+ * and the log, 'soak.base-url' a running application instead of the jar, 'soak.lanes', 'soak.bowlers-per-lane',
+ * 'soak.clients' the clients of the lanes in turn, 'soak.time-scale' how much faster than on the lanes the bowlers
+ * roll, 'soak.duration-minutes', 'soak.warmup-minutes', 'soak.report-interval-seconds',
+ * 'soak.display-poll-millis', 'soak.batch-millis', 'soak.max-error-rate', 'soak.seed', and 'soak.jvm-args' and
+ * 'soak.app-args' the options of the JVM and of the application.
+ */
+public class LaneTrafficSoak {
+
+    private static final long STARTUP_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final Pattern GAME_ID_INPUT = Pattern.compile("name=\"gameId\" value=\"([^\"]+)\"");
+    /**
+     * The view shows a rejected roll with its error message in the last cell.
+     */
+    private static final Pattern VIEW_ERROR = Pattern.compile(">[^<]+</td>\\s*</tr>\\s*</table>");
+    private static final Pattern ACCEPTED = Pattern.compile("\"accepted\":(true|false)");
+    private static final Pattern HEAP_USED =
+            Pattern.compile("^jvm_memory_used_bytes\\{area=\"heap\"[^}]*} (\\S+)$", Pattern.MULTILINE);
+    private static final Pattern LIVE_DATA =
+            Pattern.compile("^jvm_gc_live_data_size_bytes(?:\\{[^}]*})? (\\S+)$", Pattern.MULTILINE);
+
+    private final Path directory = Paths.get(System.getProperty("soak.directory", "target/soak"));
+    private final String jar = System.getProperty("soak.jar");
+    private final int lanes = Integer.getInteger("soak.lanes", 32);
+    private final int bowlersPerLane = Integer.getInteger("soak.bowlers-per-lane", 4);
+    private final List<String> clients = split(System.getProperty("soak.clients", "view,api,batch,session"));
+    private final double timeScale = Double.parseDouble(System.getProperty("soak.time-scale", "60"));
+    private final long durationMillis = TimeUnit.MINUTES.toMillis(Long.getLong("soak.duration-minutes", 10));
+    private final long warmupMillis = TimeUnit.MINUTES.toMillis(Long.getLong("soak.warmup-minutes", 1));
+    private final long reportMillis = TimeUnit.SECONDS.toMillis(Long.getLong("soak.report-interval-seconds", 60));
+    private final long displayPollMillis = Long.getLong("soak.display-poll-millis", 1000);
+    private final long batchMillis = Long.getLong("soak.batch-millis", 100);
+    private final double maxErrorRate = Double.parseDouble(System.getProperty("soak.max-error-rate", "0.001"));
+    private final long seed = Long.getLong("soak.seed", System.nanoTime());
+    private final List<String> jvmArgs = split(System.getProperty("soak.jvm-args", ""));
+    private final List<String> appArgs = split(System.getProperty("soak.app-args", ""));
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .connectTimeout(REQUEST_TIMEOUT)
+            .build();
+    private final Map<String, RequestStats> requests = new ConcurrentHashMap<>();
+    private final LongAdder completedGames = new LongAdder();
+    private final BatchSender batchSender = new BatchSender();
+    private final HeapSamples heap = new HeapSamples();
+
+    private String baseUrl = System.getProperty("soak.base-url", "").isBlank()
+            ? null : System.getProperty("soak.base-url");
+    private volatile boolean running = true;
+    private volatile boolean measuring;
+
+    public static void main(String[] args) throws Exception {
+        new LaneTrafficSoak().run();
+    }
+
+    private void run() throws Exception {
+        Files.createDirectories(directory);
+        Process application = baseUrl == null ? startApplication() : null;
+        boolean failed;
+        try {
+            System.out.printf("Soak of %d lanes with %d bowlers each on %s for %d minutes, clients %s, time scale %s,"
+                    + " seed %d%n", lanes, bowlersPerLane, baseUrl, TimeUnit.MILLISECONDS.toMinutes(durationMillis),
+                    clients, timeScale, seed);
+            List<Thread> threads = new ArrayList<>();
+            for (int lane = 1; lane <= lanes; lane++) {
+                Lane laneOfBowlers = new Lane(lane, clients.get((lane - 1) % clients.size()), new Random(seed + lane));
+                threads.add(Thread.ofVirtual().name("lane-" + lane).start(laneOfBowlers::play));
+                if (!laneOfBowlers.client.equals("view")) {
+                    threads.add(Thread.ofVirtual().name("display-" + lane).start(laneOfBowlers::display));
+                }
+            }
+            threads.add(Thread.ofVirtual().name("batch-sender").start(batchSender::sendBatches));
+            boolean completed = soak(application);
+            running = false;
+            // the lanes may wait for the next roll or for their break
+            threads.forEach(Thread::interrupt);
+            for (Thread thread : threads) {
+                thread.join(REQUEST_TIMEOUT.toMillis());
+            }
+            failed = summarize() || !completed;
+        } finally {
+            if (application != null) {
+                application.destroy();
+                if (!application.waitFor(1, TimeUnit.MINUTES)) {
+                    application.destroyForcibly().waitFor();
+                }
+            }
+        }
+        if (failed) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Reports the intervals until the end of the run.
+     *
+     * @return false if the application exited before the end.
+     */
+    private boolean soak(Process application) throws Exception {
+        long started = System.currentTimeMillis();
+        long nextReport = started + reportMillis;
+        Path intervals = directory.resolve("soak-intervals.csv");
+        try (PrintWriter csv = new PrintWriter(Files.newBufferedWriter(intervals), true)) {
+            csv.println("elapsed_seconds,measured,requests,requests_per_second,errors,p50_ms,p99_ms,p999_ms,"
+                    + "heap_floor_mb,heap_max_mb,live_data_mb,completed_games");
+            long intervalStarted = started;
+            while (System.currentTimeMillis() - started < durationMillis) {
+                if (application != null && !application.isAlive()) {
+                    System.err.println("The application exited with " + application.exitValue() + ", see "
+                            + directory.resolve("application.log"));
+                    return false;
+                }
+                heap.sample();
+                Thread.sleep(Math.min(5000, Math.max(0, nextReport - System.currentTimeMillis())));
+                if (System.currentTimeMillis() >= nextReport) {
+                    long now = System.currentTimeMillis();
+                    reportInterval(csv, (now - started) / 1000, (now - intervalStarted) / 1000.0);
+                    intervalStarted = now;
+                    nextReport += reportMillis;
+                }
+                if (!measuring && System.currentTimeMillis() - started >= warmupMillis) {
+                    measuring = true;
+                    heap.startMeasuring();
+                }
+            }
+        }
+        return true;
+    }
+
+    private void reportInterval(PrintWriter csv, long elapsedSeconds, double intervalSeconds) {
+        Histogram all = new Histogram();
+        long errors = 0;
+        StringBuilder line = new StringBuilder();
+        for (Map.Entry<String, RequestStats> entry : new TreeMap<>(requests).entrySet()) {
+            RequestStats stats = entry.getValue();
+            Histogram interval = stats.finishInterval();
+            long intervalErrors = stats.intervalErrors.sumThenReset();
+            all.add(interval);
+            errors += intervalErrors;
+            if (interval.count() > 0) {
+                line.append(String.format("%n  %-24s %8.1f/s  p50 %7.2f  p99 %7.2f  p999 %8.2f ms  errors %d",
+                        entry.getKey(), interval.count() / intervalSeconds, millis(interval.percentile(0.5)),
+                        millis(interval.percentile(0.99)), millis(interval.percentile(0.999)), intervalErrors));
+            }
+        }
+        HeapSamples.Interval heapInterval = heap.finishInterval();
+        System.out.printf("[%6d s]%s %d requests %.1f/s, %d errors, heap floor %d MB, max %d MB, live data %d MB,"
+                        + " %d completed games%s%n", elapsedSeconds, measuring ? "" : " warmup", all.count(),
+                all.count() / intervalSeconds, errors, heapInterval.floorMegabytes(), heapInterval.maxMegabytes(),
+                heapInterval.liveDataMegabytes(), completedGames.sum(), line);
+        csv.printf("%d,%s,%d,%.1f,%d,%.3f,%.3f,%.3f,%d,%d,%d,%d%n", elapsedSeconds, measuring, all.count(),
+                all.count() / intervalSeconds, errors, millis(all.percentile(0.5)), millis(all.percentile(0.99)),
+                millis(all.percentile(0.999)), heapInterval.floorMegabytes(), heapInterval.maxMegabytes(),
+                heapInterval.liveDataMegabytes(), completedGames.sum());
+    }
+
+    /**
+     * @return true if the rate of the errors is above the limit.
+     */
+    private boolean summarize() {
+        Histogram all = new Histogram();
+        long errors = 0;
+        System.out.printf("%nSummary after the warmup:%n");
+        for (Map.Entry<String, RequestStats> entry : new TreeMap<>(requests).entrySet()) {
+            RequestStats stats = entry.getValue();
+            all.add(stats.measured);
+            errors += stats.measuredErrors.sum();
+            System.out.printf("  %-24s %10d requests  p50 %7.2f  p99 %7.2f  p999 %8.2f  max %8.2f ms  errors %d%n",
+                    entry.getKey(), stats.measured.count(), millis(stats.measured.percentile(0.5)),
+                    millis(stats.measured.percentile(0.99)), millis(stats.measured.percentile(0.999)),
+                    millis(stats.measured.percentile(1)), stats.measuredErrors.sum());
+        }
+        double measuredSeconds = Math.max(1, durationMillis - warmupMillis) / 1000.0;
+        double errorRate = all.count() + errors == 0 ? 1 : (double) errors / (all.count() + errors);
+        System.out.printf("  %d requests, %.1f/s, error rate %.5f, p99 %.2f ms, p999 %.2f ms%n", all.count(),
+                all.count() / measuredSeconds, errorRate, millis(all.percentile(0.99)), millis(all.percentile(0.999)));
+        System.out.printf("  heap floor from %d MB to %d MB, %.1f MB per hour; live data after the last old"
+                        + " collection %d MB%n", heap.firstFloorMegabytes(), heap.lastFloorMegabytes(),
+                heap.floorGrowthPerHour(), heap.liveDataMegabytes());
+        if (errorRate > maxErrorRate) {
+            System.err.printf("The error rate of %.5f is above soak.max-error-rate of %s%n", errorRate, maxErrorRate);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Starts the packaged application on a free port and waits until it is healthy.
+     */
+    private Process startApplication() throws Exception {
+        if (jar == null) {
+            throw new IllegalStateException("Either soak.jar or soak.base-url is required");
+        }
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        command.add("-jar");
+        command.add(jar);
+        command.addAll(appArgs);
+        command.add("--server.port=" + port);
+        Path log = directory.resolve("application.log");
+        Process application = new ProcessBuilder(command)
+                .directory(directory.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.to(log.toFile()))
+                .start();
+        baseUrl = "http://localhost:" + port;
+        long started = System.currentTimeMillis();
+        while (System.currentTimeMillis() - started < STARTUP_TIMEOUT_MILLIS) {
+            if (!application.isAlive()) {
+                throw new IllegalStateException("The application exited with " + application.exitValue()
+                        + ", see " + log);
+            }
+            try {
+                if (http.send(get("/actuator/health"), HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    System.out.printf("Started the application in %d ms, see %s%n",
+                            System.currentTimeMillis() - started, log);
+                    return application;
+                }
+            } catch (IOException notStarted) {
+                // polled again
+            }
+            Thread.sleep(200);
+        }
+        application.destroyForcibly();
+        throw new IllegalStateException("The application was not healthy within " + STARTUP_TIMEOUT_MILLIS + " ms");
+    }
+
+    /**
+     * Sends the request and records its latency under the name; a failed request and a response with an unexpected
+     * status are recorded as errors.
+     *
+     * @return the body of the response, or null if the request failed.
+     */
+    private String send(String name, HttpRequest request, int... expectedStatus) {
+        RequestStats stats = requests.computeIfAbsent(name, key -> new RequestStats());
+        long started = System.nanoTime();
+        try {
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - started);
+            if (Arrays.stream(expectedStatus).anyMatch(status -> status == response.statusCode())) {
+                stats.record(micros, measuring);
+                return response.body();
+            }
+            stats.error(measuring);
+            return null;
+        } catch (IOException exception) {
+            stats.error(measuring);
+            return null;
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * Records a roll rejected by the application as an error of the request, as the lanes only roll possible pins.
+     *
+     * @return the rejection.
+     */
+    private boolean rejected(String name, boolean rejected) {
+        if (rejected) {
+            requests.computeIfAbsent(name, key -> new RequestStats()).error(measuring);
+        }
+        return rejected;
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT).GET().build();
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(json == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    /**
+     * Sleeps for the time on the lanes, shortened by the time scale; the times vary by a log-normal distribution
+     * around the median like the times of real bowlers.
+     */
+    private void pause(Random random, double medianSeconds) {
+        double seconds = medianSeconds * Math.exp(0.35 * random.nextGaussian());
+        try {
+            Thread.sleep((long) (seconds * 1000 / timeScale));
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static List<String> split(String arguments) {
+        List<String> split = new ArrayList<>();
+        for (String argument : arguments.trim().split("[\\s,]+")) {
+            if (!argument.isEmpty()) {
+                split.add(argument);
+            }
+        }
+        return split;
+    }
+
+    /**
+     * A lane with its team of bowlers, playing one set of games after the other with its client.
+     */
+    private class Lane {
+
+        private final int number;
+        private final String client;
+        private final Random random;
+        private volatile String displayedPath;
+
+        Lane(int number, String client, Random random) {
+            this.number = number;
+            this.client = client;
+            this.random = random;
+        }
+
+        void play() {
+            while (running) {
+                List<Bowler> bowlers = new ArrayList<>();
+                for (int bowler = 0; bowler < bowlersPerLane; bowler++) {
+                    bowlers.add(new Bowler("Bowler " + number + "-" + (bowler + 1), random.nextDouble()));
+                }
+                String sessionId = start(bowlers);
+                if (sessionId == null && bowlers.stream().anyMatch(bowler -> bowler.gameId == null)) {
+                    pause(random, 10);
+                    continue;
+                }
+                Bowler bowler = inTurn(bowlers);
+                Bowler previous = null;
+                while (running && bowler != null) {
+                    pause(random, bowler == previous ? 12 : 25);
+                    displayedPath = sessionId != null ? "/api/sessions/" + sessionId
+                            : "/api/games/" + bowler.gameId + "/state";
+                    int pins = bowler.nextRoll(random);
+                    if (!roll(bowler, sessionId, pins)) {
+                        // the state of the game is unknown after an error, so the lane starts new games
+                        break;
+                    }
+                    bowler.game.roll(pins);
+                    if (bowler.game.over) {
+                        completedGames.increment();
+                    }
+                    previous = bowler;
+                    bowler = inTurn(bowlers);
+                }
+                displayedPath = null;
+                pause(random, 120);
+            }
+        }
+
+        /**
+         * Starts the games of the bowlers.
+         *
+         * @return the id of the session, if the lane plays a session.
+         */
+        private String start(List<Bowler> bowlers) {
+            if (client.equals("session")) {
+                StringBuilder json = new StringBuilder("{\"lane\":" + number + ",\"bowlers\":[");
+                for (Bowler bowler : bowlers) {
+                    json.append(bowler == bowlers.get(0) ? "" : ",").append('"').append(bowler.name).append('"');
+                }
+                String body = send("POST /api/sessions", post("/api/sessions", json.append("]}").toString()), 201);
+                Matcher sessionId = body == null ? null : Pattern.compile("\"sessionId\":\"([^\"]+)\"").matcher(body);
+                return sessionId != null && sessionId.find() ? sessionId.group(1) : null;
+            }
+            for (Bowler bowler : bowlers) {
+                if (client.equals("view")) {
+                    String body = send("GET /start", get("/start"), 200);
+                    Matcher gameId = body == null ? null : GAME_ID_INPUT.matcher(body);
+                    bowler.gameId = gameId != null && gameId.find() ? gameId.group(1) : null;
+                } else {
+                    String body = send("POST /api/games", post("/api/games", null), 201);
+                    Matcher gameId = body == null ? null : Pattern.compile("\"gameId\":\"([^\"]+)\"").matcher(body);
+                    bowler.gameId = gameId != null && gameId.find() ? gameId.group(1) : null;
+                }
+            }
+            return null;
+        }
+
+        private boolean roll(Bowler bowler, String sessionId, int pins) {
+            switch (client) {
+                case "view":
+                    String view = send("GET /score",
+                            get("/score?gameId=" + bowler.gameId + "&numberOfPins=" + pins), 200);
+                    return view != null && !rejected("GET /score", VIEW_ERROR.matcher(view).find());
+                case "batch":
+                    return batchSender.roll(bowler.gameId, pins);
+                case "session":
+                    return send("POST /api/sessions/rolls",
+                            post("/api/sessions/" + sessionId + "/rolls?numberOfPins=" + pins, null), 200) != null;
+                default:
+                    return send("POST /api/games/rolls",
+                            post("/api/games/" + bowler.gameId + "/rolls?numberOfPins=" + pins, null), 200) != null;
+            }
+        }
+
+        /**
+         * The display above the lane polls the game in turn with the version it shows.
+         */
+        void display() {
+            String shownPath = null;
+            String version = null;
+            while (running) {
+                try {
+                    Thread.sleep(displayPollMillis);
+                } catch (InterruptedException exception) {
+                    return;
+                }
+                String path = displayedPath;
+                if (path == null) {
+                    continue;
+                }
+                if (!path.equals(shownPath)) {
+                    shownPath = path;
+                    version = null;
+                }
+                HttpRequest.Builder request =
+                        HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT);
+                if (version != null) {
+                    request.header("If-None-Match", version);
+                }
+                RequestStats stats = requests.computeIfAbsent("GET display", key -> new RequestStats());
+                long started = System.nanoTime();
+                try {
+                    HttpResponse<Void> response = http.send(request.build(), HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() == 200 || response.statusCode() == 304) {
+                        stats.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - started), measuring);
+                        version = response.headers().firstValue("ETag").orElse(version);
+                    } else {
+                        stats.error(measuring);
+                    }
+                } catch (IOException exception) {
+                    stats.error(measuring);
+                } catch (InterruptedException exception) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the bowler in turn like on the lanes: the first bowler in the lowest frame, whose game is not over.
+     */
+    private static Bowler inTurn(List<Bowler> bowlers) {
+        Bowler inTurn = null;
+        for (Bowler bowler : bowlers) {
+            if (!bowler.game.over && (inTurn == null || bowler.game.frame < inTurn.game.frame)) {
+                inTurn = bowler;
+            }
+        }
+        return inTurn;
+    }
+
+    /**
+     * A bowler with the skill between 0 for a beginner and 1 for a professional. The skill sets the chances of a
+     * strike, of a good leave after the first ball and of a converted spare.
+     */
+    private static class Bowler {
+
+        private final String name;
+        private final double strikeChance;
+        private final double spareChance;
+        private final double meanLeave;
+        private final Frames game = new Frames();
+        private String gameId;
+
+        Bowler(String name, double skill) {
+            this.name = name;
+            this.strikeChance = 0.08 + 0.5 * skill;
+            this.spareChance = 0.2 + 0.65 * skill;
+            this.meanLeave = 1 + 2.5 * (1 - skill);
+        }
+
+        int nextRoll(Random random) {
+            int standing = game.standing;
+            if (standing == 10) {
+                if (random.nextDouble() < strikeChance) {
+                    return 10;
+                }
+                // the leave after the first ball, mostly a few pins and rarely a gutter ball
+                int leave = 1 + (int) (-Math.log(1 - random.nextDouble()) * (meanLeave - 1));
+                return 10 - Math.min(leave, 10);
+            }
+            double spareChance = standing == 1 ? Math.min(0.98, this.spareChance + 0.15) : this.spareChance;
+            return random.nextDouble() < spareChance ? standing : random.nextInt(standing);
+        }
+    }
+
+    /**
+     * The frame, the ball and the pins standing of a game, to roll only the possible numbers of pins.
+     */
+    private static class Frames {
+
+        private int frame = 1;
+        private int ball = 1;
+        private int standing = 10;
+        private boolean bonusBall;
+        private boolean over;
+
+        void roll(int pins) {
+            standing -= pins;
+            if (frame < 10) {
+                if (ball == 2 || standing == 0) {
+                    frame++;
+                    ball = 1;
+                    standing = 10;
+                } else {
+                    ball = 2;
+                }
+                return;
+            }
+            // the tenth frame has a third ball after a strike or a spare
+            bonusBall |= standing == 0;
+            if (ball == 3 || (ball == 2 && !bonusBall)) {
+                over = true;
+                return;
+            }
+            ball++;
+            if (standing == 0) {
+                standing = 10;
+            }
+        }
+    }
+
+    /**
+     * Sends the rolls of the 'batch' lanes together every 'soak.batch-millis', like the controller of a row of lanes.
+     */
+    private class BatchSender {
+
+        private final ConcurrentLinkedQueue<PendingRoll> pendingRolls = new ConcurrentLinkedQueue<>();
+
+        /**
+         * @return true if the roll was accepted.
+         */
+        boolean roll(String gameId, int pins) {
+            PendingRoll pendingRoll = new PendingRoll(gameId, pins);
+            pendingRolls.add(pendingRoll);
+            try {
+                return pendingRoll.accepted.get(REQUEST_TIMEOUT.toMillis() * 2, TimeUnit.MILLISECONDS);
+            } catch (Exception exception) {
+                return false;
+            }
+        }
+
+        void sendBatches() {
+            while (running) {
+                try {
+                    Thread.sleep(batchMillis);
+                } catch (InterruptedException exception) {
+                    return;
+                }
+                List<PendingRoll> batch = new ArrayList<>();
+                for (PendingRoll pendingRoll; (pendingRoll = pendingRolls.poll()) != null; ) {
+                    batch.add(pendingRoll);
+                }
+                if (batch.isEmpty()) {
+                    continue;
+                }
+                StringBuilder json = new StringBuilder("[");
+                for (PendingRoll pendingRoll : batch) {
+                    json.append(json.length() == 1 ? "" : ",").append("{\"gameId\":\"").append(pendingRoll.gameId)
+                            .append("\",\"numberOfPins\":").append(pendingRoll.pins).append('}');
+                }
+                String body = send("POST /api/rolls", post("/api/rolls", json.append(']').toString()), 200);
+                Matcher accepted = body == null ? null : ACCEPTED.matcher(body);
+                for (PendingRoll pendingRoll : batch) {
+                    boolean rollAccepted = accepted != null && accepted.find() && accepted.group(1).equals("true");
+                    pendingRoll.accepted.complete(body != null && !rejected("POST /api/rolls", !rollAccepted));
+                }
+            }
+            pendingRolls.forEach(pendingRoll -> pendingRoll.accepted.complete(false));
+        }
+    }
+
+    private static class PendingRoll {
+
+        private final String gameId;
+        private final int pins;
+        private final CompletableFuture<Boolean> accepted = new CompletableFuture<>();
+
+        PendingRoll(String gameId, int pins) {
+            this.gameId = gameId;
+            this.pins = pins;
+        }
+    }
+
+    /**
+     * Latencies and errors of one kind of request, of the current interval and of the run after the warmup.
+     */
+    private static class RequestStats {
+
+        private final Histogram measured = new Histogram();
+        private final LongAdder measuredErrors = new LongAdder();
+        private final LongAdder intervalErrors = new LongAdder();
+        private volatile Histogram interval = new Histogram();
+
+        void record(long micros, boolean measuring) {
+            interval.record(micros);
+            if (measuring) {
+                measured.record(micros);
+            }
+        }
+
+        void error(boolean measuring) {
+            intervalErrors.increment();
+            if (measuring) {
+                measuredErrors.increment();
+            }
+        }
+
+        Histogram finishInterval() {
+            Histogram finished = interval;
+            interval = new Histogram();
+            return finished;
+        }
+    }
+
+    /**
+     * Histogram of the latencies in microseconds with an error of less than 2%, without storing the samples of a
+     * soak of many hours: below 128 every value has its bucket, above every power of two is split into 64 buckets.
+     */
+    private static class Histogram {
+
+        private static final int SUB_BUCKETS = 64;
+        private static final int EXACT_VALUES = 128;
+
+        private final AtomicLongArray counts = new AtomicLongArray(EXACT_VALUES + 57 * SUB_BUCKETS);
+
+        void record(long micros) {
+            counts.incrementAndGet(index(Math.max(0, micros)));
+        }
+
+        void add(Histogram histogram) {
+            for (int index = 0; index < counts.length(); index++) {
+                counts.addAndGet(index, histogram.counts.get(index));
+            }
+        }
+
+        long count() {
+            long count = 0;
+            for (int index = 0; index < counts.length(); index++) {
+                count += counts.get(index);
+            }
+            return count;
+        }
+
+        /**
+         * @return the upper bound of the bucket of the percentile, or 0 without values.
+         */
+        long percentile(double percentile) {
+            long rank = (long) Math.ceil(percentile * count());
+            long count = 0;
+            for (int index = 0; index < counts.length(); index++) {
+                count += counts.get(index);
+                if (count >= Math.max(1, rank)) {
+                    return upperBound(index);
+                }
+            }
+            return 0;
+        }
+
+        private static int index(long value) {
+            if (value < EXACT_VALUES) {
+                return (int) value;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            int mantissa = (int) (value >>> (exponent - 6));
+            return EXACT_VALUES + (exponent - 7) * SUB_BUCKETS + mantissa - SUB_BUCKETS;
+        }
+
+        private static long upperBound(int index) {
+            if (index < EXACT_VALUES) {
+                return index;
+            }
+            int exponent = 7 + (index - EXACT_VALUES) / SUB_BUCKETS;
+            long mantissa = SUB_BUCKETS + (index - EXACT_VALUES) % SUB_BUCKETS;
+            return ((mantissa + 1) << (exponent - 6)) - 1;
+        }
+    }
+
+    /**
+     * Heap of the application from its Prometheus metrics. The lowest sample of an interval is the heap left after
+     * the collections; its growth over the run after the warmup shows a leak.
+     */
+    private class HeapSamples {
+
+        private long intervalFloor = Long.MAX_VALUE;
+        private long intervalMax;
+        private long liveData;
+        private long firstFloor = -1;
+        private long lastFloor = -1;
+        private long firstFloorMillis;
+        private long lastFloorMillis;
+        private boolean measuringFloor;
+
+        void sample() {
+            String metrics;
+            try {
+                // not recorded with the requests of the lanes
+                metrics = http.send(get("/actuator/prometheus"), HttpResponse.BodyHandlers.ofString()).body();
+            } catch (IOException exception) {
+                return;
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            long used = 0;
+            for (Matcher pool = HEAP_USED.matcher(metrics); pool.find(); ) {
+                used += (long) Double.parseDouble(pool.group(1));
+            }
+            intervalFloor = Math.min(intervalFloor, used);
+            intervalMax = Math.max(intervalMax, used);
+            Matcher live = LIVE_DATA.matcher(metrics);
+            if (live.find()) {
+                liveData = (long) Double.parseDouble(live.group(1));
+            }
+        }
+
+        void startMeasuring() {
+            measuringFloor = true;
+        }
+
+        Interval finishInterval() {
+            Interval interval =
+                    new Interval(intervalFloor == Long.MAX_VALUE ? 0 : intervalFloor, intervalMax, liveData);
+            if (measuringFloor && intervalFloor != Long.MAX_VALUE) {
+                if (firstFloor < 0) {
+                    firstFloor = intervalFloor;
+                    firstFloorMillis = System.currentTimeMillis();
+                }
+                lastFloor = intervalFloor;
+                lastFloorMillis = System.currentTimeMillis();
+            }
+            intervalFloor = Long.MAX_VALUE;
+            intervalMax = 0;
+            return interval;
+        }
+
+        long firstFloorMegabytes() {
+            return Math.max(0, firstFloor) >> 20;
+        }
+
+        long lastFloorMegabytes() {
+            return Math.max(0, lastFloor) >> 20;
+        }
+
+        long liveDataMegabytes() {
+            return liveData >> 20;
+        }
+
+        double floorGrowthPerHour() {
+            long millis = lastFloorMillis - firstFloorMillis;
+            return millis <= 0 ? 0 : (lastFloor - firstFloor) / 1048576.0 * TimeUnit.HOURS.toMillis(1) / millis;
+        }
+
+        private class Interval {
+
+            private final long floor;
+            private final long max;
+            private final long liveData;
+
+            Interval(long floor, long max, long liveData) {
+                this.floor = floor;
+                this.max = max;
+                this.liveData = liveData;
+            }
+
+            long floorMegabytes() {
+                return floor >> 20;
+            }
+
+            long maxMegabytes() {
+                return max >> 20;
+            }
+
+            long liveDataMegabytes() {
+                return liveData >> 20;
+            }
+        }
+    }
+}
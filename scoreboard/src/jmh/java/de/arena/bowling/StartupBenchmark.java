@@ -0,0 +1,187 @@
+package de.arena.bowling;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold start of the packaged application until its first successful roll on '/score', run by the 'startup' profile
+ * of the build after the package phase. It only uses the JDK, so the build runs it from its source file.
+ * <p>
+ * The application is started once with '-XX:ArchiveClassesAtExit' to create the class data sharing archive of the
+ * classes loaded until the first roll. Then every run starts a new JVM, without and with the archive, and measures
+ * the time from the start of the process until '/score' returns the view after a game was created on
+ * '/api/games'. The build fails if the median with the archive is above 'startup.max-millis'.
+ * <p>
+ * The options are system properties: 'startup.jar' the application jar with its dependencies in its manifest,
+ * 'startup.archive' the archive to create, 'startup.runs' the runs per variant, 'startup.max-millis' the limit of
+ * the median, 'startup.jvm-args' and 'startup.app-args' the options of the JVM and of the application.
+ */
+public class StartupBenchmark {
+
+    private static final long TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(2);
+    private static final long POLL_MILLIS = 20;
+
+    private final Path jar = Paths.get(System.getProperty("startup.jar"));
+    private final Path archive = Paths.get(System.getProperty("startup.archive"));
+    private final Path log = archive.resolveSibling("startup-runs.log");
+    private final int runs = Integer.getInteger("startup.runs", 5);
+    private final long maxMillis = Long.getLong("startup.max-millis", 10_000);
+    private final List<String> jvmArgs = split(System.getProperty("startup.jvm-args", ""));
+    private final List<String> appArgs = split(System.getProperty("startup.app-args", ""));
+
+    public static void main(String[] args) throws Exception {
+        new StartupBenchmark().run();
+    }
+
+    private void run() throws Exception {
+        Files.deleteIfExists(archive);
+        Files.deleteIfExists(log);
+        long trainingMillis = timeToFirstRoll("-XX:ArchiveClassesAtExit=" + archive);
+        if (!Files.exists(archive)) {
+            throw new IllegalStateException("No class data sharing archive was created, see " + log);
+        }
+        System.out.printf("Created the class data sharing archive %s (%d kB) in a run of %d ms%n",
+                archive, Files.size(archive) / 1024, trainingMillis);
+
+        long[] withoutArchive = new long[runs];
+        long[] withArchive = new long[runs];
+        for (int run = 0; run < runs; run++) {
+            withoutArchive[run] = timeToFirstRoll("-Xshare:auto");
+            withArchive[run] = timeToFirstRoll("-XX:SharedArchiveFile=" + archive);
+        }
+        long median = report("without the archive", withoutArchive);
+        long medianWithArchive = report("with the archive", withArchive);
+        if (medianWithArchive > median) {
+            System.out.println("The archive did not shorten the start, it may not match the classpath; see " + log);
+        }
+        if (medianWithArchive > maxMillis) {
+            System.err.printf("Time to the first roll regressed: the median of %d ms is above startup.max-millis"
+                    + " of %d ms%n", medianWithArchive, maxMillis);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Starts the application in a new JVM, creates a game and rolls in it until the roll succeeds, then stops the
+     * application gracefully, so a requested archive is written on exit.
+     *
+     * @return the milliseconds from the start of the process until the first successful roll.
+     */
+    private long timeToFirstRoll(String sharingOption) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.add(sharingOption);
+        command.addAll(jvmArgs);
+        command.add("-jar");
+        command.add(jar.toString());
+        command.addAll(appArgs);
+        command.add("--server.port=" + port);
+
+        long started = System.nanoTime();
+        Process application = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.appendTo(log.toFile()))
+                .start();
+        try {
+            String baseUrl = "http://localhost:" + port;
+            String gameId = null;
+            while (System.nanoTime() - started < TimeUnit.MILLISECONDS.toNanos(TIMEOUT_MILLIS)) {
+                if (!application.isAlive()) {
+                    throw new IllegalStateException("The application exited with " + application.exitValue()
+                            + ", see " + log);
+                }
+                if (gameId == null) {
+                    gameId = createGame(baseUrl);
+                }
+                if (gameId != null && roll(baseUrl, gameId)) {
+                    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+                }
+                Thread.sleep(POLL_MILLIS);
+            }
+            throw new IllegalStateException("No successful roll within " + TIMEOUT_MILLIS + " ms, see " + log);
+        } finally {
+            application.destroy();
+            if (!application.waitFor(30, TimeUnit.SECONDS)) {
+                application.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    /**
+     * @return the id of the created game, or null if the application does not accept requests yet.
+     */
+    private static String createGame(String baseUrl) {
+        try {
+            HttpURLConnection connection =
+                    (HttpURLConnection) URI.create(baseUrl + "/api/games").toURL().openConnection();
+            connection.setRequestMethod("POST");
+            try {
+                String location = connection.getResponseCode() == 201 ? connection.getHeaderField("Location") : null;
+                return location == null ? null : location.substring(location.lastIndexOf('/') + 1);
+            } finally {
+                connection.disconnect();
+            }
+        } catch (IOException notStarted) {
+            return null;
+        }
+    }
+
+    private static boolean roll(String baseUrl, String gameId) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) URI.create(baseUrl + "/score?numberOfPins=0&gameId="
+                    + gameId).toURL().openConnection();
+            try {
+                if (connection.getResponseCode() != 200) {
+                    return false;
+                }
+                byte[] buffer = new byte[8192];
+                try (InputStream response = connection.getInputStream()) {
+                    while (response.read(buffer) >= 0) {
+                        // the roll succeeded with the whole view
+                    }
+                }
+                return true;
+            } finally {
+                connection.disconnect();
+            }
+        } catch (IOException notStarted) {
+            return false;
+        }
+    }
+
+    private static long report(String variant, long[] millis) {
+        long[] sorted = millis.clone();
+        Arrays.sort(sorted);
+        long median = sorted[sorted.length / 2];
+        System.out.printf("Time to the first roll %s: median %d ms, min %d ms, max %d ms in %d runs%n",
+                variant, median, sorted[0], sorted[sorted.length - 1], sorted.length);
+        return median;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static List<String> split(String arguments) {
+        List<String> split = new ArrayList<>();
+        for (String argument : arguments.trim().split("\\s+")) {
+            if (!argument.isEmpty()) {
+                split.add(argument);
+            }
+        }
+        return split;
+    }
+}
@@ -0,0 +1,99 @@
+package de.arena.bowling.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.arena.bowling.domain.BenchmarkGames;
+import de.arena.bowling.domain.CompactScoreboard;
+import de.arena.bowling.domain.GameState;
+import de.arena.bowling.domain.SinglePlayerGame;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.support.StaticWebApplicationContext;
+import org.springframework.web.servlet.View;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+import org.thymeleaf.spring5.view.ThymeleafViewResolver;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering of a game in progress as the scoreboard page and as the compact JSON of the game API.
+ * The page is rendered by the Thymeleaf view, like in the application, with cached templates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RenderingBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ScoreboardFragmentCache fragmentCache = new ScoreboardFragmentCache(new ScoreboardFragmentProperties());
+
+    private View view;
+    private MockHttpServletRequest request;
+    private Map<String, Object> model;
+    private SinglePlayerGame game;
+
+    @Setup
+    public void setUp() throws Exception {
+        ClassLoaderTemplateResolver templateResolver = new ClassLoaderTemplateResolver();
+        templateResolver.setPrefix("templates/");
+        templateResolver.setSuffix(".html");
+        templateResolver.setCacheable(true);
+        SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(templateResolver);
+
+        MockServletContext servletContext = new MockServletContext();
+        StaticWebApplicationContext applicationContext = new StaticWebApplicationContext();
+        applicationContext.setServletContext(servletContext);
+        applicationContext.refresh();
+        servletContext.setAttribute(WebApplicationContext.ROOT_WEB_APPLICATION_CONTEXT_ATTRIBUTE, applicationContext);
+        ThymeleafViewResolver viewResolver = new ThymeleafViewResolver();
+        viewResolver.setTemplateEngine(templateEngine);
+        viewResolver.setApplicationContext(applicationContext);
+        view = viewResolver.resolveViewName("scoreboard", Locale.ENGLISH);
+        request = new MockHttpServletRequest(servletContext);
+
+        int[] rolls = BenchmarkGames.rolls(BenchmarkGames.RANDOM);
+        GameState state = new GameState();
+        for (int roll = 0; roll < rolls.length - 3; roll++) {
+            state.roll(rolls[roll]);
+        }
+        game = SinglePlayerGame.builder().gameId("gameId").state(state).scoreboard(state.toScoreboard()).build();
+        model = new HashMap<>();
+        model.put("game", game);
+    }
+
+    /**
+     * Renders the page as the controller does; the settled frames are taken from the fragment cache.
+     */
+    @Benchmark
+    public String html() throws Exception {
+        model.put("rows", fragmentCache.render(game));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        view.render(model, request, response);
+        return response.getContentAsString();
+    }
+
+    @Benchmark
+    public byte[] json() throws IOException {
+        return objectMapper.writeValueAsBytes(CompactScoreboard.of(game, true));
+    }
+}
@@ -0,0 +1,160 @@
+package de.arena.bowling.controller;
+
+import de.arena.bowling.ScoreboardApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test with 10,000 concurrent connections against the scoreboard view, with the request threads of Tomcat
+ * and with a virtual thread per request. Every invocation opens all the connections at once from virtual threads
+ * of the client and waits for all the responses; the client does not add platform threads.
+ * <p>
+ * The benchmark reports the time until the last response; the percentiles of the latency of the single requests
+ * and the peak number of platform threads of the JVM are printed when the trial ends.
+ * <p>
+ * The games are kept in the mapped-file store and the embedded MongoDB is left out with the 'cluster' profile, so
+ * the benchmark runs without MongoDB; the requests do not wait for a database then, only for the request threads.
+ * The client and the server hold a socket per connection in the same JVM, so the limit of open files has to be above
+ * twice the connections; fewer connections are set with eg. '-p connections=9000'.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class VirtualThreadBenchmark {
+
+    private static final int REQUEST_THREADS = 200;
+
+    @Param({"10000"})
+    private int connections;
+
+    @Param({"false", "true"})
+    private boolean virtualThreads;
+
+    private ConfigurableApplicationContext context;
+    private String gameUrl;
+    private long[] latencies;
+    private int latencyCount;
+
+    @Setup
+    public void setUp() throws IOException {
+        context = new SpringApplicationBuilder(ScoreboardApplication.class)
+                .run("--server.port=0",
+                        "--spring.profiles.active=cluster",
+                        "--spring.data.mongodb.auto-index-creation=false",
+                        "--scoreboard.store=mapped-file",
+                        "--scoreboard.mapped-file.path="
+                                + Files.createTempDirectory("virtual-thread-benchmark").resolve("games.slots"),
+                        "--scoreboard.virtual-threads.enabled=" + virtualThreads,
+                        "--server.tomcat.threads.max=" + REQUEST_THREADS,
+                        "--server.tomcat.max-connections=" + (connections + 100),
+                        "--server.tomcat.accept-count=" + connections,
+                        "--scoreboard.cache.maximum-size=1",
+                        "--scoreboard.statistics.rebuild-on-startup=false",
+                        "--logging.level.root=WARN");
+        String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+
+        HttpURLConnection connection = (HttpURLConnection) URI.create(baseUrl + "/api/games").toURL().openConnection();
+        connection.setRequestMethod("POST");
+        String location = connection.getHeaderField("Location");
+        connection.disconnect();
+        gameUrl = baseUrl + "/score?numberOfPins=0&gameId=" + location.substring(location.lastIndexOf('/') + 1);
+
+        latencies = new long[connections * 16];
+        ManagementFactory.getThreadMXBean().resetPeakThreadCount();
+    }
+
+    @TearDown
+    public void tearDown() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long[] sorted = Arrays.copyOf(latencies, latencyCount);
+        Arrays.sort(sorted);
+        System.out.printf("%nvirtualThreads=%s: %d requests, latency p50 %.1f ms, p99 %.1f ms, max %.1f ms, "
+                        + "peak platform threads %d%n", virtualThreads, sorted.length, percentile(sorted, 0.5),
+                percentile(sorted, 0.99), percentile(sorted, 1.0), threads.getPeakThreadCount());
+        context.close();
+    }
+
+    @Benchmark
+    public int concurrentConnections() throws Exception {
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Long>> responses = new ArrayList<>(connections);
+            for (int client = 0; client < connections; client++) {
+                responses.add(clients.submit(this::request));
+            }
+            for (Future<Long> response : responses) {
+                record(response.get());
+            }
+        }
+        return latencyCount;
+    }
+
+    /**
+     * Sends one request on a new connection, so all the clients hold their own connection at the same time.
+     *
+     * @return the latency of the request in nanoseconds.
+     */
+    private long request() throws IOException {
+        long started = System.nanoTime();
+        HttpURLConnection connection = (HttpURLConnection) URI.create(gameUrl).toURL().openConnection();
+        connection.setRequestProperty("Connection", "close");
+        try {
+            if (connection.getResponseCode() >= 400) {
+                throw new IOException("Request failed with status " + connection.getResponseCode());
+            }
+            byte[] buffer = new byte[8192];
+            try (InputStream response = connection.getInputStream()) {
+                while (response.read(buffer) >= 0) {
+                    // the latency includes the whole response
+                }
+            }
+            return System.nanoTime() - started;
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private void record(long latency) {
+        if (latencyCount == latencies.length) {
+            latencies = Arrays.copyOf(latencies, latencies.length * 2);
+        }
+        latencies[latencyCount++] = latency;
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = Math.min(sorted.length - 1, (int) Math.ceil(percentile * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+}
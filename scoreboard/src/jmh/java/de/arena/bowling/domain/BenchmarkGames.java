@@ -0,0 +1,67 @@
+package de.arena.bowling.domain;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * The games played in the benchmarks.
+ */
+public final class BenchmarkGames {
+
+    public static final String PERFECT = "PERFECT";
+    public static final String ALL_SPARES = "ALL_SPARES";
+    public static final String GUTTER = "GUTTER";
+    public static final String RANDOM = "RANDOM";
+
+    private BenchmarkGames() {
+    }
+
+    /**
+     * @param game one of the game names.
+     * @return the rolls of a complete game.
+     */
+    public static int[] rolls(String game) {
+        switch (game) {
+            case PERFECT:
+                return filled(12, 10);
+            case ALL_SPARES:
+                return filled(21, 5);
+            case GUTTER:
+                return filled(20, 0);
+            case RANDOM:
+                return random(new Random(42));
+            default:
+                throw new IllegalArgumentException("Unknown game: " + game);
+        }
+    }
+
+    /**
+     * @return the state after playing all the rolls.
+     */
+    public static GameState play(int[] rolls) {
+        GameState state = new GameState();
+        for (int numberOfPins : rolls) {
+            state.roll(numberOfPins);
+        }
+        return state;
+    }
+
+    private static int[] filled(int rollCount, int numberOfPins) {
+        int[] rolls = new int[rollCount];
+        Arrays.fill(rolls, numberOfPins);
+        return rolls;
+    }
+
+    private static int[] random(Random random) {
+        GameState state = new GameState();
+        while (!state.isGameOver()) {
+            state.roll(random.nextInt(state.maxPossibleNumberOfPins() + 1));
+        }
+        byte[] playedRolls = state.getRolls();
+        int[] rolls = new int[playedRolls.length];
+        for (int index = 0; index < rolls.length; index++) {
+            rolls[index] = playedRolls[index];
+        }
+        return rolls;
+    }
+}
@@ -0,0 +1,114 @@
+package de.arena.bowling.domain;
+
+import java.util.LinkedList;
+import java.util.Objects;
+
+/**
+ * The scoring and the display values as they were before the {@link FrameTable}, branching on the rolls of every frame.
+ * Kept only as the baseline of the benchmarks.
+ */
+final class BranchingScorer {
+
+    private static final int ALL_PINS = 10;
+    private static final int FINAL_FRAME_INDEX = 9;
+
+    private BranchingScorer() {
+    }
+
+    /**
+     * Creates the scoreboard view of the rolls with the branching single pass over the rolls.
+     */
+    static Scoreboard toScoreboard(byte[] rolls) {
+        Scoreboard scoreboard = Scoreboard.builder().frames(new LinkedList<>()).build();
+        LinkedList<Frame> frames = scoreboard.getFrames();
+        int rollCount = rolls.length;
+        int cumulativeScore = 0;
+        Integer totalScore = null;
+        int frameIndex = 0;
+        int start = 0;
+        for (; frameIndex <= FINAL_FRAME_INDEX && start < rollCount; frameIndex++) {
+            int firstRoll = rolls[start];
+            boolean strike = firstRoll == ALL_PINS;
+            boolean hasSecondRoll = start + 1 < rollCount && (!strike || frameIndex == FINAL_FRAME_INDEX);
+            int secondRoll = hasSecondRoll ? rolls[start + 1] : 0;
+            boolean spare = !strike && hasSecondRoll && firstRoll + secondRoll == ALL_PINS;
+
+            int bonus = -1;
+            if (strike || spare) {
+                int bonusRolls = strike && frameIndex < FINAL_FRAME_INDEX ? 2 : 1;
+                int bonusStart = strike && frameIndex < FINAL_FRAME_INDEX ? start + 1 : start + 2;
+                if (bonusStart + bonusRolls <= rollCount) {
+                    bonus = bonusRolls == 2 ? rolls[bonusStart] + rolls[bonusStart + 1] : rolls[bonusStart];
+                }
+            } else if (hasSecondRoll) {
+                bonus = 0;
+            }
+            if (bonus >= 0) {
+                cumulativeScore += firstRoll + secondRoll + bonus;
+                if (frameIndex == FINAL_FRAME_INDEX || !(strike || spare)) {
+                    totalScore = cumulativeScore;
+                }
+            }
+
+            Frame frame = new Frame(frameIndex + 1);
+            frames.addLast(frame);
+            frame.setFirstRoll(firstRoll);
+            frame.setSecondRoll(hasSecondRoll ? secondRoll : null);
+            frame.setBonus(bonus >= 0 ? bonus : null);
+            frame.setScore(bonus >= 0 ? cumulativeScore : null);
+            start += strike && frameIndex < FINAL_FRAME_INDEX ? 1 : 2;
+        }
+        scoreboard.setTotalScore(totalScore);
+        return scoreboard;
+    }
+
+    static String firstRollDisplayValue(Frame frame) {
+        if (isStrike(frame)) {
+            return "X";
+        } else if (Objects.equals(frame.getFirstRoll(), 0)) {
+            return "-";
+        } else {
+            return frame.getFirstRoll() == null ? "" : frame.getFirstRoll().toString();
+        }
+    }
+
+    static String secondRollDisplayValue(Frame frame) {
+        if (isSpare(frame)) {
+            return "/";
+        } else if (Objects.equals(frame.getSecondRoll(), 0)) {
+            return "-";
+        } else if (isFinalFrame(frame) && Objects.equals(frame.getSecondRoll(), 10)) {
+            return "X";
+        } else {
+            return frame.getSecondRoll() == null ? "" : frame.getSecondRoll().toString();
+        }
+    }
+
+    static String bonusDisplayValue(Frame frame) {
+        if (isFinalFrame(frame) && (isStrike(frame) || isSpare(frame))) {
+            if (Objects.equals(frame.getBonus(), 10)) {
+                return "X";
+            } else if (Objects.equals(frame.getBonus(), 0)) {
+                return "-";
+            } else {
+                return frame.getBonus() == null ? "" : frame.getBonus().toString();
+            }
+        }
+        return "";
+    }
+
+    private static boolean isStrike(Frame frame) {
+        return Objects.equals(frame.getFirstRoll(), 10);
+    }
+
+    private static boolean isSpare(Frame frame) {
+        if (!isStrike(frame) && frame.getFirstRoll() != null && frame.getSecondRoll() != null) {
+            return frame.getFirstRoll() + frame.getSecondRoll() == 10;
+        }
+        return false;
+    }
+
+    private static boolean isFinalFrame(Frame frame) {
+        return Objects.equals(frame.getFrameCount(), 10);
+    }
+}
@@ -0,0 +1,53 @@
+package de.arena.bowling.domain;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Display values of all the frames of a complete game, as generated for every rendering of the scoreboard.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FrameDisplayBenchmark {
+
+    @Param({BenchmarkGames.PERFECT, BenchmarkGames.ALL_SPARES, BenchmarkGames.GUTTER, BenchmarkGames.RANDOM})
+    private String game;
+
+    private SinglePlayerGame singlePlayerGame;
+
+    @Setup
+    public void setUp() {
+        GameState state = BenchmarkGames.play(BenchmarkGames.rolls(game));
+        singlePlayerGame = SinglePlayerGame.builder().gameId("gameId").state(state).scoreboard(state.toScoreboard()).build();
+    }
+
+    @Benchmark
+    public void displayValues(Blackhole blackhole) {
+        for (Frame frame : singlePlayerGame.getScoreboard().getFrames()) {
+            blackhole.consume(frame.firstRollDisplayValue());
+            blackhole.consume(frame.secondRollDisplayValue());
+            blackhole.consume(frame.bonusDisplayValue());
+        }
+    }
+
+    @Benchmark
+    public CompactScoreboard compactScoreboard() {
+        return CompactScoreboard.of(singlePlayerGame, true);
+    }
+}
@@ -0,0 +1,71 @@
+package de.arena.bowling.domain;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scoring and display values of complete games with the {@link FrameTable}, against the branching
+ * {@link BranchingScorer} it replaced.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FrameTableBenchmark {
+
+    @Param({BenchmarkGames.PERFECT, BenchmarkGames.ALL_SPARES, BenchmarkGames.GUTTER, BenchmarkGames.RANDOM})
+    private String game;
+
+    private GameState state;
+    private byte[] rolls;
+    private Scoreboard scoreboard;
+
+    @Setup
+    public void setUp() {
+        state = BenchmarkGames.play(BenchmarkGames.rolls(game));
+        rolls = state.getRolls();
+        scoreboard = state.toScoreboard();
+    }
+
+    @Benchmark
+    public Scoreboard scoreboard() {
+        return state.toScoreboard();
+    }
+
+    @Benchmark
+    public Scoreboard scoreboardBranching() {
+        return BranchingScorer.toScoreboard(rolls);
+    }
+
+    @Benchmark
+    public void displayValues(Blackhole blackhole) {
+        for (Frame frame : scoreboard.getFrames()) {
+            blackhole.consume(frame.firstRollDisplayValue());
+            blackhole.consume(frame.secondRollDisplayValue());
+            blackhole.consume(frame.bonusDisplayValue());
+        }
+    }
+
+    @Benchmark
+    public void displayValuesBranching(Blackhole blackhole) {
+        for (Frame frame : scoreboard.getFrames()) {
+            blackhole.consume(BranchingScorer.firstRollDisplayValue(frame));
+            blackhole.consume(BranchingScorer.secondRollDisplayValue(frame));
+            blackhole.consume(BranchingScorer.bonusDisplayValue(frame));
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package de.arena.bowling.service;
+
+import de.arena.bowling.domain.GameState;
+import de.arena.bowling.domain.GameStatus;
+import de.arena.bowling.domain.GameSummary;
+import de.arena.bowling.domain.SinglePlayerGame;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Throughput of the {@link GameImporter} in games per second: reading, parsing and scoring the lines on all the
+ * cores. The games are passed to a store which drops them, so the numbers are the upper limit without MongoDB.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ImportBenchmark {
+
+    private static final int GAMES = 100_000;
+
+    @Param({"csv", "ndjson"})
+    private String format;
+
+    private String lines;
+    private GameImporter gameImporter;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        StringBuilder file = new StringBuilder();
+        for (int game = 0; game < GAMES; game++) {
+            GameState state = new GameState();
+            while (!state.isGameOver()) {
+                state.roll(random.nextInt(state.maxPossibleNumberOfPins() + 1));
+            }
+            if ("csv".equals(format)) {
+                file.append("game").append(game);
+                for (byte numberOfPins : state.getRolls()) {
+                    file.append(',').append(numberOfPins);
+                }
+            } else {
+                file.append("{\"gameId\":\"game").append(game).append("\",\"rolls\":[");
+                for (int roll = 0; roll < state.getRollCount(); roll++) {
+                    file.append(roll == 0 ? "" : ",").append(state.getRoll(roll));
+                }
+                file.append("]}");
+            }
+            file.append('\n');
+        }
+        lines = file.toString();
+        gameImporter = new GameImporter(new DroppingGameStore(), new GameImportProperties());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GAMES)
+    public GameImportResult importGames() throws IOException, InterruptedException {
+        return gameImporter.importLines(new BufferedReader(new StringReader(lines)), "ndjson".equals(format));
+    }
+
+    private static class DroppingGameStore implements GameStore {
+        @Override
+        public SinglePlayerGame create(SinglePlayerGame game) {
+            return game;
+        }
+
+        @Override
+        public Optional<SinglePlayerGame> findById(String gameId) {
+            return Optional.empty();
+        }
+
+        @Override
+        public List<SinglePlayerGame> saveAll(List<SinglePlayerGame> games) {
+            return games;
+        }
+
+        @Override
+        public void insertAll(List<SinglePlayerGame> games) {
+        }
+
+        @Override
+        public List<GameSummary> findSummaries(GameStatus status, int page, int size) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public Stream<SinglePlayerGame> streamCompleted() {
+            return Stream.empty();
+        }
+    }
+}
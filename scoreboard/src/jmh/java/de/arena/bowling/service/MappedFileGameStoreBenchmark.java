@@ -0,0 +1,96 @@
+package de.arena.bowling.service;
+
+import de.arena.bowling.domain.GameState;
+import de.arena.bowling.domain.SinglePlayerGame;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persistence of a single roll with the {@link MappedFileGameStore}, to be compared with the write of the whole game
+ * document in the {@link ServiceBenchmark}. The store is opened on a temporary file without the application.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappedFileGameStoreBenchmark {
+
+    /**
+     * Number of stored games; the rolls go round robin into all of them.
+     */
+    private static final int GAMES = 100_000;
+
+    @Param({"false", "true"})
+    private boolean syncWrites;
+
+    private Path directory;
+    private MappedFileGameStore gameStore;
+    private SinglePlayerGame[] games;
+    private int nextGame;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("scoreboard-store");
+        MappedFileStoreProperties properties = new MappedFileStoreProperties();
+        properties.setPath(directory.resolve("games.slots").toString());
+        properties.setSyncWrites(syncWrites);
+        gameStore = new MappedFileGameStore(properties);
+        gameStore.open();
+        games = new SinglePlayerGame[GAMES];
+        for (int game = 0; game < GAMES; game++) {
+            games[game] = gameStore.create(SinglePlayerGame.builder().state(new GameState()).build());
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        gameStore.close();
+        Files.delete(directory.resolve("games.slots"));
+        Files.delete(directory);
+    }
+
+    /**
+     * Rolls a pin in the next game and saves it; a completed game is started again without another slot.
+     */
+    @Benchmark
+    public List<SinglePlayerGame> saveRoll() {
+        SinglePlayerGame game = nextGame();
+        if (game.getState().isGameOver()) {
+            game.setState(new GameState());
+            game.setCompleted(null);
+        }
+        game.getState().roll(1);
+        return gameStore.saveAll(Collections.singletonList(game));
+    }
+
+    @Benchmark
+    public Optional<SinglePlayerGame> findById() {
+        return gameStore.findById(nextGame().getGameId());
+    }
+
+    private SinglePlayerGame nextGame() {
+        SinglePlayerGame game = games[nextGame];
+        nextGame = (nextGame + 1) % GAMES;
+        return game;
+    }
+}
@@ -0,0 +1,124 @@
+package de.arena.bowling.service;
+
+import de.arena.bowling.domain.BenchmarkGames;
+import de.arena.bowling.domain.GameState;
+import de.arena.bowling.domain.ScoreboardCodec;
+import de.arena.bowling.domain.SinglePlayerGame;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping of a complete game to a BSON document and back, with the default mapping of the frames and with the
+ * {@link BinaryScoreboardConverters}; and the {@link ScoreboardCodec} alone, as it is used for the export.
+ * The sizes of the BSON documents are printed when a game is set up.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScoreboardFormatBenchmark {
+
+    @Param({BenchmarkGames.PERFECT, BenchmarkGames.ALL_SPARES, BenchmarkGames.RANDOM})
+    private String game;
+
+    private MappingMongoConverter defaultConverter;
+    private MappingMongoConverter binaryConverter;
+
+    private GameState state;
+    private SinglePlayerGame singlePlayerGame;
+    private Document defaultDocument;
+    private Document binaryDocument;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() {
+        defaultConverter = converter(new MongoCustomConversions(Collections.emptyList()));
+        binaryConverter = converter(new BinaryScoreboardConverters().customConversions());
+
+        state = BenchmarkGames.play(BenchmarkGames.rolls(game));
+        singlePlayerGame = SinglePlayerGame.builder()
+                .gameId(new ObjectId().toHexString())
+                .scoreboard(state.toScoreboard())
+                .build();
+        defaultDocument = write(defaultConverter);
+        binaryDocument = write(binaryConverter);
+        encoded = ScoreboardCodec.encode(state);
+        System.out.printf("%n%s: default mapping %d bytes, binary format %d bytes, codec %d bytes%n", game,
+                sizeOf(defaultDocument), sizeOf(binaryDocument), encoded.length);
+    }
+
+    @Benchmark
+    public Document writeDefault() {
+        return write(defaultConverter);
+    }
+
+    @Benchmark
+    public Document writeBinary() {
+        return write(binaryConverter);
+    }
+
+    @Benchmark
+    public SinglePlayerGame readDefault() {
+        return defaultConverter.read(SinglePlayerGame.class, defaultDocument);
+    }
+
+    @Benchmark
+    public SinglePlayerGame readBinary() {
+        return binaryConverter.read(SinglePlayerGame.class, binaryDocument);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return ScoreboardCodec.encode(state);
+    }
+
+    @Benchmark
+    public GameState decode() {
+        return ScoreboardCodec.decode(encoded);
+    }
+
+    private Document write(MappingMongoConverter converter) {
+        Document document = new Document();
+        converter.write(singlePlayerGame, document);
+        return document;
+    }
+
+    /**
+     * Creates a converter like the one of the application; the simple types of the conversions keep the java.time
+     * fields from being mapped as entities.
+     */
+    private static MappingMongoConverter converter(MongoCustomConversions conversions) {
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return converter;
+    }
+
+    private static int sizeOf(Document document) {
+        return new RawBsonDocument(document, new DocumentCodec()).getByteBuffer().remaining();
+    }
+}
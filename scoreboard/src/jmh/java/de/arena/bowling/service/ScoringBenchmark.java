@@ -0,0 +1,91 @@
+package de.arena.bowling.service;
+
+import de.arena.bowling.domain.BenchmarkGames;
+import de.arena.bowling.domain.GameState;
+import de.arena.bowling.domain.GameStatus;
+import de.arena.bowling.domain.Scoreboard;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.LinkedList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scoring of single rolls and of complete games, with the original full-board algorithm as the baseline.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScoringBenchmark {
+
+    @Param({BenchmarkGames.PERFECT, BenchmarkGames.ALL_SPARES, BenchmarkGames.GUTTER, BenchmarkGames.RANDOM})
+    private String game;
+
+    private final LegacyScoreCalculator legacyCalculator = new LegacyScoreCalculator();
+
+    private int[] rolls;
+
+    /**
+     * The state in front of the last roll of the game.
+     */
+    private GameState stateBeforeLastRoll;
+
+    @Setup
+    public void setUp() {
+        rolls = BenchmarkGames.rolls(game);
+        stateBeforeLastRoll = new GameState();
+        for (int roll = 0; roll < rolls.length - 1; roll++) {
+            stateBeforeLastRoll.roll(rolls[roll]);
+        }
+    }
+
+    /**
+     * Validates and scores one roll on the compact state; includes copying the 21 bytes of the state.
+     */
+    @Benchmark
+    public GameState roll() {
+        GameState state = stateBeforeLastRoll.copy();
+        if (state.maxPossibleNumberOfPins() >= rolls[rolls.length - 1]) {
+            state.roll(rolls[rolls.length - 1]);
+        }
+        return state;
+    }
+
+    /**
+     * Plays the whole game as the service does: every roll is scored and written into the scoreboard view.
+     */
+    @Benchmark
+    public Scoreboard fullGame() {
+        GameState state = new GameState();
+        Scoreboard scoreboard = state.toScoreboard();
+        for (int numberOfPins : rolls) {
+            state.roll(numberOfPins);
+            state.refresh(scoreboard);
+        }
+        return scoreboard;
+    }
+
+    /**
+     * Plays the whole game with the original algorithm, which rescans all the frames on every roll.
+     */
+    @Benchmark
+    public Scoreboard fullGameLegacy() {
+        Scoreboard scoreboard = Scoreboard.builder().frames(new LinkedList<>()).status(GameStatus.IN_PROGRESS).build();
+        for (int numberOfPins : rolls) {
+            legacyCalculator.roll(scoreboard, numberOfPins);
+        }
+        return scoreboard;
+    }
+}
@@ -0,0 +1,135 @@
+package de.arena.bowling.service;
+
+import de.arena.bowling.ScoreboardApplication;
+import de.arena.bowling.domain.BenchmarkGames;
+import de.arena.bowling.domain.LaneSession;
+import de.arena.bowling.domain.SinglePlayerGame;
+import de.arena.bowling.exception.GenericScoreboardException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end calls of the {@link ScoreboardService} and the {@link LaneSessionService} against the embedded MongoDB
+ * of the application.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmark {
+
+    /**
+     * Number of bowlers sharing a lane; the lane session is compared with as many single player games.
+     */
+    private static final int BOWLERS = 4;
+
+    @Param({BenchmarkGames.PERFECT, BenchmarkGames.RANDOM})
+    private String game;
+
+    private ConfigurableApplicationContext context;
+    private ScoreboardService scoreboardService;
+    private GameStore gameStore;
+    private LaneSessionService laneSessionService;
+
+    private int[] rolls;
+    private String completedGameId;
+    private String[] completedGameIds;
+    private String completedSessionId;
+
+    @Setup
+    public void setUp() throws GenericScoreboardException {
+        context = new SpringApplicationBuilder(ScoreboardApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--logging.level.root=WARN");
+        scoreboardService = context.getBean(ScoreboardService.class);
+        gameStore = context.getBean(GameStore.class);
+        rolls = BenchmarkGames.rolls(game);
+        completedGameId = playGame().getGameId();
+        completedGameIds = new String[BOWLERS];
+        for (int bowler = 0; bowler < BOWLERS; bowler++) {
+            completedGameIds[bowler] = playGame().getGameId();
+        }
+        laneSessionService = context.getBean(LaneSessionService.class);
+        completedSessionId = playLane().getSessionId();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Creates a game and plays it to the end; the completed game is written without waiting for the cache flush.
+     */
+    @Benchmark
+    public SinglePlayerGame playGame() throws GenericScoreboardException {
+        SinglePlayerGame newGame = scoreboardService.createNewGameScoreboard();
+        for (int numberOfPins : rolls) {
+            SinglePlayerGame game = scoreboardService.fetchScoreboard(newGame.getGameId())
+                    .orElseThrow(IllegalStateException::new);
+            scoreboardService.updateScore(game, numberOfPins);
+        }
+        return newGame;
+    }
+
+    /**
+     * Loads a completed game from the store, bypassing the cache of the active games.
+     */
+    @Benchmark
+    public Optional<SinglePlayerGame> loadGame() {
+        return gameStore.findById(completedGameId);
+    }
+
+    /**
+     * Plays the same game for every bowler of a lane session, taking turns frame by frame.
+     * Every roll reads and writes the one document of the lane.
+     */
+    @Benchmark
+    public LaneSession playLane() throws GenericScoreboardException {
+        LaneSession session = laneSessionService.createSession(1, Collections.nCopies(BOWLERS, "bowler"));
+        int[] nextRolls = new int[BOWLERS];
+        int currentBowlerIndex;
+        while ((currentBowlerIndex = session.currentBowlerIndex()) >= 0) {
+            session = laneSessionService.roll(session.getSessionId(), rolls[nextRolls[currentBowlerIndex]++]);
+        }
+        return session;
+    }
+
+    /**
+     * Loads the completed games of all the bowlers of a lane with one read.
+     */
+    @Benchmark
+    public Optional<LaneSession> loadLane() {
+        return laneSessionService.fetchSession(completedSessionId);
+    }
+
+    /**
+     * Loads the completed games of as many bowlers as on a lane, as single player games.
+     */
+    @Benchmark
+    public void loadGames(Blackhole blackhole) {
+        for (String gameId : completedGameIds) {
+            blackhole.consume(gameStore.findById(gameId));
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package de.arena.bowling;
+
+import org.springframework.beans.factory.BeanFactoryUtils;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+/**
+ * Creates the MongoDB repositories with their first use, if 'spring.main.lazy-initialization' is set.
+ * <p>
+ * Spring Data declares the repositories as eager unless its bootstrap mode is lazy, which can only be chosen for
+ * JPA, so the repositories would connect to MongoDB on startup even with the lazy initialization of the beans.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.main.lazy-initialization", havingValue = "true")
+public class LazyRepositoryConfiguration {
+
+    @Bean
+    static BeanFactoryPostProcessor lazyRepositories() {
+        return beanFactory -> {
+            for (String factoryBeanName : beanFactory.getBeanNamesForType(RepositoryFactoryBeanSupport.class, true, false)) {
+                beanFactory.getBeanDefinition(BeanFactoryUtils.transformedBeanName(factoryBeanName)).setLazyInit(true);
+            }
+        };
+    }
+}
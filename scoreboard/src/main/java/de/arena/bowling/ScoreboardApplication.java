@@ -3,12 +3,15 @@ package de.arena.bowling;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Starting point of the spring boot web application.
  * It loads the spring application context and initializes the web application.
+ * Scheduling is enabled for the periodic flush of the cached games.
  */
 @SpringBootApplication
+@EnableScheduling
 @Slf4j
 public class ScoreboardApplication {
 
@@ -0,0 +1,40 @@
+package de.arena.bowling;
+
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.concurrent.Executors;
+
+/**
+ * Runs the blocking work of the application on virtual threads, if 'scoreboard.virtual-threads.enabled' is set.
+ * <p>
+ * Every request gets its own virtual thread instead of a thread of the pool of the embedded Tomcat, so a request
+ * waiting for MongoDB only holds a carrier thread while it is running. The number of requests in progress is
+ * limited by 'server.tomcat.max-connections' then, not by 'server.tomcat.threads.max'.
+ * The scheduled flushes of the cached games and the archive job run on virtual threads as well; the sender of
+ * the server-sent updates is chosen by the {@link de.arena.bowling.controller.ScoreboardUpdateBroadcaster}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "scoreboard.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadConfiguration {
+
+    @Bean
+    TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadRequests() {
+        return protocolHandler -> protocolHandler.setExecutor(
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("http-virtual-", 0).factory()));
+    }
+
+    /**
+     * Replaces the scheduler of the auto-configuration, which runs the tasks on a platform thread.
+     */
+    @Bean
+    ThreadPoolTaskScheduler taskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setThreadFactory(Thread.ofVirtual().name("scheduling-virtual-", 0).factory());
+        return scheduler;
+    }
+}
@@ -0,0 +1,20 @@
+package de.arena.bowling;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration of the virtual threads, see {@link VirtualThreadConfiguration}.
+ */
+@Data
+@Component
+@ConfigurationProperties("scoreboard.virtual-threads")
+public class VirtualThreadProperties {
+
+    /**
+     * Runs the requests, the scheduled jobs and the sending of the server-sent updates on virtual threads,
+     * instead of the pools of platform threads.
+     */
+    private boolean enabled;
+}
@@ -0,0 +1,260 @@
+package de.arena.bowling.controller;
+
+import de.arena.bowling.domain.Roll;
+import de.arena.bowling.domain.RollResult;
+import de.arena.bowling.service.ClusterProperties;
+import de.arena.bowling.service.GamePartitioner;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.DefaultResponseErrorHandler;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Passes the requests of a game or a lane session on to the node owning it, as assigned by the
+ * {@link GamePartitioner}, so all the rolls of a game are applied to the state cached on one node.
+ * <p>
+ * The requests reading a game, including the scoreboard view and the subscriptions of the updates, are redirected
+ * to the owner, so the browsers and the displays continue with the owner. The rolls posted by the lane controllers
+ * are forwarded and the response of the owner is returned; the rolls rejected by the owner with an error status are
+ * returned as rejected and never applied by another node. A forwarded request is marked and always handled by the
+ * receiving node. If the connection to the owner fails, the request is rejected with 503 Service Unavailable while the
+ * owner is still in the ring, as the owner may still hold the state of the game; after the owner left the ring, the
+ * request is passed on to the new owner.
+ */
+@Component
+@Slf4j
+public class GameRouter implements WebMvcConfigurer, HandlerInterceptor {
+
+    static final String FORWARDED_BY = "X-Scoreboard-Forwarded-By";
+
+    private static final List<String> PARTITION_KEYS = Arrays.asList("gameId", "sessionId");
+    private static final List<String> REQUEST_HEADERS =
+            Arrays.asList(HttpHeaders.ACCEPT, HttpHeaders.CONTENT_TYPE, HttpHeaders.IF_NONE_MATCH);
+    private static final List<String> RESPONSE_HEADERS =
+            Arrays.asList(HttpHeaders.CONTENT_TYPE, HttpHeaders.ETAG, HttpHeaders.LOCATION);
+
+    private GamePartitioner partitioner;
+    private RestTemplate forwards;
+
+    @Autowired
+    public GameRouter(GamePartitioner partitioner, ClusterProperties properties) {
+        this.partitioner = partitioner;
+        this.forwards = new RestTemplateBuilder()
+                .setConnectTimeout(properties.getProbeTimeout())
+                .setReadTimeout(properties.getForwardTimeout())
+                .errorHandler(new DefaultResponseErrorHandler() {
+                    @Override
+                    public boolean hasError(ClientHttpResponse response) {
+                        // the errors of the owner are returned to the client as they are
+                        return false;
+                    }
+                })
+                .build();
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(this).addPathPatterns("/score", "/api/games/**", "/api/sessions/**");
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        if (!partitioner.isClustered() || request.getHeader(FORWARDED_BY) != null) {
+            return true;
+        }
+        String partitionKey = partitionKey(request);
+        String owner = partitionKey == null ? null : partitioner.ownerOf(partitionKey);
+        if (owner == null || owner.equals(partitioner.getSelf())) {
+            return true;
+        }
+        URI target = URI.create(owner + request.getRequestURI()
+                + (request.getQueryString() == null ? "" : "?" + request.getQueryString()));
+        if (HttpMethod.GET.matches(request.getMethod())) {
+            log.debug("Redirecting the request of {} to its owner {}", partitionKey, owner);
+            response.setStatus(HttpStatus.TEMPORARY_REDIRECT.value());
+            response.setHeader(HttpHeaders.LOCATION, target.toString());
+            return false;
+        }
+        if (forward(request, response, target)) {
+            return false;
+        }
+        if (partitioner.unreachable(owner)) {
+            return preHandle(request, response, handler);
+        }
+        response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "The node " + owner + " owning " + partitionKey
+                + " is not reachable");
+        return false;
+    }
+
+    /**
+     * Applies the rolls of the games owned by this node with the local service and forwards the rolls of the other
+     * games to their owners in one request per owner.
+     *
+     * @param forwardedBy the node, which forwarded the rolls, or null for the rolls of a client.
+     * @return the results in the order of the rolls.
+     */
+    public List<RollResult> route(List<Roll> rolls, String forwardedBy,
+                                  Function<List<Roll>, List<RollResult>> localRolls) {
+        if (!partitioner.isClustered() || forwardedBy != null) {
+            return localRolls.apply(rolls);
+        }
+        Map<String, List<Integer>> indexesByOwner = new LinkedHashMap<>();
+        for (int index = 0; index < rolls.size(); index++) {
+            String owner = partitioner.ownerOf(rolls.get(index).getGameId());
+            indexesByOwner.computeIfAbsent(owner, node -> new ArrayList<>()).add(index);
+        }
+        RollResult[] results = new RollResult[rolls.size()];
+        indexesByOwner.forEach((owner, indexes) -> {
+            List<Roll> ownedRolls = new ArrayList<>(indexes.size());
+            indexes.forEach(index -> ownedRolls.add(rolls.get(index)));
+            List<RollResult> ownedResults = owner.equals(partitioner.getSelf())
+                    ? localRolls.apply(ownedRolls) : forward(owner, ownedRolls);
+            if (ownedResults == null) {
+                ownedResults = partitioner.unreachable(owner) ? route(ownedRolls, null, localRolls)
+                        : rejected(ownedRolls, "The node " + owner + " owning the game is not reachable");
+            }
+            for (int position = 0; position < indexes.size(); position++) {
+                results[indexes.get(position)] = ownedResults.get(position);
+            }
+        });
+        return Arrays.asList(results);
+    }
+
+    /**
+     * @return the results of the owner, or null if the owner is not reachable.
+     */
+    private List<RollResult> forward(String owner, List<Roll> rolls) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(FORWARDED_BY, partitioner.getSelf());
+        ResponseEntity<List<RollResult>> response;
+        try {
+            response = forwards.exchange(URI.create(owner + "/api/rolls"),
+                    HttpMethod.POST, new HttpEntity<>(rolls, headers), new ParameterizedTypeReference<List<RollResult>>() {
+                    });
+        } catch (ResourceAccessException exception) {
+            notConnected(exception);
+            return null;
+        } catch (RestClientException exception) {
+            // the error of the owner is not a list of results
+            log.warn("Node {} failed {} forwarded rolls: {}", owner, rolls.size(), exception.getMessage());
+            return rejected(rolls, "The node " + owner + " owning the game failed to apply the roll");
+        }
+        if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
+            return response.getBody();
+        }
+        log.warn("Node {} rejected {} forwarded rolls with status {}", owner, rolls.size(),
+                response.getStatusCodeValue());
+        return rejected(rolls, "The node " + owner + " owning the game rejected the roll with status "
+                + response.getStatusCodeValue());
+    }
+
+    /**
+     * @return the rejected results of the rolls, which were not applied by the owner of their game.
+     */
+    private static List<RollResult> rejected(List<Roll> rolls, String errorMessage) {
+        List<RollResult> results = new ArrayList<>(rolls.size());
+        for (Roll roll : rolls) {
+            results.add(RollResult.builder()
+                    .gameId(roll.getGameId())
+                    .numberOfPins(roll.getNumberOfPins())
+                    .errorMessage(errorMessage)
+                    .build());
+        }
+        return results;
+    }
+
+    /**
+     * Forwards the request to the owner and copies its response.
+     *
+     * @return false if the owner is not reachable.
+     */
+    private boolean forward(HttpServletRequest request, HttpServletResponse response, URI target)
+            throws IOException {
+        HttpHeaders headers = new HttpHeaders();
+        for (String header : REQUEST_HEADERS) {
+            if (request.getHeader(header) != null) {
+                headers.set(header, request.getHeader(header));
+            }
+        }
+        headers.set(FORWARDED_BY, partitioner.getSelf());
+        byte[] body = StreamUtils.copyToByteArray(request.getInputStream());
+        ResponseEntity<byte[]> ownerResponse;
+        try {
+            ownerResponse = forwards.exchange(target, HttpMethod.valueOf(request.getMethod()),
+                    new HttpEntity<>(body, headers), byte[].class);
+        } catch (ResourceAccessException exception) {
+            notConnected(exception);
+            return false;
+        }
+        response.setStatus(ownerResponse.getStatusCodeValue());
+        for (String header : RESPONSE_HEADERS) {
+            String value = ownerResponse.getHeaders().getFirst(header);
+            if (value != null) {
+                response.setHeader(header, value);
+            }
+        }
+        if (ownerResponse.getBody() != null) {
+            response.getOutputStream().write(ownerResponse.getBody());
+        }
+        return true;
+    }
+
+    /**
+     * Lets the caller handle a request, which did not reach the owner.
+     *
+     * @throws ResourceAccessException if the owner did not respond in time, as it may have handled the request.
+     */
+    private static void notConnected(ResourceAccessException exception) {
+        if (!(exception.getCause() instanceof ConnectException)) {
+            throw exception;
+        }
+    }
+
+    /**
+     * @return the id of the game or the lane session in the path or the parameters, or null if there is none.
+     */
+    @SuppressWarnings("unchecked")
+    private static String partitionKey(HttpServletRequest request) {
+        Map<String, String> pathVariables =
+                (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        for (String key : PARTITION_KEYS) {
+            String value = pathVariables == null ? null : pathVariables.get(key);
+            if (value == null && HttpMethod.GET.matches(request.getMethod())) {
+                value = request.getParameter(key);
+            }
+            if (value != null && !value.isEmpty()) {
+                return value;
+            }
+        }
+        return null;
+    }
+}
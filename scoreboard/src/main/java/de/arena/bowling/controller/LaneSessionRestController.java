@@ -0,0 +1,99 @@
+package de.arena.bowling.controller;
+
+import de.arena.bowling.domain.CompactLaneSession;
+import de.arena.bowling.domain.LaneSession;
+import de.arena.bowling.domain.NewLaneSession;
+import de.arena.bowling.exception.GameNotFoundException;
+import de.arena.bowling.exception.GenericScoreboardException;
+import de.arena.bowling.service.LaneSessionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+import java.net.URI;
+
+/**
+ * JSON API of the lane sessions, where several bowlers share a lane and take turns frame by frame.
+ * The scoreboards of all the bowlers on the lane are fetched and updated with one request each.
+ */
+@RestController
+@RequestMapping("api")
+@Validated
+@Slf4j
+public class LaneSessionRestController {
+
+    private LaneSessionService laneSessionService;
+
+    @Autowired
+    public LaneSessionRestController(LaneSessionService laneSessionService) {
+        this.laneSessionService = laneSessionService;
+    }
+
+    /**
+     * Starts a new session on a lane.
+     *
+     * @return the new session with the location of the session in the header.
+     */
+    @PostMapping("sessions")
+    public ResponseEntity<CompactLaneSession> createSession(@RequestBody @Valid NewLaneSession newSession) {
+        log.info("Initializing a new session on lane {}.", newSession.getLane());
+        LaneSession session = laneSessionService.createSession(newSession.getLane(), newSession.getBowlers());
+        return ResponseEntity.created(URI.create("/api/sessions/" + session.getSessionId()))
+                .eTag(eTag(session))
+                .body(CompactLaneSession.of(session));
+    }
+
+    /**
+     * Fetches the scoreboards of all the bowlers in the session.
+     * The response is empty with status 304 if the session is not changed since the version in 'If-None-Match'.
+     *
+     * @throws GameNotFoundException if no session is found with the specified session id.
+     */
+    @GetMapping("sessions/{sessionId}")
+    public ResponseEntity<CompactLaneSession> fetchSession(@PathVariable String sessionId, WebRequest request)
+            throws GameNotFoundException {
+        LaneSession session = laneSessionService.fetchSession(sessionId)
+                .orElseThrow(() -> {
+                    log.error("Could not find session with id {}", sessionId);
+                    return new GameNotFoundException(sessionId);
+                });
+        String eTag = eTag(session);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(CompactLaneSession.of(session));
+    }
+
+    /**
+     * Updates the scoreboard of the bowler in turn with the number of pins hit.
+     *
+     * @throws GameNotFoundException      if no session is found with the specified session id.
+     * @throws GenericScoreboardException if the number of pins is not possible or all the games are over.
+     */
+    @PostMapping("sessions/{sessionId}/rolls")
+    public ResponseEntity<CompactLaneSession> roll(@PathVariable String sessionId,
+                                                   @RequestParam @NotNull Integer numberOfPins)
+            throws GenericScoreboardException {
+        log.info("Updating scoreboard of session {}", sessionId);
+        LaneSession session = laneSessionService.roll(sessionId, numberOfPins);
+        return ResponseEntity.ok().eTag(eTag(session)).body(CompactLaneSession.of(session));
+    }
+
+    /**
+     * The number of rolls identifies the version of a session, as every change adds a roll.
+     */
+    private String eTag(LaneSession session) {
+        return "\"" + session.getRollCount() + "\"";
+    }
+}
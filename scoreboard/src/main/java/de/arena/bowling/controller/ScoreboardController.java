@@ -5,6 +5,7 @@ import de.arena.bowling.domain.Scoreboard;
 import de.arena.bowling.domain.SinglePlayerGame;
 import de.arena.bowling.exception.GameNotFoundException;
 import de.arena.bowling.exception.GenericScoreboardException;
+import de.arena.bowling.service.ScoreboardMetrics;
 import de.arena.bowling.service.ScoreboardService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -26,10 +27,15 @@ import javax.validation.constraints.NotNull;
 public class ScoreboardController {
 
     private ScoreboardService scoreboardService;
+    private ScoreboardFragmentCache fragmentCache;
+    private ScoreboardMetrics metrics;
 
     @Autowired
-    public ScoreboardController(ScoreboardService scoreboardService) {
+    public ScoreboardController(ScoreboardService scoreboardService, ScoreboardFragmentCache fragmentCache,
+                                ScoreboardMetrics metrics) {
         this.scoreboardService = scoreboardService;
+        this.fragmentCache = fragmentCache;
+        this.metrics = metrics;
     }
 
     /**
@@ -49,7 +55,7 @@ public class ScoreboardController {
         log.info("Initializing a new game scoreboard.");
         SinglePlayerGame newGame = scoreboardService.createNewGameScoreboard();
         model.addAttribute("game", newGame);
-        model.addAttribute("frames", newGame.getScoreboard().getFrames());
+        model.addAttribute("rows", fragmentCache.render(newGame));
         return "scoreboard";
     }
 
@@ -73,10 +79,11 @@ public class ScoreboardController {
         try {
             scoreboardService.updateScore(game, numberOfPins);
         } catch (GenericScoreboardException exception) {
+            metrics.validationFailed(exception);
             model.addAttribute("errorMessage", exception.getMessage());
         }
         model.addAttribute("game", game);
-        model.addAttribute("frames", game.getScoreboard().getFrames());
+        model.addAttribute("rows", fragmentCache.render(game));
         if (GameStatus.GAME_OVER == game.getScoreboard().getStatus()) {
             model.addAttribute("gameStatus", getGameStatusMessage(game.getScoreboard()));
         }
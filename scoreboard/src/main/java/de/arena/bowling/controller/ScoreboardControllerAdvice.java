@@ -1,22 +1,35 @@
 package de.arena.bowling.controller;
 
+import de.arena.bowling.exception.GenericScoreboardException;
+import de.arena.bowling.service.ScoreboardMetrics;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.ui.Model;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
 import javax.validation.ConstraintViolationException;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
 /**
  * Methods to handle the exceptions thrown from the scoreboard application.
  * Only the 'message' from the exceptions are extracted and passed to the error view.
+ * The rejected requests are counted by the type of the exception.
  */
 @ControllerAdvice
 @Slf4j
 public class ScoreboardControllerAdvice {
 
+    private ScoreboardMetrics metrics;
+
+    @Autowired
+    public ScoreboardControllerAdvice(ScoreboardMetrics metrics) {
+        this.metrics = metrics;
+    }
+
     /**
      * Handles all exceptions without specific exception handlers defined.
      * Extracts the exception message from all exceptions from the application.
@@ -27,6 +40,9 @@ public class ScoreboardControllerAdvice {
     @ExceptionHandler(Exception.class)
     public String handleException(Exception exception, Model model) {
         log.error("", exception);
+        if (exception instanceof GenericScoreboardException) {
+            metrics.validationFailed(exception);
+        }
         model.addAttribute("errorMessage", exception.getMessage());
         return "error";
     }
@@ -40,6 +56,7 @@ public class ScoreboardControllerAdvice {
     @ExceptionHandler(ConstraintViolationException.class)
     public String handleConstraintViolationException(ConstraintViolationException exception, Model model) {
         log.error("", exception);
+        metrics.validationFailed(exception);
         List<String> violations = exception.getConstraintViolations()
                 .stream()
                 .map(violation -> violation.getPropertyPath().toString() + " : " + violation.getMessage())
@@ -48,5 +65,18 @@ public class ScoreboardControllerAdvice {
         return "error";
     }
 
-
+    /**
+     * Handles the missing request parameters and the empty ones, which can not be converted to a value.
+     * The parameter names are passed to the "error" view, the same as the invalid fields.
+     *
+     * @return the view name "error" to display the errors.
+     */
+    @ExceptionHandler(MissingServletRequestParameterException.class)
+    public String handleMissingParameterException(MissingServletRequestParameterException exception, Model model) {
+        log.error("", exception);
+        metrics.validationFailed(exception);
+        model.addAttribute("errorMessages",
+                Collections.singletonList(exception.getParameterName() + " : must not be empty"));
+        return "error";
+    }
 }
@@ -0,0 +1,200 @@
+package de.arena.bowling.controller;
+
+import de.arena.bowling.domain.Frame;
+import de.arena.bowling.domain.GameStatus;
+import de.arena.bowling.domain.SinglePlayerGame;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cache of the rendered table cells of the settled frames of the games, for the scoreboard view.
+ * <p>
+ * A frame with a score never changes again, as the rolls of a game are only appended. Its cells are rendered once
+ * and kept by game id and frame number; only the frames without a score are rendered for every view of the game.
+ * The cells hold only roll symbols and numbers, which need no escaping.
+ * <p>
+ * The games are kept in the order of their last view up to a maximum number. A completed game is evicted, once
+ * it was not viewed for a while; it will not get new frames, and it is rendered again if it is viewed later.
+ * <p>
+ * The counters of the cache are published as 'scoreboard.fragments.*'.
+ */
+@Component
+@Slf4j
+public class ScoreboardFragmentCache implements MeterBinder {
+
+    private static final int FRAMES = 10;
+    private static final String EMPTY_ROLL_CELL = "<td></td>";
+
+    private final ScoreboardFragmentProperties properties;
+
+    private final LinkedHashMap<String, GameFragments> games = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long cachedFrameCount;
+    private long renderedFrameCount;
+    private long evictionCount;
+
+    @Autowired
+    public ScoreboardFragmentCache(ScoreboardFragmentProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Renders the cells of all the frames of the game, reusing the cached cells of the settled frames.
+     */
+    public ScoreboardRows render(SinglePlayerGame game) {
+        GameFragments fragments = fragmentsOf(game.getGameId());
+        List<Frame> frames = game.getScoreboard().getFrames();
+        StringBuilder rollCells = new StringBuilder(512);
+        StringBuilder scoreCells = new StringBuilder(256);
+        int cachedFrames = 0;
+        synchronized (fragments) {
+            fragments.lastView = System.currentTimeMillis();
+            fragments.gameOver = GameStatus.GAME_OVER == game.getScoreboard().getStatus();
+            for (int index = 0; index < FRAMES; index++) {
+                if (index < fragments.settledFrames) {
+                    rollCells.append(fragments.rollCells[index]);
+                    scoreCells.append(fragments.scoreCells[index]);
+                    cachedFrames++;
+                    continue;
+                }
+                Frame frame = frames != null && index < frames.size() ? frames.get(index) : null;
+                String frameRollCells = rollCells(index, frame);
+                String frameScoreCell = scoreCell(index, frame);
+                // the frames are settled in order, as the score of a frame includes the scores in front of it
+                if (frame != null && frame.getScore() != null && index == fragments.settledFrames) {
+                    fragments.rollCells[index] = frameRollCells;
+                    fragments.scoreCells[index] = frameScoreCell;
+                    fragments.settledFrames++;
+                }
+                rollCells.append(frameRollCells);
+                scoreCells.append(frameScoreCell);
+            }
+        }
+        synchronized (games) {
+            cachedFrameCount += cachedFrames;
+            renderedFrameCount += FRAMES - cachedFrames;
+        }
+        return new ScoreboardRows(rollCells.toString(), scoreCells.toString());
+    }
+
+    /**
+     * Evicts the completed games, which were not viewed within the time to live.
+     */
+    @Scheduled(fixedDelayString = "${scoreboard.fragments.eviction-interval-millis:60000}")
+    public void evictCompletedGames() {
+        long expiry = System.currentTimeMillis() - properties.getCompletedGameTimeToLive().toMillis();
+        int evictedGames = 0;
+        synchronized (games) {
+            Iterator<GameFragments> iterator = games.values().iterator();
+            while (iterator.hasNext()) {
+                GameFragments fragments = iterator.next();
+                synchronized (fragments) {
+                    if (fragments.gameOver && fragments.lastView < expiry) {
+                        iterator.remove();
+                        evictedGames++;
+                    }
+                }
+            }
+            evictionCount += evictedGames;
+        }
+        if (evictedGames > 0) {
+            log.debug("Evicted the fragments of {} completed games", evictedGames);
+        }
+    }
+
+    public int size() {
+        synchronized (games) {
+            return games.size();
+        }
+    }
+
+    /**
+     * @return number of frames taken from the cache instead of being rendered.
+     */
+    public long getCachedFrameCount() {
+        synchronized (games) {
+            return cachedFrameCount;
+        }
+    }
+
+    public long getRenderedFrameCount() {
+        synchronized (games) {
+            return renderedFrameCount;
+        }
+    }
+
+    public long getEvictionCount() {
+        synchronized (games) {
+            return evictionCount;
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("scoreboard.fragments.frames", this, ScoreboardFragmentCache::getCachedFrameCount)
+                .tag("result", "cached")
+                .register(registry);
+        FunctionCounter.builder("scoreboard.fragments.frames", this, ScoreboardFragmentCache::getRenderedFrameCount)
+                .tag("result", "rendered")
+                .register(registry);
+        FunctionCounter.builder("scoreboard.fragments.evictions", this, ScoreboardFragmentCache::getEvictionCount)
+                .register(registry);
+        Gauge.builder("scoreboard.fragments.size", this, ScoreboardFragmentCache::size).register(registry);
+    }
+
+    private GameFragments fragmentsOf(String gameId) {
+        synchronized (games) {
+            GameFragments fragments = games.get(gameId);
+            if (fragments == null) {
+                fragments = new GameFragments();
+                games.put(gameId, fragments);
+                evictLeastRecentlyViewed();
+            }
+            return fragments;
+        }
+    }
+
+    private void evictLeastRecentlyViewed() {
+        Iterator<Map.Entry<String, GameFragments>> iterator = games.entrySet().iterator();
+        while (games.size() > properties.getMaximumSize() && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictionCount++;
+        }
+    }
+
+    private static String rollCells(int index, Frame frame) {
+        if (frame == null) {
+            return index == FRAMES - 1 ? EMPTY_ROLL_CELL + EMPTY_ROLL_CELL + EMPTY_ROLL_CELL : EMPTY_ROLL_CELL + EMPTY_ROLL_CELL;
+        }
+        String cells = "<td>" + frame.firstRollDisplayValue() + "</td><td>" + frame.secondRollDisplayValue() + "</td>";
+        return index == FRAMES - 1 ? cells + "<td>" + frame.bonusDisplayValue() + "</td>" : cells;
+    }
+
+    private static String scoreCell(int index, Frame frame) {
+        String score = frame == null || frame.getScore() == null ? "" : frame.getScore().toString();
+        return "<td colspan=\"" + (index == FRAMES - 1 ? 3 : 2) + "\">" + score + "</td>";
+    }
+
+    /**
+     * The cells of the settled frames of a game, from the first frame on.
+     */
+    private static final class GameFragments {
+        private final String[] rollCells = new String[FRAMES];
+        private final String[] scoreCells = new String[FRAMES];
+        private int settledFrames;
+        private boolean gameOver;
+        private long lastView;
+    }
+}
@@ -0,0 +1,27 @@
+package de.arena.bowling.controller;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the {@link ScoreboardFragmentCache}.
+ * The completed games are checked every 'scoreboard.fragments.eviction-interval-millis'.
+ */
+@Data
+@Component
+@ConfigurationProperties("scoreboard.fragments")
+public class ScoreboardFragmentProperties {
+
+    /**
+     * Maximum number of games with cached fragments; the least recently viewed game is evicted first.
+     */
+    private int maximumSize = 10_000;
+
+    /**
+     * The fragments of a completed game are evicted, once the game was not viewed for this duration.
+     */
+    private Duration completedGameTimeToLive = Duration.ofMinutes(5);
+}
@@ -0,0 +1,31 @@
+package de.arena.bowling.controller;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the {@link ScoreboardUpdateBroadcaster}.
+ */
+@Data
+@Component
+@ConfigurationProperties("scoreboard.push")
+public class ScoreboardPushProperties {
+
+    /**
+     * Subscriptions are closed after this duration; the clients are expected to subscribe again.
+     */
+    private Duration timeout = Duration.ofMinutes(30);
+
+    /**
+     * Number of threads sending the updates to the subscribers; not used with virtual threads.
+     */
+    private int senderThreads = 4;
+
+    /**
+     * A subscriber, which takes longer to accept an update, is dropped and its sender thread is interrupted.
+     */
+    private Duration sendTimeout = Duration.ofSeconds(10);
+}
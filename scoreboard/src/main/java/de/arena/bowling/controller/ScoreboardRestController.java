@@ -0,0 +1,190 @@
+package de.arena.bowling.controller;
+
+import de.arena.bowling.domain.CompactScoreboard;
+import de.arena.bowling.domain.GameState;
+import de.arena.bowling.domain.GameStatus;
+import de.arena.bowling.domain.GameSummary;
+import de.arena.bowling.domain.Roll;
+import de.arena.bowling.domain.RollResult;
+import de.arena.bowling.domain.ScoreboardCodec;
+import de.arena.bowling.domain.SinglePlayerGame;
+import de.arena.bowling.exception.GameNotFoundException;
+import de.arena.bowling.exception.GenericScoreboardException;
+import de.arena.bowling.service.ScoreboardService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import java.net.URI;
+import java.util.List;
+
+/**
+ * JSON API of the bowling scoreboard for machine clients like lane controllers and scoreboard displays.
+ * It returns the {@link CompactScoreboard} of a game without rendering the scoreboard view.
+ */
+@RestController
+@RequestMapping("api")
+@Validated
+@Slf4j
+public class ScoreboardRestController {
+
+    private ScoreboardService scoreboardService;
+    private ScoreboardUpdateBroadcaster updateBroadcaster;
+    private GameRouter gameRouter;
+
+    @Autowired
+    public ScoreboardRestController(ScoreboardService scoreboardService, ScoreboardUpdateBroadcaster updateBroadcaster,
+                                    GameRouter gameRouter) {
+        this.scoreboardService = scoreboardService;
+        this.updateBroadcaster = updateBroadcaster;
+        this.gameRouter = gameRouter;
+    }
+
+    /**
+     * Initializes a new game scoreboard.
+     *
+     * @return the new game with the location of the game in the header.
+     */
+    @PostMapping("games")
+    public ResponseEntity<CompactScoreboard> createNewGame() {
+        log.info("Initializing a new game scoreboard.");
+        SinglePlayerGame newGame = scoreboardService.createNewGameScoreboard();
+        return ResponseEntity.created(URI.create("/api/games/" + newGame.getGameId()))
+                .eTag(eTag(newGame))
+                .body(CompactScoreboard.of(newGame, true));
+    }
+
+    /**
+     * Lists the stored games with the status, without their frames; the latest completed or created games first.
+     *
+     * @param page zero based index of the page.
+     * @param size number of games per page.
+     */
+    @GetMapping("games")
+    public List<GameSummary> listGames(@RequestParam(defaultValue = "GAME_OVER") GameStatus status,
+                                       @RequestParam(defaultValue = "0") @Min(0) int page,
+                                       @RequestParam(defaultValue = "20") @Min(1) @Max(500) int size) {
+        return scoreboardService.listGames(status, page, size);
+    }
+
+    /**
+     * Fetches the scoreboard of the game.
+     * The response is empty with status 304 if the game is not changed since the version in 'If-None-Match'.
+     *
+     * @throws GameNotFoundException if no game is found with the specified game id.
+     */
+    @GetMapping("games/{gameId}")
+    public ResponseEntity<CompactScoreboard> fetchScoreboard(@PathVariable String gameId, WebRequest request)
+            throws GameNotFoundException {
+        return fetch(gameId, request, true);
+    }
+
+    /**
+     * Fetches only the state of the game: status, total score and the maximum possible number of pins in the next roll.
+     * The response is empty with status 304 if the game is not changed since the version in 'If-None-Match'.
+     *
+     * @throws GameNotFoundException if no game is found with the specified game id.
+     */
+    @GetMapping("games/{gameId}/state")
+    public ResponseEntity<CompactScoreboard> fetchState(@PathVariable String gameId, WebRequest request)
+            throws GameNotFoundException {
+        return fetch(gameId, request, false);
+    }
+
+    /**
+     * Exports the rolls of the game in the {@link ScoreboardCodec} format, eg. for another scoreboard installation.
+     *
+     * @throws GameNotFoundException if no game is found with the specified game id.
+     */
+    @GetMapping(path = "games/{gameId}/export", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public byte[] export(@PathVariable String gameId) throws GameNotFoundException {
+        SinglePlayerGame game = findGame(gameId);
+        return game.getState() == null ? ScoreboardCodec.encode(game.getScoreboard()) : ScoreboardCodec.encode(game.getState());
+    }
+
+    /**
+     * Subscribes to the updates of the game as server-sent events, instead of polling the scoreboard.
+     * The first event holds the whole scoreboard and every following event only the frames changed by the new rolls.
+     *
+     * @throws GameNotFoundException if no game is found with the specified game id.
+     */
+    @GetMapping(path = "games/{gameId}/updates", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(@PathVariable String gameId) throws GameNotFoundException {
+        return updateBroadcaster.subscribe(findGame(gameId));
+    }
+
+    /**
+     * Updates the scoreboard of the specified game with the number of pins hit.
+     *
+     * @throws GameNotFoundException      if no game is found with the specified game id.
+     * @throws GenericScoreboardException if the number of pins is not possible or the game is over.
+     */
+    @PostMapping("games/{gameId}/rolls")
+    public ResponseEntity<CompactScoreboard> score(@PathVariable String gameId,
+                                                   @RequestParam @NotNull Integer numberOfPins)
+            throws GenericScoreboardException {
+        log.info("Updating scoreboard of game {}", gameId);
+        SinglePlayerGame game = findGame(gameId);
+        scoreboardService.updateScore(game, numberOfPins);
+        return ResponseEntity.ok().eTag(eTag(game)).body(CompactScoreboard.of(game, true));
+    }
+
+    /**
+     * Updates the scoreboards of many games with the rolls reported by the lane controllers in one request.
+     *
+     * The rolls of the games owned by other nodes are forwarded to their owners by the {@link GameRouter}.
+     *
+     * @param rolls       the rolls of one or more games, in the order they were played.
+     * @param forwardedBy the node, which forwarded the rolls to this node.
+     * @return the result of each roll, in the order of the rolls.
+     */
+    @PostMapping("rolls")
+    public List<RollResult> rolls(@RequestBody @NotEmpty List<@Valid Roll> rolls,
+                                  @RequestHeader(name = GameRouter.FORWARDED_BY, required = false) String forwardedBy) {
+        log.info("Received a batch of {} rolls", rolls.size());
+        return gameRouter.route(rolls, forwardedBy, scoreboardService::updateScores);
+    }
+
+    private ResponseEntity<CompactScoreboard> fetch(String gameId, WebRequest request, boolean includeFrames)
+            throws GameNotFoundException {
+        SinglePlayerGame game = findGame(gameId);
+        String eTag = eTag(game);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(CompactScoreboard.of(game, includeFrames));
+    }
+
+    private SinglePlayerGame findGame(String gameId) throws GameNotFoundException {
+        return scoreboardService.fetchScoreboard(gameId)
+                .orElseThrow(() -> {
+                    log.error("Could not find game with id {}", gameId);
+                    return new GameNotFoundException(gameId);
+                });
+    }
+
+    /**
+     * The number of rolls identifies the version of a game, as every change adds a roll.
+     */
+    private String eTag(SinglePlayerGame game) {
+        GameState state = game.getState() == null ? GameState.replay(game.getScoreboard()) : game.getState();
+        return "\"" + state.getRollCount() + "\"";
+    }
+}
@@ -0,0 +1,112 @@
+package de.arena.bowling.controller;
+
+import de.arena.bowling.exception.GameNotFoundException;
+import de.arena.bowling.exception.GenericScoreboardException;
+import de.arena.bowling.exception.PlayerNotFoundException;
+import de.arena.bowling.service.ScoreboardMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import javax.validation.ConstraintViolationException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Methods to handle the exceptions thrown from the JSON API.
+ * The exception messages are returned as 'errorMessages' in the response body instead of the "error" view.
+ * The rejected requests are counted by the type of the exception, the same as for the view.
+ */
+@RestControllerAdvice(assignableTypes = {ScoreboardRestController.class, LaneSessionRestController.class,
+        StatisticsRestController.class})
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class ScoreboardRestControllerAdvice {
+
+    private static final String ERROR_MESSAGES = "errorMessages";
+
+    private ScoreboardMetrics metrics;
+
+    @Autowired
+    public ScoreboardRestControllerAdvice(ScoreboardMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Handles all exceptions without specific exception handlers defined.
+     */
+    @ExceptionHandler(Exception.class)
+    @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
+    public Map<String, List<String>> handleException(Exception exception) {
+        log.error("", exception);
+        return Collections.singletonMap(ERROR_MESSAGES, Collections.singletonList(exception.getMessage()));
+    }
+
+    @ExceptionHandler({GameNotFoundException.class, PlayerNotFoundException.class})
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public Map<String, List<String>> handleGameNotFoundException(GenericScoreboardException exception) {
+        log.error("", exception);
+        metrics.validationFailed(exception);
+        return Collections.singletonMap(ERROR_MESSAGES, Collections.singletonList(exception.getMessage()));
+    }
+
+    @ExceptionHandler({GenericScoreboardException.class, HttpMessageNotReadableException.class})
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, List<String>> handleBadRequest(Exception exception) {
+        log.error("", exception);
+        metrics.validationFailed(exception);
+        return Collections.singletonMap(ERROR_MESSAGES, Collections.singletonList(exception.getMessage()));
+    }
+
+    /**
+     * Handles the saves rejected, because the game was changed concurrently by another node.
+     * The client may fetch the game and send the roll again.
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Map<String, List<String>> handleConflict(OptimisticLockingFailureException exception) {
+        log.error("", exception);
+        return Collections.singletonMap(ERROR_MESSAGES, Collections.singletonList(exception.getMessage()));
+    }
+
+    /**
+     * Handles the invalid fields of a request body validated with @Valid.
+     */
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, List<String>> handleMethodArgumentNotValidException(MethodArgumentNotValidException exception) {
+        log.error("", exception);
+        metrics.validationFailed(exception);
+        List<String> violations = exception.getBindingResult().getFieldErrors()
+                .stream()
+                .map(error -> error.getField() + " : " + error.getDefaultMessage())
+                .collect(Collectors.toList());
+        return Collections.singletonMap(ERROR_MESSAGES, violations);
+    }
+
+    /**
+     * Handles ConstrainViolationExceptions from javax bean validations.
+     * The invalid field names and the error messages are returned.
+     */
+    @ExceptionHandler(ConstraintViolationException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, List<String>> handleConstraintViolationException(ConstraintViolationException exception) {
+        log.error("", exception);
+        metrics.validationFailed(exception);
+        List<String> violations = exception.getConstraintViolations()
+                .stream()
+                .map(violation -> violation.getPropertyPath().toString() + " : " + violation.getMessage())
+                .collect(Collectors.toList());
+        return Collections.singletonMap(ERROR_MESSAGES, violations);
+    }
+}
@@ -0,0 +1,20 @@
+package de.arena.bowling.controller;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * The rendered table cells of all the ten frames of a scoreboard, inserted unescaped into the scoreboard view.
+ */
+@Data
+@AllArgsConstructor
+public class ScoreboardRows {
+    /**
+     * Cells with the display values of the rolls.
+     */
+    private String rollCells;
+    /**
+     * Cells with the cumulative scores of the frames.
+     */
+    private String scoreCells;
+}
@@ -0,0 +1,312 @@
+package de.arena.bowling.controller;
+
+import de.arena.bowling.VirtualThreadProperties;
+import de.arena.bowling.domain.CompactScoreboard;
+import de.arena.bowling.domain.GameStatus;
+import de.arena.bowling.domain.SinglePlayerGame;
+import de.arena.bowling.service.GameUpdatedEvent;
+import de.arena.bowling.service.PartitionsChangedEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Pushes the updates of the games to their subscribers as server-sent events, so that the scoreboard displays
+ * do not need to poll.
+ * <p>
+ * An update holds only the frames changed by the new rolls. The updates are sent on a separate pool of threads,
+ * so a slow subscriber never blocks the roll, and at most one update waits for each subscriber: if a subscriber is
+ * still behind when the next update comes, the waiting update is replaced by the whole scoreboard of the game.
+ * A subscriber, which does not accept an update within the 'send-timeout', is dropped and its sender thread is
+ * interrupted, so a stalled connection holds a sender thread only for a bounded time.
+ * The subscriptions of a game are closed when the game is over.
+ * <p>
+ * The open subscriptions, the conflated updates and the dropped subscribers are published as 'scoreboard.push.*'.
+ */
+@Component
+@Slf4j
+public class ScoreboardUpdateBroadcaster implements MeterBinder {
+
+    static final String EVENT_NAME = "scoreboard";
+
+    private final ConcurrentMap<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final AtomicLong conflatedUpdateCount = new AtomicLong();
+    private final AtomicLong droppedSubscriberCount = new AtomicLong();
+    private final ScoreboardPushProperties properties;
+    private final Executor sender;
+    private final ScheduledExecutorService sendTimeouts = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "scoreboard-push-timeouts");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * The updates are sent on a virtual thread per subscriber with updates, if the virtual threads are enabled,
+     * otherwise on a fixed pool of 'sender-threads'.
+     */
+    @Autowired
+    public ScoreboardUpdateBroadcaster(ScoreboardPushProperties properties, VirtualThreadProperties virtualThreads) {
+        this(properties, virtualThreads.isEnabled()
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("scoreboard-push-", 0).factory())
+                : Executors.newFixedThreadPool(properties.getSenderThreads()));
+    }
+
+    ScoreboardUpdateBroadcaster(ScoreboardPushProperties properties, Executor sender) {
+        this.properties = properties;
+        this.sender = sender;
+    }
+
+    /**
+     * Subscribes to the updates of the game. The current scoreboard of the game is sent as the first update.
+     *
+     * @param game the game with its current scoreboard.
+     * @return the emitter of the server-sent events.
+     */
+    public SseEmitter subscribe(SinglePlayerGame game) {
+        SseEmitter emitter = new SseEmitter(properties.getTimeout().toMillis());
+        subscribe(game, emitter);
+        return emitter;
+    }
+
+    void subscribe(SinglePlayerGame game, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(game.getGameId(), emitter);
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        subscribers.computeIfAbsent(game.getGameId(), gameId -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        connectionCount.incrementAndGet();
+        log.debug("New subscriber of game {}; {} open connections", game.getGameId(), connectionCount.get());
+
+        CompactScoreboard scoreboard = CompactScoreboard.of(game, true);
+        offer(subscriber, scoreboard, -1, () -> scoreboard);
+    }
+
+    /**
+     * Fans out the update of a game to its subscribers.
+     */
+    @EventListener
+    public void onGameUpdated(GameUpdatedEvent event) {
+        Set<Subscriber> gameSubscribers = subscribers.get(event.getGameId());
+        if (gameSubscribers == null || gameSubscribers.isEmpty()) {
+            return;
+        }
+        SinglePlayerGame game = SinglePlayerGame.builder()
+                .gameId(event.getGameId())
+                .state(event.getState())
+                .scoreboard(event.getState().toScoreboard())
+                .build();
+        CompactScoreboard changes = CompactScoreboard.changes(game, event.firstChangedFrameIndex());
+        Supplier<CompactScoreboard> scoreboard = new Supplier<CompactScoreboard>() {
+            private CompactScoreboard scoreboard;
+
+            @Override
+            public synchronized CompactScoreboard get() {
+                if (scoreboard == null) {
+                    scoreboard = CompactScoreboard.of(game, true);
+                }
+                return scoreboard;
+            }
+        };
+        for (Subscriber subscriber : gameSubscribers) {
+            offer(subscriber, changes, event.getPreviousRollCount(), scoreboard);
+        }
+    }
+
+    /**
+     * Closes the subscriptions of the games owned by another node after the partitions changed, as their updates
+     * are published there now. The clients reconnect and are redirected to the new owner.
+     */
+    @EventListener
+    public void onPartitionsChanged(PartitionsChangedEvent event) {
+        subscribers.forEach((gameId, gameSubscribers) -> {
+            if (!event.isLocal(gameId)) {
+                gameSubscribers.forEach(subscriber -> subscriber.emitter.complete());
+            }
+        });
+    }
+
+    /**
+     * @return number of open subscriptions of all the games.
+     */
+    public int getConnectionCount() {
+        return connectionCount.get();
+    }
+
+    /**
+     * @return number of updates replaced by the whole scoreboard, because the subscriber was behind.
+     */
+    public long getConflatedUpdateCount() {
+        return conflatedUpdateCount.get();
+    }
+
+    /**
+     * @return number of subscribers dropped, because they did not accept an update within the send timeout.
+     */
+    public long getDroppedSubscriberCount() {
+        return droppedSubscriberCount.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("scoreboard.push.connections", connectionCount, AtomicInteger::get)
+                .description("Open subscriptions of all the games")
+                .register(registry);
+        FunctionCounter.builder("scoreboard.push.conflated.updates", conflatedUpdateCount, AtomicLong::get)
+                .description("Updates replaced by the whole scoreboard, because the subscriber was behind")
+                .register(registry);
+        FunctionCounter.builder("scoreboard.push.dropped.subscribers", droppedSubscriberCount, AtomicLong::get)
+                .description("Subscribers dropped, because they did not accept an update within the send timeout")
+                .register(registry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscribers.values().forEach(gameSubscribers -> gameSubscribers.forEach(subscriber -> subscriber.emitter.complete()));
+        if (sender instanceof ExecutorService) {
+            ((ExecutorService) sender).shutdown();
+        }
+        sendTimeouts.shutdownNow();
+    }
+
+    /**
+     * Queues the update for the subscriber and starts sending, unless the subscriber is already being sent to.
+     * The changes are queued only if they follow the update the subscriber got last; otherwise the whole
+     * scoreboard is queued. Updates older than the last queued one are dropped.
+     */
+    private void offer(Subscriber subscriber, CompactScoreboard changes, int previousRollCount,
+                       Supplier<CompactScoreboard> scoreboard) {
+        synchronized (subscriber) {
+            if (changes.getRollCount() <= subscriber.rollCount || subscriber.dropped) {
+                return;
+            }
+            if (subscriber.pending == null && previousRollCount == subscriber.rollCount) {
+                subscriber.pending = changes;
+            } else {
+                subscriber.pending = scoreboard.get();
+                conflatedUpdateCount.incrementAndGet();
+            }
+            subscriber.rollCount = changes.getRollCount();
+            if (subscriber.sending) {
+                return;
+            }
+            subscriber.sending = true;
+        }
+        sender.execute(() -> send(subscriber));
+    }
+
+    private void send(Subscriber subscriber) {
+        while (true) {
+            CompactScoreboard update;
+            synchronized (subscriber) {
+                update = subscriber.pending;
+                subscriber.pending = null;
+                if (update == null) {
+                    subscriber.sending = false;
+                    return;
+                }
+            }
+            Thread sendingThread = Thread.currentThread();
+            synchronized (subscriber) {
+                subscriber.sendingThread = sendingThread;
+            }
+            ScheduledFuture<?> sendTimeout = sendTimeouts.schedule(() -> timeout(subscriber, sendingThread),
+                    properties.getSendTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            boolean closed = false;
+            try {
+                subscriber.emitter.send(SseEmitter.event().name(EVENT_NAME).data(update, MediaType.APPLICATION_JSON));
+                if (GameStatus.GAME_OVER == update.getStatus()) {
+                    subscriber.emitter.complete();
+                    unsubscribe(subscriber);
+                }
+            } catch (IOException | IllegalStateException exception) {
+                log.debug("Could not send the update of game {}; closing the subscription", subscriber.gameId, exception);
+                subscriber.emitter.completeWithError(exception);
+                unsubscribe(subscriber);
+                closed = true;
+            } finally {
+                sendTimeout.cancel(false);
+            }
+            boolean dropped;
+            synchronized (subscriber) {
+                subscriber.sendingThread = null;
+                dropped = subscriber.dropped;
+            }
+            // the interrupt of a send, which finished just in time, must not hit the next task of the thread
+            Thread.interrupted();
+            if (dropped) {
+                if (!closed) {
+                    subscriber.emitter.completeWithError(new IOException("The subscriber did not accept the update in time"));
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Drops the subscriber, if it still blocks the sender thread with the same update, and interrupts the send.
+     * The emitter is completed by the sender thread, as the emitter is locked by the blocked send.
+     */
+    private void timeout(Subscriber subscriber, Thread sendingThread) {
+        synchronized (subscriber) {
+            if (subscriber.sendingThread != sendingThread || subscriber.dropped) {
+                return;
+            }
+            subscriber.dropped = true;
+            // the subscriber is gone before the interrupted send returns
+            droppedSubscriberCount.incrementAndGet();
+            unsubscribe(subscriber);
+            sendingThread.interrupt();
+        }
+        log.warn("Dropped a subscriber of game {}, which did not accept an update within {}",
+                subscriber.gameId, properties.getSendTimeout());
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        Set<Subscriber> gameSubscribers = subscribers.get(subscriber.gameId);
+        if (gameSubscribers != null && gameSubscribers.remove(subscriber)) {
+            connectionCount.decrementAndGet();
+            subscribers.computeIfPresent(subscriber.gameId, (gameId, remaining) -> remaining.isEmpty() ? null : remaining);
+        }
+    }
+
+    private static final class Subscriber {
+        private final String gameId;
+        private final SseEmitter emitter;
+
+        /**
+         * Number of rolls in the last queued update; guarded by the subscriber.
+         */
+        private int rollCount = -1;
+        private CompactScoreboard pending;
+        private boolean sending;
+        private Thread sendingThread;
+        private boolean dropped;
+
+        private Subscriber(String gameId, SseEmitter emitter) {
+            this.gameId = gameId;
+            this.emitter = emitter;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package de.arena.bowling.controller;
+
+import de.arena.bowling.service.ScoreboardMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Times the rendering of the scoreboard view as the 'render' stage of {@link ScoreboardMetrics}: from the end of
+ * the controller method, when the model is complete, to the end of the request. The cells of the frames are
+ * rendered by the controller with the {@link ScoreboardFragmentCache}, so this is the time of the template.
+ */
+@Configuration
+public class ScoreboardViewMetrics implements WebMvcConfigurer, HandlerInterceptor {
+
+    private static final String RENDER_START = ScoreboardViewMetrics.class.getName() + ".renderStart";
+
+    private ScoreboardMetrics metrics;
+
+    @Autowired
+    public ScoreboardViewMetrics(ScoreboardMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(this).addPathPatterns("/new-game", "/start", "/score");
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                           ModelAndView modelAndView) {
+        if (modelAndView != null) {
+            request.setAttribute(RENDER_START, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception exception) {
+        Object start = request.getAttribute(RENDER_START);
+        if (start != null) {
+            metrics.recordSince(ScoreboardMetrics.Stage.RENDER, (Long) start);
+        }
+    }
+}
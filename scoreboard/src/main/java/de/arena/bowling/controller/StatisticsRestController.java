@@ -0,0 +1,68 @@
+package de.arena.bowling.controller;
+
+import de.arena.bowling.domain.GameStatistics;
+import de.arena.bowling.domain.LeaderboardEntry;
+import de.arena.bowling.domain.PlayerStatistics;
+import de.arena.bowling.exception.PlayerNotFoundException;
+import de.arena.bowling.service.StatisticsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.validation.constraints.Min;
+import java.util.List;
+
+/**
+ * JSON API of the statistics over the completed games.
+ * The statistics are kept up to date in memory, so none of the requests reads the stored games.
+ */
+@RestController
+@RequestMapping("api/statistics")
+@Validated
+@Slf4j
+public class StatisticsRestController {
+
+    private StatisticsService statisticsService;
+
+    @Autowired
+    public StatisticsRestController(StatisticsService statisticsService) {
+        this.statisticsService = statisticsService;
+    }
+
+    /**
+     * Fetches the aggregates over all the completed games with the leaderboard.
+     */
+    @GetMapping
+    public GameStatistics fetchStatistics() {
+        return statisticsService.fetchStatistics();
+    }
+
+    /**
+     * Fetches the highest scores.
+     *
+     * @param limit maximum number of entries.
+     */
+    @GetMapping("leaderboard")
+    public List<LeaderboardEntry> fetchLeaderboard(@RequestParam(defaultValue = "10") @Min(1) int limit) {
+        return statisticsService.fetchLeaderboard(limit);
+    }
+
+    /**
+     * Fetches the aggregates over the completed games of a bowler in the lane sessions.
+     *
+     * @throws PlayerNotFoundException if the player has not completed a game.
+     */
+    @GetMapping("players/{player}")
+    public PlayerStatistics fetchPlayerStatistics(@PathVariable String player) throws PlayerNotFoundException {
+        return statisticsService.fetchPlayerStatistics(player)
+                .orElseThrow(() -> {
+                    log.error("Could not find statistics of player {}", player);
+                    return new PlayerNotFoundException(player);
+                });
+    }
+}
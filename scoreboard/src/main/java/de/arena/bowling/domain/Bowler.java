@@ -0,0 +1,31 @@
+package de.arena.bowling.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Transient;
+
+/**
+ * A bowler of a {@link LaneSession} with the scoreboard of the bowler's game.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Bowler {
+    private String name;
+    private Scoreboard scoreboard;
+    /**
+     * Not persisted; replayed from the scoreboard on first use after the session is loaded.
+     */
+    @Transient
+    private GameState state;
+
+    public GameState getState() {
+        if (state == null) {
+            state = GameState.replay(scoreboard);
+        }
+        return state;
+    }
+}
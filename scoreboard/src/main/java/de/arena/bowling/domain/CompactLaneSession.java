@@ -0,0 +1,55 @@
+package de.arena.bowling.domain;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact JSON representation of a {@link LaneSession} with the games of all the bowlers on the lane.
+ * The number of rolls of all the bowlers is the version of the session.
+ */
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CompactLaneSession {
+    private String sessionId;
+    private Integer lane;
+    private GameStatus status;
+    private int rollCount;
+
+    /**
+     * Index of the bowler to roll next; left out once the games of all the bowlers are over.
+     */
+    private Integer currentBowler;
+    private List<CompactBowler> bowlers;
+
+    public static CompactLaneSession of(LaneSession session) {
+        int currentBowlerIndex = session.currentBowlerIndex();
+        List<CompactBowler> bowlers = new ArrayList<>(session.getBowlers().size());
+        for (Bowler bowler : session.getBowlers()) {
+            bowlers.add(new CompactBowler(bowler.getName(), CompactScoreboard.of(bowler)));
+        }
+        return CompactLaneSession.builder()
+                .sessionId(session.getSessionId())
+                .lane(session.getLane())
+                .status(currentBowlerIndex < 0 ? GameStatus.GAME_OVER : GameStatus.IN_PROGRESS)
+                .rollCount(session.getRollCount())
+                .currentBowler(currentBowlerIndex < 0 ? null : currentBowlerIndex)
+                .bowlers(bowlers)
+                .build();
+    }
+
+    /**
+     * Name and game of a bowler.
+     */
+    @Data
+    @AllArgsConstructor
+    public static class CompactBowler {
+        private String name;
+        private CompactScoreboard scoreboard;
+    }
+}
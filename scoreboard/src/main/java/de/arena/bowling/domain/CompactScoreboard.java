@@ -0,0 +1,97 @@
+package de.arena.bowling.domain;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact JSON representation of a game for machine clients.
+ * Every frame holds its rolls as one string of display values, like "X", "5/" or "9-".
+ * The number of rolls is the version of the game; it changes with every roll.
+ * An update pushed to the subscribers of a game holds only the frames from 'firstFrame' onwards.
+ */
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CompactScoreboard {
+    private String gameId;
+    private GameStatus status;
+    private Integer totalScore;
+    private int rollCount;
+    private int maxPossibleNumberOfPins;
+
+    /**
+     * Number of the first frame in 'frames'.
+     */
+    private Integer firstFrame;
+    private List<CompactFrame> frames;
+
+    /**
+     * Creates the representation of the game.
+     *
+     * @param game          the game to be represented.
+     * @param includeFrames false to leave out the frames, when only the state of the game is needed.
+     */
+    public static CompactScoreboard of(SinglePlayerGame game, boolean includeFrames) {
+        return of(game, includeFrames ? 0 : -1);
+    }
+
+    /**
+     * Creates an update of the game with only the changed frames.
+     *
+     * @param game                   the updated game.
+     * @param firstChangedFrameIndex index of the first frame changed by the update.
+     */
+    public static CompactScoreboard changes(SinglePlayerGame game, int firstChangedFrameIndex) {
+        return of(game, firstChangedFrameIndex);
+    }
+
+    /**
+     * Creates the representation of the game of a bowler in a {@link LaneSession}, without a game id.
+     */
+    public static CompactScoreboard of(Bowler bowler) {
+        return of(null, bowler.getState(), bowler.getScoreboard(), 0);
+    }
+
+    private static CompactScoreboard of(SinglePlayerGame game, int firstFrameIndex) {
+        GameState state = game.getState() == null ? GameState.replay(game.getScoreboard()) : game.getState();
+        return of(game.getGameId(), state, game.getScoreboard(), firstFrameIndex);
+    }
+
+    private static CompactScoreboard of(String gameId, GameState state, Scoreboard gameScoreboard, int firstFrameIndex) {
+        Scoreboard scoreboard = gameScoreboard == null ? state.toScoreboard() : gameScoreboard;
+        CompactScoreboardBuilder compactScoreboard = CompactScoreboard.builder()
+                .gameId(gameId)
+                .status(state.getStatus())
+                .totalScore(scoreboard.getTotalScore())
+                .rollCount(state.getRollCount())
+                .maxPossibleNumberOfPins(state.maxPossibleNumberOfPins());
+        if (firstFrameIndex >= 0) {
+            List<Frame> changedFrames = scoreboard.getFrames()
+                    .subList(Math.min(firstFrameIndex, scoreboard.getFrames().size()), scoreboard.getFrames().size());
+            List<CompactFrame> frames = new ArrayList<>(changedFrames.size());
+            for (Frame frame : changedFrames) {
+                frames.add(new CompactFrame(
+                        frame.firstRollDisplayValue() + frame.secondRollDisplayValue() + frame.bonusDisplayValue(),
+                        frame.getScore()));
+            }
+            compactScoreboard.firstFrame(firstFrameIndex + 1).frames(frames);
+        }
+        return compactScoreboard.build();
+    }
+
+    /**
+     * Display values of the rolls and the cumulative score of a frame.
+     */
+    @Data
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class CompactFrame {
+        private String rolls;
+        private Integer score;
+    }
+}
@@ -2,16 +2,13 @@ package de.arena.bowling.domain;
 
 import lombok.Data;
 
-import java.util.Objects;
-
 /**
  * Frame that holds two rolls and the bonus information.
+ * The outcome and the display values of the frame are looked up in the {@link FrameTable}.
  */
 @Data
 public class Frame {
-    private static final String STRIKE = "X";
-    private static final String SPARE = "/";
-    private static final String MISS = "-";
+    private static final int FINAL_FRAME_COUNT = 10;
 
     private final Integer frameCount;
 
@@ -39,14 +36,9 @@ public class Frame {
      */
     public boolean isRollsCompleted() {
         if (isFinalFrame()) {
-            if (isStrike() || isSpare()) {
-                return bonus != null;
-            }
-            return secondRoll != null;
-        } else if (isStrike()) {
-            return true;
+            return hasBonus() ? bonus != null : secondRoll != null;
         }
-        return secondRoll != null;
+        return isStrike() || secondRoll != null;
     }
 
     /**
@@ -54,7 +46,7 @@ public class Frame {
      * ie. 10 pins hit in the first roll.
      */
     public boolean isStrike() {
-        return Objects.equals(firstRoll, 10);
+        return FrameTable.isStrike(FrameTable.frame(firstRoll, secondRoll));
     }
 
     /**
@@ -62,24 +54,22 @@ public class Frame {
      * ie. 10 pins from two rolls together.
      */
     public boolean isSpare() {
-        if (!isStrike() && firstRoll != null && secondRoll != null) {
-            return firstRoll + secondRoll == 10;
-        }
-        return false;
+        return FrameTable.isSpare(FrameTable.frame(firstRoll, secondRoll));
     }
 
     /**
      * @return true, if this is the 10th frame in the game.
      */
     public boolean isFinalFrame() {
-        return Objects.equals(frameCount, 10);
+        return frameCount != null && frameCount == FINAL_FRAME_COUNT;
     }
 
     /**
      * @return true, if there is bonus for this frame from Strike or Spare.
      */
     public boolean hasBonus() {
-        return isStrike() || isSpare();
+        int frame = FrameTable.frame(firstRoll, secondRoll);
+        return FrameTable.isStrike(frame) || FrameTable.isSpare(frame);
     }
 
     /**
@@ -90,33 +80,19 @@ public class Frame {
      * @return the display value for the first roll.
      */
     public String firstRollDisplayValue() {
-        if (isStrike()) {
-            return STRIKE;
-        } else if (Objects.equals(firstRoll, 0)) {
-            return MISS;
-        } else {
-            return firstRoll == null ? "" : firstRoll.toString();
-        }
+        return FrameTable.rollSymbol(firstRoll == null ? FrameTable.NO_ROLL : firstRoll);
     }
 
     /**
      * Display value for the second roll.
-     * Strike -> X
+     * Strike -> X (only in the final frame)
      * Spare -> /
      * Miss -> -
      * Otherwise -> number of hits
      * @return the display value for the second roll.
      */
     public String secondRollDisplayValue() {
-        if (isSpare()) {
-            return SPARE;
-        } else if (Objects.equals(secondRoll, 0)) {
-            return MISS;
-        } else if (isFinalFrame() && Objects.equals(secondRoll, 10)) {
-            return STRIKE;
-        } else {
-            return secondRoll == null ? "" : secondRoll.toString();
-        }
+        return FrameTable.secondRollSymbol(FrameTable.frame(firstRoll, secondRoll));
     }
 
     /**
@@ -128,13 +104,7 @@ public class Frame {
      */
     public String bonusDisplayValue() {
         if (isFinalFrame() && hasBonus()) {
-            if (Objects.equals(bonus, 10)) {
-                return STRIKE;
-            } else if (Objects.equals(bonus, 0)) {
-                return MISS;
-            } else {
-                return bonus == null ? "" : bonus.toString();
-            }
+            return FrameTable.rollSymbol(bonus == null ? FrameTable.NO_ROLL : bonus);
         }
         return "";
     }
@@ -0,0 +1,104 @@
+package de.arena.bowling.domain;
+
+/**
+ * Outcomes and display symbols of every combination of the first two rolls of a frame, precomputed when the class
+ * is loaded. A frame is identified by the index of its two rolls in the tables, so the scoring and the rendering
+ * read the outcome of a frame from a few arrays instead of branching on the rolls again for every frame.
+ */
+final class FrameTable {
+    /**
+     * Value of a roll not played yet.
+     */
+    static final int NO_ROLL = 11;
+
+    private static final int ALL_PINS = 10;
+    private static final int ROLL_VALUES = NO_ROLL + 1;
+
+    /**
+     * Number of rolls counted in the score of the frame, starting with its first roll; more than a game has rolls,
+     * if the frame can not be scored yet.
+     */
+    private static final byte[] SCORED_ROLLS = new byte[ROLL_VALUES * ROLL_VALUES];
+    /**
+     * Number of rolls of the frame in front of the final frame.
+     */
+    private static final byte[] FRAME_ROLLS = new byte[ROLL_VALUES * ROLL_VALUES];
+    private static final boolean[] STRIKES = new boolean[ROLL_VALUES * ROLL_VALUES];
+    private static final boolean[] SPARES = new boolean[ROLL_VALUES * ROLL_VALUES];
+
+    private static final String[] ROLL_SYMBOLS = new String[ROLL_VALUES];
+    private static final String[] SECOND_ROLL_SYMBOLS = new String[ROLL_VALUES * ROLL_VALUES];
+
+    static {
+        for (int pins = 0; pins < ROLL_VALUES; pins++) {
+            ROLL_SYMBOLS[pins] = pins == NO_ROLL ? "" : pins == ALL_PINS ? "X" : pins == 0 ? "-" : Integer.toString(pins);
+        }
+        for (int firstRoll = 0; firstRoll < ROLL_VALUES; firstRoll++) {
+            for (int secondRoll = 0; secondRoll < ROLL_VALUES; secondRoll++) {
+                int frame = frame(firstRoll, secondRoll);
+                boolean strike = firstRoll == ALL_PINS;
+                boolean spare = !strike && firstRoll != NO_ROLL && secondRoll != NO_ROLL && firstRoll + secondRoll == ALL_PINS;
+                boolean open = !strike && !spare && firstRoll != NO_ROLL && secondRoll != NO_ROLL;
+                STRIKES[frame] = strike;
+                SPARES[frame] = spare;
+                SCORED_ROLLS[frame] = (byte) (strike || spare ? 3 : open ? 2 : GameState.MAX_ROLLS + 1);
+                FRAME_ROLLS[frame] = (byte) (strike ? 1 : 2);
+                SECOND_ROLL_SYMBOLS[frame] = spare ? "/" : ROLL_SYMBOLS[secondRoll];
+            }
+        }
+    }
+
+    private FrameTable() {
+    }
+
+    /**
+     * @param firstRoll  number of pins hit in the first roll, or {@link #NO_ROLL}.
+     * @param secondRoll number of pins hit in the roll after the first roll, or {@link #NO_ROLL}.
+     *                   For a strike in front of the final frame it is the first roll of the next frame.
+     * @return the index of the frame in the tables.
+     */
+    static int frame(int firstRoll, int secondRoll) {
+        return firstRoll * ROLL_VALUES + secondRoll;
+    }
+
+    static int frame(Integer firstRoll, Integer secondRoll) {
+        return frame(firstRoll == null ? NO_ROLL : firstRoll, secondRoll == null ? NO_ROLL : secondRoll);
+    }
+
+    static boolean isStrike(int frame) {
+        return STRIKES[frame];
+    }
+
+    static boolean isSpare(int frame) {
+        return SPARES[frame];
+    }
+
+    /**
+     * @return 3 for a strike or a spare, 2 for an open frame, more than a game has rolls for an incomplete frame.
+     */
+    static int scoredRolls(int frame) {
+        return SCORED_ROLLS[frame];
+    }
+
+    /**
+     * @return the number of rolls of a frame in front of the final frame: 1 for a strike, otherwise 2.
+     */
+    static int frameRolls(int frame) {
+        return FRAME_ROLLS[frame];
+    }
+
+    /**
+     * @param pins number of pins hit in a roll, or {@link #NO_ROLL}.
+     * @return "X" for a strike, "-" for a miss, empty for no roll, otherwise the number of pins.
+     */
+    static String rollSymbol(int pins) {
+        return ROLL_SYMBOLS[pins];
+    }
+
+    /**
+     * @return "/" for a spare, otherwise the symbol of the second roll.
+     */
+    static String secondRollSymbol(int frame) {
+        return SECOND_ROLL_SYMBOLS[frame];
+    }
+}
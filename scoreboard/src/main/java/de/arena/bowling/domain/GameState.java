@@ -0,0 +1,346 @@
+package de.arena.bowling.domain;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+
+/**
+ * Compact state of a single player game.
+ * The rolls are stored in a fixed array of 21 bytes and the position in the game is packed into one cursor,
+ * so a game takes a few dozen bytes and a roll does not allocate any objects.
+ * {@link Scoreboard} and {@link Frame} are views of this state, created only for rendering and persistence.
+ */
+public final class GameState {
+    /**
+     * Nine frames with two rolls and the final frame with a bonus roll.
+     */
+    public static final int MAX_ROLLS = 21;
+
+    private static final int ALL_PINS = 10;
+    private static final int FINAL_FRAME_INDEX = 9;
+
+    // cursor layout: bits 0-4 number of rolls, bits 5-8 active frame index, bits 9-10 rolls in the active frame,
+    // bit 11 game over
+    private static final int ROLL_COUNT_MASK = 0x1F;
+    private static final int FRAME_INDEX_SHIFT = 5;
+    private static final int FRAME_INDEX_MASK = 0xF;
+    private static final int ROLLS_IN_FRAME_SHIFT = 9;
+    private static final int ROLLS_IN_FRAME_MASK = 0x3;
+    private static final int GAME_OVER_FLAG = 1 << 11;
+
+    private final byte[] rolls = new byte[MAX_ROLLS];
+    private short cursor;
+
+    /**
+     * Creates the state of a game from the already played rolls.
+     *
+     * @param rolls     number of pins hit in each roll, in the order they were played.
+     * @param rollCount number of rolls to be taken from the array.
+     * @return the state after replaying all the rolls.
+     */
+    public static GameState of(byte[] rolls, int rollCount) {
+        GameState state = new GameState();
+        for (int index = 0; index < rollCount; index++) {
+            state.roll(rolls[index]);
+        }
+        return state;
+    }
+
+    /**
+     * Creates the state of a game from the frames of a scoreboard view.
+     * Used for the games persisted only with their {@link Scoreboard}.
+     *
+     * @param scoreboard the scoreboard to be replayed.
+     * @return the state after replaying all the rolls in the frames.
+     */
+    public static GameState replay(Scoreboard scoreboard) {
+        GameState state = new GameState();
+        if (scoreboard == null || scoreboard.getFrames() == null) {
+            return state;
+        }
+        for (Frame frame : scoreboard.getFrames()) {
+            if (frame.getFirstRoll() != null) {
+                state.roll(frame.getFirstRoll());
+            }
+            if (frame.getSecondRoll() != null) {
+                state.roll(frame.getSecondRoll());
+            }
+            if (frame.isFinalFrame() && frame.hasBonus() && frame.getBonus() != null) {
+                state.roll(frame.getBonus());
+            }
+        }
+        return state;
+    }
+
+    /**
+     * @return an independent copy of this state.
+     */
+    public GameState copy() {
+        GameState copy = new GameState();
+        System.arraycopy(rolls, 0, copy.rolls, 0, MAX_ROLLS);
+        copy.cursor = cursor;
+        return copy;
+    }
+
+    /**
+     * @return number of rolls played so far.
+     */
+    public int getRollCount() {
+        return cursor & ROLL_COUNT_MASK;
+    }
+
+    /**
+     * @param index zero based index of the roll.
+     * @return number of pins hit in the roll.
+     */
+    public int getRoll(int index) {
+        if (index < 0 || index >= getRollCount()) {
+            throw new IndexOutOfBoundsException("Roll index: " + index + ", number of rolls: " + getRollCount());
+        }
+        return rolls[index];
+    }
+
+    /**
+     * @return a copy of the played rolls.
+     */
+    public byte[] getRolls() {
+        return Arrays.copyOf(rolls, getRollCount());
+    }
+
+    /**
+     * @param earlierState another state of the same game.
+     * @return true, if this state has all the rolls of the other state in the same order, followed by more or none.
+     */
+    public boolean isContinuationOf(GameState earlierState) {
+        if (earlierState.getRollCount() > getRollCount()) {
+            return false;
+        }
+        for (int index = 0; index < earlierState.getRollCount(); index++) {
+            if (rolls[index] != earlierState.rolls[index]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return zero based index of the frame being played; the index of the final frame once the game is over.
+     */
+    public int getFrameIndex() {
+        return activeFrameIndex();
+    }
+
+    /**
+     * @return true, if all the rolls of the final frame are completed.
+     */
+    public boolean isGameOver() {
+        return (cursor & GAME_OVER_FLAG) != 0;
+    }
+
+    public GameStatus getStatus() {
+        return isGameOver() ? GameStatus.GAME_OVER : GameStatus.IN_PROGRESS;
+    }
+
+    /**
+     * Returns the maximum possible number of pins in the next roll.
+     * In the final frame all the pins are set up again after a strike or a spare.
+     */
+    public int maxPossibleNumberOfPins() {
+        if (isGameOver()) {
+            return 0;
+        }
+        int rollsInFrame = rollsInActiveFrame();
+        if (rollsInFrame == 0) {
+            return ALL_PINS;
+        }
+        int firstRoll = rolls[getRollCount() - rollsInFrame];
+        if (activeFrameIndex() == FINAL_FRAME_INDEX
+                && (firstRoll == ALL_PINS || (rollsInFrame == 2 && firstRoll + rolls[getRollCount() - 1] == ALL_PINS))) {
+            return ALL_PINS;
+        }
+        return ALL_PINS - firstRoll;
+    }
+
+    /**
+     * Adds the number of pins hit in the next roll and moves the cursor to the next roll.
+     *
+     * @param numberOfPins number of pins hit in the roll.
+     * @throws IllegalStateException    if the game is already over.
+     * @throws IllegalArgumentException if the number of pins is not possible in this roll.
+     */
+    public void roll(int numberOfPins) {
+        if (isGameOver()) {
+            throw new IllegalStateException("Can not roll in a completed game");
+        }
+        if (numberOfPins < 0 || numberOfPins > maxPossibleNumberOfPins()) {
+            throw new IllegalArgumentException("Invalid number of pins: " + numberOfPins);
+        }
+        int rollCount = getRollCount();
+        int frameIndex = activeFrameIndex();
+        int rollsInFrame = rollsInActiveFrame() + 1;
+        rolls[rollCount++] = (byte) numberOfPins;
+
+        boolean gameOver = false;
+        if (frameIndex < FINAL_FRAME_INDEX) {
+            if (rollsInFrame == 2 || numberOfPins == ALL_PINS) {
+                frameIndex++;
+                rollsInFrame = 0;
+            }
+        } else if (rollsInFrame == 3) {
+            gameOver = true;
+        } else if (rollsInFrame == 2) {
+            int firstRoll = rolls[rollCount - 2];
+            gameOver = firstRoll != ALL_PINS && firstRoll + numberOfPins < ALL_PINS;
+        }
+        cursor = (short) (rollCount
+                | frameIndex << FRAME_INDEX_SHIFT
+                | rollsInFrame << ROLLS_IN_FRAME_SHIFT
+                | (gameOver ? GAME_OVER_FLAG : 0));
+    }
+
+    /**
+     * Creates a new scoreboard view of this state.
+     */
+    public Scoreboard toScoreboard() {
+        Scoreboard scoreboard = Scoreboard.builder().frames(new LinkedList<>()).build();
+        writeFrames(scoreboard, 0);
+        return scoreboard;
+    }
+
+    /**
+     * Updates a scoreboard view, which was in sync before the last roll.
+     * Only the last three frames are written, as all the frames in front of them are already settled.
+     *
+     * @param scoreboard the scoreboard view to be updated.
+     */
+    public void refresh(Scoreboard scoreboard) {
+        refresh(scoreboard, getRollCount() - 1);
+    }
+
+    /**
+     * Updates a scoreboard view, which was in sync after 'viewRollCount' rolls, eg. a view taken before
+     * the concurrent rolls of other requests.
+     * The frames from the first frame changed by the later rolls are written.
+     *
+     * @param scoreboard    the scoreboard view to be updated.
+     * @param viewRollCount number of rolls shown in the view, see {@link #rollCountOf}.
+     */
+    public void refresh(Scoreboard scoreboard, int viewRollCount) {
+        if (scoreboard.getFrames() == null) {
+            scoreboard.setFrames(new LinkedList<>());
+        }
+        writeFrames(scoreboard, Math.min(scoreboard.getFrames().size(), firstChangedFrameIndex(viewRollCount)));
+    }
+
+    /**
+     * @return the number of rolls shown in the scoreboard view.
+     */
+    public static int rollCountOf(Scoreboard scoreboard) {
+        int rollCount = 0;
+        if (scoreboard == null || scoreboard.getFrames() == null) {
+            return rollCount;
+        }
+        for (Frame frame : scoreboard.getFrames()) {
+            if (frame.getFirstRoll() != null) {
+                rollCount++;
+            }
+            if (frame.getSecondRoll() != null) {
+                rollCount++;
+            }
+            if (frame.isFinalFrame() && frame.hasBonus() && frame.getBonus() != null) {
+                rollCount++;
+            }
+        }
+        return rollCount;
+    }
+
+    /**
+     * Returns the index of the first frame changed by the rolls played after 'previousRollCount' rolls.
+     * A roll changes its own frame and the bonus of the two frames in front of it at most.
+     *
+     * @param previousRollCount number of rolls before the changes.
+     */
+    public int firstChangedFrameIndex(int previousRollCount) {
+        if (previousRollCount <= 0) {
+            return 0;
+        }
+        return Math.max(0, frameIndexOfRoll(Math.min(previousRollCount, getRollCount() - 1)) - 2);
+    }
+
+    /**
+     * Calculates the frames in a single pass over the rolls and writes the frames from 'firstFrameIndex'
+     * into the scoreboard.
+     * The outcome of every frame is looked up in the {@link FrameTable} by its first two rolls: a strike or a spare
+     * is scored with three rolls from its first roll, an open frame with two.
+     * The total score of the scoreboard is the score of the latest frame that got its score while it was
+     * the active frame, ie. an open frame or the final frame.
+     */
+    private void writeFrames(Scoreboard scoreboard, int firstFrameIndex) {
+        LinkedList<Frame> frames = scoreboard.getFrames();
+        int rollCount = getRollCount();
+        int cumulativeScore = 0;
+        Integer totalScore = null;
+        int frameIndex = 0;
+        int start = 0;
+        for (; frameIndex <= FINAL_FRAME_INDEX && start < rollCount; frameIndex++) {
+            boolean finalFrame = frameIndex == FINAL_FRAME_INDEX;
+            int firstRoll = rolls[start];
+            int nextRoll = start + 1 < rollCount ? rolls[start + 1] : FrameTable.NO_ROLL;
+            int outcome = FrameTable.frame(firstRoll, nextRoll);
+            int frameRolls = finalFrame ? 2 : FrameTable.frameRolls(outcome);
+            int scoredRolls = FrameTable.scoredRolls(outcome);
+
+            boolean scored = start + scoredRolls <= rollCount;
+            int score = 0;
+            if (scored) {
+                score = firstRoll + nextRoll + (scoredRolls == 3 ? rolls[start + 2] : 0);
+                cumulativeScore += score;
+                if (finalFrame || scoredRolls == 2) {
+                    totalScore = cumulativeScore;
+                }
+            }
+
+            if (frameIndex >= firstFrameIndex) {
+                Frame frame;
+                if (frameIndex < frames.size()) {
+                    frame = frames.get(frameIndex);
+                } else {
+                    frame = new Frame(frameIndex + 1);
+                    frames.addLast(frame);
+                }
+                boolean hasSecondRoll = frameRolls == 2 && nextRoll != FrameTable.NO_ROLL;
+                frame.setFirstRoll(firstRoll);
+                frame.setSecondRoll(hasSecondRoll ? nextRoll : null);
+                frame.setBonus(scored ? score - firstRoll - (hasSecondRoll ? nextRoll : 0) : null);
+                frame.setScore(scored ? cumulativeScore : null);
+            }
+            start += frameRolls;
+        }
+        while (frames.size() > frameIndex) {
+            frames.removeLast();
+        }
+        scoreboard.setTotalScore(totalScore);
+        scoreboard.setStatus(getStatus());
+    }
+
+    private int frameIndexOfRoll(int rollIndex) {
+        int frameIndex = 0;
+        int start = 0;
+        while (frameIndex < FINAL_FRAME_INDEX) {
+            int next = start + (rolls[start] == ALL_PINS ? 1 : 2);
+            if (rollIndex < next) {
+                break;
+            }
+            start = next;
+            frameIndex++;
+        }
+        return frameIndex;
+    }
+
+    private int activeFrameIndex() {
+        return cursor >> FRAME_INDEX_SHIFT & FRAME_INDEX_MASK;
+    }
+
+    private int rollsInActiveFrame() {
+        return cursor >> ROLLS_IN_FRAME_SHIFT & ROLLS_IN_FRAME_MASK;
+    }
+}
@@ -0,0 +1,16 @@
+package de.arena.bowling.domain;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * The aggregates over all the completed games with the leaderboard of the high scores.
+ */
+@Data
+@Builder
+public class GameStatistics {
+    private PlayerStatistics total;
+    private List<LeaderboardEntry> leaderboard;
+}
@@ -0,0 +1,40 @@
+package de.arena.bowling.domain;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+import org.bson.types.ObjectId;
+
+import java.time.Instant;
+
+/**
+ * Status and total score of a game for the listings, read without the frames of the scoreboard.
+ */
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class GameSummary {
+    private String gameId;
+    private GameStatus status;
+    private Integer totalScore;
+    /**
+     * Taken from the generated id of the game; left out for the imported games with their own ids.
+     */
+    private Instant created;
+    private Instant completed;
+
+    /**
+     * @param game a game read with the projection of the status and the total score.
+     */
+    public static GameSummary of(SinglePlayerGame game) {
+        Scoreboard scoreboard = game.getScoreboard();
+        return GameSummary.builder()
+                .gameId(game.getGameId())
+                .status(scoreboard == null ? null : scoreboard.getStatus())
+                .totalScore(scoreboard == null ? null : scoreboard.getTotalScore())
+                .created(ObjectId.isValid(game.getGameId())
+                        ? new ObjectId(game.getGameId()).getDate().toInstant() : null)
+                .completed(game.getCompleted())
+                .build();
+    }
+}
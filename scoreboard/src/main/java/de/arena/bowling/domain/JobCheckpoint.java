@@ -0,0 +1,34 @@
+package de.arena.bowling.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Progress of a job over all the games, saved after every batch, so an interrupted job is resumed after
+ * the last processed game.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document
+public class JobCheckpoint {
+    @Id
+    private String jobName;
+    /**
+     * Id of the last game processed by the job; the games are processed in the order of their ids.
+     */
+    private String lastGameId;
+    private long processedGames;
+    private long discrepantGames;
+    private long correctedGames;
+    private long skippedGames;
+    private long unreadableGames;
+    private Instant updated;
+}
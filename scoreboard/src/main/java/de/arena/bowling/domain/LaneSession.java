@@ -0,0 +1,76 @@
+package de.arena.bowling.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.List;
+
+/**
+ * The games of all the bowlers on a lane, persisted as one document.
+ * The bowlers take turns frame by frame in the order of the list; the scores of every bowler are calculated
+ * on the bowler's own {@link GameState}, the same as for a {@link SinglePlayerGame}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document
+public class LaneSession {
+    /**
+     * Maximum number of bowlers sharing a lane.
+     */
+    public static final int MAX_BOWLERS = 6;
+
+    @Id
+    private String sessionId;
+    private Integer lane;
+    private List<Bowler> bowlers;
+    /**
+     * Incremented with every save; a save of an outdated version fails instead of overwriting newer rolls.
+     */
+    @Version
+    private Long version;
+
+    /**
+     * Returns the index of the bowler to roll next.
+     * A bowler plays a whole frame, including the bonus rolls of the final frame, before the next bowler takes over;
+     * so it is the first bowler in the order with the least advanced game.
+     *
+     * @return -1 if the games of all the bowlers are over.
+     */
+    public int currentBowlerIndex() {
+        int currentBowlerIndex = -1;
+        int frameIndex = Integer.MAX_VALUE;
+        for (int index = 0; index < bowlers.size(); index++) {
+            GameState state = bowlers.get(index).getState();
+            if (!state.isGameOver() && state.getFrameIndex() < frameIndex) {
+                currentBowlerIndex = index;
+                frameIndex = state.getFrameIndex();
+            }
+        }
+        return currentBowlerIndex;
+    }
+
+    /**
+     * @return GAME_OVER once the games of all the bowlers are over.
+     */
+    public GameStatus getStatus() {
+        return currentBowlerIndex() < 0 ? GameStatus.GAME_OVER : GameStatus.IN_PROGRESS;
+    }
+
+    /**
+     * The number of rolls of all the bowlers is the version of the session for the clients, as every change adds a roll.
+     */
+    public int getRollCount() {
+        int rollCount = 0;
+        for (Bowler bowler : bowlers) {
+            rollCount += bowler.getState().getRollCount();
+        }
+        return rollCount;
+    }
+}
@@ -0,0 +1,19 @@
+package de.arena.bowling.domain;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * A completed game in the leaderboard of the high scores.
+ * The player is left out for a single player game.
+ */
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class LeaderboardEntry {
+    private int rank;
+    private String player;
+    private String gameId;
+    private int score;
+}
@@ -0,0 +1,25 @@
+package de.arena.bowling.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * Lane and bowlers of a new {@link LaneSession}; the bowlers roll in the order of the list.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NewLaneSession {
+    @NotNull
+    private Integer lane;
+    @NotEmpty
+    @Size(max = LaneSession.MAX_BOWLERS)
+    private List<@NotBlank String> bowlers;
+}
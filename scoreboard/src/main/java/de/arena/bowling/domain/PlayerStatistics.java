@@ -0,0 +1,27 @@
+package de.arena.bowling.domain;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Aggregates over the completed games of a bowler, or of all the games if there is no player.
+ */
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PlayerStatistics {
+    private String player;
+    private long games;
+    private double averageScore;
+    private Integer highScore;
+    private long perfectGames;
+    /**
+     * Strikes per frame.
+     */
+    private double strikeRate;
+    /**
+     * Spares per frame without a strike.
+     */
+    private double spareRate;
+}
@@ -0,0 +1,21 @@
+package de.arena.bowling.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+
+/**
+ * Number of pins hit in a roll of a game, as reported by a lane controller.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Roll {
+    @NotBlank
+    private String gameId;
+    @NotNull
+    private Integer numberOfPins;
+}
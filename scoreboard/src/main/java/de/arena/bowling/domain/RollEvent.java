@@ -0,0 +1,23 @@
+package de.arena.bowling.domain;
+
+import lombok.Builder;
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * A single roll of a game in the append-only roll event log.
+ * The sequence is the zero based index of the roll in the game; it is unique per game.
+ */
+@Data
+@Builder
+@Document
+@CompoundIndex(name = "game_sequence", def = "{'gameId': 1, 'sequence': 1}", unique = true)
+public class RollEvent {
+    @Id
+    private String id;
+    private String gameId;
+    private int sequence;
+    private int numberOfPins;
+}
@@ -0,0 +1,26 @@
+package de.arena.bowling.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Result of a single roll in a batch of rolls.
+ * A rejected roll holds the error message and leaves the game unchanged.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RollResult {
+    private String gameId;
+    private Integer numberOfPins;
+    private boolean accepted;
+    private String errorMessage;
+    /**
+     * Status and total score of the game after the roll.
+     */
+    private GameStatus status;
+    private Integer totalScore;
+}
@@ -0,0 +1,68 @@
+package de.arena.bowling.domain;
+
+/**
+ * Compact binary format of a game: a version byte, the number of rolls and the rolls packed into nibbles,
+ * two rolls per byte with the earlier roll in the high nibble. A whole game takes 13 bytes at most.
+ * <p>
+ * Only the rolls are encoded; the frames, the scores and the status are calculated again when a game is decoded,
+ * so they can not disagree with the rolls.
+ */
+public final class ScoreboardCodec {
+    /**
+     * Version of the format in the first byte.
+     */
+    public static final byte VERSION = 1;
+
+    /**
+     * Length of a game with all the rolls.
+     */
+    public static final int MAX_LENGTH = 2 + (GameState.MAX_ROLLS + 1) / 2;
+
+    private static final int HEADER_LENGTH = 2;
+
+    private ScoreboardCodec() {
+    }
+
+    public static byte[] encode(GameState state) {
+        int rollCount = state.getRollCount();
+        byte[] bytes = new byte[HEADER_LENGTH + (rollCount + 1) / 2];
+        bytes[0] = VERSION;
+        bytes[1] = (byte) rollCount;
+        for (int index = 0; index < rollCount; index++) {
+            int roll = state.getRoll(index);
+            int position = HEADER_LENGTH + index / 2;
+            bytes[position] = (byte) (index % 2 == 0 ? roll << 4 : bytes[position] | roll);
+        }
+        return bytes;
+    }
+
+    /**
+     * Encodes the rolls in the frames of a scoreboard view.
+     */
+    public static byte[] encode(Scoreboard scoreboard) {
+        return encode(GameState.replay(scoreboard));
+    }
+
+    /**
+     * Decodes the rolls and replays them with the rules of the {@link GameState}.
+     *
+     * @throws IllegalArgumentException if the version is not known, the length does not match the number of rolls
+     *                                  or the rolls are not possible in a game.
+     */
+    public static GameState decode(byte[] bytes) {
+        if (bytes.length < HEADER_LENGTH || bytes[0] != VERSION) {
+            throw new IllegalArgumentException("Unknown format of the game, version: "
+                    + (bytes.length == 0 ? "none" : Byte.toString(bytes[0])));
+        }
+        int rollCount = bytes[1];
+        if (rollCount < 0 || rollCount > GameState.MAX_ROLLS || bytes.length != HEADER_LENGTH + (rollCount + 1) / 2) {
+            throw new IllegalArgumentException("Invalid length " + bytes.length + " for " + rollCount + " rolls");
+        }
+        GameState state = new GameState();
+        for (int index = 0; index < rollCount; index++) {
+            int packed = bytes[HEADER_LENGTH + index / 2];
+            state.roll(index % 2 == 0 ? packed >> 4 & 0xF : packed & 0xF);
+        }
+        return state;
+    }
+}
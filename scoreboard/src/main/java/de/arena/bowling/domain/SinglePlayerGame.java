@@ -1,22 +1,53 @@
 package de.arena.bowling.domain;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.time.Instant;
+
 /**
  * A wrapper class to hold the game scoreboard and game id.
  * The primary key (gameId) will be generated while persisting the object.
  * It holds Scoreboard for a single player only.
+ * The scores are calculated on the compact {@link GameState}; the scoreboard is the persisted and rendered view of it.
+ * The games are listed by their status, the latest completed or created games first; the creation time is part of
+ * the generated id.
  */
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 @Document
+@CompoundIndexes({
+        @CompoundIndex(name = "status_completed", def = "{'scoreboard.status': 1, 'completed': -1}"),
+        @CompoundIndex(name = "status_created", def = "{'scoreboard.status': 1, '_id': -1}")
+})
 public class SinglePlayerGame {
     @Id
     private String gameId;
     private Scoreboard scoreboard;
+    /**
+     * Incremented with every save; a save of an outdated version fails instead of overwriting newer rolls.
+     */
+    @Version
+    private Long version;
+    /**
+     * Time of the last roll; set when the completed game is written.
+     */
+    private Instant completed;
+    /**
+     * Not persisted; replayed from the scoreboard when the game is loaded.
+     */
+    @Transient
+    private GameState state;
 }
 
 
@@ -0,0 +1,8 @@
+package de.arena.bowling.exception;
+
+public class PlayerNotFoundException extends GenericScoreboardException {
+
+    public PlayerNotFoundException(String player) {
+        super(String.format("Could not find completed games of the player: %s", player));
+    }
+}
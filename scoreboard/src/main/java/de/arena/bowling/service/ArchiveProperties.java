@@ -0,0 +1,28 @@
+package de.arena.bowling.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the {@link GameArchiveJob}.
+ * The job runs every 'scoreboard.archive.interval-millis' unless 'scoreboard.archive.enabled' is false.
+ */
+@Data
+@Component
+@ConfigurationProperties("scoreboard.archive")
+public class ArchiveProperties {
+
+    /**
+     * Completed games are moved to the archive once they are completed for longer than this duration.
+     * Imported games without a completion time are moved with the next run.
+     */
+    private Duration completedGameAge = Duration.ofDays(30);
+
+    /**
+     * Number of games moved with one bulk insert and one delete.
+     */
+    private int batchSize = 1000;
+}
@@ -0,0 +1,97 @@
+package de.arena.bowling.service;
+
+import de.arena.bowling.domain.Frame;
+import de.arena.bowling.domain.GameStatus;
+import de.arena.bowling.domain.Scoreboard;
+import de.arena.bowling.domain.ScoreboardCodec;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Stores the scoreboards in the {@link ScoreboardCodec} format, if 'scoreboard.format' is 'binary'.
+ * <p>
+ * A scoreboard is stored as a sub-document with the status, the total score and the encoded rolls, instead of
+ * the frames with four fields each. The status and the total score stay readable for the queries and the indexes.
+ * The scoreboards stored with their frames before are still read; they are written in the new format with their
+ * next save.
+ */
+@Configuration
+@ConditionalOnProperty(name = "scoreboard.format", havingValue = "binary")
+class BinaryScoreboardConverters {
+
+    static final String ROLLS = "rolls";
+    private static final String STATUS = "status";
+    private static final String TOTAL_SCORE = "totalScore";
+    private static final String FRAMES = "frames";
+
+    @Bean
+    MongoCustomConversions customConversions() {
+        return new MongoCustomConversions(Arrays.asList(ScoreboardWriter.INSTANCE, ScoreboardReader.INSTANCE));
+    }
+
+    @WritingConverter
+    enum ScoreboardWriter implements Converter<Scoreboard, Document> {
+        INSTANCE;
+
+        @Override
+        public Document convert(Scoreboard scoreboard) {
+            Document document = new Document();
+            if (scoreboard.getStatus() != null) {
+                document.put(STATUS, scoreboard.getStatus().name());
+            }
+            if (scoreboard.getTotalScore() != null) {
+                document.put(TOTAL_SCORE, scoreboard.getTotalScore());
+            }
+            document.put(ROLLS, new Binary(ScoreboardCodec.encode(scoreboard)));
+            return document;
+        }
+    }
+
+    @ReadingConverter
+    enum ScoreboardReader implements Converter<Document, Scoreboard> {
+        INSTANCE;
+
+        @Override
+        public Scoreboard convert(Document document) {
+            Object rolls = document.get(ROLLS);
+            if (rolls instanceof Binary) {
+                return ScoreboardCodec.decode(((Binary) rolls).getData()).toScoreboard();
+            }
+            // a projection without the rolls, or a scoreboard stored with its frames
+            String status = document.getString(STATUS);
+            return Scoreboard.builder()
+                    .status(status == null ? null : GameStatus.valueOf(status))
+                    .totalScore(document.getInteger(TOTAL_SCORE))
+                    .frames(readFrames(document.get(FRAMES, List.class)))
+                    .build();
+        }
+
+        private LinkedList<Frame> readFrames(List<?> documents) {
+            if (documents == null) {
+                return null;
+            }
+            LinkedList<Frame> frames = new LinkedList<>();
+            for (Object element : documents) {
+                Document document = (Document) element;
+                Frame frame = new Frame(document.getInteger("frameCount"));
+                frame.setFirstRoll(document.getInteger("firstRoll"));
+                frame.setSecondRoll(document.getInteger("secondRoll"));
+                frame.setBonus(document.getInteger("bonus"));
+                frame.setScore(document.getInteger("score"));
+                frames.add(frame);
+            }
+            return frames;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package de.arena.bowling.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration of the {@link GamePartitioner}; the games are partitioned if more than one node is configured.
+ */
+@Data
+@Component
+@ConfigurationProperties("scoreboard.cluster")
+public class ClusterProperties {
+
+    /**
+     * Base URLs of all the nodes sharing the games, including this node, eg. 'http://localhost:8081'.
+     * All the nodes have to be configured with the same list.
+     */
+    private List<String> nodes = new ArrayList<>();
+
+    /**
+     * Base URL of this node in the list of the nodes.
+     */
+    private String self;
+
+    /**
+     * Number of points of every node on the hash ring; more points spread the games more evenly.
+     */
+    private int virtualNodes = 128;
+
+    /**
+     * Interval of the health checks of the other nodes; a node joins the ring with the next successful check.
+     */
+    private long probeIntervalMillis = 2000;
+
+    /**
+     * Number of failed health checks in a row, after which a node leaves the ring and its games are taken over.
+     */
+    private int failureThreshold = 3;
+
+    /**
+     * Timeout of a health check and of the connection of a forwarded request.
+     */
+    private Duration probeTimeout = Duration.ofMillis(500);
+
+    /**
+     * Timeout of the response to a forwarded request.
+     */
+    private Duration forwardTimeout = Duration.ofSeconds(10);
+}
@@ -0,0 +1,69 @@
+package de.arena.bowling.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable hash ring of the nodes owning the games.
+ * <p>
+ * Every node takes a number of points on the ring and a game is owned by the node of the first point at or after
+ * the hash of its id. When a node joins or leaves, only the games between its points and the previous points change
+ * their owner, about one game in the number of nodes, and all the other games stay with their node.
+ * The hash only depends on the ids, so all the nodes with the same list of nodes agree on the owner of a game.
+ */
+class ConsistentHashRing {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final List<String> nodes;
+    private final TreeMap<Long, String> points = new TreeMap<>();
+
+    ConsistentHashRing(Collection<String> nodes, int virtualNodes) {
+        this.nodes = Collections.unmodifiableList(nodes.stream().distinct().sorted().collect(Collectors.toList()));
+        for (String node : this.nodes) {
+            for (int point = 0; point < virtualNodes; point++) {
+                // a collision of two points keeps the node first in the order of the nodes
+                points.putIfAbsent(hash(node + "#" + point), node);
+            }
+        }
+    }
+
+    /**
+     * @return the node owning the game, or null if the ring is empty.
+     */
+    String ownerOf(String gameId) {
+        if (points.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Long, String> point = points.ceilingEntry(hash(gameId));
+        return point == null ? points.firstEntry().getValue() : point.getValue();
+    }
+
+    List<String> getNodes() {
+        return nodes;
+    }
+
+    /**
+     * 64-bit FNV-1a hash of the UTF-8 bytes, mixed with the finalizer of MurmurHash3, so the ids differing only in
+     * their last characters, like consecutive ObjectIds, are spread over the whole ring.
+     */
+    static long hash(String key) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte character : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= character & 0xFF;
+            hash *= FNV_PRIME;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
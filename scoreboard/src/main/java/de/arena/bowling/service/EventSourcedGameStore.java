@@ -0,0 +1,168 @@
+package de.arena.bowling.service;
+
+import de.arena.bowling.domain.GameState;
+import de.arena.bowling.domain.GameStatus;
+import de.arena.bowling.domain.GameSummary;
+import de.arena.bowling.domain.RollEvent;
+import de.arena.bowling.domain.SinglePlayerGame;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
+
+/**
+ * Stores the games as an append-only log of {@link RollEvent}s with snapshots.
+ * <p>
+ * A snapshot of the game document is written when the game is created and when it is over. In between only the
+ * new rolls are appended as tiny events, instead of rewriting the whole document up to 21 times per game.
+ * A game is loaded from its latest snapshot and the rolls appended after it are replayed on the {@link GameState}.
+ */
+@Component
+@ConditionalOnProperty(name = "scoreboard.store", havingValue = "event-log")
+@Slf4j
+class EventSourcedGameStore implements GameStore {
+
+    private final ScoreboardRepository snapshotRepository;
+    private final RollEventRepository rollEventRepository;
+
+    /**
+     * Number of rolls already in the log for the cached games in progress.
+     */
+    private final ConcurrentMap<String, Integer> appendedRolls = new ConcurrentHashMap<>();
+
+    @Autowired
+    EventSourcedGameStore(ScoreboardRepository snapshotRepository, RollEventRepository rollEventRepository) {
+        this.snapshotRepository = snapshotRepository;
+        this.rollEventRepository = rollEventRepository;
+    }
+
+    @Override
+    public SinglePlayerGame create(SinglePlayerGame game) {
+        SinglePlayerGame savedGame = snapshotRepository.save(game);
+        appendedRolls.put(savedGame.getGameId(), rollCount(savedGame));
+        return savedGame;
+    }
+
+    @Override
+    public Optional<SinglePlayerGame> findById(String gameId) {
+        Optional<SinglePlayerGame> snapshot = snapshotRepository.findById(gameId);
+        snapshot.ifPresent(game -> {
+            GameState state = GameState.replay(game.getScoreboard());
+            if (!state.isGameOver()) {
+                List<RollEvent> rolls = rollEventRepository
+                        .findByGameIdAndSequenceGreaterThanEqualOrderBySequence(gameId, state.getRollCount());
+                for (RollEvent roll : rolls) {
+                    state.roll(roll.getNumberOfPins());
+                }
+                appendedRolls.put(gameId, state.getRollCount());
+                game.setScoreboard(state.toScoreboard());
+            }
+            game.setState(state);
+        });
+        return snapshot;
+    }
+
+    @Override
+    public List<SinglePlayerGame> saveAll(List<SinglePlayerGame> games) {
+        List<SinglePlayerGame> savedGames = new ArrayList<>(games);
+        List<RollEvent> newRolls = new ArrayList<>();
+        List<SinglePlayerGame> snapshots = new ArrayList<>();
+        List<Integer> snapshotIndexes = new ArrayList<>();
+        for (int index = 0; index < games.size(); index++) {
+            SinglePlayerGame game = games.get(index);
+            if (game.getGameId() == null) {
+                savedGames.set(index, create(game));
+                continue;
+            }
+            GameState state = game.getState() == null ? GameState.replay(game.getScoreboard()) : game.getState();
+            for (int sequence = appendedRolls(game.getGameId()); sequence < state.getRollCount(); sequence++) {
+                newRolls.add(RollEvent.builder()
+                        .gameId(game.getGameId())
+                        .sequence(sequence)
+                        .numberOfPins(state.getRoll(sequence))
+                        .build());
+            }
+            if (state.isGameOver()) {
+                if (game.getCompleted() == null) {
+                    game.setCompleted(Instant.now());
+                }
+                snapshots.add(game);
+                snapshotIndexes.add(index);
+            }
+        }
+
+        if (!newRolls.isEmpty()) {
+            try {
+                rollEventRepository.insert(newRolls);
+            } catch (DuplicateKeyException exception) {
+                // the unique index on game id and sequence rejected a roll appended by someone else
+                newRolls.forEach(roll -> appendedRolls.remove(roll.getGameId()));
+                throw new OptimisticLockingFailureException("Rolls were appended concurrently to the games", exception);
+            }
+            newRolls.forEach(roll -> appendedRolls.merge(roll.getGameId(), roll.getSequence() + 1, Math::max));
+        }
+        if (!snapshots.isEmpty()) {
+            log.info("Writing the snapshots of {} completed games", snapshots.size());
+            List<SinglePlayerGame> savedSnapshots = snapshotRepository.saveAll(snapshots);
+            for (int snapshot = 0; snapshot < savedSnapshots.size(); snapshot++) {
+                savedGames.set(snapshotIndexes.get(snapshot), savedSnapshots.get(snapshot));
+            }
+            snapshots.forEach(game -> appendedRolls.remove(game.getGameId()));
+        }
+        return savedGames;
+    }
+
+    /**
+     * Inserts the games as snapshots; the rolls of a game in progress are appended to the log after its snapshot.
+     */
+    @Override
+    public void insertAll(List<SinglePlayerGame> games) {
+        snapshotRepository.insert(games);
+    }
+
+    /**
+     * Forgets the number of rolls in the log; it is counted in the log again, if the game is written later on.
+     */
+    @Override
+    public void release(String gameId) {
+        appendedRolls.remove(gameId);
+    }
+
+    /**
+     * Lists the snapshots; the total score of a game in progress is the one of its snapshot, without the rolls
+     * appended to the log after it.
+     */
+    @Override
+    public List<GameSummary> findSummaries(GameStatus status, int page, int size) {
+        return MongoGameStore.findSummaries(snapshotRepository, status, page, size);
+    }
+
+    /**
+     * Streams the snapshots; a completed game always has the snapshot of its last roll.
+     */
+    @Override
+    public Stream<SinglePlayerGame> streamCompleted() {
+        return snapshotRepository.findByScoreboardStatus(GameStatus.GAME_OVER);
+    }
+
+    /**
+     * Gets the number of rolls in the log; counted in the log if the game was not loaded by this store.
+     */
+    private int appendedRolls(String gameId) {
+        return appendedRolls.computeIfAbsent(gameId, id -> (int) rollEventRepository.countByGameId(id));
+    }
+
+    private int rollCount(SinglePlayerGame game) {
+        return game.getState() == null ? 0 : game.getState().getRollCount();
+    }
+}
@@ -0,0 +1,95 @@
+package de.arena.bowling.service;
+
+import com.mongodb.bulk.BulkWriteError;
+import de.arena.bowling.domain.GameState;
+import de.arena.bowling.domain.GameStatus;
+import de.arena.bowling.domain.SinglePlayerGame;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Cold storage of the completed games in a separate collection, so the collection of the games read and written
+ * by the players only grows with the recent games.
+ * The archived games are read-only; they are neither cached nor written again.
+ */
+@Component
+@Slf4j
+class GameArchive {
+
+    static final String COLLECTION = "archivedGame";
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoOperations mongoOperations;
+
+    /**
+     * @param mongoOperations resolved with the first access of the archive, so the services reading the games
+     *                        do not connect to MongoDB on creation with the 'mapped-file' store.
+     */
+    @Autowired
+    GameArchive(@Lazy MongoOperations mongoOperations) {
+        this.mongoOperations = mongoOperations;
+    }
+
+    /**
+     * Loads an archived game with its scoreboard and state.
+     *
+     * @return Optional.empty() if the game is not archived.
+     */
+    Optional<SinglePlayerGame> findById(String gameId) {
+        SinglePlayerGame game = mongoOperations.findById(gameId, SinglePlayerGame.class, COLLECTION);
+        if (game != null) {
+            game.setState(GameState.replay(game.getScoreboard()));
+        }
+        return Optional.ofNullable(game);
+    }
+
+    /**
+     * Moves the completed games from the collection of the games into the archive.
+     * The games are copied first and deleted afterwards, so an interrupted move leaves a game in both collections
+     * until it is moved again, but never in none.
+     *
+     * @return the number of games deleted from the collection of the games.
+     */
+    long move(List<SinglePlayerGame> games) {
+        if (games.isEmpty()) {
+            return 0;
+        }
+        BulkOperations inserts = mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED,
+                SinglePlayerGame.class, COLLECTION);
+        inserts.insert(games);
+        try {
+            inserts.execute();
+        } catch (BulkOperationException exception) {
+            // the games archived by an interrupted move are already there
+            List<BulkWriteError> errors = exception.getErrors().stream()
+                    .filter(error -> error.getCode() != DUPLICATE_KEY)
+                    .collect(Collectors.toList());
+            if (!errors.isEmpty()) {
+                throw exception;
+            }
+        }
+        List<String> gameIds = games.stream().map(SinglePlayerGame::getGameId).collect(Collectors.toList());
+        return mongoOperations.remove(new Query(Criteria.where("_id").in(gameIds)
+                .and("scoreboard.status").is(GameStatus.GAME_OVER)), SinglePlayerGame.class).getDeletedCount();
+    }
+
+    /**
+     * @return all the archived games, read with a cursor; the iterator has to be closed.
+     */
+    CloseableIterator<SinglePlayerGame> streamAll() {
+        return mongoOperations.stream(new Query(), SinglePlayerGame.class, COLLECTION);
+    }
+}
@@ -0,0 +1,65 @@
+package de.arena.bowling.service;
+
+import de.arena.bowling.domain.SinglePlayerGame;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Moves the games completed for longer than 'scoreboard.archive.completed-game-age' into the {@link GameArchive}
+ * in the background, one batch at a time.
+ */
+@Component
+@ConditionalOnProperty(name = "scoreboard.archive.enabled", matchIfMissing = true)
+@Slf4j
+class GameArchiveJob {
+
+    private final ScoreboardRepository scoreboardRepository;
+    private final GameArchive gameArchive;
+    private final ArchiveProperties properties;
+
+    @Autowired
+    GameArchiveJob(ScoreboardRepository scoreboardRepository, GameArchive gameArchive, ArchiveProperties properties) {
+        this.scoreboardRepository = scoreboardRepository;
+        this.gameArchive = gameArchive;
+        this.properties = properties;
+    }
+
+    /**
+     * Moves all the games completed before the threshold, until no game is left or a batch is not moved.
+     *
+     * @return the number of moved games.
+     */
+    @Scheduled(initialDelayString = "${scoreboard.archive.interval-millis:3600000}",
+            fixedDelayString = "${scoreboard.archive.interval-millis:3600000}")
+    long archive() {
+        Instant completedBefore = Instant.now().minus(properties.getCompletedGameAge());
+        long movedGames = 0;
+        try {
+            while (true) {
+                // the moved games are deleted, so the next batch is always the first page
+                List<SinglePlayerGame> games = scoreboardRepository.findCompletedBefore(completedBefore,
+                        PageRequest.of(0, properties.getBatchSize()));
+                long moved = gameArchive.move(games);
+                movedGames += moved;
+                if (games.size() < properties.getBatchSize() || moved == 0) {
+                    break;
+                }
+            }
+        } catch (DataAccessException exception) {
+            log.error("Could not archive the games completed before {}; they are moved with the next run",
+                    completedBefore, exception);
+        }
+        if (movedGames > 0) {
+            log.info("Archived {} games completed before {}", movedGames, completedBefore);
+        }
+        return movedGames;
+    }
+}
@@ -0,0 +1,32 @@
+package de.arena.bowling.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the {@link WriteBehindGameCache}.
+ * The flush interval is configured with 'scoreboard.cache.flush-interval-millis'.
+ */
+@Data
+@Component
+@ConfigurationProperties("scoreboard.cache")
+public class GameCacheProperties {
+
+    /**
+     * Maximum number of games kept in memory; the least recently used game is evicted first.
+     */
+    private int maximumSize = 10_000;
+
+    /**
+     * Games not accessed for this duration are evicted.
+     */
+    private Duration timeToLive = Duration.ofMinutes(30);
+
+    /**
+     * Maximum number of games written to the repository with a single save.
+     */
+    private int flushBatchSize = 500;
+}
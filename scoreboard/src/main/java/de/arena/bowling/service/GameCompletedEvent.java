@@ -0,0 +1,26 @@
+package de.arena.bowling.service;
+
+import de.arena.bowling.domain.GameState;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published once, when the last roll of a game is committed.
+ * The game is either a single player game without a player, or the game of a bowler in a lane session.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class GameCompletedEvent {
+    /**
+     * Id of the single player game or of the lane session.
+     */
+    private final String gameId;
+
+    /**
+     * Name of the bowler in the lane session; null for a single player game.
+     */
+    private final String player;
+    private final GameState state;
+}
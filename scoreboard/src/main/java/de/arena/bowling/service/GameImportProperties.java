@@ -0,0 +1,37 @@
+package de.arena.bowling.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the {@link GameImporter}.
+ * The application imports the file in 'scoreboard.import.file' on startup and exits, if the property is set.
+ */
+@Data
+@Component
+@ConfigurationProperties("scoreboard.import")
+public class GameImportProperties {
+
+    /**
+     * CSV or NDJSON file with the rolls of one game per line.
+     */
+    private String file;
+
+    /**
+     * Number of threads scoring and inserting the games.
+     */
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Number of lines scored and inserted together with one bulk write.
+     */
+    private int batchSize = 1000;
+
+    /**
+     * Interval of the progress messages.
+     */
+    private Duration progressInterval = Duration.ofSeconds(5);
+}
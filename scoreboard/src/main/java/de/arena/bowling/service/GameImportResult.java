@@ -0,0 +1,27 @@
+package de.arena.bowling.service;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Counters of a finished import of historical games.
+ */
+@Data
+@Builder
+public class GameImportResult {
+    private long lines;
+    private long importedGames;
+    /**
+     * Lines with invalid rolls; each of them is logged with its line number.
+     */
+    private long rejectedGames;
+    /**
+     * Valid games of the batches which could not be written.
+     */
+    private long failedGames;
+    private long elapsedMillis;
+
+    public long getGamesPerSecond() {
+        return elapsedMillis == 0 ? importedGames : importedGames * 1000 / elapsedMillis;
+    }
+}
@@ -0,0 +1,42 @@
+package de.arena.bowling.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Paths;
+
+/**
+ * Imports the file in 'scoreboard.import.file' on startup and exits afterwards, with the exit code 1 if games failed.
+ * The application is started without the web server for the import:
+ * '--spring.main.web-application-type=none --scoreboard.import.file=games.csv'.
+ */
+@Component
+@ConditionalOnProperty("scoreboard.import.file")
+@Slf4j
+class GameImportRunner implements ApplicationRunner {
+
+    private final GameImporter gameImporter;
+    private final GameImportProperties properties;
+    private final ConfigurableApplicationContext context;
+
+    @Autowired
+    GameImportRunner(GameImporter gameImporter, GameImportProperties properties, ConfigurableApplicationContext context) {
+        this.gameImporter = gameImporter;
+        this.properties = properties;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        GameImportResult result = gameImporter.importFile(Paths.get(properties.getFile()));
+        log.info("Imported {} games with {} games per second; closing the application",
+                result.getImportedGames(), result.getGamesPerSecond());
+        System.exit(SpringApplication.exit(context, () -> result.getFailedGames() == 0 ? 0 : 1));
+    }
+}
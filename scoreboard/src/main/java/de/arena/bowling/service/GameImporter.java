@@ -0,0 +1,240 @@
+package de.arena.bowling.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import de.arena.bowling.domain.GameState;
+import de.arena.bowling.domain.SinglePlayerGame;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Imports historical games from files with the rolls of one game per line, bypassing the service and the cache
+ * of the active games.
+ * <p>
+ * Two formats are read, chosen by the file extension:
+ * <ul>
+ * <li>CSV ('.csv'): the game id followed by the number of pins of every roll, like 'game1,10,7,3,9,0'.
+ * The game id may be empty to generate one.</li>
+ * <li>NDJSON ('.ndjson' or '.jsonl'): one JSON object per line, like {"gameId": "game1", "rolls": [10, 7, 3, 9, 0]}.</li>
+ * </ul>
+ * Empty lines and lines starting with '#' are skipped.
+ * <p>
+ * The file is read by the calling thread in batches of lines. The batches are scored by a pool of threads with the
+ * rules of the {@link GameState}, and every batch is written with one bulk insert. The number of batches in flight
+ * is limited, so the memory does not depend on the size of the file. A game with invalid rolls is rejected and
+ * logged with its line number, without stopping the import.
+ */
+@Component
+@Slf4j
+public class GameImporter {
+
+    private final GameStore gameStore;
+    private final GameImportProperties properties;
+    private final ObjectReader gameReader = new ObjectMapper().readerFor(ImportedGame.class);
+
+    @Autowired
+    GameImporter(GameStore gameStore, GameImportProperties properties) {
+        this.gameStore = gameStore;
+        this.properties = properties;
+    }
+
+    /**
+     * Imports all the games of the file and waits until they are written.
+     *
+     * @throws IllegalArgumentException if the format of the file is not known by its extension.
+     */
+    public GameImportResult importFile(Path file) throws IOException, InterruptedException {
+        String fileName = file.getFileName().toString().toLowerCase();
+        boolean json = fileName.endsWith(".ndjson") || fileName.endsWith(".jsonl");
+        if (!json && !fileName.endsWith(".csv")) {
+            throw new IllegalArgumentException("Unknown format of the file: " + file + "; expected .csv, .ndjson or .jsonl");
+        }
+        log.info("Importing the games from {}", file);
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return importLines(reader, json);
+        }
+    }
+
+    GameImportResult importLines(BufferedReader reader, boolean json) throws IOException, InterruptedException {
+        int threads = Math.max(1, properties.getThreads());
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads,
+                runnable -> new Thread(runnable, "game-import-" + threadCount.incrementAndGet()));
+        ScheduledExecutorService progressReporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "game-import-progress");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Semaphore batchesInFlight = new Semaphore(threads * 2);
+        Progress progress = new Progress(System.currentTimeMillis());
+        long interval = properties.getProgressInterval().toMillis();
+        progressReporter.scheduleAtFixedRate(() -> log.info("Import progress: {}", progress.result()),
+                interval, interval, TimeUnit.MILLISECONDS);
+        try {
+            List<String> batch = new ArrayList<>(properties.getBatchSize());
+            long firstLineNumber = 1;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                batch.add(line);
+                if (batch.size() == properties.getBatchSize()) {
+                    submit(executor, batchesInFlight, batch, firstLineNumber, json, progress);
+                    firstLineNumber += batch.size();
+                    batch = new ArrayList<>(properties.getBatchSize());
+                }
+            }
+            submit(executor, batchesInFlight, batch, firstLineNumber, json, progress);
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } finally {
+            executor.shutdownNow();
+            progressReporter.shutdownNow();
+        }
+        GameImportResult result = progress.result();
+        log.info("Import finished: {}", result);
+        return result;
+    }
+
+    private void submit(ExecutorService executor, Semaphore batchesInFlight, List<String> lines, long firstLineNumber,
+                        boolean json, Progress progress) throws InterruptedException {
+        batchesInFlight.acquire();
+        executor.execute(() -> {
+            try {
+                importBatch(lines, firstLineNumber, json, progress);
+            } finally {
+                batchesInFlight.release();
+            }
+        });
+    }
+
+    private void importBatch(List<String> lines, long firstLineNumber, boolean json, Progress progress) {
+        List<SinglePlayerGame> games = new ArrayList<>(lines.size());
+        for (int index = 0; index < lines.size(); index++) {
+            String line = lines.get(index);
+            if (line.trim().isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            try {
+                games.add(json ? parseJson(line) : parseCsv(line));
+            } catch (IOException | RuntimeException exception) {
+                progress.rejectedGames.increment();
+                log.warn("Rejected the game in line {}: {}", firstLineNumber + index, exception.getMessage());
+            }
+        }
+        progress.lines.add(lines.size());
+        if (games.isEmpty()) {
+            return;
+        }
+        try {
+            gameStore.insertAll(games);
+            progress.importedGames.add(games.size());
+        } catch (DataAccessException exception) {
+            progress.failedGames.add(games.size());
+            log.error("Could not insert the games of the lines {} to {}", firstLineNumber,
+                    firstLineNumber + lines.size() - 1, exception);
+        }
+    }
+
+    /**
+     * Parses the game id and the rolls of a CSV line without splitting it into strings.
+     */
+    private SinglePlayerGame parseCsv(String line) {
+        int separator = line.indexOf(',');
+        if (separator < 0) {
+            throw new IllegalArgumentException("No rolls in the line");
+        }
+        String gameId = line.substring(0, separator).trim();
+        GameState state = new GameState();
+        int numberOfPins = -1;
+        for (int index = separator + 1; index < line.length(); index++) {
+            char character = line.charAt(index);
+            if (character >= '0' && character <= '9') {
+                numberOfPins = (numberOfPins < 0 ? 0 : numberOfPins * 10) + character - '0';
+            } else if (character == ',') {
+                state.roll(requireRoll(numberOfPins));
+                numberOfPins = -1;
+            } else if (character != ' ') {
+                throw new IllegalArgumentException("Invalid character '" + character + "'");
+            }
+        }
+        state.roll(requireRoll(numberOfPins));
+        return game(gameId, state);
+    }
+
+    private SinglePlayerGame parseJson(String line) throws IOException {
+        ImportedGame importedGame = gameReader.readValue(line);
+        if (importedGame.getRolls() == null || importedGame.getRolls().length == 0) {
+            throw new IllegalArgumentException("No rolls in the line");
+        }
+        GameState state = new GameState();
+        for (int numberOfPins : importedGame.getRolls()) {
+            state.roll(numberOfPins);
+        }
+        return game(importedGame.getGameId(), state);
+    }
+
+    private int requireRoll(int numberOfPins) {
+        if (numberOfPins < 0) {
+            throw new IllegalArgumentException("Missing number of pins");
+        }
+        return numberOfPins;
+    }
+
+    private SinglePlayerGame game(String gameId, GameState state) {
+        return SinglePlayerGame.builder()
+                .gameId(gameId == null || gameId.isEmpty() ? null : gameId)
+                .scoreboard(state.toScoreboard())
+                .build();
+    }
+
+    /**
+     * A line of a NDJSON file.
+     */
+    @Data
+    static class ImportedGame {
+        private String gameId;
+        private int[] rolls;
+    }
+
+    /**
+     * Counters updated concurrently by the import threads.
+     */
+    private static class Progress {
+        private final long start;
+        private final LongAdder lines = new LongAdder();
+        private final LongAdder importedGames = new LongAdder();
+        private final LongAdder rejectedGames = new LongAdder();
+        private final LongAdder failedGames = new LongAdder();
+
+        Progress(long start) {
+            this.start = start;
+        }
+
+        GameImportResult result() {
+            return GameImportResult.builder()
+                    .lines(lines.sum())
+                    .importedGames(importedGames.sum())
+                    .rejectedGames(rejectedGames.sum())
+                    .failedGames(failedGames.sum())
+                    .elapsedMillis(System.currentTimeMillis() - start)
+                    .build();
+        }
+    }
+}
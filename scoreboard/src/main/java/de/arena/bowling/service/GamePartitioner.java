@@ -0,0 +1,200 @@
+package de.arena.bowling.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Partitions the games across the nodes in 'scoreboard.cluster.nodes' by their id, so every game has one node
+ * holding its state in the {@link WriteBehindGameCache} and applying its rolls. The other nodes pass the requests
+ * of the game on to its owner.
+ * <p>
+ * The games are assigned with a {@link ConsistentHashRing} of the live nodes. The other nodes are checked on
+ * '/actuator/health' every 'scoreboard.cluster.probe-interval-millis'. A node joins the ring with its first successful
+ * check and leaves it after 'scoreboard.cluster.failure-threshold' failures in a row; a request, which could not be
+ * passed on to a node, counts as a failed check. A single lost connection does not move the games of a node, which
+ * still holds their state. Every change is published as a {@link PartitionsChangedEvent}; the previous owner writes
+ * and releases the games it lost, and the new owner loads them from the shared {@link GameStore}.
+ * <p>
+ * With less than two nodes, this node owns all the games.
+ */
+@Component
+@Slf4j
+public class GamePartitioner implements MeterBinder {
+
+    private final ClusterProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RestTemplate probes;
+    private final List<String> nodes;
+    private final String self;
+
+    /**
+     * Nodes passing their health checks, always including this node; guarded by itself.
+     */
+    private final Set<String> liveNodes = new LinkedHashSet<>();
+    /**
+     * Failed checks in a row of the live nodes, which did not leave the ring yet; guarded by 'liveNodes'.
+     */
+    private final Map<String, Integer> failures = new HashMap<>();
+    /**
+     * Lock of the publication of the changed rings, which is not held while the ring is changed.
+     */
+    private final Object publication = new Object();
+    private volatile ConsistentHashRing ring;
+
+    @Autowired
+    public GamePartitioner(ClusterProperties properties, ApplicationEventPublisher eventPublisher) {
+        this.properties = properties;
+        this.eventPublisher = eventPublisher;
+        this.nodes = properties.getNodes().stream().map(GamePartitioner::baseUrl).filter(node -> !node.isEmpty())
+                .distinct().collect(Collectors.toList());
+        this.self = properties.getSelf() == null || properties.getSelf().trim().isEmpty()
+                ? null : baseUrl(properties.getSelf());
+        if (nodes.size() > 1 && !nodes.contains(self)) {
+            throw new IllegalStateException("scoreboard.cluster.self " + self + " is not one of the nodes " + nodes);
+        }
+        this.probes = new RestTemplateBuilder()
+                .setConnectTimeout(properties.getProbeTimeout())
+                .setReadTimeout(properties.getProbeTimeout())
+                .build();
+        // all the nodes are expected to be live until the first health checks
+        liveNodes.addAll(nodes);
+        ring = new ConsistentHashRing(liveNodes, properties.getVirtualNodes());
+    }
+
+    public boolean isClustered() {
+        return nodes.size() > 1;
+    }
+
+    /**
+     * @return the base URL of this node, or null if it is not configured.
+     */
+    public String getSelf() {
+        return self;
+    }
+
+    /**
+     * @return the base URL of the node owning the game.
+     */
+    public String ownerOf(String gameId) {
+        return isClustered() ? ring.ownerOf(gameId) : self;
+    }
+
+    public boolean isLocal(String gameId) {
+        return !isClustered() || self.equals(ring.ownerOf(gameId));
+    }
+
+    /**
+     * Generates the id of a new game, which is owned by this node, so the node creating the game holds its state.
+     *
+     * @return null if the games are not partitioned; the id is generated by the {@link GameStore} then.
+     */
+    public String newGameId() {
+        if (!isClustered()) {
+            return null;
+        }
+        String gameId;
+        do {
+            gameId = new ObjectId().toHexString();
+        } while (!isLocal(gameId));
+        return gameId;
+    }
+
+    /**
+     * Counts a request, which could not be passed on to the node, as a failed health check.
+     *
+     * @return true if the node left the ring, so its games are owned by the remaining nodes.
+     */
+    public boolean unreachable(String node) {
+        log.warn("Node {} is not reachable", node);
+        changeMembership(node, false);
+        return !ring.getNodes().contains(node);
+    }
+
+    /**
+     * Checks the health of the other nodes and changes the ring, if a node joined or left.
+     */
+    @Scheduled(fixedDelayString = "${scoreboard.cluster.probe-interval-millis:2000}")
+    void probe() {
+        if (!isClustered()) {
+            return;
+        }
+        for (String node : nodes) {
+            if (!node.equals(self)) {
+                changeMembership(node, isHealthy(node));
+            }
+        }
+    }
+
+    List<String> getLiveNodes() {
+        return ring.getNodes();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("scoreboard.cluster.nodes", this, partitioner -> partitioner.getLiveNodes().size())
+                .description("Live nodes owning the games")
+                .register(registry);
+    }
+
+    private boolean isHealthy(String node) {
+        try {
+            return probes.getForEntity(node + "/actuator/health", String.class).getStatusCode().is2xxSuccessful();
+        } catch (RestClientException exception) {
+            return false;
+        }
+    }
+
+    /**
+     * Changes the ring with the result of a health check and publishes the changed ring after releasing the lock of
+     * the live nodes, so the listeners writing the released games do not block the other checks and requests.
+     * A ring, which was changed again before it was published, is left out, so the latest ring is published last.
+     */
+    private void changeMembership(String node, boolean live) {
+        ConsistentHashRing changedRing;
+        synchronized (liveNodes) {
+            if (live) {
+                failures.remove(node);
+                if (!liveNodes.add(node)) {
+                    return;
+                }
+            } else {
+                int failedChecks = failures.merge(node, 1, Integer::sum);
+                if (failedChecks < properties.getFailureThreshold() || !liveNodes.remove(node)) {
+                    return;
+                }
+                failures.remove(node);
+            }
+            changedRing = new ConsistentHashRing(liveNodes, properties.getVirtualNodes());
+            ring = changedRing;
+        }
+        log.info("Node {} {}; the games are partitioned across {}", node, live ? "joined" : "left",
+                changedRing.getNodes());
+        synchronized (publication) {
+            if (ring == changedRing) {
+                eventPublisher.publishEvent(new PartitionsChangedEvent(changedRing, self));
+            }
+        }
+    }
+
+    private static String baseUrl(String url) {
+        String trimmed = url.trim();
+        return trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+    }
+}
@@ -0,0 +1,77 @@
+package de.arena.bowling.service;
+
+import de.arena.bowling.domain.GameStatus;
+import de.arena.bowling.domain.GameSummary;
+import de.arena.bowling.domain.SinglePlayerGame;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Persistence of the games behind the {@link WriteBehindGameCache}.
+ * The implementation is selected with the property 'scoreboard.store'.
+ */
+interface GameStore {
+
+    /**
+     * Persists a new game and generates its id, unless the game has an id assigned by the {@link GamePartitioner}.
+     *
+     * @return the persisted game with its id.
+     */
+    SinglePlayerGame create(SinglePlayerGame game);
+
+    /**
+     * Loads a game with its scoreboard and state.
+     *
+     * @return Optional.empty() if no game is found with the id.
+     */
+    Optional<SinglePlayerGame> findById(String gameId);
+
+    /**
+     * Persists the latest state of the games.
+     *
+     * @return the games in the same order, with their new versions.
+     * @throws org.springframework.dao.OptimisticLockingFailureException if a game was saved by someone else
+     *                                                                    since its version was loaded.
+     */
+    List<SinglePlayerGame> saveAll(List<SinglePlayerGame> games);
+
+    /**
+     * Inserts new games with one bulk write, used for the import of historical games.
+     * The games without an id get a generated id.
+     *
+     * @throws org.springframework.dao.DuplicateKeyException if a game with the same id is already stored.
+     */
+    void insertAll(List<SinglePlayerGame> games);
+
+    /**
+     * Lists the stored games with the status without reading their frames: the completed games in the order of
+     * their completion, the other games in the order of their creation, the latest first.
+     * The games in the cache may be written later.
+     *
+     * @param page zero based index of the page.
+     * @param size number of games per page.
+     */
+    List<GameSummary> findSummaries(GameStatus status, int page, int size);
+
+    /**
+     * Streams all the completed games with their scoreboards, eg. to aggregate their statistics.
+     * The stream has to be closed.
+     */
+    Stream<SinglePlayerGame> streamCompleted();
+
+    /**
+     * Forgets what the store remembers of the last write of the game, after the game left the cache with all of its
+     * writes finished. The next write of a game, which is unknown to the store, is a full write.
+     */
+    default void release(String gameId) {
+    }
+
+    /**
+     * @return true if the completed games are moved from this store into the {@link GameArchive} in MongoDB.
+     */
+    default boolean isArchived() {
+        return true;
+    }
+}
@@ -0,0 +1,30 @@
+package de.arena.bowling.service;
+
+import de.arena.bowling.domain.GameState;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published after new rolls of a game are committed to the cache.
+ * The state is a copy taken right after the rolls, so it is not changed by the rolls applied later.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class GameUpdatedEvent {
+    private final String gameId;
+    private final GameState state;
+
+    /**
+     * Number of rolls in the game before the update.
+     */
+    private final int previousRollCount;
+
+    /**
+     * @return index of the first frame changed by the update.
+     */
+    public int firstChangedFrameIndex() {
+        return state.firstChangedFrameIndex(previousRollCount);
+    }
+}
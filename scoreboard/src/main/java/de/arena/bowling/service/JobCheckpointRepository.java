@@ -0,0 +1,10 @@
+package de.arena.bowling.service;
+
+import de.arena.bowling.domain.JobCheckpoint;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+/**
+ * MongoDB repository of the checkpoints of the jobs over all the games.
+ */
+interface JobCheckpointRepository extends MongoRepository<JobCheckpoint, String> {
+}
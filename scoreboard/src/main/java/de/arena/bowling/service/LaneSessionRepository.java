@@ -0,0 +1,17 @@
+package de.arena.bowling.service;
+
+import de.arena.bowling.domain.LaneSession;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.stream.Stream;
+
+/**
+ * MongoDB repository to store the lane sessions, one document per lane with the games of all the bowlers.
+ */
+interface LaneSessionRepository extends MongoRepository<LaneSession, String> {
+
+    /**
+     * @return all the sessions, read with a cursor; the stream has to be closed.
+     */
+    Stream<LaneSession> streamAllBy();
+}
@@ -0,0 +1,41 @@
+package de.arena.bowling.service;
+
+import de.arena.bowling.domain.LaneSession;
+import de.arena.bowling.exception.GenericScoreboardException;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Service methods for the games of several bowlers sharing a lane.
+ */
+public interface LaneSessionService {
+
+    /**
+     * Creates a new {@link LaneSession} with an empty scoreboard for every bowler.
+     *
+     * @param lane        number of the lane.
+     * @param bowlerNames names of the bowlers in the order they take turns.
+     * @return the persisted session with the generated session id.
+     */
+    LaneSession createSession(Integer lane, List<String> bowlerNames);
+
+    /**
+     * Fetches the session with the specified 'sessionId'.
+     *
+     * @return Optional.empty() if sessionId is null or no match found.
+     */
+    Optional<LaneSession> fetchSession(String sessionId);
+
+    /**
+     * Updates the scoreboard of the bowler in turn with the number of pins hit in the last roll.
+     * The whole session is persisted with a single write.
+     *
+     * @param sessionId    id of the session.
+     * @param numberOfPins number of pins hit in the last roll.
+     * @return the updated session.
+     * @throws GenericScoreboardException if no session is found, the games of all the bowlers are over
+     *                                    or the number of pins is not possible in this roll.
+     */
+    LaneSession roll(String sessionId, int numberOfPins) throws GenericScoreboardException;
+}
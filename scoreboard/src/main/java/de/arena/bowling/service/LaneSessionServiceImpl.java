@@ -0,0 +1,102 @@
+package de.arena.bowling.service;
+
+import de.arena.bowling.domain.Bowler;
+import de.arena.bowling.domain.GameState;
+import de.arena.bowling.domain.LaneSession;
+import de.arena.bowling.exception.AttemptToUpdateCompletedGameException;
+import de.arena.bowling.exception.GameNotFoundException;
+import de.arena.bowling.exception.GenericScoreboardException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Implementation for the lane session service methods.
+ * A roll reads and writes the one document of the lane, instead of one document per bowler.
+ */
+@Service
+@Slf4j
+public class LaneSessionServiceImpl implements LaneSessionService {
+
+    private static final int LOCK_STRIPES = 64;
+
+    /**
+     * The rolls on a lane are serialized on one of these locks, chosen by the session id.
+     * Rolls from another node are rejected by the version of the session.
+     * The locks are held while the session is read and saved, so they are no monitors, which would pin a virtual
+     * thread to its carrier thread during the I/O.
+     */
+    private final ReentrantLock[] sessionLocks = new ReentrantLock[LOCK_STRIPES];
+
+    private LaneSessionRepository sessionRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private ScoreboardMetrics metrics;
+
+    @Autowired
+    public LaneSessionServiceImpl(LaneSessionRepository sessionRepository, ApplicationEventPublisher eventPublisher,
+                                  ScoreboardMetrics metrics) {
+        this.sessionRepository = sessionRepository;
+        this.eventPublisher = eventPublisher;
+        this.metrics = metrics;
+        for (int stripe = 0; stripe < LOCK_STRIPES; stripe++) {
+            sessionLocks[stripe] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public LaneSession createSession(Integer lane, List<String> bowlerNames) {
+        log.info("Creating a session with {} bowlers on lane {}", bowlerNames.size(), lane);
+        List<Bowler> bowlers = new ArrayList<>(bowlerNames.size());
+        for (String name : bowlerNames) {
+            GameState state = new GameState();
+            bowlers.add(Bowler.builder().name(name).scoreboard(state.toScoreboard()).state(state).build());
+        }
+        LaneSession session = sessionRepository.save(LaneSession.builder().lane(lane).bowlers(bowlers).build());
+        metrics.gamesCreated(bowlers.size());
+        return session;
+    }
+
+    @Override
+    public Optional<LaneSession> fetchSession(String sessionId) {
+        return sessionId == null ? Optional.empty() : sessionRepository.findById(sessionId);
+    }
+
+    @Override
+    public LaneSession roll(String sessionId, int numberOfPins) throws GenericScoreboardException {
+        ReentrantLock lock = lockOf(sessionId);
+        lock.lock();
+        try {
+            LaneSession session = fetchSession(sessionId).orElseThrow(() -> new GameNotFoundException(sessionId));
+            int currentBowlerIndex = session.currentBowlerIndex();
+            if (currentBowlerIndex < 0) {
+                throw new AttemptToUpdateCompletedGameException(sessionId);
+            }
+            Bowler bowler = session.getBowlers().get(currentBowlerIndex);
+            ScoringRules.roll(sessionId, bowler.getScoreboard(), bowler.getState(), numberOfPins);
+            log.info("Validated the roll of bowler {} on lane {}; calculating latest score.", bowler.getName(), session.getLane());
+            // only the frames affected by the last roll are written into the scoreboard view
+            bowler.getState().refresh(bowler.getScoreboard());
+            LaneSession savedSession = sessionRepository.save(session);
+            metrics.rolled(1);
+            if (bowler.getState().isGameOver()) {
+                eventPublisher.publishEvent(new GameCompletedEvent(sessionId, bowler.getName(), bowler.getState().copy()));
+            }
+            return savedSession;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReentrantLock lockOf(String sessionId) {
+        if (sessionId == null) {
+            throw new IllegalArgumentException("Session id can not be null");
+        }
+        return sessionLocks[(sessionId.hashCode() & Integer.MAX_VALUE) % LOCK_STRIPES];
+    }
+}
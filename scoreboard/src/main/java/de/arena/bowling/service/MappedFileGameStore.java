@@ -0,0 +1,470 @@
+package de.arena.bowling.service;
+
+import de.arena.bowling.domain.GameState;
+import de.arena.bowling.domain.GameStatus;
+import de.arena.bowling.domain.GameSummary;
+import de.arena.bowling.domain.ScoreboardCodec;
+import de.arena.bowling.domain.SinglePlayerGame;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Stores the games in fixed-size slots of a local memory-mapped file, so a write of a game is a copy of a few bytes
+ * into memory instead of a round trip to MongoDB.
+ * <p>
+ * Every game takes one slot of 128 bytes: a header with the id of the game, written once when the slot is taken,
+ * and two copies of the game with its version, its rolls in the format of the {@link ScoreboardCodec}, its status
+ * and its completion time. A save overwrites the older copy, so a write torn by a crash leaves the previous version
+ * in the other copy. The header and the copies end with a CRC32C checksum, and a copy with a wrong checksum is
+ * ignored when the game is read.
+ * <p>
+ * The index of the slots by the game id is kept in memory and rebuilt from the headers when the store is opened.
+ * The writes go to the page cache of the operating system and survive a crash of the application right away;
+ * with 'sync-writes' every written slot is forced to the disk as well.
+ */
+@Component
+@ConditionalOnProperty(name = "scoreboard.store", havingValue = "mapped-file")
+@Slf4j
+class MappedFileGameStore implements GameStore {
+
+    static final int SLOT_SIZE = 128;
+    static final int HEADER_SIZE = 48;
+    static final int COPY_SIZE = 40;
+
+    /**
+     * Maximum length of a game id in UTF-8 bytes, behind the length byte and in front of the checksum of the header.
+     */
+    static final int MAX_ID_LENGTH = HEADER_SIZE - 5;
+
+    // copy layout: version, the encoded rolls, the status, the completion time in epoch millis, the checksum
+    private static final int VERSION_OFFSET = 0;
+    private static final int ROLLS_OFFSET = 8;
+    private static final int STATUS_OFFSET = ROLLS_OFFSET + ScoreboardCodec.MAX_LENGTH;
+    private static final int COMPLETED_OFFSET = 24;
+    private static final int CHECKSUM_OFFSET = 32;
+    private static final byte GAME_OVER = 1;
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final MappedFileStoreProperties properties;
+
+    /**
+     * Slot of every stored game by its id.
+     */
+    private final ConcurrentMap<String, Integer> slots = new ConcurrentHashMap<>();
+
+    /**
+     * The copies of a slot are read and written with the lock of its stripe.
+     */
+    private final ReentrantLock[] slotLocks = new ReentrantLock[LOCK_STRIPES];
+
+    /**
+     * Guards the allocation of the slots and the mapping of new segments.
+     */
+    private final ReentrantLock allocationLock = new ReentrantLock();
+
+    private FileChannel channel;
+    private volatile MappedByteBuffer[] segments = new MappedByteBuffer[0];
+    private int nextSlot;
+
+    @Autowired
+    MappedFileGameStore(MappedFileStoreProperties properties) {
+        this.properties = properties;
+        for (int stripe = 0; stripe < LOCK_STRIPES; stripe++) {
+            slotLocks[stripe] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Maps the file and rebuilds the index of the slots.
+     */
+    @PostConstruct
+    void open() throws IOException {
+        Path path = Paths.get(properties.getPath()).toAbsolutePath();
+        Files.createDirectories(path.getParent());
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long segmentSize = (long) properties.getSegmentSlots() * SLOT_SIZE;
+        int segmentCount = (int) ((channel.size() + segmentSize - 1) / segmentSize);
+        MappedByteBuffer[] mappedSegments = new MappedByteBuffer[segmentCount];
+        for (int segment = 0; segment < segmentCount; segment++) {
+            mappedSegments[segment] = channel.map(FileChannel.MapMode.READ_WRITE, segment * segmentSize, segmentSize);
+        }
+        segments = mappedSegments;
+
+        int unreadableSlots = 0;
+        for (int slot = 0; slot < segmentCount * properties.getSegmentSlots(); slot++) {
+            String gameId = readId(slot);
+            if (gameId == null) {
+                continue;
+            }
+            if (latestCopy(slot) == null) {
+                // the slot was taken, but its first copy was not written completely
+                unreadableSlots++;
+                continue;
+            }
+            slots.put(gameId, slot);
+            nextSlot = slot + 1;
+        }
+        log.info("Opened the game store {} with {} games; {} unreadable slots", path, slots.size(), unreadableSlots);
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+        channel.close();
+    }
+
+    @Override
+    public SinglePlayerGame create(SinglePlayerGame game) {
+        if (game.getGameId() == null) {
+            game.setGameId(new ObjectId().toHexString());
+        }
+        insert(game);
+        return game;
+    }
+
+    @Override
+    public Optional<SinglePlayerGame> findById(String gameId) {
+        Integer slot = slots.get(gameId);
+        if (slot == null) {
+            return Optional.empty();
+        }
+        Copy copy;
+        ReentrantLock lock = lockOf(slot);
+        lock.lock();
+        try {
+            copy = latestCopy(slot);
+        } finally {
+            lock.unlock();
+        }
+        return Optional.ofNullable(copy).map(latestCopy -> game(gameId, latestCopy));
+    }
+
+    /**
+     * Writes every game into the older copy of its slot, if the game still has the version of the newer copy.
+     * The games without an id and the new games with an id and without a version are inserted.
+     */
+    @Override
+    public List<SinglePlayerGame> saveAll(List<SinglePlayerGame> games) {
+        for (SinglePlayerGame game : games) {
+            Integer slot = game.getGameId() == null ? null : slots.get(game.getGameId());
+            if (slot == null && game.getVersion() == null) {
+                create(game);
+                continue;
+            }
+            if (slot == null) {
+                throw new OptimisticLockingFailureException("Game " + game.getGameId() + " with version "
+                        + game.getVersion() + " is not stored");
+            }
+            GameState state = stateOf(game);
+            if (state.isGameOver() && game.getCompleted() == null) {
+                game.setCompleted(Instant.now());
+            }
+            ReentrantLock lock = lockOf(slot);
+            lock.lock();
+            try {
+                Copy storedCopy = latestCopy(slot);
+                Long storedVersion = storedCopy == null ? null : storedCopy.version;
+                if (!Objects.equals(storedVersion, game.getVersion())) {
+                    throw new OptimisticLockingFailureException("Game " + game.getGameId() + " was saved with version "
+                            + storedVersion + " since its version " + game.getVersion() + " was loaded");
+                }
+                long version = storedVersion + 1;
+                writeCopy(slot, olderCopyIndex(slot), version, state, game.getCompleted());
+                game.setVersion(version);
+            } finally {
+                lock.unlock();
+            }
+        }
+        return games;
+    }
+
+    @Override
+    public void insertAll(List<SinglePlayerGame> games) {
+        games.forEach(this::create);
+    }
+
+    /**
+     * Scans all the slots; the completed games are sorted by their completion, the others are listed in the reverse
+     * order of their slots, which are taken in the order of the creation of the games.
+     */
+    @Override
+    public List<GameSummary> findSummaries(GameStatus status, int page, int size) {
+        List<Summary> summaries = new ArrayList<>();
+        int slotCount = slotCount();
+        for (int slot = slotCount - 1; slot >= 0; slot--) {
+            String gameId = readId(slot);
+            Copy copy = gameId == null ? null : latestCopy(slot);
+            if (copy != null && (status == null || status == copy.status())) {
+                summaries.add(new Summary(gameId, copy));
+            }
+        }
+        if (GameStatus.GAME_OVER == status) {
+            summaries.sort(Comparator.comparingLong((Summary summary) -> summary.copy.completed).reversed());
+        }
+        List<GameSummary> pageOfSummaries = new ArrayList<>(size);
+        for (int index = page * size; index < Math.min(summaries.size(), (page + 1) * size); index++) {
+            Summary summary = summaries.get(index);
+            pageOfSummaries.add(GameSummary.of(game(summary.gameId, summary.copy)));
+        }
+        return pageOfSummaries;
+    }
+
+    /**
+     * Scans all the slots in the order of the creation of the games.
+     */
+    @Override
+    public Stream<SinglePlayerGame> streamCompleted() {
+        return IntStream.range(0, slotCount())
+                .mapToObj(slot -> {
+                    String gameId = readId(slot);
+                    Copy copy = gameId == null ? null : latestCopy(slot);
+                    return copy != null && copy.gameOver ? game(gameId, copy) : null;
+                })
+                .filter(Objects::nonNull);
+    }
+
+    /**
+     * The completed games stay in the file; the archive job only moves the games of the collection in MongoDB.
+     */
+    @Override
+    public boolean isArchived() {
+        return false;
+    }
+
+    /**
+     * Takes the next free slot and writes the first copy of the game into it, then the header with its id.
+     *
+     * @throws DuplicateKeyException if a game with the same id is already stored.
+     */
+    private void insert(SinglePlayerGame game) {
+        byte[] id = game.getGameId().getBytes(StandardCharsets.UTF_8);
+        if (id.length > MAX_ID_LENGTH) {
+            throw new DataIntegrityViolationException("Game id " + game.getGameId() + " is longer than "
+                    + MAX_ID_LENGTH + " bytes");
+        }
+        GameState state = stateOf(game);
+        if (state.isGameOver() && game.getCompleted() == null) {
+            game.setCompleted(Instant.now());
+        }
+        allocationLock.lock();
+        try {
+            if (slots.containsKey(game.getGameId())) {
+                throw new DuplicateKeyException("Game " + game.getGameId() + " is already stored");
+            }
+            int slot = nextSlot;
+            if (slot == slotCount()) {
+                mapSegment();
+            }
+            writeCopy(slot, 0, 0L, state, game.getCompleted());
+            writeHeader(slot, id);
+            nextSlot++;
+            slots.put(game.getGameId(), slot);
+        } finally {
+            allocationLock.unlock();
+        }
+        game.setVersion(0L);
+    }
+
+    private void mapSegment() {
+        long segmentSize = (long) properties.getSegmentSlots() * SLOT_SIZE;
+        MappedByteBuffer[] mappedSegments = Arrays.copyOf(segments, segments.length + 1);
+        try {
+            mappedSegments[segments.length] =
+                    channel.map(FileChannel.MapMode.READ_WRITE, segments.length * segmentSize, segmentSize);
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Could not extend the game store", exception);
+        }
+        segments = mappedSegments;
+        log.info("Extended the game store to {} slots", slotCount());
+    }
+
+    private void writeHeader(int slot, byte[] id) {
+        byte[] header = new byte[HEADER_SIZE];
+        header[0] = (byte) id.length;
+        System.arraycopy(id, 0, header, 1, id.length);
+        ByteBuffer.wrap(header).putInt(HEADER_SIZE - 4, checksum(header, HEADER_SIZE - 4));
+        write(slot, 0, header);
+    }
+
+    /**
+     * @return the id of the game in the slot, or null if the slot is free or its header is not complete.
+     */
+    private String readId(int slot) {
+        byte[] header = read(slot, 0, HEADER_SIZE);
+        int length = header[0] & 0xFF;
+        if (length == 0 || length > MAX_ID_LENGTH
+                || ByteBuffer.wrap(header).getInt(HEADER_SIZE - 4) != checksum(header, HEADER_SIZE - 4)) {
+            return null;
+        }
+        return new String(header, 1, length, StandardCharsets.UTF_8);
+    }
+
+    private void writeCopy(int slot, int copyIndex, long version, GameState state, Instant completed) {
+        byte[] copy = new byte[COPY_SIZE];
+        ByteBuffer buffer = ByteBuffer.wrap(copy);
+        buffer.putLong(VERSION_OFFSET, version);
+        byte[] rolls = ScoreboardCodec.encode(state);
+        System.arraycopy(rolls, 0, copy, ROLLS_OFFSET, rolls.length);
+        copy[STATUS_OFFSET] = state.isGameOver() ? GAME_OVER : 0;
+        buffer.putLong(COMPLETED_OFFSET, completed == null ? 0 : completed.toEpochMilli());
+        buffer.putInt(CHECKSUM_OFFSET, checksum(copy, CHECKSUM_OFFSET));
+        write(slot, HEADER_SIZE + copyIndex * COPY_SIZE, copy);
+    }
+
+    /**
+     * @return the valid copy with the higher version, or null if none of the copies is valid.
+     */
+    private Copy latestCopy(int slot) {
+        Copy first = readCopy(slot, 0);
+        Copy second = readCopy(slot, 1);
+        if (first == null || second == null) {
+            return first == null ? second : first;
+        }
+        return first.version >= second.version ? first : second;
+    }
+
+    /**
+     * @return the index of the copy to be overwritten: an invalid copy or the copy with the lower version.
+     */
+    private int olderCopyIndex(int slot) {
+        Copy first = readCopy(slot, 0);
+        Copy second = readCopy(slot, 1);
+        if (first == null || second == null) {
+            return first == null ? 0 : 1;
+        }
+        return first.version < second.version ? 0 : 1;
+    }
+
+    private Copy readCopy(int slot, int copyIndex) {
+        byte[] copy = read(slot, HEADER_SIZE + copyIndex * COPY_SIZE, COPY_SIZE);
+        ByteBuffer buffer = ByteBuffer.wrap(copy);
+        if (buffer.getInt(CHECKSUM_OFFSET) != checksum(copy, CHECKSUM_OFFSET) || copy[ROLLS_OFFSET] != ScoreboardCodec.VERSION) {
+            return null;
+        }
+        int rollCount = copy[ROLLS_OFFSET + 1];
+        if (rollCount < 0 || rollCount > GameState.MAX_ROLLS) {
+            return null;
+        }
+        byte[] rolls = Arrays.copyOfRange(copy, ROLLS_OFFSET, ROLLS_OFFSET + 2 + (rollCount + 1) / 2);
+        return new Copy(buffer.getLong(VERSION_OFFSET), rolls, copy[STATUS_OFFSET] == GAME_OVER,
+                buffer.getLong(COMPLETED_OFFSET));
+    }
+
+    private byte[] read(int slot, int offset, int length) {
+        byte[] bytes = new byte[length];
+        segmentOf(slot).get(positionOf(slot) + offset, bytes);
+        return bytes;
+    }
+
+    private void write(int slot, int offset, byte[] bytes) {
+        MappedByteBuffer segment = segmentOf(slot);
+        int position = positionOf(slot) + offset;
+        segment.put(position, bytes);
+        if (properties.isSyncWrites()) {
+            segment.force(position, bytes.length);
+        }
+    }
+
+    private MappedByteBuffer segmentOf(int slot) {
+        return segments[slot / properties.getSegmentSlots()];
+    }
+
+    private int positionOf(int slot) {
+        return slot % properties.getSegmentSlots() * SLOT_SIZE;
+    }
+
+    private int slotCount() {
+        return segments.length * properties.getSegmentSlots();
+    }
+
+    private ReentrantLock lockOf(int slot) {
+        return slotLocks[slot % LOCK_STRIPES];
+    }
+
+    private static SinglePlayerGame game(String gameId, Copy copy) {
+        GameState state = ScoreboardCodec.decode(copy.rolls);
+        return SinglePlayerGame.builder()
+                .gameId(gameId)
+                .version(copy.version)
+                .completed(copy.completed == 0 ? null : Instant.ofEpochMilli(copy.completed))
+                .state(state)
+                .scoreboard(state.toScoreboard())
+                .build();
+    }
+
+    private static GameState stateOf(SinglePlayerGame game) {
+        return game.getState() == null ? GameState.replay(game.getScoreboard()) : game.getState();
+    }
+
+    private static int checksum(byte[] bytes, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(bytes, 0, length);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * A valid copy of a game in its slot.
+     */
+    private static final class Copy {
+        private final long version;
+        private final byte[] rolls;
+        private final boolean gameOver;
+        private final long completed;
+
+        private Copy(long version, byte[] rolls, boolean gameOver, long completed) {
+            this.version = version;
+            this.rolls = rolls;
+            this.gameOver = gameOver;
+            this.completed = completed;
+        }
+
+        private GameStatus status() {
+            return gameOver ? GameStatus.GAME_OVER : GameStatus.IN_PROGRESS;
+        }
+    }
+
+    private static final class Summary {
+        private final String gameId;
+        private final Copy copy;
+
+        private Summary(String gameId, Copy copy) {
+            this.gameId = gameId;
+            this.copy = copy;
+        }
+    }
+}
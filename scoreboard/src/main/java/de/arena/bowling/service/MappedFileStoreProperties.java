@@ -0,0 +1,30 @@
+package de.arena.bowling.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration of the {@link MappedFileGameStore}, which is used with 'scoreboard.store=mapped-file'.
+ */
+@Data
+@Component
+@ConfigurationProperties("scoreboard.mapped-file")
+public class MappedFileStoreProperties {
+
+    /**
+     * File of the game slots; created with its directories if it does not exist.
+     */
+    private String path = "data/games.slots";
+
+    /**
+     * Number of game slots mapped at once; the file grows by this number of slots when it is full.
+     */
+    private int segmentSlots = 65_536;
+
+    /**
+     * Forces every written slot to the disk before the save returns, so the games survive a crash of the machine,
+     * not only of the application; a save waits for the disk then.
+     */
+    private boolean syncWrites = false;
+}
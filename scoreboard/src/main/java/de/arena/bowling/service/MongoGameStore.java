@@ -0,0 +1,158 @@
+package de.arena.bowling.service;
+
+import de.arena.bowling.domain.GameState;
+import de.arena.bowling.domain.GameStatus;
+import de.arena.bowling.domain.GameSummary;
+import de.arena.bowling.domain.SinglePlayerGame;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Stores every game as one document with the whole scoreboard; the default store.
+ * <p>
+ * A game written by this store before is updated with only the frames changed since that write, as long as it
+ * still has the version of that write. The other games are saved as whole documents.
+ */
+@Component
+@ConditionalOnProperty(name = "scoreboard.store", havingValue = "mongo", matchIfMissing = true)
+class MongoGameStore implements GameStore {
+
+    private final ScoreboardRepository scoreboardRepository;
+
+    /**
+     * Version and number of rolls of the cached games in progress, as they were last written by this store.
+     */
+    private final ConcurrentMap<String, Written> writtenGames = new ConcurrentHashMap<>();
+
+    @Autowired
+    MongoGameStore(ScoreboardRepository scoreboardRepository) {
+        this.scoreboardRepository = scoreboardRepository;
+    }
+
+    @Override
+    public SinglePlayerGame create(SinglePlayerGame game) {
+        SinglePlayerGame savedGame = scoreboardRepository.save(game);
+        written(savedGame);
+        return savedGame;
+    }
+
+    @Override
+    public Optional<SinglePlayerGame> findById(String gameId) {
+        Optional<SinglePlayerGame> game = scoreboardRepository.findById(gameId);
+        game.ifPresent(loadedGame -> loadedGame.setState(GameState.replay(loadedGame.getScoreboard())));
+        return game;
+    }
+
+    @Override
+    public List<SinglePlayerGame> saveAll(List<SinglePlayerGame> games) {
+        List<SinglePlayerGame> documents = new ArrayList<>(games.size());
+        List<SinglePlayerGame> updates = new ArrayList<>(games.size());
+        List<Integer> firstChangedFrameIndexes = new ArrayList<>(games.size());
+        for (SinglePlayerGame game : games) {
+            if (game.getState() != null && game.getState().isGameOver() && game.getCompleted() == null) {
+                game.setCompleted(Instant.now());
+            }
+            Written written = game.getGameId() == null ? null : writtenGames.get(game.getGameId());
+            if (written != null && game.getState() != null && Objects.equals(written.version, game.getVersion())) {
+                updates.add(game);
+                firstChangedFrameIndexes.add(game.getState().firstChangedFrameIndex(written.rollCount));
+            } else {
+                documents.add(game);
+            }
+        }
+
+        List<SinglePlayerGame> savedDocuments = documents.isEmpty()
+                ? documents : scoreboardRepository.saveAll(documents);
+        savedDocuments.forEach(this::written);
+        if (updates.isEmpty()) {
+            return savedDocuments;
+        }
+        try {
+            scoreboardRepository.updateFrames(updates, firstChangedFrameIndexes);
+        } catch (OptimisticLockingFailureException exception) {
+            // the games are saved as whole documents with their stored version next time
+            updates.forEach(game -> writtenGames.remove(game.getGameId()));
+            throw exception;
+        }
+        updates.forEach(this::written);
+
+        List<SinglePlayerGame> savedGames = new ArrayList<>(games.size());
+        int document = 0;
+        int update = 0;
+        for (SinglePlayerGame game : games) {
+            boolean updated = update < updates.size() && updates.get(update) == game;
+            if (updated) {
+                update++;
+            }
+            savedGames.add(updated || document >= savedDocuments.size() ? game : savedDocuments.get(document++));
+        }
+        return savedGames;
+    }
+
+    @Override
+    public void insertAll(List<SinglePlayerGame> games) {
+        scoreboardRepository.insert(games);
+    }
+
+    @Override
+    public void release(String gameId) {
+        writtenGames.remove(gameId);
+    }
+
+    @Override
+    public List<GameSummary> findSummaries(GameStatus status, int page, int size) {
+        return findSummaries(scoreboardRepository, status, page, size);
+    }
+
+    @Override
+    public Stream<SinglePlayerGame> streamCompleted() {
+        return scoreboardRepository.findByScoreboardStatus(GameStatus.GAME_OVER);
+    }
+
+    static List<GameSummary> findSummaries(ScoreboardRepository repository, GameStatus status, int page, int size) {
+        Sort latestFirst = GameStatus.GAME_OVER == status
+                ? Sort.by(Sort.Direction.DESC, "completed") : Sort.by(Sort.Direction.DESC, "gameId");
+        return repository.findSummariesByStatus(status, PageRequest.of(page, size, latestFirst))
+                .stream()
+                .map(GameSummary::of)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Remembers the written game for the next partial update, unless the game is over and not written again.
+     */
+    private void written(SinglePlayerGame game) {
+        if (game.getGameId() == null || game.getVersion() == null || game.getState() == null
+                || game.getState().isGameOver()) {
+            if (game.getGameId() != null) {
+                writtenGames.remove(game.getGameId());
+            }
+            return;
+        }
+        writtenGames.put(game.getGameId(), new Written(game.getVersion(), game.getState().getRollCount()));
+    }
+
+    private static final class Written {
+        private final Long version;
+        private final int rollCount;
+
+        private Written(Long version, int rollCount) {
+            this.version = version;
+            this.rollCount = rollCount;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package de.arena.bowling.service;
+
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * Published after a node joined or left the ring of the {@link GamePartitioner}.
+ * The games, which this node does not own anymore, have to be written and released by the components holding them.
+ */
+@ToString(onlyExplicitlyIncluded = true)
+public class PartitionsChangedEvent {
+
+    private final ConsistentHashRing ring;
+    private final String self;
+
+    PartitionsChangedEvent(ConsistentHashRing ring, String self) {
+        this.ring = ring;
+        this.self = self;
+    }
+
+    /**
+     * @return the live nodes owning the games after the change.
+     */
+    @ToString.Include
+    public List<String> getNodes() {
+        return ring.getNodes();
+    }
+
+    /**
+     * @return true if this node owns the game after the change.
+     */
+    public boolean isLocal(String gameId) {
+        return self.equals(ring.ownerOf(gameId));
+    }
+}
@@ -0,0 +1,19 @@
+package de.arena.bowling.service;
+
+import de.arena.bowling.domain.RollEvent;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.List;
+
+/**
+ * MongoDB repository of the roll event log.
+ */
+interface RollEventRepository extends MongoRepository<RollEvent, String> {
+
+    /**
+     * @return the rolls of the game starting from the sequence, in the order they were played.
+     */
+    List<RollEvent> findByGameIdAndSequenceGreaterThanEqualOrderBySequence(String gameId, int sequence);
+
+    long countByGameId(String gameId);
+}
@@ -0,0 +1,76 @@
+package de.arena.bowling.service;
+
+import de.arena.bowling.domain.Frame;
+import de.arena.bowling.domain.PlayerStatistics;
+import de.arena.bowling.domain.Scoreboard;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Running totals over the completed games of a player or of all the games.
+ * Every game is added in constant time, and the averages are calculated from the totals when they are read.
+ * The fields are also the fields of the documents of the {@link SharedStatistics}, which are read into this class.
+ */
+class ScoreAggregate {
+    private static final int PERFECT_SCORE = 300;
+
+    private long games;
+    private long totalScore;
+    private int highScore = -1;
+    private long perfectGames;
+    private long frames;
+    private long strikes;
+    private long spares;
+
+    synchronized void add(Scoreboard scoreboard) {
+        int score = scoreboard.getTotalScore() == null ? 0 : scoreboard.getTotalScore();
+        games++;
+        totalScore += score;
+        highScore = Math.max(highScore, score);
+        if (score == PERFECT_SCORE) {
+            perfectGames++;
+        }
+        for (Frame frame : scoreboard.getFrames()) {
+            frames++;
+            if (frame.isStrike()) {
+                strikes++;
+            } else if (frame.isSpare()) {
+                spares++;
+            }
+        }
+    }
+
+    /**
+     * @return the counters by their field names, which are summed up when aggregates are merged.
+     */
+    synchronized Map<String, Long> toCounters() {
+        Map<String, Long> counters = new LinkedHashMap<>();
+        counters.put("games", games);
+        counters.put("totalScore", totalScore);
+        counters.put("perfectGames", perfectGames);
+        counters.put("frames", frames);
+        counters.put("strikes", strikes);
+        counters.put("spares", spares);
+        return counters;
+    }
+
+    /**
+     * @return the highest score, or -1 without any game.
+     */
+    synchronized int getHighScore() {
+        return highScore;
+    }
+
+    synchronized PlayerStatistics toStatistics(String player) {
+        return PlayerStatistics.builder()
+                .player(player)
+                .games(games)
+                .averageScore(games == 0 ? 0 : (double) totalScore / games)
+                .highScore(highScore < 0 ? null : highScore)
+                .perfectGames(perfectGames)
+                .strikeRate(frames == 0 ? 0 : (double) strikes / frames)
+                .spareRate(frames == strikes ? 0 : (double) spares / (frames - strikes))
+                .build();
+    }
+}
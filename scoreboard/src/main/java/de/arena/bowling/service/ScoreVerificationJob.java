@@ -0,0 +1,268 @@
+package de.arena.bowling.service;
+
+import de.arena.bowling.domain.Frame;
+import de.arena.bowling.domain.GameState;
+import de.arena.bowling.domain.JobCheckpoint;
+import de.arena.bowling.domain.Scoreboard;
+import de.arena.bowling.domain.SinglePlayerGame;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Re-scores all the stored games with the current rules and reports the games whose frame scores, total score or
+ * status disagree with their rolls; used after a scoring bug is fixed.
+ * <p>
+ * The games are read with a cursor in the order of their ids, so the memory does not depend on the number of games.
+ * Every batch is scored on a fork-join pool while the next batch is read. The discrepancies are appended to a CSV
+ * report with the columns 'gameId,field,stored,expected'; if 'fix' is set, only the corrected games of the batch
+ * are written, with one bulk write guarded by their versions.
+ * <p>
+ * The id of the last game of every batch is saved as a {@link JobCheckpoint}, so an interrupted job continues after
+ * that game. The checkpoint is deleted when all the games are verified.
+ */
+@Component
+@Slf4j
+public class ScoreVerificationJob {
+
+    static final String JOB_NAME = "score-verification";
+    private static final String REPORT_HEADER = "gameId,field,stored,expected";
+
+    private final ScoreboardRepository scoreboardRepository;
+    private final JobCheckpointRepository checkpointRepository;
+    private final ScoreVerificationProperties properties;
+
+    @Autowired
+    ScoreVerificationJob(ScoreboardRepository scoreboardRepository, JobCheckpointRepository checkpointRepository,
+                         ScoreVerificationProperties properties) {
+        this.scoreboardRepository = scoreboardRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.properties = properties;
+    }
+
+    /**
+     * Verifies all the games after the checkpoint of an interrupted run, or all the games if there is none.
+     */
+    public ScoreVerificationResult run() throws IOException, InterruptedException {
+        JobCheckpoint checkpoint = properties.isRestart() ? null : checkpointRepository.findById(JOB_NAME).orElse(null);
+        if (checkpoint == null) {
+            checkpoint = JobCheckpoint.builder().jobName(JOB_NAME).build();
+            log.info("Verifying the scores of all the games, fix: {}", properties.isFix());
+        } else {
+            log.info("Resuming the score verification after the game {} with {} verified games, fix: {}",
+                    checkpoint.getLastGameId(), checkpoint.getProcessedGames(), properties.isFix());
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, properties.getParallelism()));
+        try (Stream<SinglePlayerGame> games = streamAfter(checkpoint.getLastGameId());
+             BufferedWriter report = openReport(checkpoint.getLastGameId() == null)) {
+            Iterator<SinglePlayerGame> iterator = games.iterator();
+            List<SinglePlayerGame> batch = nextBatch(iterator);
+            ForkJoinTask<List<Verification>> scoring = score(pool, batch);
+            while (!batch.isEmpty()) {
+                List<SinglePlayerGame> nextBatch = nextBatch(iterator);
+                ForkJoinTask<List<Verification>> nextScoring = score(pool, nextBatch);
+                complete(batch, scoring.get(), checkpoint, report);
+                batch = nextBatch;
+                scoring = nextScoring;
+            }
+        } catch (ExecutionException exception) {
+            throw new IllegalStateException("Could not score the games", exception.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        checkpointRepository.deleteById(JOB_NAME);
+
+        ScoreVerificationResult result = result(checkpoint);
+        log.info("Score verification finished: {}", result);
+        return result;
+    }
+
+    private Stream<SinglePlayerGame> streamAfter(String lastGameId) {
+        if (lastGameId == null) {
+            return scoreboardRepository.streamAllOrderedById();
+        }
+        // MongoDB compares the ids within their BSON type only; the string ids sort in front of the ObjectIds
+        return ObjectId.isValid(lastGameId)
+                ? scoreboardRepository.findByGameIdGreaterThanOrderByGameId(lastGameId)
+                : scoreboardRepository.streamAfterImportedId(lastGameId);
+    }
+
+    private BufferedWriter openReport(boolean newReport) throws IOException {
+        Path reportFile = Paths.get(properties.getReportFile());
+        if (newReport || !Files.exists(reportFile)) {
+            BufferedWriter report = Files.newBufferedWriter(reportFile, StandardCharsets.UTF_8);
+            report.write(REPORT_HEADER);
+            report.newLine();
+            return report;
+        }
+        return Files.newBufferedWriter(reportFile, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+    }
+
+    private List<SinglePlayerGame> nextBatch(Iterator<SinglePlayerGame> iterator) {
+        List<SinglePlayerGame> batch = new ArrayList<>(properties.getBatchSize());
+        while (batch.size() < properties.getBatchSize() && iterator.hasNext()) {
+            batch.add(iterator.next());
+        }
+        return batch;
+    }
+
+    private ForkJoinTask<List<Verification>> score(ForkJoinPool pool, List<SinglePlayerGame> batch) {
+        return pool.submit(() -> batch.parallelStream().map(this::verify).collect(Collectors.toList()));
+    }
+
+    /**
+     * Replays the rolls in the stored frames and compares the stored scoreboard with the scoreboard of the replay.
+     */
+    Verification verify(SinglePlayerGame game) {
+        Scoreboard stored = game.getScoreboard();
+        Scoreboard expected;
+        try {
+            expected = GameState.replay(stored).toScoreboard();
+        } catch (IllegalArgumentException | IllegalStateException exception) {
+            return new Verification(null, Collections.singletonList(
+                    new Discrepancy("rolls", exception.getMessage(), "")));
+        }
+        List<Discrepancy> discrepancies = new ArrayList<>();
+        List<Frame> storedFrames = stored == null || stored.getFrames() == null
+                ? Collections.emptyList() : stored.getFrames();
+        List<Frame> expectedFrames = expected.getFrames();
+        if (storedFrames.size() != expectedFrames.size()) {
+            discrepancies.add(new Discrepancy("frames", storedFrames.size(), expectedFrames.size()));
+        }
+        for (int index = 0; index < Math.min(storedFrames.size(), expectedFrames.size()); index++) {
+            Frame storedFrame = storedFrames.get(index);
+            Frame expectedFrame = expectedFrames.get(index);
+            compare(discrepancies, "frame" + (index + 1) + ".score", storedFrame.getScore(), expectedFrame.getScore());
+            compare(discrepancies, "frame" + (index + 1) + ".bonus", storedFrame.getBonus(), expectedFrame.getBonus());
+        }
+        compare(discrepancies, "totalScore", stored == null ? null : stored.getTotalScore(), expected.getTotalScore());
+        compare(discrepancies, "status", stored == null ? null : stored.getStatus(), expected.getStatus());
+        return new Verification(discrepancies.isEmpty() ? null : expected, discrepancies);
+    }
+
+    private void compare(List<Discrepancy> discrepancies, String field, Object stored, Object expected) {
+        if (!Objects.equals(stored, expected)) {
+            discrepancies.add(new Discrepancy(field, stored, expected));
+        }
+    }
+
+    /**
+     * Reports and corrects the discrepancies of a scored batch and saves the checkpoint after its last game.
+     */
+    private void complete(List<SinglePlayerGame> batch, List<Verification> verifications, JobCheckpoint checkpoint,
+                          BufferedWriter report) throws IOException {
+        List<SinglePlayerGame> corrections = new ArrayList<>();
+        for (int index = 0; index < batch.size(); index++) {
+            SinglePlayerGame game = batch.get(index);
+            Verification verification = verifications.get(index);
+            if (verification.discrepancies.isEmpty()) {
+                continue;
+            }
+            checkpoint.setDiscrepantGames(checkpoint.getDiscrepantGames() + 1);
+            for (Discrepancy discrepancy : verification.discrepancies) {
+                report.write(game.getGameId() + ',' + discrepancy.field + ',' + csv(discrepancy.stored) + ','
+                        + csv(discrepancy.expected));
+                report.newLine();
+            }
+            if (verification.expected == null) {
+                checkpoint.setUnreadableGames(checkpoint.getUnreadableGames() + 1);
+            } else if (properties.isFix()) {
+                game.setScoreboard(verification.expected);
+                corrections.add(game);
+            }
+        }
+        report.flush();
+        saveCorrections(corrections, checkpoint);
+
+        checkpoint.setProcessedGames(checkpoint.getProcessedGames() + batch.size());
+        checkpoint.setLastGameId(batch.get(batch.size() - 1).getGameId());
+        checkpoint.setUpdated(Instant.now());
+        checkpointRepository.save(checkpoint);
+    }
+
+    /**
+     * Writes the corrected scoreboards with one bulk write, each guarded by the version the game was read with.
+     * A game saved by the application in the meantime is skipped, as its score is already written by the current
+     * rules; the corrected and skipped games are counted from the matches of the bulk write.
+     */
+    private void saveCorrections(List<SinglePlayerGame> corrections, JobCheckpoint checkpoint) {
+        if (corrections.isEmpty()) {
+            return;
+        }
+        int correctedGames = scoreboardRepository.replaceScoreboards(corrections);
+        checkpoint.setCorrectedGames(checkpoint.getCorrectedGames() + correctedGames);
+        int skippedGames = corrections.size() - correctedGames;
+        if (skippedGames > 0) {
+            checkpoint.setSkippedGames(checkpoint.getSkippedGames() + skippedGames);
+            log.warn("Skipped the correction of {} games, which were saved by the application in the meantime",
+                    skippedGames);
+        }
+    }
+
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        return text.indexOf(',') < 0 && text.indexOf('"') < 0 ? text : '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    private static ScoreVerificationResult result(JobCheckpoint checkpoint) {
+        return ScoreVerificationResult.builder()
+                .verifiedGames(checkpoint.getProcessedGames())
+                .discrepantGames(checkpoint.getDiscrepantGames())
+                .correctedGames(checkpoint.getCorrectedGames())
+                .skippedGames(checkpoint.getSkippedGames())
+                .unreadableGames(checkpoint.getUnreadableGames())
+                .build();
+    }
+
+    /**
+     * Outcome of the verification of one game.
+     */
+    static class Verification {
+        /**
+         * The scoreboard calculated from the rolls; null if the game is correct or can not be replayed.
+         */
+        final Scoreboard expected;
+        final List<Discrepancy> discrepancies;
+
+        Verification(Scoreboard expected, List<Discrepancy> discrepancies) {
+            this.expected = expected;
+            this.discrepancies = discrepancies;
+        }
+    }
+
+    static class Discrepancy {
+        final String field;
+        final Object stored;
+        final Object expected;
+
+        Discrepancy(String field, Object stored, Object expected) {
+            this.field = field;
+            this.stored = stored;
+            this.expected = expected;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package de.arena.bowling.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration of the {@link ScoreVerificationJob}.
+ */
+@Data
+@Component
+@ConfigurationProperties("scoreboard.verification")
+public class ScoreVerificationProperties {
+
+    /**
+     * True to run the verification on startup and close the application afterwards.
+     */
+    private boolean enabled;
+
+    /**
+     * True to write the corrected games; otherwise the discrepancies are only reported.
+     */
+    private boolean fix;
+
+    /**
+     * True to start from the first game, ignoring the checkpoint of an interrupted run.
+     */
+    private boolean restart;
+
+    /**
+     * Number of games scored in parallel and written together.
+     */
+    private int batchSize = 1000;
+
+    /**
+     * Number of threads scoring the games.
+     */
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * CSV file with a line for every discrepancy; a resumed run appends to it.
+     */
+    private String reportFile = "score-verification-report.csv";
+}
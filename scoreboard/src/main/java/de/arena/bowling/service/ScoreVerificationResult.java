@@ -0,0 +1,26 @@
+package de.arena.bowling.service;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Counters of a completed score verification, including the games verified before the run was resumed.
+ */
+@Data
+@Builder
+public class ScoreVerificationResult {
+    private long verifiedGames;
+    /**
+     * Games with a frame score, a total score or a status not matching their rolls.
+     */
+    private long discrepantGames;
+    private long correctedGames;
+    /**
+     * Discrepant games not corrected, because they were saved by the application in the meantime.
+     */
+    private long skippedGames;
+    /**
+     * Games whose frames do not hold a valid sequence of rolls; they are reported but never corrected.
+     */
+    private long unreadableGames;
+}
@@ -0,0 +1,42 @@
+package de.arena.bowling.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs the {@link ScoreVerificationJob} on startup and exits afterwards, with the exit code 1 if games could not be
+ * read, if 'scoreboard.verification.enabled' is true:
+ * '--spring.main.web-application-type=none --scoreboard.verification.enabled=true --scoreboard.verification.fix=true'.
+ */
+@Component
+@ConditionalOnProperty("scoreboard.verification.enabled")
+@Slf4j
+class ScoreVerificationRunner implements ApplicationRunner {
+
+    private final ScoreVerificationJob job;
+    private final ScoreVerificationProperties properties;
+    private final ConfigurableApplicationContext context;
+
+    @Autowired
+    ScoreVerificationRunner(ScoreVerificationJob job, ScoreVerificationProperties properties,
+                            ConfigurableApplicationContext context) {
+        this.job = job;
+        this.properties = properties;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        ScoreVerificationResult result = job.run();
+        log.info("Found {} games with wrong scores, corrected {} and {} unreadable games; see {}; closing the application",
+                result.getDiscrepantGames(), result.getCorrectedGames(), result.getUnreadableGames(),
+                properties.getReportFile());
+        System.exit(SpringApplication.exit(context, () -> result.getUnreadableGames() == 0 ? 0 : 1));
+    }
+}
@@ -0,0 +1,120 @@
+package de.arena.bowling.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the stages of a roll and the counters of the games, published on '/actuator/prometheus'.
+ * <p>
+ * A roll is timed in the stages of {@link Stage}, so a slow request can be told apart by the stage it spent its
+ * time in. The percentile histograms of the stages are enabled in the application properties. The counters of
+ * the caches and the open subscriptions are bound by the components holding them.
+ */
+@Component
+public class ScoreboardMetrics {
+
+    static final String STAGE_TIMER = "scoreboard.stage";
+    static final String ROLLS = "scoreboard.rolls";
+    static final String CREATED_GAMES = "scoreboard.games.created";
+    static final String COMPLETED_GAMES = "scoreboard.games.completed";
+    static final String VALIDATION_FAILURES = "scoreboard.validation.failures";
+    static final String LOOKUP_TIMER = "scoreboard.lookups";
+
+    /**
+     * Stages of a request to roll in a game.
+     */
+    public enum Stage {
+        /**
+         * Fetching the game from the cache, or from MongoDB if it is not cached, or from the archive.
+         */
+        FETCH,
+        /**
+         * Validating the roll and calculating the changed frames.
+         */
+        SCORE,
+        /**
+         * Committing the game to the write-behind cache; a completed game is written to MongoDB right away.
+         */
+        STORE,
+        /**
+         * Rendering the scoreboard view after the controller is done.
+         */
+        RENDER
+    }
+
+    private final MeterRegistry registry;
+    private final Timer[] stageTimers = new Timer[Stage.values().length];
+    private final Counter rolls;
+    private final Counter createdGames;
+    private final Counter completedGames;
+    private final ConcurrentMap<String, TierLatency> tierLookups = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ScoreboardMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        for (Stage stage : Stage.values()) {
+            stageTimers[stage.ordinal()] = Timer.builder(STAGE_TIMER)
+                    .description("Latency of a stage of a roll")
+                    .tag("stage", stage.name().toLowerCase(Locale.ROOT))
+                    .register(registry);
+        }
+        rolls = Counter.builder(ROLLS).description("Accepted rolls").register(registry);
+        createdGames = Counter.builder(CREATED_GAMES)
+                .description("Created single player games and games of the bowlers in lane sessions")
+                .register(registry);
+        completedGames = Counter.builder(COMPLETED_GAMES).description("Completed games").register(registry);
+    }
+
+    /**
+     * @param startNanos the value of {@link System#nanoTime()} at the start of the stage.
+     */
+    public void recordSince(Stage stage, long startNanos) {
+        stageTimers[stage.ordinal()].record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void rolled(int acceptedRolls) {
+        rolls.increment(acceptedRolls);
+    }
+
+    public void gamesCreated(int games) {
+        createdGames.increment(games);
+    }
+
+    /**
+     * Counts a request rejected because of its parameters or the state of its game, by the type of the exception.
+     */
+    public void validationFailed(Exception exception) {
+        registry.counter(VALIDATION_FAILURES, "exception", exception.getClass().getSimpleName()).increment();
+    }
+
+    @EventListener
+    public void onGameCompleted(GameCompletedEvent event) {
+        completedGames.increment();
+    }
+
+    /**
+     * Gets the lookups of the games in a storage tier, which are recorded by the services reading the games;
+     * they are published with the first call.
+     */
+    TierLatency lookups(String tier) {
+        return tierLookups.computeIfAbsent(tier, name -> {
+            TierLatency latency = new TierLatency();
+            FunctionTimer.builder(LOOKUP_TIMER, latency, TierLatency::getCount, TierLatency::getTotalNanos,
+                    TimeUnit.NANOSECONDS)
+                    .description("Lookups of the games in a storage tier")
+                    .tag("tier", name)
+                    .register(registry);
+            return latency;
+        });
+    }
+}
@@ -1,11 +1,56 @@
 package de.arena.bowling.service;
 
+import de.arena.bowling.domain.GameStatus;
 import de.arena.bowling.domain.SinglePlayerGame;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * MongoDB repository to store all the game and scoreboards.
  * It uses Spring data mongoDB.
+ * The streams are read with a cursor and have to be closed.
+ * The indexes of the queries are declared on the {@link SinglePlayerGame}.
  */
-interface ScoreboardRepository extends MongoRepository<SinglePlayerGame, String> {
+interface ScoreboardRepository extends MongoRepository<SinglePlayerGame, String>, ScoreboardRepositoryCustom {
+
+    /**
+     * @return all the games in the order of their ids.
+     */
+    @Query(value = "{}", sort = "{'_id': 1}")
+    Stream<SinglePlayerGame> streamAllOrderedById();
+
+    /**
+     * Streams the games after a generated id, in the order of their ids.
+     * The ids given on the import sort in front of all the generated ids.
+     */
+    Stream<SinglePlayerGame> findByGameIdGreaterThanOrderByGameId(String generatedGameId);
+
+    /**
+     * Streams the games after an id given on the import, followed by all the games with a generated id.
+     */
+    @Query(value = "{'$or': [{'_id': {'$gt': ?0}}, {'_id': {'$type': 'objectId'}}]}", sort = "{'_id': 1}")
+    Stream<SinglePlayerGame> streamAfterImportedId(String importedGameId);
+
+    /**
+     * @return all the games with the status.
+     */
+    Stream<SinglePlayerGame> findByScoreboardStatus(GameStatus status);
+
+    /**
+     * Reads the status, the total score and the completion time of the games with the status, without their frames.
+     */
+    @Query(value = "{'scoreboard.status': ?0}",
+            fields = "{'scoreboard.status': 1, 'scoreboard.totalScore': 1, 'completed': 1}")
+    List<SinglePlayerGame> findSummariesByStatus(GameStatus status, Pageable pageable);
+
+    /**
+     * Reads the games completed before the time or imported without a completion time, for the archive.
+     */
+    @Query("{'scoreboard.status': 'GAME_OVER', '$or': [{'completed': {'$lt': ?0}}, {'completed': null}]}")
+    List<SinglePlayerGame> findCompletedBefore(Instant completedBefore, Pageable pageable);
 }
@@ -0,0 +1,31 @@
+package de.arena.bowling.service;
+
+import de.arena.bowling.domain.SinglePlayerGame;
+
+import java.util.List;
+
+/**
+ * Partial updates of the stored games, implemented in {@link ScoreboardRepositoryImpl}.
+ */
+interface ScoreboardRepositoryCustom {
+
+    /**
+     * Writes only the frames changed since the last write of every game, with one bulk write.
+     * A roll changes its own frame and the bonus of the two frames in front of it at most, so the other frames,
+     * which are most of a game, are not written again.
+     *
+     * @param games                   the games with the version of their last write; the versions are incremented.
+     * @param firstChangedFrameIndexes index of the first changed frame of every game.
+     * @throws org.springframework.dao.OptimisticLockingFailureException if a game was written by someone else since
+     *                                                                    its last write; the other games are written.
+     */
+    void updateFrames(List<SinglePlayerGame> games, List<Integer> firstChangedFrameIndexes);
+
+    /**
+     * Replaces the scoreboards of the games with one bulk write; every game is written only if it still has its
+     * version, which is incremented then.
+     *
+     * @return the number of games written; the other games were written by someone else since they were read.
+     */
+    int replaceScoreboards(List<SinglePlayerGame> games);
+}
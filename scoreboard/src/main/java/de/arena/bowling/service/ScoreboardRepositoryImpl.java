@@ -0,0 +1,91 @@
+package de.arena.bowling.service;
+
+import com.mongodb.bulk.BulkWriteResult;
+import de.arena.bowling.domain.Frame;
+import de.arena.bowling.domain.Scoreboard;
+import de.arena.bowling.domain.SinglePlayerGame;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+
+/**
+ * Partial updates with '$set' of the changed array elements, instead of replacing the whole document.
+ * <p>
+ * MongoDB rejects a '$push' into an array together with a '$set' of its elements in the same update; the new frames
+ * are set at their index instead, which appends them, as the index of a new frame is the length of the array.
+ * A scoreboard stored in a compact format is set as a whole.
+ */
+class ScoreboardRepositoryImpl implements ScoreboardRepositoryCustom {
+
+    private static final String FRAMES = "scoreboard.frames.";
+
+    private final MongoOperations mongoOperations;
+
+    /**
+     * True, if the scoreboards are written with a custom converter, like the {@link BinaryScoreboardConverters};
+     * the whole scoreboard is set then, as it is not stored as an array of frames.
+     */
+    private final boolean compactScoreboards;
+
+    @Autowired
+    ScoreboardRepositoryImpl(MongoOperations mongoOperations, MongoCustomConversions conversions) {
+        this.mongoOperations = mongoOperations;
+        this.compactScoreboards = conversions.hasCustomWriteTarget(Scoreboard.class);
+    }
+
+    @Override
+    public void updateFrames(List<SinglePlayerGame> games, List<Integer> firstChangedFrameIndexes) {
+        if (games.isEmpty()) {
+            return;
+        }
+        BulkOperations operations = mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, SinglePlayerGame.class);
+        for (int index = 0; index < games.size(); index++) {
+            SinglePlayerGame game = games.get(index);
+            Scoreboard scoreboard = game.getScoreboard();
+            Update update = new Update().inc("version", 1);
+            if (compactScoreboards) {
+                update.set("scoreboard", scoreboard);
+            } else {
+                update.set("scoreboard.status", scoreboard.getStatus())
+                        .set("scoreboard.totalScore", scoreboard.getTotalScore());
+                List<Frame> frames = scoreboard.getFrames();
+                for (int frameIndex = firstChangedFrameIndexes.get(index); frameIndex < frames.size(); frameIndex++) {
+                    update.set(FRAMES + frameIndex, frames.get(frameIndex));
+                }
+            }
+            if (game.getCompleted() != null) {
+                update.set("completed", game.getCompleted());
+            }
+            operations.updateOne(new Query(Criteria.where("_id").is(game.getGameId())
+                    .and("version").is(game.getVersion())), update);
+        }
+        BulkWriteResult result = operations.execute();
+        if (result.getMatchedCount() < games.size()) {
+            throw new OptimisticLockingFailureException((games.size() - result.getMatchedCount())
+                    + " of " + games.size() + " games were written by someone else since their last write");
+        }
+        games.forEach(game -> game.setVersion(game.getVersion() + 1));
+    }
+
+    @Override
+    public int replaceScoreboards(List<SinglePlayerGame> games) {
+        if (games.isEmpty()) {
+            return 0;
+        }
+        BulkOperations operations = mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, SinglePlayerGame.class);
+        for (SinglePlayerGame game : games) {
+            operations.updateOne(new Query(Criteria.where("_id").is(game.getGameId())
+                    .and("version").is(game.getVersion())), new Update()
+                    .set("scoreboard", game.getScoreboard())
+                    .inc("version", 1));
+        }
+        return operations.execute().getMatchedCount();
+    }
+}
@@ -1,8 +1,13 @@
 package de.arena.bowling.service;
 
+import de.arena.bowling.domain.GameStatus;
+import de.arena.bowling.domain.GameSummary;
+import de.arena.bowling.domain.Roll;
+import de.arena.bowling.domain.RollResult;
 import de.arena.bowling.domain.SinglePlayerGame;
 import de.arena.bowling.exception.GenericScoreboardException;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -33,4 +38,24 @@ public interface ScoreboardService {
      * @throws GenericScoreboardException in case of invalid input parameters.
      */
     void updateScore(SinglePlayerGame game, int numberOfPins) throws GenericScoreboardException;
+
+    /**
+     * Updates the scoreboards of many games with a batch of rolls.
+     * The rolls of a game are applied in the order of the batch; an invalid roll is rejected without stopping the batch.
+     * All the updated games are persisted with a single bulk write.
+     *
+     * @param rolls the rolls of one or more games.
+     * @return the result of each roll, in the order of the rolls.
+     */
+    List<RollResult> updateScores(List<Roll> rolls);
+
+    /**
+     * Lists the status and the total score of the stored games with the status, without their frames.
+     * The completed games are listed in the order of their completion, the other games in the order of their
+     * creation, the latest first.
+     *
+     * @param page zero based index of the page.
+     * @param size number of games per page.
+     */
+    List<GameSummary> listGames(GameStatus status, int page, int size);
 }
@@ -1,17 +1,21 @@
 package de.arena.bowling.service;
 
 import de.arena.bowling.domain.*;
-import de.arena.bowling.exception.AttemptToUpdateCompletedGameException;
+import de.arena.bowling.exception.GameNotFoundException;
 import de.arena.bowling.exception.GenericScoreboardException;
-import de.arena.bowling.exception.InvalidNumberOfPinsException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
-import java.util.Deque;
-import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Implementation for the scoreboard service methods.
@@ -20,170 +24,235 @@ import java.util.Optional;
 @Slf4j
 public class ScoreboardServiceImpl implements ScoreboardService {
 
-    private ScoreboardRepository scoreboardRepository;
+    private static final int LOCK_STRIPES = 64;
+
+    /**
+     * The rolls of a game are serialized on one of these locks, chosen by the game id,
+     * so the rolls of games on different stripes never wait for each other.
+     * A game may be loaded or written while its lock is held, so they are no monitors, which would pin a virtual
+     * thread to its carrier thread during the I/O.
+     */
+    private final ReentrantLock[] gameLocks = new ReentrantLock[LOCK_STRIPES];
+
+    private GameStore gameStore;
+    private WriteBehindGameCache gameCache;
+    private GameArchive gameArchive;
+    private GamePartitioner partitioner;
+    private ApplicationEventPublisher eventPublisher;
+    private ScoreboardMetrics metrics;
+
+    /**
+     * Latency of the lookups in the cache and the collection of the games, and in the archive.
+     */
+    private final TierLatency hotLookups;
+    private final TierLatency archiveLookups;
 
     @Autowired
-    public ScoreboardServiceImpl(ScoreboardRepository scoreboardRepository) {
-        this.scoreboardRepository = scoreboardRepository;
+    public ScoreboardServiceImpl(GameStore gameStore, WriteBehindGameCache gameCache, GameArchive gameArchive,
+                                 GamePartitioner partitioner, ApplicationEventPublisher eventPublisher,
+                                 ScoreboardMetrics metrics) {
+        this.gameStore = gameStore;
+        this.gameCache = gameCache;
+        this.gameArchive = gameArchive;
+        this.partitioner = partitioner;
+        this.eventPublisher = eventPublisher;
+        this.metrics = metrics;
+        this.hotLookups = metrics.lookups("hot");
+        this.archiveLookups = metrics.lookups("archive");
+        for (int stripe = 0; stripe < LOCK_STRIPES; stripe++) {
+            gameLocks[stripe] = new ReentrantLock();
+        }
     }
 
     @Override
     public SinglePlayerGame createNewGameScoreboard() {
         log.info("Creating and persisting new SinglePlayerGame scoreboard");
+        GameState state = new GameState();
         SinglePlayerGame game = SinglePlayerGame.builder()
-                .scoreboard(Scoreboard.builder().frames(new LinkedList<>()).status(GameStatus.IN_PROGRESS).build())
+                .gameId(partitioner.newGameId())
+                .scoreboard(state.toScoreboard())
+                .state(state)
                 .build();
-        return scoreboardRepository.save(game);
+        SinglePlayerGame savedGame = gameStore.create(game);
+        gameCache.put(savedGame);
+        metrics.gamesCreated(1);
+        return savedGame;
     }
 
     @Override
     public Optional<SinglePlayerGame> fetchScoreboard(String gameId) {
-        return gameId == null ? Optional.empty() : scoreboardRepository.findById(gameId);
+        if (gameId == null) {
+            return Optional.empty();
+        }
+        long fetchStart = System.nanoTime();
+        Optional<SinglePlayerGame> game = gameCache.get(gameId);
+        hotLookups.recordSince(fetchStart);
+        if (!game.isPresent() && gameStore.isArchived()) {
+            // a game, which is neither active nor recently completed, may be archived
+            long start = System.nanoTime();
+            game = gameArchive.findById(gameId);
+            archiveLookups.recordSince(start);
+        }
+        metrics.recordSince(ScoreboardMetrics.Stage.FETCH, fetchStart);
+        return game;
     }
 
     @Override
     public void updateScore(SinglePlayerGame game, int numberOfPins) throws GenericScoreboardException {
-        if (game == null) {
-            throw new IllegalArgumentException("Game can not be null");
+        GameState updatedState;
+        Lock lock = lockOf(game);
+        lock.lock();
+        try {
+            updatedState = applyRoll(game, numberOfPins);
+            // the cache coalesces the rolls and writes the game with the next flush
+            long start = System.nanoTime();
+            gameCache.update(game);
+            metrics.recordSince(ScoreboardMetrics.Stage.STORE, start);
+            // the caller keeps the copy taken with its scoreboard, while the cached state changes with later rolls
+            game.setState(updatedState);
+        } finally {
+            lock.unlock();
         }
-        Scoreboard scoreboard = game.getScoreboard();
-        if (GameStatus.GAME_OVER == scoreboard.getStatus()) {
-            throw new AttemptToUpdateCompletedGameException(game.getGameId());
-        }
-
-        int maxPossibleNumberOfPins = maxPossibleNumberOfPins(scoreboard);
-        if (maxPossibleNumberOfPins < numberOfPins) {
-            throw new InvalidNumberOfPinsException(numberOfPins, maxPossibleNumberOfPins);
-        }
-
-        log.info("Validated input parameters and scoreboard state; calculating latest score.");
-        Frame activeFrame = getActiveFrame(scoreboard);
-        updateFrameWithLastRoll(activeFrame, numberOfPins);
-        calculateBonusForEachFrame(scoreboard.getFrames());
-        calculateScore(scoreboard.getFrames());
-
-        // update total score and game status
-        if (activeFrame.getScore() != null) {
-            scoreboard.setTotalScore(activeFrame.getScore());
+        metrics.rolled(1);
+        publish(new GameUpdatedEvent(game.getGameId(), updatedState, updatedState.getRollCount() - 1));
+        if (updatedState.isGameOver()) {
+            publish(new GameCompletedEvent(game.getGameId(), null, updatedState));
         }
-        if (activeFrame.isFinalFrame() && activeFrame.isRollsCompleted()) {
-            scoreboard.setStatus(GameStatus.GAME_OVER);
-        }
-        scoreboardRepository.save(game);
     }
 
-    /**
-     * Returns the maximum possible number of pins in the next roll.
-     */
-    private int maxPossibleNumberOfPins(Scoreboard scoreboard) {
-        if (GameStatus.GAME_OVER == scoreboard.getStatus()) {
-            return 0;
+    @Override
+    public List<RollResult> updateScores(List<Roll> rolls) {
+        log.info("Updating scoreboards with a batch of {} rolls", rolls.size());
+        Map<String, Optional<SinglePlayerGame>> games = new HashMap<>();
+        Map<String, SinglePlayerGame> updatedGames = new LinkedHashMap<>();
+        Map<String, Integer> previousRollCounts = new HashMap<>();
+        Map<String, GameState> updatedStates = new HashMap<>();
+        List<RollResult> results = new ArrayList<>(rolls.size());
+        int acceptedRolls = 0;
+        for (Roll roll : rolls) {
+            RollResult.RollResultBuilder result = RollResult.builder()
+                    .gameId(roll.getGameId())
+                    .numberOfPins(roll.getNumberOfPins());
+            // every game is fetched once and its rolls are applied in the order of the batch
+            Optional<SinglePlayerGame> game = games.computeIfAbsent(roll.getGameId(), this::fetchScoreboard);
+            try {
+                if (!game.isPresent()) {
+                    throw new GameNotFoundException(roll.getGameId());
+                }
+                GameState updatedState;
+                Lock lock = lockOf(game.get());
+                lock.lock();
+                try {
+                    updatedState = applyRoll(game.get(), roll.getNumberOfPins());
+                } finally {
+                    lock.unlock();
+                }
+                updatedGames.put(roll.getGameId(), game.get());
+                previousRollCounts.putIfAbsent(roll.getGameId(), updatedState.getRollCount() - 1);
+                updatedStates.put(roll.getGameId(), updatedState);
+                result.accepted(true);
+                acceptedRolls++;
+            } catch (GenericScoreboardException exception) {
+                result.accepted(false).errorMessage(exception.getMessage());
+            }
+            game.ifPresent(currentGame -> result
+                    .status(currentGame.getScoreboard().getStatus())
+                    .totalScore(currentGame.getScoreboard().getTotalScore()));
+            results.add(result.build());
         }
+        long start = System.nanoTime();
+        gameCache.updateAll(new ArrayList<>(updatedGames.values()));
+        metrics.recordSince(ScoreboardMetrics.Stage.STORE, start);
+        updatedGames.forEach((gameId, game) -> game.setState(updatedStates.get(gameId)));
+        metrics.rolled(acceptedRolls);
+        // one event per game with all of its rolls in the batch
+        updatedStates.forEach((gameId, state) -> {
+            publish(new GameUpdatedEvent(gameId, state, previousRollCounts.get(gameId)));
+            if (state.isGameOver()) {
+                publish(new GameCompletedEvent(gameId, null, state));
+            }
+        });
+        return results;
+    }
 
-        Frame activeFrame = getActiveFrame(scoreboard);
-        if (activeFrame.getFirstRoll() == null) {
-            return 10;
-        } else if (activeFrame.isFinalFrame()) {
-            return activeFrame.isStrike() || activeFrame.hasBonus() ? 10 : 10 - activeFrame.getFirstRoll();
-        } else {
-            return 10 - activeFrame.getFirstRoll();
-        }
+    @Override
+    public List<GameSummary> listGames(GameStatus status, int page, int size) {
+        return gameStore.findSummaries(status, page, size);
     }
 
-    /**
-     * Gets the last frame to be updated.
-     * If the scoreboard is empty or rolls completed for the last frame, a new frame is created.
-     */
-    private Frame getActiveFrame(Scoreboard scoreboard) {
-        if (scoreboard.getFrames().isEmpty()) {
-            scoreboard.getFrames().add(new Frame(1));
-        }
-        Frame activeFrame = scoreboard.getFrames().peekLast();
-        if (activeFrame.isRollsCompleted() && GameStatus.IN_PROGRESS == scoreboard.getStatus()) {
-            activeFrame = new Frame(activeFrame.getFrameCount() + 1);
-            scoreboard.getFrames().addLast(activeFrame);
-        }
-        return activeFrame;
+    TierLatency getHotLookups() {
+        return hotLookups;
     }
 
-    /**
-     * Adds the number of pins into the active frame.
-     *
-     * @param frame        to be updated
-     * @param numberOfPins to be added into the frame.
-     */
-    void updateFrameWithLastRoll(Frame frame, int numberOfPins) {
-        if (frame.getFirstRoll() == null) {
-            frame.setFirstRoll(numberOfPins);
-        } else if (frame.getSecondRoll() == null) {
-            frame.setSecondRoll(numberOfPins);
-        } else if (frame.isFinalFrame() && frame.hasBonus()) {
-            frame.setBonus(numberOfPins);
-        }
+    TierLatency getArchiveLookups() {
+        return archiveLookups;
     }
 
     /**
-     * For a Strike or a Spare, the bonus points needs to be calculated before the total score in that frame.
-     * For a Strike, you get points from the next two rolls.
-     * For a Spare, you get points from the next'one roll.
+     * Validates the number of pins against the state of the game and adds it as the next roll.
+     * Must be called with the lock of the game.
+     * The roll is applied to the cached state of the game, even if the game was fetched with an earlier copy of it.
+     *
+     * @return a copy of the state right after the roll.
      */
-    void calculateBonusForEachFrame(Deque<Frame> boardFrames) {
-        CircularQueue<Integer> succeedingRolls = new CircularQueue<>(2);
-        Iterator<Frame> frameIterator = boardFrames.descendingIterator();
-
-        while (frameIterator.hasNext()) {
-            Frame currentFrame = frameIterator.next();
-            if (currentFrame.isRollsCompleted() && currentFrame.getBonus() == null) {
-                if (currentFrame.isStrike()) {
-                    currentFrame.setBonus(getSumPointsFromTwoSucceedingRolls(succeedingRolls));
-                } else if (currentFrame.isSpare()) {
-                    currentFrame.setBonus(getPointsFromSucceedingRoll(succeedingRolls));
-                } else if (currentFrame.getBonus() == null) {
-                    currentFrame.setBonus(0);
+    private GameState applyRoll(SinglePlayerGame game, int numberOfPins) throws GenericScoreboardException {
+        Scoreboard scoreboard = game.getScoreboard();
+        GameState viewState = game.getState() == null ? withReplayedState(game).getState() : game.getState();
+        GameState state = gameCache.currentState(game);
+        // the game holds the cached state until the cache was updated with the rolls
+        game.setState(state);
+        long start = System.nanoTime();
+        synchronized (state) {
+            try {
+                boolean outdatedScoreboard = viewState != state && viewState.getRollCount() != state.getRollCount();
+                if (outdatedScoreboard) {
+                    log.info("Game {} was fetched before the latest rolls; rolling on its current state",
+                            game.getGameId());
                 }
-            }
-            // adding the last two rolls into the circular queue
-            if (currentFrame.getSecondRoll() != null) {
-                succeedingRolls.addFirst(currentFrame.getSecondRoll());
-            }
-            if (currentFrame.getFirstRoll() != null) {
-                succeedingRolls.addFirst(currentFrame.getFirstRoll());
+                // the rolls of a batch share the cached state, so their views may miss more than the last roll
+                int viewRollCount = outdatedScoreboard ? 0 : GameState.rollCountOf(scoreboard);
+                ScoringRules.roll(game.getGameId(), scoreboard, state, numberOfPins);
+                log.info("Validated input parameters and scoreboard state; calculating latest score.");
+                if (outdatedScoreboard && scoreboard.getFrames() != null) {
+                    scoreboard.getFrames().clear();
+                }
+                // only the frames affected by the rolls after the view are written into the scoreboard view
+                state.refresh(scoreboard, viewRollCount);
+                return state.copy();
+            } finally {
+                metrics.recordSince(ScoreboardMetrics.Stage.SCORE, start);
             }
         }
     }
 
     /**
-     * Once the bonus points are set, we can calculate the total score for the frame.
+     * Publishes the event of rolls, which are already applied and cached.
+     * A failing listener is only logged: the rolls are accepted, and a client retrying them would apply them again.
      */
-    private void calculateScore(Deque<Frame> boardFrames) {
-        // calculate total score for each frame
-        Integer cumulativeScore = 0;
-        for (Frame frame : boardFrames) {
-            if (frame.getBonus() != null) {
-                Integer frameTotal = frame.getFirstRoll() + frame.getBonus() + Optional.ofNullable(frame.getSecondRoll()).orElse(0);
-                cumulativeScore += frameTotal;
-                frame.setScore(cumulativeScore);
-            }
+    private void publish(Object event) {
+        try {
+            eventPublisher.publishEvent(event);
+        } catch (RuntimeException exception) {
+            log.error("A listener of the {} failed; the rolls are applied anyway", event.getClass().getSimpleName(),
+                    exception);
         }
     }
 
     /**
-     * Gets the points from one succeeding roll.
+     * Sets the compact state of the game.
+     * Games loaded from the repository hold only the scoreboard, so their state is replayed once from its frames.
      */
-    private Integer getPointsFromSucceedingRoll(CircularQueue<Integer> rollsInFront) {
-        if (!rollsInFront.isEmpty()) {
-            return rollsInFront.get(0);
-        }
-        return null;
+    private SinglePlayerGame withReplayedState(SinglePlayerGame game) {
+        game.setState(GameState.replay(game.getScoreboard()));
+        return game;
     }
 
-    /**
-     * Gets the sum of points from the two succeeding rolls.
-     */
-    private Integer getSumPointsFromTwoSucceedingRolls(CircularQueue<Integer> rollsInFront) {
-        if (rollsInFront.size() == 2) {
-            return rollsInFront.get(0) + rollsInFront.get(1);
+    private Lock lockOf(SinglePlayerGame game) {
+        if (game == null) {
+            throw new IllegalArgumentException("Game can not be null");
         }
-        return null;
+        // a game without an id is only known by its instance
+        int hash = game.getGameId() == null ? System.identityHashCode(game) : game.getGameId().hashCode();
+        return gameLocks[(hash & Integer.MAX_VALUE) % LOCK_STRIPES];
     }
 }
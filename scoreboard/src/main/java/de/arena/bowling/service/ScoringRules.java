@@ -0,0 +1,39 @@
+package de.arena.bowling.service;
+
+import de.arena.bowling.domain.GameState;
+import de.arena.bowling.domain.GameStatus;
+import de.arena.bowling.domain.Scoreboard;
+import de.arena.bowling.exception.AttemptToUpdateCompletedGameException;
+import de.arena.bowling.exception.GenericScoreboardException;
+import de.arena.bowling.exception.InvalidNumberOfPinsException;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Validation of a roll, shared by the single player games and the games of the bowlers in a lane session.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class ScoringRules {
+
+    /**
+     * Validates the number of pins against the state of the game and adds it as the next roll.
+     * The caller has to refresh the scoreboard view afterwards.
+     *
+     * @param gameId     id of the game, used in the error messages.
+     * @param scoreboard the scoreboard view of the game.
+     * @param state      the state of the game, to be updated with the roll.
+     * @throws GenericScoreboardException if the game is over or the number of pins is not possible in this roll.
+     */
+    static void roll(String gameId, Scoreboard scoreboard, GameState state, int numberOfPins)
+            throws GenericScoreboardException {
+        if (GameStatus.GAME_OVER == scoreboard.getStatus() || state.isGameOver()) {
+            throw new AttemptToUpdateCompletedGameException(gameId);
+        }
+
+        int maxPossibleNumberOfPins = state.maxPossibleNumberOfPins();
+        if (numberOfPins < 0 || maxPossibleNumberOfPins < numberOfPins) {
+            throw new InvalidNumberOfPinsException(numberOfPins, maxPossibleNumberOfPins);
+        }
+        state.roll(numberOfPins);
+    }
+}
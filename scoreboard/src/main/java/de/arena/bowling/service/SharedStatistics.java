@@ -0,0 +1,144 @@
+package de.arena.bowling.service;
+
+import de.arena.bowling.domain.LeaderboardEntry;
+import de.arena.bowling.domain.PlayerStatistics;
+import de.arena.bowling.domain.Scoreboard;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Statistics of the games completed on all the nodes of a cluster, shared in the collection 'statistics'.
+ * <p>
+ * A completed game is added with one atomic update of the totals, which increments the counters, raises the high
+ * score and pushes the game into the leaderboard bounded by 'scoreboard.statistics.leaderboard-size', and one
+ * update of the totals of its player. So the statistics are up to date with every completed game on every node,
+ * without reading the stored games. The games completed before the start of the cluster are added once, by the
+ * first node claiming the seed.
+ */
+@Component
+class SharedStatistics {
+
+    static final String COLLECTION = "statistics";
+
+    private static final String TOTAL = "total";
+    private static final String SEED = "seed";
+    private static final String PLAYER = "player:";
+    private static final String LEADERBOARD = "leaderboard";
+
+    private final MongoOperations mongoOperations;
+    private final StatisticsProperties properties;
+
+    /**
+     * @param mongoOperations resolved with the first access, as a single node keeps its statistics in memory.
+     */
+    @Autowired
+    SharedStatistics(@Lazy MongoOperations mongoOperations, StatisticsProperties properties) {
+        this.mongoOperations = mongoOperations;
+        this.properties = properties;
+    }
+
+    /**
+     * Claims the seed of the shared statistics with the games completed before the start of the cluster.
+     *
+     * @return false if another node claimed the seed already.
+     */
+    boolean claimSeed() {
+        try {
+            mongoOperations.insert(new Document("_id", SEED).append("claimed", new Date()), COLLECTION);
+            return true;
+        } catch (DuplicateKeyException exception) {
+            return false;
+        }
+    }
+
+    /**
+     * Adds the aggregates of the stored games, after the seed was claimed.
+     *
+     * @param leaderboard the high scores of the stored games, in the order of their ranks.
+     */
+    void seed(ScoreAggregate total, Map<String, ScoreAggregate> players, List<LeaderboardEntry> leaderboard) {
+        List<Document> rankedGames = new ArrayList<>(leaderboard.size());
+        for (LeaderboardEntry entry : leaderboard) {
+            rankedGames.add(rankedGame(entry.getGameId(), entry.getPlayer(), entry.getScore(), entry.getRank()));
+        }
+        increment(TOTAL, total, rankedGames);
+        players.forEach((player, aggregate) -> increment(PLAYER + player, aggregate, Collections.emptyList()));
+    }
+
+    void add(String gameId, String player, Scoreboard scoreboard) {
+        ScoreAggregate game = new ScoreAggregate();
+        game.add(scoreboard);
+        // the games completed later are ranked after the games with the same score
+        increment(TOTAL, game, Collections.singletonList(
+                rankedGame(gameId, player, game.getHighScore(), System.currentTimeMillis())));
+        if (player != null) {
+            increment(PLAYER + player.trim(), game, Collections.emptyList());
+        }
+    }
+
+    PlayerStatistics fetchTotal() {
+        return fetch(TOTAL).orElseGet(ScoreAggregate::new).toStatistics(null);
+    }
+
+    Optional<PlayerStatistics> fetchPlayer(String player) {
+        return fetch(PLAYER + player.trim()).map(aggregate -> aggregate.toStatistics(player.trim()));
+    }
+
+    List<LeaderboardEntry> fetchLeaderboard(int limit) {
+        Query query = Query.query(Criteria.where("_id").is(TOTAL));
+        query.fields().include(LEADERBOARD);
+        Document total = mongoOperations.findOne(query, Document.class, COLLECTION);
+        List<Document> rankedGames = total == null ? null : total.getList(LEADERBOARD, Document.class);
+        List<LeaderboardEntry> entries = new ArrayList<>();
+        for (int index = 0; rankedGames != null && index < Math.min(limit, rankedGames.size()); index++) {
+            Document rankedGame = rankedGames.get(index);
+            entries.add(LeaderboardEntry.builder()
+                    .rank(index + 1)
+                    .player(rankedGame.getString("player"))
+                    .gameId(rankedGame.getString("gameId"))
+                    .score(rankedGame.getInteger("score"))
+                    .build());
+        }
+        return entries;
+    }
+
+    private Optional<ScoreAggregate> fetch(String id) {
+        return Optional.ofNullable(mongoOperations.findById(id, ScoreAggregate.class, COLLECTION));
+    }
+
+    private void increment(String id, ScoreAggregate aggregate, List<Document> rankedGames) {
+        Update update = new Update();
+        aggregate.toCounters().forEach(update::inc);
+        update.max("highScore", aggregate.getHighScore());
+        if (!rankedGames.isEmpty()) {
+            update.push(LEADERBOARD)
+                    .sort(Sort.by(Sort.Order.desc("score"), Sort.Order.asc("sequence")))
+                    .slice(properties.getLeaderboardSize())
+                    .each(rankedGames.toArray());
+        }
+        mongoOperations.upsert(Query.query(Criteria.where("_id").is(id)), update, COLLECTION);
+    }
+
+    private static Document rankedGame(String gameId, String player, int score, long sequence) {
+        Document rankedGame = new Document("gameId", gameId).append("score", score).append("sequence", sequence);
+        if (player != null) {
+            rankedGame.append("player", player);
+        }
+        return rankedGame;
+    }
+}
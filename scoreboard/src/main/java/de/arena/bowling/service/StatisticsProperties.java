@@ -0,0 +1,31 @@
+package de.arena.bowling.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration of the {@link StatisticsServiceImpl}.
+ */
+@Data
+@Component
+@ConfigurationProperties("scoreboard.statistics")
+public class StatisticsProperties {
+
+    /**
+     * Number of the high scores kept in the leaderboard.
+     */
+    private int leaderboardSize = 100;
+
+    /**
+     * True to aggregate the completed games stored before the start once on startup; otherwise the statistics
+     * only cover the games completed since the start.
+     */
+    private boolean rebuildOnStartup = true;
+
+    /**
+     * True to run the rebuild on a background thread once the application is ready, so the startup does not wait
+     * for the stored games; the games completed in the meantime are added right away and only once.
+     */
+    private boolean rebuildInBackground = false;
+}
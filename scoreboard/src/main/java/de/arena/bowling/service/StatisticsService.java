@@ -0,0 +1,32 @@
+package de.arena.bowling.service;
+
+import de.arena.bowling.domain.GameStatistics;
+import de.arena.bowling.domain.LeaderboardEntry;
+import de.arena.bowling.domain.PlayerStatistics;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Statistics over the completed games, updated with every completed game instead of being queried from the
+ * stored games, so the time of a request does not depend on the number of games.
+ */
+public interface StatisticsService {
+
+    /**
+     * @return the aggregates over all the completed games with the top of the leaderboard.
+     */
+    GameStatistics fetchStatistics();
+
+    /**
+     * @param player name of a bowler in the lane sessions.
+     * @return Optional.empty() if the player has not completed a game.
+     */
+    Optional<PlayerStatistics> fetchPlayerStatistics(String player);
+
+    /**
+     * @param limit maximum number of entries; at most the configured size of the leaderboard.
+     * @return the highest scores, the earlier game first for the same score.
+     */
+    List<LeaderboardEntry> fetchLeaderboard(int limit);
+}
@@ -0,0 +1,261 @@
+package de.arena.bowling.service;
+
+import de.arena.bowling.domain.Bowler;
+import de.arena.bowling.domain.GameStatistics;
+import de.arena.bowling.domain.LaneSession;
+import de.arena.bowling.domain.LeaderboardEntry;
+import de.arena.bowling.domain.PlayerStatistics;
+import de.arena.bowling.domain.Scoreboard;
+import de.arena.bowling.domain.SinglePlayerGame;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
+
+/**
+ * Implementation of the statistics, kept in memory and updated with the {@link GameCompletedEvent} of every game.
+ * <p>
+ * The aggregates are running totals per player and over all the games. The leaderboard is a sorted set bounded by
+ * 'scoreboard.statistics.leaderboard-size', so adding a game takes logarithmic time in the size of the leaderboard.
+ * The completed games stored before the start are aggregated once on startup by streaming them from the configured
+ * {@link GameStore}, the lane sessions and the archive; the archive is only read with the stores on MongoDB, which
+ * move their completed games into it. With 'rebuild-in-background' they are aggregated once the application is
+ * ready, while the games completed in the meantime are already added.
+ * <p>
+ * The games partitioned across the nodes of a cluster are completed on their owners, so the nodes add them to the
+ * {@link SharedStatistics} instead, and every node reads the statistics of all the games from there. The stored games
+ * are only aggregated on the startup of the node seeding the shared statistics.
+ */
+@Service
+@Slf4j
+public class StatisticsServiceImpl implements StatisticsService {
+
+    private static final Comparator<RankedGame> BY_SCORE = Comparator
+            .comparingInt((RankedGame game) -> game.score).reversed()
+            .thenComparingLong(game -> game.sequence);
+
+    private final GameStore gameStore;
+    private final LaneSessionRepository sessionRepository;
+    private final GameArchive gameArchive;
+    private final GamePartitioner partitioner;
+    private final SharedStatistics sharedStatistics;
+    private final StatisticsProperties properties;
+
+    private final ScoreAggregate total = new ScoreAggregate();
+    private final ConcurrentMap<String, ScoreAggregate> players = new ConcurrentHashMap<>();
+    /**
+     * Guarded by itself; the lowest score is removed once the leaderboard is full.
+     */
+    private final TreeSet<RankedGame> leaderboard = new TreeSet<>(BY_SCORE);
+    private long sequence;
+    /**
+     * The games completed while the stored games are aggregated; they are not aggregated again, if they are stored
+     * already. Null, if no rebuild is running.
+     */
+    private volatile Set<String> completedDuringRebuild;
+
+    /**
+     * The lane sessions are only read by the rebuild, so with the lazy initialization of the 'fast-startup' profile
+     * the first completed game does not connect to MongoDB.
+     */
+    @Autowired
+    public StatisticsServiceImpl(GameStore gameStore, @Lazy LaneSessionRepository sessionRepository,
+                                 GameArchive gameArchive, GamePartitioner partitioner,
+                                 SharedStatistics sharedStatistics, StatisticsProperties properties) {
+        this.gameStore = gameStore;
+        this.sessionRepository = sessionRepository;
+        this.gameArchive = gameArchive;
+        this.partitioner = partitioner;
+        this.sharedStatistics = sharedStatistics;
+        this.properties = properties;
+    }
+
+    /**
+     * Aggregates the stored games on startup, unless the rebuild runs in the background.
+     */
+    @PostConstruct
+    void rebuild() {
+        if (properties.isRebuildOnStartup() && !properties.isRebuildInBackground()) {
+            aggregateStoredGames();
+        }
+    }
+
+    /**
+     * Starts the rebuild in the background, once the application is ready. With the lazy initialization of the
+     * 'fast-startup' profile the statistics are created here, so neither the startup nor a request waits for it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildInBackground() {
+        if (!properties.isRebuildOnStartup() || !properties.isRebuildInBackground()) {
+            return;
+        }
+        Thread rebuild = new Thread(() -> {
+            try {
+                aggregateStoredGames();
+            } catch (RuntimeException exception) {
+                log.error("Could not aggregate the stored games; the statistics cover the games completed since the start",
+                        exception);
+            }
+        }, "statistics-rebuild");
+        rebuild.setDaemon(true);
+        rebuild.start();
+    }
+
+    /**
+     * Aggregates the stored games; in a cluster only on the node claiming the seed of the shared statistics, which
+     * adds the aggregates to them.
+     */
+    private void aggregateStoredGames() {
+        boolean seed = partitioner.isClustered();
+        if (seed && !sharedStatistics.claimSeed()) {
+            log.info("The shared statistics are already seeded by another node");
+            return;
+        }
+        long start = System.currentTimeMillis();
+        completedDuringRebuild = ConcurrentHashMap.newKeySet();
+        try {
+            try (Stream<SinglePlayerGame> games = gameStore.streamCompleted()) {
+                games.forEach(game -> addStored(game.getGameId(), null, game.getScoreboard()));
+            }
+            if (gameStore.isArchived()) {
+                try (CloseableIterator<SinglePlayerGame> archivedGames = gameArchive.streamAll()) {
+                    archivedGames.forEachRemaining(game -> addStored(game.getGameId(), null, game.getScoreboard()));
+                }
+            }
+            try (Stream<LaneSession> sessions = sessionRepository.streamAllBy()) {
+                sessions.forEach(session -> {
+                    for (Bowler bowler : session.getBowlers()) {
+                        if (bowler.getState().isGameOver()) {
+                            addStored(session.getSessionId(), bowler.getName(), bowler.getScoreboard());
+                        }
+                    }
+                });
+            }
+        } finally {
+            completedDuringRebuild = null;
+        }
+        log.info("Aggregated {} completed games in {} ms", total.toStatistics(null).getGames(),
+                System.currentTimeMillis() - start);
+        if (seed) {
+            sharedStatistics.seed(total, players, fetchLocalLeaderboard(properties.getLeaderboardSize()));
+        }
+    }
+
+    /**
+     * Adds the completed game; called synchronously after the last roll, so a failure is only logged and does not
+     * fail the roll, which is already accepted.
+     */
+    @EventListener
+    public void onGameCompleted(GameCompletedEvent event) {
+        Set<String> completedGames = completedDuringRebuild;
+        if (completedGames != null) {
+            completedGames.add(key(event.getGameId(), event.getPlayer()));
+        }
+        try {
+            if (partitioner.isClustered()) {
+                sharedStatistics.add(event.getGameId(), event.getPlayer(), event.getState().toScoreboard());
+            } else {
+                add(event.getGameId(), event.getPlayer(), event.getState().toScoreboard());
+            }
+        } catch (RuntimeException exception) {
+            log.error("Could not add the completed game {} to the statistics", event.getGameId(), exception);
+        }
+    }
+
+    @Override
+    public GameStatistics fetchStatistics() {
+        return GameStatistics.builder()
+                .total(partitioner.isClustered() ? sharedStatistics.fetchTotal() : total.toStatistics(null))
+                .leaderboard(fetchLeaderboard(properties.getLeaderboardSize()))
+                .build();
+    }
+
+    @Override
+    public Optional<PlayerStatistics> fetchPlayerStatistics(String player) {
+        if (player != null && partitioner.isClustered()) {
+            return sharedStatistics.fetchPlayer(player);
+        }
+        return Optional.ofNullable(player == null ? null : players.get(player.trim()))
+                .map(aggregate -> aggregate.toStatistics(player.trim()));
+    }
+
+    @Override
+    public List<LeaderboardEntry> fetchLeaderboard(int limit) {
+        int entries = Math.min(Math.max(limit, 0), properties.getLeaderboardSize());
+        return partitioner.isClustered() ? sharedStatistics.fetchLeaderboard(entries) : fetchLocalLeaderboard(entries);
+    }
+
+    private List<LeaderboardEntry> fetchLocalLeaderboard(int limit) {
+        List<LeaderboardEntry> entries = new ArrayList<>(Math.min(Math.max(limit, 0), properties.getLeaderboardSize()));
+        synchronized (leaderboard) {
+            Iterator<RankedGame> games = leaderboard.iterator();
+            while (entries.size() < limit && games.hasNext()) {
+                RankedGame game = games.next();
+                entries.add(LeaderboardEntry.builder()
+                        .rank(entries.size() + 1)
+                        .player(game.player)
+                        .gameId(game.gameId)
+                        .score(game.score)
+                        .build());
+            }
+        }
+        return entries;
+    }
+
+    private void addStored(String gameId, String player, Scoreboard scoreboard) {
+        Set<String> completedGames = completedDuringRebuild;
+        if (completedGames == null || !completedGames.contains(key(gameId, player))) {
+            add(gameId, player, scoreboard);
+        }
+    }
+
+    private static String key(String gameId, String player) {
+        return player == null ? gameId : gameId + '/' + player.trim();
+    }
+
+    private void add(String gameId, String player, Scoreboard scoreboard) {
+        total.add(scoreboard);
+        if (player != null) {
+            players.computeIfAbsent(player.trim(), name -> new ScoreAggregate()).add(scoreboard);
+        }
+        int score = scoreboard.getTotalScore() == null ? 0 : scoreboard.getTotalScore();
+        synchronized (leaderboard) {
+            leaderboard.add(new RankedGame(gameId, player, score, sequence++));
+            if (leaderboard.size() > properties.getLeaderboardSize()) {
+                leaderboard.pollLast();
+            }
+        }
+    }
+
+    /**
+     * A game in the leaderboard; the sequence keeps the games with the same score in the order of completion.
+     */
+    private static class RankedGame {
+        private final String gameId;
+        private final String player;
+        private final int score;
+        private final long sequence;
+
+        RankedGame(String gameId, String player, int score, long sequence) {
+            this.gameId = gameId;
+            this.player = player;
+            this.score = score;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package de.arena.bowling.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Number and latency of the lookups of the games in one storage tier, updated concurrently without locks.
+ */
+class TierLatency {
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    /**
+     * @param startNanos the value of {@link System#nanoTime()} before the lookup.
+     */
+    void recordSince(long startNanos) {
+        long nanos = System.nanoTime() - startNanos;
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    long getCount() {
+        return count.sum();
+    }
+
+    long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    /**
+     * @return the mean latency in microseconds, 0 before the first lookup.
+     */
+    double getMeanMicros() {
+        long lookups = count.sum();
+        return lookups == 0 ? 0 : (double) totalNanos.sum() / lookups / TimeUnit.MICROSECONDS.toNanos(1);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d lookups, mean %.1f µs, max %.1f µs", getCount(), getMeanMicros(),
+                getMaxNanos() / (double) TimeUnit.MICROSECONDS.toNanos(1));
+    }
+}
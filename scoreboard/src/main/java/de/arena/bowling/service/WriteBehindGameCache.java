@@ -0,0 +1,659 @@
+package de.arena.bowling.service;
+
+import de.arena.bowling.domain.GameState;
+import de.arena.bowling.domain.SinglePlayerGame;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Bounded in-memory cache of the active games in front of the {@link GameStore}.
+ * Only the compact {@link GameState} of a game is cached and the scoreboard view is created when the game is fetched.
+ * There is at most one cached state per game, which all the rolls of the game are applied to.
+ * <p>
+ * Rolls only mark a game as dirty. The dirty games are written to the repository in batches on a fixed interval,
+ * so all the rolls of a game between two flushes are coalesced into one save.
+ * Completed games are written immediately, evicted dirty games are written before they leave the cache and
+ * all the dirty games are written on shutdown.
+ * <p>
+ * The games are saved with their version. If a save fails because the stored version is newer, the stored game
+ * is loaded: if the cached game continues the stored rolls, the newer version was written by this cache and the
+ * save is repeated; otherwise another writer changed the game and the cached game is dropped.
+ * <p>
+ * The counters of the cache and the number of cached games in progress are published as 'scoreboard.cache.*'.
+ */
+@Component
+@Slf4j
+class WriteBehindGameCache implements MeterBinder {
+
+    private final GameStore gameStore;
+    private final GameCacheProperties properties;
+
+    /**
+     * Games in the order of their last access; guarded by itself.
+     */
+    private final LinkedHashMap<String, CachedGame> games = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Evicted games until all of their pending writes are finished; guarded by 'games'.
+     * A game fetched again while it is being written is taken back from here instead of loading an outdated version.
+     */
+    private final Map<String, CachedGame> evictedGames = new HashMap<>();
+
+    /**
+     * Games being loaded from the repository; guarded by 'games'.
+     * A game, which left the cache while it was loaded, is loaded again, as it may have been written in between.
+     */
+    private final Map<String, Load> loads = new HashMap<>();
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+    private final AtomicLong flushCount = new AtomicLong();
+    private final AtomicLong flushedGameCount = new AtomicLong();
+    private final AtomicLong conflictCount = new AtomicLong();
+
+    @Autowired
+    WriteBehindGameCache(GameStore gameStore, GameCacheProperties properties) {
+        this.gameStore = gameStore;
+        this.properties = properties;
+    }
+
+    /**
+     * Gets the game from the cache or loads it from the repository.
+     *
+     * @param gameId the unique id of the game.
+     * @return Optional.empty() if the game is neither cached nor persisted.
+     */
+    Optional<SinglePlayerGame> get(String gameId) {
+        CachedGame cachedGame;
+        synchronized (games) {
+            cachedGame = lookup(gameId);
+        }
+        if (cachedGame != null) {
+            hitCount.incrementAndGet();
+            return Optional.of(snapshot(cachedGame));
+        }
+
+        missCount.incrementAndGet();
+        return Optional.ofNullable(load(gameId, null));
+    }
+
+    /**
+     * Adds a game, which is already persisted, into the cache.
+     */
+    void put(SinglePlayerGame game) {
+        if (game.getGameId() != null && game.getState() != null) {
+            cache(game);
+        }
+    }
+
+    /**
+     * Gets the state, which the rolls of the game have to be applied to.
+     * A game, which is not cached anymore, is loaded again, as its state may be outdated.
+     * The fetched games only hold copies of the state, so the cached state is only shared by the rolls.
+     *
+     * @return the cached state of the game; it must only be read and changed with its lock.
+     */
+    GameState currentState(SinglePlayerGame game) {
+        if (game.getGameId() == null || game.getState() == null) {
+            return game.getState();
+        }
+        CachedGame cachedGame;
+        synchronized (games) {
+            cachedGame = lookup(game.getGameId());
+        }
+        while (cachedGame == null) {
+            // all the rolls of a game are written before it leaves the cache
+            load(game.getGameId(), game);
+            synchronized (games) {
+                cachedGame = lookup(game.getGameId());
+            }
+        }
+        return cachedGame.state;
+    }
+
+    /**
+     * Marks the game as updated, so that it is written with the next flush.
+     * A completed game is written immediately and games unknown to the cache are written through.
+     */
+    void update(SinglePlayerGame game) {
+        if (game.getGameId() == null || game.getState() == null) {
+            gameStore.saveAll(Collections.singletonList(game));
+            return;
+        }
+        boolean completed = game.getState().isGameOver();
+        CachedGame cachedGame = cache(game, !completed);
+        if (completed) {
+            log.info("Game {} is completed; writing it without waiting for the next flush", game.getGameId());
+            write(Collections.singletonList(cachedGame));
+        }
+    }
+
+    /**
+     * Writes the updated games immediately with a single bulk write per flush batch size, instead of waiting for
+     * the next flush.
+     */
+    void updateAll(List<SinglePlayerGame> updatedGames) {
+        List<CachedGame> cachedGames = new ArrayList<>(updatedGames.size());
+        for (SinglePlayerGame game : updatedGames) {
+            cachedGames.add(cache(game, false));
+        }
+        write(cachedGames);
+    }
+
+    /**
+     * Writes all the dirty games to the repository and evicts the games idle for longer than the time to live.
+     */
+    @Scheduled(fixedDelayString = "${scoreboard.cache.flush-interval-millis:1000}")
+    void flush() {
+        List<CachedGame> dirtyGames = new ArrayList<>();
+        long expiryTime = System.currentTimeMillis() - properties.getTimeToLive().toMillis();
+        synchronized (games) {
+            Iterator<CachedGame> iterator = games.values().iterator();
+            while (iterator.hasNext()) {
+                CachedGame cachedGame = iterator.next();
+                if (cachedGame.dirty) {
+                    dirtyGames.add(pendingWrite(cachedGame));
+                }
+                if (cachedGame.lastAccess < expiryTime) {
+                    iterator.remove();
+                    evict(cachedGame);
+                }
+            }
+        }
+        write(dirtyGames);
+    }
+
+    /**
+     * Writes and releases the games owned by another node after the partitions changed, so their new owner loads
+     * the latest rolls from the repository and this node does not hold an outdated state, if it owns them again.
+     * <p>
+     * The kept games are checked against the repository, as another node may have owned them while this node was
+     * not reachable; a written game with a newer version in the repository is released, so it is loaded again.
+     */
+    @EventListener
+    void onPartitionsChanged(PartitionsChangedEvent event) {
+        List<CachedGame> dirtyGames = new ArrayList<>();
+        List<CachedGame> keptGames = new ArrayList<>();
+        int releasedGames = 0;
+        synchronized (games) {
+            Iterator<CachedGame> iterator = games.values().iterator();
+            while (iterator.hasNext()) {
+                CachedGame cachedGame = iterator.next();
+                if (!event.isLocal(cachedGame.gameId)) {
+                    if (cachedGame.dirty) {
+                        dirtyGames.add(pendingWrite(cachedGame));
+                    }
+                    iterator.remove();
+                    evict(cachedGame);
+                    releasedGames++;
+                } else if (!cachedGame.dirty && cachedGame.pendingWrites == 0 && cachedGame.version != null) {
+                    keptGames.add(cachedGame);
+                }
+            }
+        }
+        log.info("Releasing {} cached games to their new owners, {} of them with unwritten rolls",
+                releasedGames, dirtyGames.size());
+        write(dirtyGames);
+        revalidate(keptGames);
+    }
+
+    /**
+     * Writes all the dirty games before the application context is closed.
+     */
+    @PreDestroy
+    void shutdown() {
+        log.info("Writing all the cached games before shutdown");
+        flush();
+    }
+
+    long getHitCount() {
+        return hitCount.get();
+    }
+
+    long getMissCount() {
+        return missCount.get();
+    }
+
+    long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    /**
+     * @return number of batches written to the repository.
+     */
+    long getFlushCount() {
+        return flushCount.get();
+    }
+
+    /**
+     * @return number of games written to the repository.
+     */
+    long getFlushedGameCount() {
+        return flushedGameCount.get();
+    }
+
+    /**
+     * @return number of games dropped from the cache, because another writer changed them in the repository.
+     */
+    long getConflictCount() {
+        return conflictCount.get();
+    }
+
+    int size() {
+        synchronized (games) {
+            return games.size();
+        }
+    }
+
+    /**
+     * @return number of cached games, which are not over yet.
+     */
+    int inProgressCount() {
+        int inProgress = 0;
+        synchronized (games) {
+            for (CachedGame cachedGame : games.values()) {
+                if (!cachedGame.state.isGameOver()) {
+                    inProgress++;
+                }
+            }
+        }
+        return inProgress;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("scoreboard.cache.gets", hitCount, AtomicLong::get).tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("scoreboard.cache.gets", missCount, AtomicLong::get).tag("result", "miss")
+                .register(registry);
+        counter(registry, "scoreboard.cache.evictions", WriteBehindGameCache::getEvictionCount);
+        counter(registry, "scoreboard.cache.flushes", WriteBehindGameCache::getFlushCount);
+        counter(registry, "scoreboard.cache.flushed.games", WriteBehindGameCache::getFlushedGameCount);
+        counter(registry, "scoreboard.cache.conflicts", WriteBehindGameCache::getConflictCount);
+        Gauge.builder("scoreboard.cache.size", this, WriteBehindGameCache::size).register(registry);
+        Gauge.builder("scoreboard.games.in.progress", this, WriteBehindGameCache::inProgressCount)
+                .description("Cached games, which are not over yet")
+                .register(registry);
+    }
+
+    private void counter(MeterRegistry registry, String name, ToDoubleFunction<WriteBehindGameCache> count) {
+        FunctionCounter.builder(name, this, count).register(registry);
+    }
+
+    /**
+     * Releases the written games, which have a newer version in the repository than the cached version.
+     */
+    private void revalidate(List<CachedGame> writtenGames) {
+        int outdatedGames = 0;
+        for (CachedGame writtenGame : writtenGames) {
+            Long cachedVersion = writtenGame.version;
+            Long storedVersion = gameStore.findById(writtenGame.gameId).map(SinglePlayerGame::getVersion).orElse(null);
+            if (storedVersion == null || storedVersion <= cachedVersion) {
+                continue;
+            }
+            synchronized (games) {
+                // a game updated in the meantime is left to the conflict handling of its write
+                if (games.get(writtenGame.gameId) == writtenGame && !writtenGame.dirty
+                        && writtenGame.pendingWrites == 0 && cachedVersion.equals(writtenGame.version)) {
+                    games.remove(writtenGame.gameId);
+                    evict(writtenGame);
+                    outdatedGames++;
+                }
+            }
+        }
+        if (outdatedGames > 0) {
+            log.warn("Released {} cached games, which were changed by another node in the repository", outdatedGames);
+        }
+    }
+
+    /**
+     * Finds the cached game and takes it back into the cache, if it is evicted but not yet written.
+     * Must be called with the lock of 'games'.
+     */
+    private CachedGame lookup(String gameId) {
+        CachedGame cachedGame = games.get(gameId);
+        if (cachedGame == null) {
+            cachedGame = evictedGames.get(gameId);
+            if (cachedGame != null) {
+                games.put(gameId, cachedGame);
+            }
+        }
+        if (cachedGame != null) {
+            cachedGame.lastAccess = System.currentTimeMillis();
+        }
+        return cachedGame;
+    }
+
+    /**
+     * Loads the game from the repository and caches it, unless it was cached concurrently.
+     *
+     * @param notStoredGame the game to be cached if it is not found in the repository, or null.
+     * @return the game with the cached state, or null if the game is not found.
+     */
+    private SinglePlayerGame load(String gameId, SinglePlayerGame notStoredGame) {
+        Load load;
+        synchronized (games) {
+            load = loads.computeIfAbsent(gameId, id -> new Load());
+            load.loaders++;
+        }
+        try {
+            while (true) {
+                long removalsBeforeLoad;
+                synchronized (games) {
+                    removalsBeforeLoad = load.removals;
+                }
+                SinglePlayerGame game = gameStore.findById(gameId).orElse(notStoredGame);
+                if (game == null) {
+                    return null;
+                }
+                List<CachedGame> evictedDirtyGames;
+                CachedGame cachedGame;
+                SinglePlayerGame loadedGame = null;
+                synchronized (games) {
+                    cachedGame = lookup(gameId);
+                    if (cachedGame == null && load.removals != removalsBeforeLoad) {
+                        // the game was cached, updated, written and removed again while it was loaded
+                        continue;
+                    }
+                    if (cachedGame == null) {
+                        cachedGame = new CachedGame(gameId, game.getState().copy(), game.getVersion());
+                        games.put(gameId, cachedGame);
+                        loadedGame = game;
+                    }
+                    evictedDirtyGames = evictLeastRecentlyUsed();
+                }
+                write(evictedDirtyGames);
+                // the game is viewed from the cache, if it was cached concurrently by another request
+                return loadedGame != null ? loadedGame : snapshot(cachedGame);
+            }
+        } finally {
+            synchronized (games) {
+                if (--load.loaders == 0) {
+                    loads.remove(gameId);
+                }
+            }
+        }
+    }
+
+    /**
+     * Caches a copy of the state of the game unless it is already cached, so the game keeps its own state.
+     *
+     * @return the cached game.
+     */
+    private CachedGame cache(SinglePlayerGame game) {
+        List<CachedGame> evictedDirtyGames;
+        CachedGame cachedGame;
+        synchronized (games) {
+            cachedGame = lookup(game.getGameId());
+            if (cachedGame == null) {
+                cachedGame = new CachedGame(game.getGameId(), game.getState().copy(), game.getVersion());
+                games.put(game.getGameId(), cachedGame);
+            }
+            evictedDirtyGames = evictLeastRecentlyUsed();
+        }
+        write(evictedDirtyGames);
+        return cachedGame;
+    }
+
+    /**
+     * Caches the state of the game, replacing a different cached state of the game, and marks it as dirty.
+     * A game, which is not dirty, has to be written by the caller right away.
+     *
+     * @return the cached game.
+     */
+    private CachedGame cache(SinglePlayerGame game, boolean dirty) {
+        List<CachedGame> evictedDirtyGames;
+        CachedGame cachedGame;
+        synchronized (games) {
+            cachedGame = lookup(game.getGameId());
+            if (cachedGame == null || cachedGame.state != game.getState()) {
+                Long version = cachedGame == null ? game.getVersion() : cachedGame.version;
+                cachedGame = new CachedGame(game.getGameId(), game.getState(), version);
+                games.put(game.getGameId(), cachedGame);
+            }
+            if (dirty) {
+                cachedGame.dirty = true;
+            } else {
+                pendingWrite(cachedGame);
+            }
+            evictedDirtyGames = evictLeastRecentlyUsed();
+        }
+        write(evictedDirtyGames);
+        return cachedGame;
+    }
+
+    /**
+     * Evicts the least recently used games over the maximum size. Must be called with the lock of 'games'.
+     *
+     * @return the evicted dirty games, which have to be written.
+     */
+    private List<CachedGame> evictLeastRecentlyUsed() {
+        List<CachedGame> evictedDirtyGames = new ArrayList<>();
+        Iterator<CachedGame> leastRecentlyUsed = games.values().iterator();
+        while (games.size() > properties.getMaximumSize() && leastRecentlyUsed.hasNext()) {
+            CachedGame eldest = leastRecentlyUsed.next();
+            leastRecentlyUsed.remove();
+            if (eldest.dirty) {
+                evictedDirtyGames.add(pendingWrite(eldest));
+            }
+            evict(eldest);
+        }
+        return evictedDirtyGames;
+    }
+
+    /**
+     * Keeps an evicted game until its pending writes are finished. Must be called with the lock of 'games'.
+     */
+    private void evict(CachedGame cachedGame) {
+        evictionCount.incrementAndGet();
+        removed(cachedGame.gameId);
+        if (cachedGame.pendingWrites > 0) {
+            evictedGames.put(cachedGame.gameId, cachedGame);
+        } else {
+            released(cachedGame);
+        }
+    }
+
+    /**
+     * Lets the store forget the game, unless it is still cached or written. Must be called with the lock of 'games'.
+     */
+    private void released(CachedGame cachedGame) {
+        if (cachedGame.pendingWrites == 0 && !games.containsKey(cachedGame.gameId)
+                && !evictedGames.containsKey(cachedGame.gameId)) {
+            gameStore.release(cachedGame.gameId);
+        }
+    }
+
+    /**
+     * Tells the loads of the game, that it left the cache. Must be called with the lock of 'games'.
+     */
+    private void removed(String gameId) {
+        Load load = loads.get(gameId);
+        if (load != null) {
+            load.removals++;
+        }
+    }
+
+    /**
+     * Marks the game as clean, because it is going to be written. Must be called with the lock of 'games'.
+     */
+    private CachedGame pendingWrite(CachedGame cachedGame) {
+        cachedGame.dirty = false;
+        cachedGame.pendingWrites++;
+        return cachedGame;
+    }
+
+    /**
+     * Forgets an evicted game, after its last pending write is finished. Must be called with the lock of 'games'.
+     */
+    private void finishWrite(CachedGame cachedGame) {
+        cachedGame.pendingWrites--;
+        if (cachedGame.pendingWrites == 0 && evictedGames.remove(cachedGame.gameId, cachedGame)) {
+            released(cachedGame);
+        }
+    }
+
+    private void write(List<CachedGame> dirtyGames) {
+        for (int from = 0; from < dirtyGames.size(); from += properties.getFlushBatchSize()) {
+            List<CachedGame> batch =
+                    dirtyGames.subList(from, Math.min(dirtyGames.size(), from + properties.getFlushBatchSize()));
+            List<SinglePlayerGame> documents = new ArrayList<>(batch.size());
+            for (CachedGame dirtyGame : batch) {
+                documents.add(snapshot(dirtyGame));
+            }
+            try {
+                written(batch, gameStore.saveAll(documents));
+                flushCount.incrementAndGet();
+                log.debug("Flushed {} games to the repository", documents.size());
+            } catch (OptimisticLockingFailureException exception) {
+                log.warn("Outdated version in a batch of {} games; writing them one by one", documents.size());
+                for (int index = 0; index < batch.size(); index++) {
+                    writeAfterConflict(batch.get(index), documents.get(index));
+                }
+            } catch (DataAccessException exception) {
+                log.error("Could not flush {} games; they will be retried with the next flush", documents.size(), exception);
+                batch.forEach(this::retry);
+            }
+        }
+    }
+
+    /**
+     * Writes the game again with the stored version, as long as the stored rolls are only an earlier state of
+     * the game. Nothing is written if the stored game is already newer, ie. written concurrently by this cache.
+     */
+    private void writeAfterConflict(CachedGame cachedGame, SinglePlayerGame document) {
+        try {
+            while (true) {
+                Optional<SinglePlayerGame> storedGame = gameStore.findById(cachedGame.gameId);
+                if (storedGame.isPresent() && storedGame.get().getState().isContinuationOf(document.getState())) {
+                    written(Collections.singletonList(cachedGame), Collections.singletonList(storedGame.get()));
+                    return;
+                }
+                if (storedGame.isPresent() && !document.getState().isContinuationOf(storedGame.get().getState())) {
+                    conflict(cachedGame);
+                    return;
+                }
+                document.setVersion(storedGame.map(SinglePlayerGame::getVersion).orElse(null));
+                try {
+                    written(Collections.singletonList(cachedGame), gameStore.saveAll(Collections.singletonList(document)));
+                    return;
+                } catch (OptimisticLockingFailureException exception) {
+                    log.debug("Game {} was written concurrently; comparing it again", cachedGame.gameId);
+                }
+            }
+        } catch (DataAccessException exception) {
+            log.error("Could not flush game {}; it will be retried with the next flush", cachedGame.gameId, exception);
+            retry(cachedGame);
+        }
+    }
+
+    /**
+     * Takes the new versions of the written games and forgets the written evicted games.
+     */
+    private void written(List<CachedGame> writtenGames, List<SinglePlayerGame> savedGames) {
+        flushedGameCount.addAndGet(writtenGames.size());
+        synchronized (games) {
+            for (int index = 0; index < writtenGames.size(); index++) {
+                CachedGame writtenGame = writtenGames.get(index);
+                Long savedVersion = index < savedGames.size() ? savedGames.get(index).getVersion() : null;
+                if (savedVersion != null && (writtenGame.version == null || writtenGame.version < savedVersion)) {
+                    writtenGame.version = savedVersion;
+                }
+                finishWrite(writtenGame);
+            }
+        }
+    }
+
+    /**
+     * Puts a game, which failed to be written, back into the cache as dirty unless it is newer in the cache.
+     */
+    private void retry(CachedGame failedGame) {
+        synchronized (games) {
+            finishWrite(failedGame);
+            CachedGame cachedGame = games.get(failedGame.gameId);
+            if (cachedGame == null) {
+                cachedGame = failedGame;
+                cachedGame.lastAccess = System.currentTimeMillis();
+                games.put(failedGame.gameId, cachedGame);
+            }
+            cachedGame.dirty = true;
+        }
+    }
+
+    /**
+     * Drops a game changed by another writer, so that it is loaded again with the next fetch.
+     */
+    private void conflict(CachedGame conflictingGame) {
+        conflictCount.incrementAndGet();
+        log.error("Game {} was changed by another writer; dropping {} cached rolls",
+                conflictingGame.gameId, conflictingGame.state.getRollCount());
+        synchronized (games) {
+            finishWrite(conflictingGame);
+            evictedGames.remove(conflictingGame.gameId, conflictingGame);
+            games.remove(conflictingGame.gameId, conflictingGame);
+            removed(conflictingGame.gameId);
+            released(conflictingGame);
+        }
+    }
+
+    /**
+     * Creates a game with a copy of the state and its scoreboard view; rolls on the same state are not applied
+     * in between, so the roll count and the ETag of the copy match the scoreboard. The cached state itself is never
+     * handed out with a game.
+     */
+    private SinglePlayerGame snapshot(CachedGame cachedGame) {
+        synchronized (cachedGame.state) {
+            return SinglePlayerGame.builder()
+                    .gameId(cachedGame.gameId)
+                    .version(cachedGame.version)
+                    .state(cachedGame.state.copy())
+                    .scoreboard(cachedGame.state.toScoreboard())
+                    .build();
+        }
+    }
+
+    private static final class Load {
+        private int loaders;
+        private long removals;
+    }
+
+    private static final class CachedGame {
+        private final String gameId;
+        private final GameState state;
+        private volatile Long version;
+        private boolean dirty;
+        /**
+         * Number of writes of the game, which are not finished yet.
+         */
+        private int pendingWrites;
+        private long lastAccess = System.currentTimeMillis();
+
+        private CachedGame(String gameId, GameState state, Long version) {
+            this.gameId = gameId;
+            this.state = state;
+            this.version = version;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package de.arena.bowling;
+
+import de.arena.bowling.domain.SinglePlayerGame;
+import de.arena.bowling.service.ScoreboardService;
+import de.arena.bowling.service.StatisticsService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Test for the lane kiosks started with the 'fast-startup' profile and the mapped-file store, without MongoDB.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(properties = "scoreboard.store=mapped-file")
+@AutoConfigureMockMvc
+@ActiveProfiles("fast-startup")
+class FastStartupProfileTest {
+
+    @TempDir
+    static Path directory;
+
+    @Autowired
+    private MockMvc controller;
+
+    @Autowired
+    private ScoreboardService scoreboardService;
+
+    @Autowired
+    private StatisticsService statisticsService;
+
+    @DynamicPropertySource
+    static void gameStore(DynamicPropertyRegistry registry) {
+        registry.add("scoreboard.mapped-file.path", () -> directory.resolve("games.slots").toString());
+    }
+
+    @Test
+    @DisplayName("Test a game is completed on the kiosk, while the statistics are rebuilt in the background")
+    void completeGame() throws Exception {
+        //given
+        SinglePlayerGame game = scoreboardService.createNewGameScoreboard();
+        //when
+        for (int roll = 0; roll < 20; roll++) {
+            controller.perform(MockMvcRequestBuilders.get("/score")
+                    .param("gameId", game.getGameId())
+                    .param("numberOfPins", "4"))
+                    .andExpect(status().isOk())
+                    .andExpect(model().attributeDoesNotExist("errorMessage"));
+        }
+        //then
+        assertThat(scoreboardService.fetchScoreboard(game.getGameId()))
+                .hasValueSatisfying(completedGame -> assertThat(completedGame.getScoreboard().getTotalScore()).isEqualTo(80));
+        assertThat(statisticsService.fetchStatistics().getTotal().getGames()).isEqualTo(1);
+    }
+}
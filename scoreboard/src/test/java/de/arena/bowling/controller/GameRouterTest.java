@@ -0,0 +1,171 @@
+package de.arena.bowling.controller;
+
+import com.sun.net.httpserver.HttpServer;
+import de.arena.bowling.domain.Roll;
+import de.arena.bowling.domain.RollResult;
+import de.arena.bowling.service.ClusterProperties;
+import de.arena.bowling.service.GamePartitioner;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the {@link GameRouter}
+ */
+class GameRouterTest {
+
+    private static final String SELF = "http://127.0.0.1:1";
+    // nothing listens on the port, so the connections are refused right away
+    private static final String OTHER = "http://127.0.0.1:2";
+
+    private GamePartitioner partitioner;
+
+    private GameRouter router;
+
+    @BeforeEach
+    void setUp() {
+        ClusterProperties properties = new ClusterProperties();
+        properties.setNodes(Arrays.asList(SELF, OTHER + "/"));
+        properties.setSelf(SELF);
+        properties.setProbeTimeout(Duration.ofMillis(200));
+        partitioner = new GamePartitioner(properties, event -> { });
+        router = new GameRouter(partitioner, properties);
+    }
+
+    @Test
+    @DisplayName("Test a request reading a game of another node is redirected to the owner")
+    void redirectToOwner() throws Exception {
+        //given
+        String gameId = gameIdOwnedBy(OTHER);
+        MockHttpServletRequest request = request("GET", "/score", null);
+        request.setParameter("gameId", gameId);
+        request.setQueryString("gameId=" + gameId);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        //when
+        boolean handled = router.preHandle(request, response, null);
+        //then
+        assertThat(handled).isFalse();
+        assertThat(response.getStatus()).isEqualTo(307);
+        assertThat(response.getHeader("Location")).isEqualTo(OTHER + "/score?gameId=" + gameId);
+    }
+
+    @Test
+    @DisplayName("Test the requests of own games and the forwarded requests are handled by this node")
+    void handleLocally() throws Exception {
+        //given
+        MockHttpServletRequest ownGame = request("GET", "/api/games/x", partitioner.newGameId());
+        MockHttpServletRequest forwarded = request("POST", "/api/games/x/rolls", gameIdOwnedBy(OTHER));
+        forwarded.addHeader(GameRouter.FORWARDED_BY, OTHER);
+        //when-then
+        assertThat(router.preHandle(ownGame, new MockHttpServletResponse(), null)).isTrue();
+        assertThat(router.preHandle(forwarded, new MockHttpServletResponse(), null)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Test the rolls of an unreachable owner are rejected until it left the ring, and then applied locally")
+    void unreachableOwner() {
+        //given
+        String otherGameId = gameIdOwnedBy(OTHER);
+        String ownGameId = partitioner.newGameId();
+        List<Roll> rolls = Arrays.asList(new Roll(otherGameId, 3), new Roll(ownGameId, 4), new Roll(otherGameId, 5));
+        //when
+        List<RollResult> rejectedResults = route(rolls);
+        route(rolls);
+        List<RollResult> results = route(rolls);
+        //then
+        assertThat(rejectedResults).extracting(RollResult::isAccepted).containsExactly(false, true, false);
+        assertThat(rejectedResults.get(0).getErrorMessage()).contains(OTHER);
+        assertThat(results).extracting(RollResult::isAccepted).containsExactly(true, true, true);
+        assertThat(results).extracting(RollResult::getNumberOfPins).containsExactly(3, 4, 5);
+        assertThat(results).extracting(RollResult::getGameId).containsExactly(otherGameId, ownGameId, otherGameId);
+        assertThat(partitioner.isLocal(otherGameId)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Test a request of an unreachable owner is rejected with 503, while the owner is in the ring")
+    void unavailableOwner() throws Exception {
+        //given
+        MockHttpServletRequest request = request("POST", "/api/games/x/rolls", gameIdOwnedBy(OTHER));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        //when
+        boolean handled = router.preHandle(request, response, null);
+        //then
+        assertThat(handled).isFalse();
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(partitioner.ownerOf(gameIdOwnedBy(OTHER))).isEqualTo(OTHER);
+    }
+
+    @Test
+    @DisplayName("Test the rolls rejected by the owner with an error status are not applied locally")
+    void failingOwner() throws Exception {
+        //given
+        HttpServer owner = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        owner.createContext("/api/rolls", exchange -> {
+            byte[] error = "{\"status\":500}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(500, error.length);
+            exchange.getResponseBody().write(error);
+            exchange.close();
+        });
+        owner.start();
+        try {
+            String ownerUrl = "http://127.0.0.1:" + owner.getAddress().getPort();
+            ClusterProperties properties = new ClusterProperties();
+            properties.setNodes(Arrays.asList(SELF, ownerUrl));
+            properties.setSelf(SELF);
+            partitioner = new GamePartitioner(properties, event -> { });
+            router = new GameRouter(partitioner, properties);
+            String ownerGameId = gameIdOwnedBy(ownerUrl);
+            List<String> localRolls = new ArrayList<>();
+            //when
+            List<RollResult> results = router.route(Collections.singletonList(new Roll(ownerGameId, 3)), null, rolls -> {
+                rolls.forEach(roll -> localRolls.add(roll.getGameId()));
+                return Collections.emptyList();
+            });
+            //then
+            assertThat(results).extracting(RollResult::isAccepted).containsExactly(false);
+            assertThat(results.get(0).getErrorMessage()).contains(ownerUrl);
+            assertThat(localRolls).isEmpty();
+            assertThat(partitioner.ownerOf(ownerGameId)).isEqualTo(ownerUrl);
+        } finally {
+            owner.stop(0);
+        }
+    }
+
+    private List<RollResult> route(List<Roll> rolls) {
+        return router.route(rolls, null, localRolls -> localRolls.stream()
+                .map(roll -> RollResult.builder().gameId(roll.getGameId()).numberOfPins(roll.getNumberOfPins())
+                        .accepted(true).build())
+                .collect(Collectors.toList()));
+    }
+
+    private String gameIdOwnedBy(String node) {
+        String gameId;
+        int game = 0;
+        do {
+            gameId = "game" + game++;
+        } while (!partitioner.ownerOf(gameId).equals(node));
+        return gameId;
+    }
+
+    private static MockHttpServletRequest request(String method, String uri, String gameId) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE,
+                gameId == null ? Collections.emptyMap() : Collections.singletonMap("gameId", gameId));
+        return request;
+    }
+}
@@ -0,0 +1,109 @@
+package de.arena.bowling.controller;
+
+import de.arena.bowling.domain.Bowler;
+import de.arena.bowling.domain.GameState;
+import de.arena.bowling.domain.LaneSession;
+import de.arena.bowling.service.ClusterProperties;
+import de.arena.bowling.service.GamePartitioner;
+import de.arena.bowling.service.LaneSessionService;
+import de.arena.bowling.service.ScoreboardMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests for the {@link LaneSessionRestController} behaviours
+ */
+@ExtendWith(SpringExtension.class)
+@WebMvcTest(LaneSessionRestController.class)
+@Import({ScoreboardMetrics.class, SimpleMeterRegistry.class, GamePartitioner.class, ClusterProperties.class})
+class LaneSessionRestControllerTest {
+
+    @Autowired
+    private MockMvc controller;
+
+    @MockBean
+    private LaneSessionService laneSessionService;
+
+    @Test
+    @DisplayName("Test a new session is created with its location")
+    void createSession() throws Exception {
+        //given
+        when(laneSessionService.createSession(2, Arrays.asList("first", "second")))
+                .thenReturn(session(new GameState(), new GameState()));
+        //when-then
+        controller.perform(MockMvcRequestBuilders
+                .post("/api/sessions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"lane\":2,\"bowlers\":[\"first\",\"second\"]}"))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Location", "/api/sessions/sessionId"))
+                .andExpect(jsonPath("$.currentBowler").value(0))
+                .andExpect(jsonPath("$.bowlers[1].name").value("second"));
+    }
+
+    @Test
+    @DisplayName("Test a session without bowlers is rejected")
+    void createSessionWithoutBowlers() throws Exception {
+        controller.perform(MockMvcRequestBuilders
+                .post("/api/sessions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"lane\":2,\"bowlers\":[]}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorMessages").isNotEmpty());
+        verifyNoInteractions(laneSessionService);
+    }
+
+    @Test
+    @DisplayName("Test the scoreboards of all the bowlers are returned with the version of the session")
+    void fetchSession() throws Exception {
+        //given
+        GameState first = new GameState();
+        first.roll(3);
+        first.roll(4);
+        when(laneSessionService.fetchSession("sessionId")).thenReturn(Optional.of(session(first, new GameState())));
+        //when-then
+        controller.perform(MockMvcRequestBuilders.get("/api/sessions/sessionId"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"2\""))
+                .andExpect(jsonPath("$.currentBowler").value(1))
+                .andExpect(jsonPath("$.bowlers[0].scoreboard.totalScore").value(7))
+                .andExpect(jsonPath("$.bowlers[0].scoreboard.frames[0].rolls").value("34"))
+                .andExpect(jsonPath("$.bowlers[1].scoreboard.frames").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test fetching an unknown session")
+    void fetchUnknownSession() throws Exception {
+        controller.perform(MockMvcRequestBuilders.get("/api/sessions/unknown"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.errorMessages").isNotEmpty());
+    }
+
+    private LaneSession session(GameState... states) {
+        Bowler[] bowlers = new Bowler[states.length];
+        for (int index = 0; index < states.length; index++) {
+            bowlers[index] = Bowler.builder().name(index == 0 ? "first" : "second")
+                    .scoreboard(states[index].toScoreboard()).state(states[index]).build();
+        }
+        return LaneSession.builder().sessionId("sessionId").lane(2).bowlers(Arrays.asList(bowlers)).build();
+    }
+}
@@ -3,13 +3,18 @@ package de.arena.bowling.controller;
 import de.arena.bowling.domain.GameStatus;
 import de.arena.bowling.domain.Scoreboard;
 import de.arena.bowling.domain.SinglePlayerGame;
+import de.arena.bowling.service.ClusterProperties;
+import de.arena.bowling.service.GamePartitioner;
+import de.arena.bowling.service.ScoreboardMetrics;
 import de.arena.bowling.service.ScoreboardService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
@@ -27,6 +32,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  */
 @ExtendWith(SpringExtension.class)
 @WebMvcTest(ScoreboardController.class)
+@Import({ScoreboardFragmentCache.class, ScoreboardFragmentProperties.class, ScoreboardMetrics.class,
+        SimpleMeterRegistry.class, GamePartitioner.class, ClusterProperties.class})
 class ScoreboardControllerTest {
 
     @Autowired
@@ -57,7 +64,7 @@ class ScoreboardControllerTest {
         //when-then
         controller.perform(MockMvcRequestBuilders
                 .get("/start"))
-                .andExpect(model().attributeExists("game", "frames"))
+                .andExpect(model().attributeExists("game", "rows"))
                 .andExpect(view().name("scoreboard"))
                 .andExpect(status().isOk());
         verify(scoreboardService).createNewGameScoreboard();
@@ -88,7 +95,7 @@ class ScoreboardControllerTest {
         //when-then
         controller.perform(MockMvcRequestBuilders
                 .get("/score").param("gameId", testGameId).param("numberOfPins", "10"))
-                .andExpect(model().attributeExists("game", "frames", "gameStatus"))
+                .andExpect(model().attributeExists("game", "rows", "gameStatus"))
                 .andExpect(view().name("scoreboard"))
                 .andExpect(status().isOk());
         verify(scoreboardService).fetchScoreboard(testGameId);
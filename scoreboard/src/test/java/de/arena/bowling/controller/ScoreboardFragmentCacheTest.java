@@ -0,0 +1,101 @@
+package de.arena.bowling.controller;
+
+import de.arena.bowling.domain.GameState;
+import de.arena.bowling.domain.SinglePlayerGame;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the {@link ScoreboardFragmentCache}
+ */
+class ScoreboardFragmentCacheTest {
+
+    private ScoreboardFragmentProperties properties;
+
+    private ScoreboardFragmentCache fragmentCache;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ScoreboardFragmentProperties();
+        fragmentCache = new ScoreboardFragmentCache(properties);
+    }
+
+    @Test
+    @DisplayName("Test the cells of all the frames are rendered, with empty cells for the frames not played yet")
+    void render() {
+        //given
+        SinglePlayerGame game = game("gameId", 10, 5, 5, 3);
+        //when
+        ScoreboardRows rows = fragmentCache.render(game);
+        //then
+        assertThat(rows.getRollCells()).startsWith("<td>X</td><td></td><td>5</td><td>/</td><td>3</td><td></td><td></td>")
+                .endsWith("<td></td><td></td><td></td>");
+        assertThat(rows.getScoreCells()).startsWith("<td colspan=\"2\">20</td><td colspan=\"2\">33</td><td colspan=\"2\"></td>")
+                .endsWith("<td colspan=\"3\"></td>");
+    }
+
+    @Test
+    @DisplayName("Test only the frames without a score are rendered again for the next view")
+    void reuseSettledFrames() {
+        //given
+        GameState state = stateOf(10, 5, 5, 3);
+        SinglePlayerGame game = SinglePlayerGame.builder().gameId("gameId").state(state).scoreboard(state.toScoreboard()).build();
+        fragmentCache.render(game);
+        state.roll(4);
+        state.refresh(game.getScoreboard());
+        //when
+        ScoreboardRows rows = fragmentCache.render(game);
+        //then
+        assertThat(fragmentCache.getCachedFrameCount()).isEqualTo(2);
+        assertThat(fragmentCache.getRenderedFrameCount()).isEqualTo(18);
+        assertThat(rows.getScoreCells()).startsWith("<td colspan=\"2\">20</td><td colspan=\"2\">33</td><td colspan=\"2\">40</td>");
+        assertThat(rows).isEqualTo(new ScoreboardFragmentCache(properties).render(game));
+    }
+
+    @Test
+    @DisplayName("Test a completed game is evicted once it is not viewed anymore")
+    void evictCompletedGames() {
+        //given
+        properties.setCompletedGameTimeToLive(Duration.ofMillis(-1));
+        fragmentCache.render(game("completed", 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0));
+        fragmentCache.render(game("active", 3));
+        //when
+        fragmentCache.evictCompletedGames();
+        //then
+        assertThat(fragmentCache.size()).isEqualTo(1);
+        assertThat(fragmentCache.getEvictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Test the least recently viewed game is evicted beyond the maximum size")
+    void evictLeastRecentlyViewedGame() {
+        //given
+        properties.setMaximumSize(2);
+        fragmentCache.render(game("first", 3));
+        fragmentCache.render(game("second", 3));
+        fragmentCache.render(game("first", 3));
+        //when
+        fragmentCache.render(game("third", 3));
+        //then
+        assertThat(fragmentCache.size()).isEqualTo(2);
+        assertThat(fragmentCache.getEvictionCount()).isEqualTo(1);
+    }
+
+    private SinglePlayerGame game(String gameId, int... rolls) {
+        GameState state = stateOf(rolls);
+        return SinglePlayerGame.builder().gameId(gameId).state(state).scoreboard(state.toScoreboard()).build();
+    }
+
+    private GameState stateOf(int... rolls) {
+        GameState state = new GameState();
+        for (int numberOfPins : rolls) {
+            state.roll(numberOfPins);
+        }
+        return state;
+    }
+}
@@ -0,0 +1,197 @@
+package de.arena.bowling.controller;
+
+import de.arena.bowling.domain.GameState;
+import de.arena.bowling.domain.GameStatus;
+import de.arena.bowling.domain.GameSummary;
+import de.arena.bowling.domain.Roll;
+import de.arena.bowling.domain.RollResult;
+import de.arena.bowling.domain.ScoreboardCodec;
+import de.arena.bowling.domain.SinglePlayerGame;
+import de.arena.bowling.service.ClusterProperties;
+import de.arena.bowling.service.GamePartitioner;
+import de.arena.bowling.service.ScoreboardMetrics;
+import de.arena.bowling.service.ScoreboardService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests for the {@link ScoreboardRestController} behaviours
+ */
+@ExtendWith(SpringExtension.class)
+@WebMvcTest(ScoreboardRestController.class)
+@Import({ScoreboardMetrics.class, SimpleMeterRegistry.class, GamePartitioner.class, ClusterProperties.class})
+class ScoreboardRestControllerTest {
+
+    @Autowired
+    private MockMvc controller;
+
+    @MockBean
+    private ScoreboardService scoreboardService;
+
+    @MockBean
+    private ScoreboardUpdateBroadcaster updateBroadcaster;
+
+    @Test
+    @DisplayName("Test a batch of rolls is passed to the service and the results are returned in order")
+    void rolls() throws Exception {
+        //given
+        when(scoreboardService.updateScores(Arrays.asList(new Roll("lane1", 10), new Roll("lane2", 11))))
+                .thenReturn(Arrays.asList(
+                        RollResult.builder().gameId("lane1").numberOfPins(10).accepted(true).status(GameStatus.IN_PROGRESS).build(),
+                        RollResult.builder().gameId("lane2").numberOfPins(11).accepted(false).errorMessage("Invalid").build()));
+        //when-then
+        controller.perform(MockMvcRequestBuilders
+                .post("/api/rolls")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"gameId\":\"lane1\",\"numberOfPins\":10},{\"gameId\":\"lane2\",\"numberOfPins\":11}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].accepted").value(true))
+                .andExpect(jsonPath("$[1].gameId").value("lane2"))
+                .andExpect(jsonPath("$[1].errorMessage").value("Invalid"));
+        verify(scoreboardService).updateScores(Arrays.asList(new Roll("lane1", 10), new Roll("lane2", 11)));
+    }
+
+    @Test
+    @DisplayName("Test a batch with an invalid roll is rejected")
+    void rollsWithInvalidRequestBody() throws Exception {
+        controller.perform(MockMvcRequestBuilders
+                .post("/api/rolls")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"gameId\":\"\",\"numberOfPins\":10}]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorMessages").isNotEmpty());
+        verifyNoInteractions(scoreboardService);
+    }
+
+    @Test
+    @DisplayName("Test the compact scoreboard of a game is returned with its version")
+    void fetchScoreboard() throws Exception {
+        //given
+        when(scoreboardService.fetchScoreboard("gameId")).thenReturn(Optional.of(game("gameId", 10, 5, 5, 3, 4, 2)));
+        //when-then
+        controller.perform(MockMvcRequestBuilders.get("/api/games/gameId"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"6\""))
+                .andExpect(jsonPath("$.rollCount").value(6))
+                .andExpect(jsonPath("$.totalScore").value(40))
+                .andExpect(jsonPath("$.maxPossibleNumberOfPins").value(8))
+                .andExpect(jsonPath("$.frames[0].rolls").value("X"))
+                .andExpect(jsonPath("$.frames[1].rolls").value("5/"))
+                .andExpect(jsonPath("$.frames[1].score").value(33))
+                .andExpect(jsonPath("$.frames[3].rolls").value("2"))
+                .andExpect(jsonPath("$.frames[3].score").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Test an unchanged game is not sent again")
+    void fetchUnchangedScoreboard() throws Exception {
+        //given
+        when(scoreboardService.fetchScoreboard("gameId")).thenReturn(Optional.of(game("gameId", 10, 5)));
+        //when-then
+        controller.perform(MockMvcRequestBuilders.get("/api/games/gameId/state").header("If-None-Match", "\"2\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @DisplayName("Test the state of a game is returned without the frames")
+    void fetchState() throws Exception {
+        //given
+        when(scoreboardService.fetchScoreboard("gameId")).thenReturn(Optional.of(game("gameId", 10, 5)));
+        //when-then
+        controller.perform(MockMvcRequestBuilders.get("/api/games/gameId/state").header("If-None-Match", "\"1\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("IN_PROGRESS"))
+                .andExpect(jsonPath("$.frames").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Test a game is exported in the binary format")
+    void export() throws Exception {
+        //given
+        when(scoreboardService.fetchScoreboard("gameId")).thenReturn(Optional.of(game("gameId", 10, 5, 3)));
+        //when-then
+        controller.perform(MockMvcRequestBuilders.get("/api/games/gameId/export"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_OCTET_STREAM))
+                .andExpect(content().bytes(new byte[]{ScoreboardCodec.VERSION, 3, (byte) 0xA5, 0x30}));
+    }
+
+    @Test
+    @DisplayName("Test fetching an unknown game")
+    void fetchUnknownGame() throws Exception {
+        controller.perform(MockMvcRequestBuilders.get("/api/games/unknown"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.errorMessages").isNotEmpty());
+    }
+
+    @Test
+    @DisplayName("Test the summaries of the games with a status are listed")
+    void listGames() throws Exception {
+        //given
+        when(scoreboardService.listGames(GameStatus.IN_PROGRESS, 1, 5)).thenReturn(Collections.singletonList(
+                GameSummary.builder().gameId("gameId").status(GameStatus.IN_PROGRESS).totalScore(7).build()));
+        //when-then
+        controller.perform(MockMvcRequestBuilders.get("/api/games")
+                .param("status", "IN_PROGRESS")
+                .param("page", "1")
+                .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].gameId").value("gameId"))
+                .andExpect(jsonPath("$[0].totalScore").value(7))
+                .andExpect(jsonPath("$[0].completed").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Test a new game is created with its location")
+    void createNewGame() throws Exception {
+        //given
+        when(scoreboardService.createNewGameScoreboard()).thenReturn(game("gameId"));
+        //when-then
+        controller.perform(MockMvcRequestBuilders.post("/api/games"))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Location", "/api/games/gameId"))
+                .andExpect(jsonPath("$.frames").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test a roll is passed to the service")
+    void score() throws Exception {
+        //given
+        SinglePlayerGame game = game("gameId", 3);
+        when(scoreboardService.fetchScoreboard("gameId")).thenReturn(Optional.of(game));
+        //when-then
+        controller.perform(MockMvcRequestBuilders.post("/api/games/gameId/rolls").param("numberOfPins", "4"))
+                .andExpect(status().isOk());
+        verify(scoreboardService).updateScore(game, 4);
+    }
+
+    private SinglePlayerGame game(String gameId, int... rolls) {
+        GameState state = new GameState();
+        for (int numberOfPins : rolls) {
+            state.roll(numberOfPins);
+        }
+        return SinglePlayerGame.builder().gameId(gameId).state(state).scoreboard(state.toScoreboard()).build();
+    }
+}
@@ -0,0 +1,182 @@
+package de.arena.bowling.controller;
+
+import de.arena.bowling.domain.CompactScoreboard;
+import de.arena.bowling.domain.GameState;
+import de.arena.bowling.domain.SinglePlayerGame;
+import de.arena.bowling.service.GameUpdatedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the {@link ScoreboardUpdateBroadcaster}
+ */
+class ScoreboardUpdateBroadcasterTest {
+
+    private List<Runnable> pendingSends;
+
+    private ScoreboardUpdateBroadcaster broadcaster;
+
+    private GameState state;
+
+    @BeforeEach
+    void setUp() {
+        pendingSends = new ArrayList<>();
+        Executor sender = pendingSends::add;
+        broadcaster = new ScoreboardUpdateBroadcaster(new ScoreboardPushProperties(), sender);
+        state = new GameState();
+    }
+
+    @Test
+    @DisplayName("Test the subscribers get the whole scoreboard first and then only the changed frames")
+    void pushChangedFrames() {
+        //given
+        roll(3, 4, 5);
+        RecordingEmitter first = subscribe();
+        RecordingEmitter second = subscribe();
+        sendAll();
+        //when
+        roll(5);
+        sendAll();
+        //then
+        assertThat(broadcaster.getConnectionCount()).isEqualTo(2);
+        for (RecordingEmitter emitter : new RecordingEmitter[]{first, second}) {
+            assertThat(emitter.updates).hasSize(2);
+            assertThat(emitter.updates.get(0).getFirstFrame()).isEqualTo(1);
+            assertThat(emitter.updates.get(0).getFrames()).hasSize(2);
+            assertThat(emitter.updates.get(1).getFirstFrame()).isEqualTo(1);
+            assertThat(emitter.updates.get(1).getRollCount()).isEqualTo(4);
+        }
+    }
+
+    @Test
+    @DisplayName("Test the waiting update of a slow subscriber is replaced by the whole scoreboard")
+    void conflateUpdatesOfSlowSubscriber() {
+        //given
+        roll(1, 1, 1, 1, 1, 1);
+        RecordingEmitter emitter = subscribe();
+        sendAll();
+        //when
+        roll(1);
+        roll(1);
+        roll(1);
+        sendAll();
+        //then
+        assertThat(emitter.updates).hasSize(2);
+        CompactScoreboard update = emitter.updates.get(1);
+        assertThat(update.getRollCount()).isEqualTo(9);
+        assertThat(update.getFirstFrame()).isEqualTo(1);
+        assertThat(update.getFrames()).hasSize(5);
+        assertThat(broadcaster.getConflatedUpdateCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Test the subscription is closed when the game is over")
+    void closeSubscriptionOfCompletedGame() {
+        //given
+        RecordingEmitter emitter = subscribe();
+        sendAll();
+        //when
+        for (int roll = 0; roll < 12; roll++) {
+            roll(10);
+            sendAll();
+        }
+        //then
+        assertThat(emitter.updates).hasSize(13);
+        assertThat(emitter.updates.get(12).getFrames()).extracting(CompactScoreboard.CompactFrame::getRolls)
+                .containsExactly("X", "X", "XXX");
+        assertThat(broadcaster.getConnectionCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Test a subscriber, which blocks the sender longer than the send timeout, is dropped")
+    void dropBlockedSubscriber() throws Exception {
+        //given
+        ScoreboardPushProperties properties = new ScoreboardPushProperties();
+        properties.setSendTimeout(Duration.ofMillis(200));
+        ExecutorService sender = Executors.newSingleThreadExecutor();
+        broadcaster = new ScoreboardUpdateBroadcaster(properties, sender);
+        BlockingEmitter blockedEmitter = new BlockingEmitter();
+        broadcaster.subscribe(SinglePlayerGame.builder().gameId("gameId").state(state.copy())
+                .scoreboard(state.toScoreboard()).build(), blockedEmitter);
+        //when
+        RecordingEmitter emitter = subscribe();
+        sender.shutdown();
+        boolean sent = sender.awaitTermination(5, TimeUnit.SECONDS);
+        //then
+        assertThat(sent).isTrue();
+        assertThat(blockedEmitter.interrupted).isTrue();
+        assertThat(emitter.updates).hasSize(1);
+        assertThat(broadcaster.getConnectionCount()).isEqualTo(1);
+        assertThat(broadcaster.getDroppedSubscriberCount()).isEqualTo(1);
+        broadcaster.shutdown();
+    }
+
+    private RecordingEmitter subscribe() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        broadcaster.subscribe(SinglePlayerGame.builder()
+                .gameId("gameId")
+                .state(state.copy())
+                .scoreboard(state.toScoreboard())
+                .build(), emitter);
+        return emitter;
+    }
+
+    private void roll(int... rolls) {
+        int previousRollCount = state.getRollCount();
+        for (int numberOfPins : rolls) {
+            state.roll(numberOfPins);
+        }
+        broadcaster.onGameUpdated(new GameUpdatedEvent("gameId", state.copy(), previousRollCount));
+    }
+
+    private void sendAll() {
+        while (!pendingSends.isEmpty()) {
+            pendingSends.remove(0).run();
+        }
+    }
+
+    /**
+     * Blocks the send like a client, which stopped reading, until the sender thread is interrupted.
+     */
+    private static class BlockingEmitter extends SseEmitter {
+        private volatile boolean interrupted;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException exception) {
+                interrupted = true;
+                throw new IOException("Interrupted write", exception);
+            }
+        }
+    }
+
+    /**
+     * Records the sent updates instead of writing them to a response.
+     */
+    private static class RecordingEmitter extends SseEmitter {
+        private final List<CompactScoreboard> updates = new ArrayList<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            builder.build().stream()
+                    .filter(data -> data.getData() instanceof CompactScoreboard)
+                    .forEach(data -> updates.add((CompactScoreboard) data.getData()));
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package de.arena.bowling.controller;
+
+import de.arena.bowling.domain.GameStatistics;
+import de.arena.bowling.domain.LeaderboardEntry;
+import de.arena.bowling.domain.PlayerStatistics;
+import de.arena.bowling.service.ClusterProperties;
+import de.arena.bowling.service.GamePartitioner;
+import de.arena.bowling.service.ScoreboardMetrics;
+import de.arena.bowling.service.StatisticsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests for the {@link StatisticsRestController} behaviours
+ */
+@ExtendWith(SpringExtension.class)
+@WebMvcTest(StatisticsRestController.class)
+@Import({ScoreboardMetrics.class, SimpleMeterRegistry.class, GamePartitioner.class, ClusterProperties.class})
+class StatisticsRestControllerTest {
+
+    @Autowired
+    private MockMvc controller;
+
+    @MockBean
+    private StatisticsService statisticsService;
+
+    @Test
+    @DisplayName("Test the statistics are returned with the leaderboard")
+    void fetchStatistics() throws Exception {
+        //given
+        when(statisticsService.fetchStatistics()).thenReturn(GameStatistics.builder()
+                .total(PlayerStatistics.builder().games(3).highScore(300).perfectGames(1).build())
+                .leaderboard(Collections.singletonList(
+                        LeaderboardEntry.builder().rank(1).gameId("game1").score(300).build()))
+                .build());
+        //when-then
+        controller.perform(MockMvcRequestBuilders.get("/api/statistics"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total.games").value(3))
+                .andExpect(jsonPath("$.total.perfectGames").value(1))
+                .andExpect(jsonPath("$.leaderboard[0].score").value(300));
+    }
+
+    @Test
+    @DisplayName("Test the statistics of an unknown player")
+    void fetchUnknownPlayer() throws Exception {
+        //given
+        when(statisticsService.fetchPlayerStatistics("carl")).thenReturn(Optional.empty());
+        //when-then
+        controller.perform(MockMvcRequestBuilders.get("/api/statistics/players/carl"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.errorMessages[0]").value("Could not find completed games of the player: carl"));
+    }
+
+    @Test
+    @DisplayName("Test the leaderboard is rejected with a limit below one")
+    void fetchLeaderboardWithInvalidLimit() throws Exception {
+        controller.perform(MockMvcRequestBuilders.get("/api/statistics/leaderboard").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,56 @@
+package de.arena.bowling.domain;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the {@link Frame} outcomes and display values looked up in the {@link FrameTable}
+ */
+class FrameTest {
+
+    @Test
+    @DisplayName("Test the display values of strikes, spares and misses")
+    void displayValues() {
+        assertThat(displayValues(frame(1, 10, null, null))).isEqualTo("X");
+        assertThat(displayValues(frame(1, 0, 10, null))).isEqualTo("-/");
+        assertThat(displayValues(frame(1, 7, 0, null))).isEqualTo("7-");
+        assertThat(displayValues(frame(1, 4, null, null))).isEqualTo("4");
+        assertThat(displayValues(frame(1, null, null, null))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Test the display values of the final frame with bonus rolls")
+    void finalFrameDisplayValues() {
+        assertThat(displayValues(frame(10, 10, 10, 10))).isEqualTo("XXX");
+        assertThat(displayValues(frame(10, 10, 0, 7))).isEqualTo("X-7");
+        assertThat(displayValues(frame(10, 3, 7, 0))).isEqualTo("3/-");
+        assertThat(displayValues(frame(10, 3, 7, null))).isEqualTo("3/");
+        assertThat(displayValues(frame(10, 3, 6, 0))).isEqualTo("36");
+    }
+
+    @Test
+    @DisplayName("Test the completed rolls of a frame")
+    void rollsCompleted() {
+        assertThat(frame(1, 10, null, null).isRollsCompleted()).isTrue();
+        assertThat(frame(1, 3, null, null).isRollsCompleted()).isFalse();
+        assertThat(frame(10, 10, 3, null).isRollsCompleted()).isFalse();
+        assertThat(frame(10, 3, 7, 5).isRollsCompleted()).isTrue();
+        assertThat(frame(10, 3, 5, 0).isRollsCompleted()).isTrue();
+        assertThat(frame(10, 5, 5, 5).hasBonus()).isTrue();
+        assertThat(frame(1, 5, 4, 0).hasBonus()).isFalse();
+    }
+
+    private String displayValues(Frame frame) {
+        return frame.firstRollDisplayValue() + frame.secondRollDisplayValue() + frame.bonusDisplayValue();
+    }
+
+    private Frame frame(int frameCount, Integer firstRoll, Integer secondRoll, Integer bonus) {
+        Frame frame = new Frame(frameCount);
+        frame.setFirstRoll(firstRoll);
+        frame.setSecondRoll(secondRoll);
+        frame.setBonus(bonus);
+        return frame;
+    }
+}
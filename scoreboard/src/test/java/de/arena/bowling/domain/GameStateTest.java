@@ -0,0 +1,86 @@
+package de.arena.bowling.domain;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for the {@link GameState}
+ */
+class GameStateTest {
+
+    @Test
+    @DisplayName("Test the maximum possible number of pins in the final frame")
+    void maxPossibleNumberOfPinsInFinalFrame() {
+        GameState state = stateOf(0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0);
+        assertThat(state.maxPossibleNumberOfPins()).isEqualTo(10);
+        state.roll(3);
+        assertThat(state.maxPossibleNumberOfPins()).isEqualTo(7);
+        state.roll(7);
+        assertThat(state.maxPossibleNumberOfPins()).isEqualTo(10);
+        state.roll(10);
+        assertThat(state.isGameOver()).isTrue();
+        assertThat(state.maxPossibleNumberOfPins()).isZero();
+    }
+
+    @Test
+    @DisplayName("Test the game is over after an open final frame")
+    void gameOverAfterOpenFinalFrame() {
+        GameState state = stateOf(0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 4, 5);
+        assertThat(state.getStatus()).isEqualTo(GameStatus.GAME_OVER);
+        assertThat(state.toScoreboard().getTotalScore()).isEqualTo(9);
+    }
+
+    @Test
+    @DisplayName("Test invalid rolls are rejected without changing the state")
+    void invalidRolls() {
+        GameState state = stateOf(6);
+        assertThatThrownBy(() -> state.roll(5)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> state.roll(-1)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(state.getRollCount()).isEqualTo(1);
+
+        GameState perfectGame = stateOf(10, 10, 10, 10, 10, 10, 10, 10, 10, 10, 10, 10);
+        assertThatThrownBy(() -> perfectGame.roll(0)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("Test a perfect game scoreboard view")
+    void perfectGame() {
+        Scoreboard scoreboard = stateOf(10, 10, 10, 10, 10, 10, 10, 10, 10, 10, 10, 10).toScoreboard();
+        assertThat(scoreboard.getFrames()).hasSize(10);
+        assertThat(scoreboard.getFrames().getLast().getBonus()).isEqualTo(10);
+        assertThat(scoreboard.isPerfectGame()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Test the refreshed view and the replayed state match a new view after every roll")
+    void refreshAndReplay() {
+        Random random = new Random(7);
+        for (int gameNumber = 0; gameNumber < 1_000; gameNumber++) {
+            GameState state = new GameState();
+            Scoreboard view = state.toScoreboard();
+            while (!state.isGameOver()) {
+                state.roll(random.nextInt(state.maxPossibleNumberOfPins() + 1));
+                state.refresh(view);
+                assertThat(view).isEqualTo(state.toScoreboard());
+
+                GameState replayed = GameState.replay(view);
+                assertThat(replayed.getRolls()).isEqualTo(state.getRolls());
+                assertThat(replayed.isGameOver()).isEqualTo(state.isGameOver());
+                assertThat(GameState.of(state.getRolls(), state.getRollCount()).toScoreboard()).isEqualTo(view);
+            }
+        }
+    }
+
+    private GameState stateOf(int... rolls) {
+        GameState state = new GameState();
+        for (int numberOfPins : rolls) {
+            state.roll(numberOfPins);
+        }
+        return state;
+    }
+}
@@ -0,0 +1,75 @@
+package de.arena.bowling.domain;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the {@link LaneSession}
+ */
+class LaneSessionTest {
+
+    @Test
+    @DisplayName("Test the bowlers take turns after every completed frame")
+    void turnOrder() {
+        LaneSession session = session(3);
+        assertThat(session.currentBowlerIndex()).isZero();
+        roll(session, 3);
+        assertThat(session.currentBowlerIndex()).isZero();
+        roll(session, 4);
+        assertThat(session.currentBowlerIndex()).isEqualTo(1);
+        roll(session, 10);
+        assertThat(session.currentBowlerIndex()).isEqualTo(2);
+        roll(session, 5);
+        roll(session, 5);
+        assertThat(session.currentBowlerIndex()).isZero();
+        assertThat(session.getRollCount()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Test a bowler plays the bonus rolls of the final frame before the next bowler")
+    void finalFrame() {
+        LaneSession session = session(2);
+        for (int roll = 0; roll < 18 * 2; roll++) {
+            roll(session, 0);
+        }
+        roll(session, 10);
+        assertThat(session.currentBowlerIndex()).isZero();
+        roll(session, 10);
+        roll(session, 10);
+        assertThat(session.currentBowlerIndex()).isEqualTo(1);
+        roll(session, 4);
+        roll(session, 5);
+        assertThat(session.currentBowlerIndex()).isEqualTo(-1);
+        assertThat(session.getStatus()).isEqualTo(GameStatus.GAME_OVER);
+        assertThat(session.getBowlers().get(0).getState().toScoreboard().getTotalScore()).isEqualTo(30);
+    }
+
+    @Test
+    @DisplayName("Test the state of a loaded bowler is replayed from the scoreboard")
+    void replayedState() {
+        GameState state = new GameState();
+        state.roll(10);
+        state.roll(3);
+        Bowler bowler = Bowler.builder().name("bowler").scoreboard(state.toScoreboard()).build();
+        assertThat(bowler.getState().getRolls()).isEqualTo(state.getRolls());
+    }
+
+    private void roll(LaneSession session, int numberOfPins) {
+        Bowler bowler = session.getBowlers().get(session.currentBowlerIndex());
+        bowler.getState().roll(numberOfPins);
+    }
+
+    private LaneSession session(int numberOfBowlers) {
+        List<Bowler> bowlers = new ArrayList<>();
+        for (int bowler = 0; bowler < numberOfBowlers; bowler++) {
+            GameState state = new GameState();
+            bowlers.add(Bowler.builder().name("bowler" + bowler).scoreboard(state.toScoreboard()).state(state).build());
+        }
+        return LaneSession.builder().sessionId("sessionId").lane(1).bowlers(bowlers).build();
+    }
+}
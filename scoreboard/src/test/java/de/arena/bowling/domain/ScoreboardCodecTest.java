@@ -0,0 +1,60 @@
+package de.arena.bowling.domain;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for the {@link ScoreboardCodec}
+ */
+class ScoreboardCodecTest {
+
+    @Test
+    @DisplayName("Test a game is decoded with the same rolls and scores")
+    void roundTrip() {
+        GameState state = stateOf(10, 5, 5, 10, 7, 3, 10, 10, 5, 5, 10, 7, 3, 10, 10, 5);
+
+        byte[] bytes = ScoreboardCodec.encode(state);
+        GameState decoded = ScoreboardCodec.decode(bytes);
+
+        assertThat(bytes).hasSize(2 + 8);
+        assertThat(decoded.getRolls()).isEqualTo(state.getRolls());
+        assertThat(decoded.toScoreboard()).isEqualTo(state.toScoreboard());
+    }
+
+    @Test
+    @DisplayName("Test a whole game takes the maximum length")
+    void maxLength() {
+        GameState state = stateOf(0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 3, 7, 10);
+
+        byte[] bytes = ScoreboardCodec.encode(state.toScoreboard());
+
+        assertThat(bytes).hasSize(ScoreboardCodec.MAX_LENGTH);
+        assertThat(ScoreboardCodec.decode(bytes).isGameOver()).isTrue();
+        assertThat(ScoreboardCodec.encode(new GameState())).containsExactly(ScoreboardCodec.VERSION, 0);
+    }
+
+    @Test
+    @DisplayName("Test unknown versions, wrong lengths and impossible rolls are rejected")
+    void invalidBytes() {
+        assertThatThrownBy(() -> ScoreboardCodec.decode(new byte[]{2, 0}))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("version: 2");
+        assertThatThrownBy(() -> ScoreboardCodec.decode(new byte[]{ScoreboardCodec.VERSION, 3, 0x55}))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid length");
+        assertThatThrownBy(() -> ScoreboardCodec.decode(new byte[]{ScoreboardCodec.VERSION, 2, (byte) 0x66}))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid number of pins");
+    }
+
+    private GameState stateOf(int... rolls) {
+        GameState state = new GameState();
+        for (int numberOfPins : rolls) {
+            state.roll(numberOfPins);
+        }
+        return state;
+    }
+}
@@ -0,0 +1,114 @@
+package de.arena.bowling.service;
+
+import de.arena.bowling.domain.GameState;
+import de.arena.bowling.domain.GameStatus;
+import de.arena.bowling.domain.Scoreboard;
+import de.arena.bowling.domain.SinglePlayerGame;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.bson.types.Binary;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the {@link BinaryScoreboardConverters}, with a converter of the entities not connected to MongoDB.
+ */
+@Slf4j
+class BinaryScoreboardConvertersTest {
+
+    private static final int[] GAME = {10, 5, 5, 10, 7, 3, 10, 10, 5, 5, 10, 7, 3, 10, 10, 5};
+
+    private MappingMongoConverter defaultConverter;
+    private MappingMongoConverter binaryConverter;
+
+    @BeforeEach
+    void setUp() {
+        defaultConverter = converter(new MongoCustomConversions(Collections.emptyList()));
+        binaryConverter = converter(new BinaryScoreboardConverters().customConversions());
+    }
+
+    @Test
+    @DisplayName("Test a game is read with the same scoreboard and stored in less bytes")
+    void roundTrip() {
+        //given
+        SinglePlayerGame game = game(GAME);
+        //when
+        Document document = new Document();
+        binaryConverter.write(game, document);
+        SinglePlayerGame read = binaryConverter.read(SinglePlayerGame.class, document);
+        //then
+        Document scoreboard = (Document) document.get("scoreboard");
+        assertThat(scoreboard.get(BinaryScoreboardConverters.ROLLS)).isInstanceOf(Binary.class);
+        assertThat(scoreboard.getInteger("totalScore")).isEqualTo(game.getScoreboard().getTotalScore());
+        assertThat(read.getScoreboard()).isEqualTo(game.getScoreboard());
+
+        long defaultBytes = sizeOf(defaultConverter, game);
+        long binaryBytes = sizeOf(binaryConverter, game);
+        log.info("Game with {} rolls: default mapping {} bytes, binary format {} bytes", GAME.length, defaultBytes, binaryBytes);
+        assertThat(binaryBytes * 3).isLessThan(defaultBytes);
+    }
+
+    @Test
+    @DisplayName("Test a game stored with its frames is still read")
+    void readFrames() {
+        //given
+        SinglePlayerGame game = game(GAME);
+        Document document = new Document();
+        defaultConverter.write(game, document);
+        //when
+        SinglePlayerGame read = binaryConverter.read(SinglePlayerGame.class, document);
+        //then
+        assertThat(read.getScoreboard()).isEqualTo(game.getScoreboard());
+    }
+
+    @Test
+    @DisplayName("Test a projection without the rolls is read without the frames")
+    void readProjection() {
+        //given
+        Document document = new Document("_id", new ObjectId())
+                .append("scoreboard", new Document("status", "GAME_OVER").append("totalScore", 120));
+        //when
+        SinglePlayerGame read = binaryConverter.read(SinglePlayerGame.class, document);
+        //then
+        assertThat(read.getScoreboard()).isEqualTo(Scoreboard.builder().status(GameStatus.GAME_OVER).totalScore(120).build());
+    }
+
+    private SinglePlayerGame game(int... rolls) {
+        GameState state = new GameState();
+        for (int numberOfPins : rolls) {
+            state.roll(numberOfPins);
+        }
+        return SinglePlayerGame.builder().gameId(new ObjectId().toHexString()).scoreboard(state.toScoreboard()).build();
+    }
+
+    /**
+     * Creates a converter like the one of the application; the simple types of the conversions keep the java.time
+     * fields from being mapped as entities.
+     */
+    private static MappingMongoConverter converter(MongoCustomConversions conversions) {
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return converter;
+    }
+
+    private long sizeOf(MappingMongoConverter converter, Object entity) {
+        Document document = new Document();
+        converter.write(entity, document);
+        return new RawBsonDocument(document, new DocumentCodec()).getByteBuffer().remaining();
+    }
+}
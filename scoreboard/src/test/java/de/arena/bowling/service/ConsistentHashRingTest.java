@@ -0,0 +1,76 @@
+package de.arena.bowling.service;
+
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the {@link ConsistentHashRing}
+ */
+class ConsistentHashRingTest {
+
+    private static final List<String> NODES =
+            Arrays.asList("http://localhost:8081", "http://localhost:8082", "http://localhost:8083");
+
+    @Test
+    @DisplayName("Test the games are spread evenly over the nodes")
+    void spreadGames() {
+        //given
+        ConsistentHashRing ring = new ConsistentHashRing(NODES, 128);
+        List<String> gameIds = gameIds(30_000);
+        //when
+        Map<String, Integer> gamesByNode = new HashMap<>();
+        gameIds.forEach(gameId -> gamesByNode.merge(ring.ownerOf(gameId), 1, Integer::sum));
+        //then
+        assertThat(gamesByNode).containsOnlyKeys(NODES);
+        assertThat(gamesByNode.values()).allSatisfy(games -> assertThat(games).isBetween(8_000, 12_000));
+    }
+
+    @Test
+    @DisplayName("Test only the games of the new node change their owner when a node joins")
+    void joinNode() {
+        //given
+        ConsistentHashRing ring = new ConsistentHashRing(NODES.subList(0, 2), 128);
+        ConsistentHashRing changedRing = new ConsistentHashRing(NODES, 128);
+        List<String> gameIds = gameIds(30_000);
+        //when
+        int movedGames = 0;
+        for (String gameId : gameIds) {
+            if (!ring.ownerOf(gameId).equals(changedRing.ownerOf(gameId))) {
+                assertThat(changedRing.ownerOf(gameId)).isEqualTo(NODES.get(2));
+                movedGames++;
+            }
+        }
+        //then
+        assertThat(movedGames).isBetween(8_000, 12_000);
+    }
+
+    @Test
+    @DisplayName("Test the owner only depends on the nodes and not on their order")
+    void sameOwnerOnAllNodes() {
+        //given
+        ConsistentHashRing ring = new ConsistentHashRing(NODES, 128);
+        ConsistentHashRing reversedRing = new ConsistentHashRing(
+                Arrays.asList(NODES.get(2), NODES.get(1), NODES.get(0), NODES.get(1)), 128);
+        //when-then
+        assertThat(reversedRing.getNodes()).isEqualTo(NODES);
+        gameIds(1_000).forEach(gameId -> assertThat(reversedRing.ownerOf(gameId)).isEqualTo(ring.ownerOf(gameId)));
+        assertThat(new ConsistentHashRing(new ArrayList<>(), 128).ownerOf("gameId")).isNull();
+    }
+
+    private static List<String> gameIds(int count) {
+        List<String> gameIds = new ArrayList<>(count);
+        for (int game = 0; game < count; game++) {
+            gameIds.add(new ObjectId().toHexString());
+        }
+        return gameIds;
+    }
+}
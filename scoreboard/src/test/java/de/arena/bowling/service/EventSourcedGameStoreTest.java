@@ -0,0 +1,109 @@
+package de.arena.bowling.service;
+
+import de.arena.bowling.domain.GameState;
+import de.arena.bowling.domain.RollEvent;
+import de.arena.bowling.domain.SinglePlayerGame;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the {@link EventSourcedGameStore}
+ */
+@ExtendWith(MockitoExtension.class)
+class EventSourcedGameStoreTest {
+
+    @Mock
+    private ScoreboardRepository snapshotRepository;
+
+    @Mock
+    private RollEventRepository rollEventRepository;
+
+    @InjectMocks
+    private EventSourcedGameStore gameStore;
+
+    @Test
+    @DisplayName("Test a game is rebuilt from its snapshot and the rolls appended after it")
+    void findById() {
+        //given
+        when(snapshotRepository.findById("gameId"))
+                .thenReturn(Optional.of(SinglePlayerGame.builder().gameId("gameId").scoreboard(new GameState().toScoreboard()).build()));
+        when(rollEventRepository.findByGameIdAndSequenceGreaterThanEqualOrderBySequence("gameId", 0))
+                .thenReturn(Arrays.asList(roll(0, 10), roll(1, 4), roll(2, 5)));
+        //when
+        Optional<SinglePlayerGame> game = gameStore.findById("gameId");
+        //then
+        assertThat(game).hasValueSatisfying(loadedGame -> {
+            assertThat(loadedGame.getState().getRollCount()).isEqualTo(3);
+            assertThat(loadedGame.getScoreboard().getTotalScore()).isEqualTo(28);
+        });
+    }
+
+    @Test
+    @DisplayName("Test only the new rolls are appended and a snapshot is written when the game is over")
+    @SuppressWarnings("unchecked")
+    void saveAll() {
+        //given
+        when(snapshotRepository.save(any())).thenAnswer(invocationOnMock -> invocationOnMock.getArgument(0));
+        GameState state = new GameState();
+        SinglePlayerGame game = gameStore.create(SinglePlayerGame.builder().gameId("gameId").state(state).build());
+        ArgumentCaptor<List<RollEvent>> appendedRolls = ArgumentCaptor.forClass(List.class);
+        //when
+        state.roll(3);
+        state.roll(4);
+        gameStore.saveAll(Collections.singletonList(game));
+        verify(snapshotRepository, never()).saveAll(any());
+        while (!state.isGameOver()) {
+            state.roll(0);
+        }
+        gameStore.saveAll(Collections.singletonList(game));
+        //then
+        verify(rollEventRepository, times(2)).insert(appendedRolls.capture());
+        assertThat(appendedRolls.getAllValues().get(0)).extracting(RollEvent::getSequence).containsExactly(0, 1);
+        assertThat(appendedRolls.getAllValues().get(1)).hasSize(18).first().extracting(RollEvent::getSequence).isEqualTo(2);
+        verify(snapshotRepository).saveAll(Collections.singletonList(game));
+    }
+
+    @Test
+    @DisplayName("Test the rolls of a game released by the cache are counted in the log with its next write")
+    @SuppressWarnings("unchecked")
+    void saveAllAfterRelease() {
+        //given
+        when(snapshotRepository.save(any())).thenAnswer(invocationOnMock -> invocationOnMock.getArgument(0));
+        GameState state = new GameState();
+        SinglePlayerGame game = gameStore.create(SinglePlayerGame.builder().gameId("gameId").state(state).build());
+        state.roll(3);
+        state.roll(4);
+        gameStore.saveAll(Collections.singletonList(game));
+        when(rollEventRepository.countByGameId("gameId")).thenReturn(2L);
+        ArgumentCaptor<List<RollEvent>> appendedRolls = ArgumentCaptor.forClass(List.class);
+        //when
+        gameStore.release("gameId");
+        state.roll(5);
+        gameStore.saveAll(Collections.singletonList(game));
+        //then
+        verify(rollEventRepository, times(2)).insert(appendedRolls.capture());
+        assertThat(appendedRolls.getValue()).extracting(RollEvent::getSequence).containsExactly(2);
+        verify(rollEventRepository).countByGameId("gameId");
+    }
+
+    private RollEvent roll(int sequence, int numberOfPins) {
+        return RollEvent.builder().gameId("gameId").sequence(sequence).numberOfPins(numberOfPins).build();
+    }
+}
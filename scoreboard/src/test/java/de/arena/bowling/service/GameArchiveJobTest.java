@@ -0,0 +1,80 @@
+package de.arena.bowling.service;
+
+import de.arena.bowling.domain.SinglePlayerGame;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the {@link GameArchiveJob}
+ */
+@ExtendWith(MockitoExtension.class)
+class GameArchiveJobTest {
+
+    @Mock
+    private ScoreboardRepository repository;
+
+    @Mock
+    private GameArchive gameArchive;
+
+    private GameArchiveJob job;
+
+    @BeforeEach
+    void setUp() {
+        ArchiveProperties properties = new ArchiveProperties();
+        properties.setBatchSize(2);
+        properties.setCompletedGameAge(Duration.ofDays(7));
+        job = new GameArchiveJob(repository, gameArchive, properties);
+    }
+
+    @Test
+    @DisplayName("Test the old completed games are moved in batches until a batch is not full")
+    void archive() {
+        //given
+        List<SinglePlayerGame> firstBatch = Arrays.asList(game("first"), game("second"));
+        List<SinglePlayerGame> lastBatch = Collections.singletonList(game("third"));
+        when(repository.findCompletedBefore(any(), any())).thenReturn(firstBatch).thenReturn(lastBatch);
+        when(gameArchive.move(any())).thenReturn(2L, 1L);
+        Instant weekAgo = Instant.now().minus(Duration.ofDays(7));
+        //when
+        long movedGames = job.archive();
+        //then
+        assertThat(movedGames).isEqualTo(3);
+        verify(gameArchive).move(firstBatch);
+        verify(gameArchive).move(lastBatch);
+        verify(repository, times(2)).findCompletedBefore(
+                argThat(before -> !before.isBefore(weekAgo)), any());
+    }
+
+    @Test
+    @DisplayName("Test a failed move stops the run without an exception")
+    void archiveWithFailedMove() {
+        //given
+        List<SinglePlayerGame> batch = Arrays.asList(game("first"), game("second"));
+        when(repository.findCompletedBefore(any(), any())).thenReturn(batch);
+        when(gameArchive.move(batch)).thenThrow(new DataAccessResourceFailureException("unavailable"));
+        //when-then
+        assertThat(job.archive()).isZero();
+    }
+
+    private SinglePlayerGame game(String gameId) {
+        return SinglePlayerGame.builder().gameId(gameId).build();
+    }
+}
@@ -0,0 +1,103 @@
+package de.arena.bowling.service;
+
+import de.arena.bowling.domain.GameStatus;
+import de.arena.bowling.domain.SinglePlayerGame;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+
+/**
+ * Tests for the {@link GameImporter}
+ */
+@ExtendWith(MockitoExtension.class)
+class GameImporterTest {
+
+    @Mock
+    private GameStore gameStore;
+
+    private GameImportProperties properties;
+
+    private GameImporter gameImporter;
+
+    private final List<SinglePlayerGame> insertedGames = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    void setUp() {
+        properties = new GameImportProperties();
+        properties.setThreads(2);
+        properties.setBatchSize(2);
+        gameImporter = new GameImporter(gameStore, properties);
+    }
+
+    @Test
+    @DisplayName("Test the games of a CSV file are scored and inserted, and the invalid games are rejected")
+    void importCsv() throws Exception {
+        //given
+        doAnswer(invocationOnMock -> insertedGames.addAll(invocationOnMock.getArgument(0))).when(gameStore).insertAll(any());
+        String lines = "# league night\n"
+                + "perfect,10,10,10,10,10,10,10,10,10,10,10,10\n"
+                + ",3,4,5\n"
+                + "\n"
+                + "invalid,7,5\n"
+                + "tooManyRolls,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0\n"
+                + "missingRoll,3,,4\n";
+        //when
+        GameImportResult result = gameImporter.importLines(new BufferedReader(new StringReader(lines)), false);
+        //then
+        assertThat(result.getLines()).isEqualTo(7);
+        assertThat(result.getImportedGames()).isEqualTo(2);
+        assertThat(result.getRejectedGames()).isEqualTo(3);
+        assertThat(insertedGames).hasSize(2);
+        assertThat(insertedGames).anySatisfy(game -> {
+            assertThat(game.getGameId()).isEqualTo("perfect");
+            assertThat(game.getScoreboard().isPerfectGame()).isTrue();
+        });
+        assertThat(insertedGames).anySatisfy(game -> {
+            assertThat(game.getGameId()).isNull();
+            assertThat(game.getScoreboard().getStatus()).isEqualTo(GameStatus.IN_PROGRESS);
+            assertThat(game.getScoreboard().getTotalScore()).isEqualTo(7);
+        });
+    }
+
+    @Test
+    @DisplayName("Test the games of a NDJSON file are scored and inserted")
+    void importNdjson() throws Exception {
+        //given
+        doAnswer(invocationOnMock -> insertedGames.addAll(invocationOnMock.getArgument(0))).when(gameStore).insertAll(any());
+        String lines = "{\"gameId\":\"spares\",\"rolls\":[5,5,5,5,5,5,5,5,5,5,5,5,5,5,5,5,5,5,5,5,5]}\n"
+                + "{\"gameId\":\"invalid\",\"rolls\":[11]}\n";
+        //when
+        GameImportResult result = gameImporter.importLines(new BufferedReader(new StringReader(lines)), true);
+        //then
+        assertThat(result.getImportedGames()).isEqualTo(1);
+        assertThat(result.getRejectedGames()).isEqualTo(1);
+        assertThat(insertedGames.get(0).getScoreboard().getTotalScore()).isEqualTo(150);
+    }
+
+    @Test
+    @DisplayName("Test a batch which can not be inserted is counted as failed without stopping the import")
+    void failedBatch() throws Exception {
+        //given
+        doThrow(new DuplicateKeyException("duplicate")).when(gameStore).insertAll(any());
+        //when
+        GameImportResult result = gameImporter.importLines(new BufferedReader(new StringReader("a,1\nb,2\nc,3\n")), false);
+        //then
+        assertThat(result.getFailedGames()).isEqualTo(3);
+        assertThat(result.getImportedGames()).isZero();
+    }
+}
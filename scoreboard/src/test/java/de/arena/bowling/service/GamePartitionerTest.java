@@ -0,0 +1,85 @@
+package de.arena.bowling.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the {@link GamePartitioner}
+ */
+class GamePartitionerTest {
+
+    private static final String SELF = "http://127.0.0.1:1";
+    // nothing listens on the ports, so the health checks fail right away
+    private static final String OTHER = "http://127.0.0.1:2";
+    private static final String THIRD = "http://127.0.0.1:3";
+
+    private final List<PartitionsChangedEvent> events = new ArrayList<>();
+
+    private ClusterProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ClusterProperties();
+        properties.setNodes(Arrays.asList(SELF, OTHER, THIRD));
+        properties.setSelf(SELF);
+        properties.setProbeTimeout(Duration.ofMillis(200));
+    }
+
+    @Test
+    @DisplayName("Test a node leaves the ring only after the failure threshold of failed checks in a row")
+    void failureThreshold() {
+        //given
+        GamePartitioner partitioner = new GamePartitioner(properties, event -> events.add((PartitionsChangedEvent) event));
+        //when
+        boolean leftAfterFirstFailure = partitioner.unreachable(OTHER);
+        boolean leftAfterSecondFailure = partitioner.unreachable(OTHER);
+        partitioner.probe();
+        //then
+        assertThat(leftAfterFirstFailure).isFalse();
+        assertThat(leftAfterSecondFailure).isFalse();
+        assertThat(partitioner.getLiveNodes()).containsExactly(SELF, THIRD);
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).getNodes()).containsExactly(SELF, THIRD);
+    }
+
+    @Test
+    @DisplayName("Test the ring is changed by another thread, while a changed ring is published")
+    void publishWithoutLock() throws Exception {
+        //given
+        properties.setFailureThreshold(1);
+        List<GamePartitioner> partitioners = new ArrayList<>();
+        List<Thread> otherThreads = new ArrayList<>();
+        List<List<String>> nodesDuringPublication = new ArrayList<>();
+        GamePartitioner partitioner = new GamePartitioner(properties, event -> {
+            events.add((PartitionsChangedEvent) event);
+            if (otherThreads.isEmpty()) {
+                GamePartitioner publishingPartitioner = partitioners.get(0);
+                Thread otherThread = new Thread(() -> publishingPartitioner.unreachable(THIRD));
+                otherThreads.add(otherThread);
+                otherThread.start();
+                long timeout = System.currentTimeMillis() + 5_000;
+                while (publishingPartitioner.getLiveNodes().size() > 1 && System.currentTimeMillis() < timeout) {
+                    Thread.yield();
+                }
+                nodesDuringPublication.add(publishingPartitioner.getLiveNodes());
+            }
+        });
+        partitioners.add(partitioner);
+        //when
+        partitioner.unreachable(OTHER);
+        otherThreads.get(0).join(5_000);
+        //then
+        assertThat(nodesDuringPublication).containsExactly(Arrays.asList(SELF));
+        // the ring without the third node is published after the first publication
+        assertThat(events).extracting(PartitionsChangedEvent::getNodes)
+                .containsExactly(Arrays.asList(SELF, THIRD), Arrays.asList(SELF));
+    }
+}
@@ -0,0 +1,81 @@
+package de.arena.bowling.service;
+
+import de.arena.bowling.domain.GameState;
+import de.arena.bowling.domain.RollEvent;
+import de.arena.bowling.domain.SinglePlayerGame;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures the bytes written to MongoDB for a whole game by the {@link MongoGameStore}
+ * and by the {@link EventSourcedGameStore}, when every roll is persisted.
+ */
+@Slf4j
+class GameStoreWriteAmplificationTest {
+
+    private static final int[] GAME = {10, 5, 5, 10, 7, 3, 10, 10, 5, 5, 10, 7, 3, 10, 10, 5};
+    private static final int[] GUTTER_GAME = {0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0};
+
+    private MappingMongoConverter converter;
+
+    @BeforeEach
+    void setUp() {
+        // the simple types of the conversions keep the java.time fields from being mapped as entities
+        MongoCustomConversions conversions = new MongoCustomConversions(Collections.emptyList());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+    }
+
+    @Test
+    @DisplayName("Test the event log writes less than the whole game documents")
+    void writeAmplification() {
+        for (int[] rolls : new int[][]{GAME, GUTTER_GAME}) {
+            String gameId = new ObjectId().toHexString();
+            GameState state = new GameState();
+            long documentBytes = sizeOf(game(gameId, state));
+            long eventLogBytes = documentBytes;
+            for (int numberOfPins : rolls) {
+                state.roll(numberOfPins);
+                documentBytes += sizeOf(game(gameId, state));
+                eventLogBytes += sizeOf(RollEvent.builder()
+                        .id(new ObjectId().toHexString())
+                        .gameId(gameId)
+                        .sequence(state.getRollCount() - 1)
+                        .numberOfPins(numberOfPins)
+                        .build());
+            }
+            eventLogBytes += sizeOf(game(gameId, state));
+
+            log.info("{} rolls: whole documents {} bytes, event log {} bytes, {} times less written",
+                    rolls.length, documentBytes, eventLogBytes, String.format("%.1f", (double) documentBytes / eventLogBytes));
+            assertThat(eventLogBytes * 2).isLessThan(documentBytes);
+        }
+    }
+
+    private SinglePlayerGame game(String gameId, GameState state) {
+        return SinglePlayerGame.builder().gameId(gameId).scoreboard(state.toScoreboard()).build();
+    }
+
+    private long sizeOf(Object entity) {
+        Document document = new Document();
+        converter.write(entity, document);
+        return new RawBsonDocument(document, new DocumentCodec()).getByteBuffer().remaining();
+    }
+}
@@ -0,0 +1,144 @@
+package de.arena.bowling.service;
+
+import de.arena.bowling.domain.Bowler;
+import de.arena.bowling.domain.GameState;
+import de.arena.bowling.domain.LaneSession;
+import de.arena.bowling.exception.AttemptToUpdateCompletedGameException;
+import de.arena.bowling.exception.GameNotFoundException;
+import de.arena.bowling.exception.InvalidNumberOfPinsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the {@link LaneSessionServiceImpl}
+ */
+@ExtendWith(MockitoExtension.class)
+class LaneSessionServiceImplTest {
+
+    @Mock
+    private LaneSessionRepository repository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private LaneSessionServiceImpl laneSessionService;
+
+    @BeforeEach
+    void setUp() {
+        laneSessionService = new LaneSessionServiceImpl(repository, eventPublisher,
+                new ScoreboardMetrics(new SimpleMeterRegistry()));
+    }
+
+    @Test
+    @DisplayName("Test a new session is created with an empty scoreboard for every bowler")
+    void createSession() {
+        //given
+        when(repository.save(any())).thenAnswer(invocationOnMock -> invocationOnMock.getArgument(0));
+        //when
+        LaneSession session = laneSessionService.createSession(3, Arrays.asList("first", "second"));
+        //then
+        assertThat(session.getLane()).isEqualTo(3);
+        assertThat(session.getBowlers()).extracting(Bowler::getName).containsExactly("first", "second");
+        assertThat(session.getBowlers().get(1).getScoreboard().getFrames()).isEmpty();
+        assertThat(session.currentBowlerIndex()).isZero();
+    }
+
+    @Test
+    @DisplayName("Test a roll updates the scoreboard of the bowler in turn and saves the session once")
+    void roll() throws Exception {
+        //given
+        LaneSession session = session(stateOf(10), stateOf(5));
+        when(repository.findById("sessionId")).thenReturn(Optional.of(session));
+        when(repository.save(session)).thenReturn(session);
+        //when
+        LaneSession updatedSession = laneSessionService.roll("sessionId", 4);
+        //then
+        Bowler bowler = updatedSession.getBowlers().get(1);
+        assertThat(bowler.getScoreboard().getFrames()).hasSize(1);
+        assertThat(bowler.getScoreboard().getTotalScore()).isEqualTo(9);
+        assertThat(updatedSession.currentBowlerIndex()).isZero();
+        verify(repository).save(session);
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Test the last roll of a bowler publishes the completed game of the bowler")
+    void completeGame() throws Exception {
+        //given
+        LaneSession session = session(stateOf(0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 1));
+        when(repository.findById("sessionId")).thenReturn(Optional.of(session));
+        when(repository.save(session)).thenReturn(session);
+        //when
+        laneSessionService.roll("sessionId", 2);
+        //then
+        ArgumentCaptor<GameCompletedEvent> event = ArgumentCaptor.forClass(GameCompletedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().getPlayer()).isEqualTo("bowler0");
+        assertThat(event.getValue().getState().toScoreboard().getTotalScore()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Test an invalid roll is rejected without saving the session")
+    void invalidRoll() {
+        //given
+        when(repository.findById("sessionId")).thenReturn(Optional.of(session(stateOf(6))));
+        //when-then
+        assertThatThrownBy(() -> laneSessionService.roll("sessionId", 5)).isInstanceOf(InvalidNumberOfPinsException.class);
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Test rolling in a session with the games of all the bowlers over")
+    void rollInCompletedSession() {
+        //given
+        when(repository.findById("sessionId"))
+                .thenReturn(Optional.of(session(stateOf(0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0))));
+        //when-then
+        assertThatThrownBy(() -> laneSessionService.roll("sessionId", 0))
+                .isInstanceOf(AttemptToUpdateCompletedGameException.class);
+    }
+
+    @Test
+    @DisplayName("Test rolling in an unknown session")
+    void rollInUnknownSession() {
+        //given
+        when(repository.findById("unknown")).thenReturn(Optional.empty());
+        //when-then
+        assertThatThrownBy(() -> laneSessionService.roll("unknown", 0)).isInstanceOf(GameNotFoundException.class);
+    }
+
+    private LaneSession session(GameState... states) {
+        Bowler[] bowlers = new Bowler[states.length];
+        for (int index = 0; index < states.length; index++) {
+            bowlers[index] = Bowler.builder().name("bowler" + index)
+                    .scoreboard(states[index].toScoreboard()).state(states[index]).build();
+        }
+        return LaneSession.builder().sessionId("sessionId").lane(1)
+                .bowlers(Arrays.asList(bowlers)).build();
+    }
+
+    private GameState stateOf(int... rolls) {
+        GameState state = new GameState();
+        for (int numberOfPins : rolls) {
+            state.roll(numberOfPins);
+        }
+        return state;
+    }
+}
@@ -0,0 +1,120 @@
+package de.arena.bowling.service;
+
+import de.arena.bowling.domain.*;
+
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Optional;
+
+/**
+ * The original full-board scoring algorithm of {@link ScoreboardServiceImpl}.
+ * It rescans all the frames on every roll and is kept as the reference for the differential tests.
+ */
+class LegacyScoreCalculator {
+
+    /**
+     * Adds the number of pins into the scoreboard and recalculates all the frames.
+     */
+    void roll(Scoreboard scoreboard, int numberOfPins) {
+        Frame activeFrame = getActiveFrame(scoreboard);
+        updateFrameWithLastRoll(activeFrame, numberOfPins);
+        calculateBonusForEachFrame(scoreboard.getFrames());
+        calculateScore(scoreboard.getFrames());
+
+        if (activeFrame.getScore() != null) {
+            scoreboard.setTotalScore(activeFrame.getScore());
+        }
+        if (activeFrame.isFinalFrame() && activeFrame.isRollsCompleted()) {
+            scoreboard.setStatus(GameStatus.GAME_OVER);
+        }
+    }
+
+    /**
+     * Returns the maximum possible number of pins in the next roll.
+     */
+    int maxPossibleNumberOfPins(Scoreboard scoreboard) {
+        if (GameStatus.GAME_OVER == scoreboard.getStatus()) {
+            return 0;
+        }
+        Frame activeFrame = scoreboard.getFrames().peekLast();
+        if (activeFrame == null || (activeFrame.isRollsCompleted() && !activeFrame.isFinalFrame())
+                || activeFrame.getFirstRoll() == null) {
+            return 10;
+        } else if (activeFrame.isFinalFrame()) {
+            return activeFrame.isStrike() || activeFrame.hasBonus() ? 10 : 10 - activeFrame.getFirstRoll();
+        } else {
+            return 10 - activeFrame.getFirstRoll();
+        }
+    }
+
+    private Frame getActiveFrame(Scoreboard scoreboard) {
+        if (scoreboard.getFrames().isEmpty()) {
+            scoreboard.getFrames().add(new Frame(1));
+        }
+        Frame activeFrame = scoreboard.getFrames().peekLast();
+        if (activeFrame.isRollsCompleted() && GameStatus.IN_PROGRESS == scoreboard.getStatus()) {
+            activeFrame = new Frame(activeFrame.getFrameCount() + 1);
+            scoreboard.getFrames().addLast(activeFrame);
+        }
+        return activeFrame;
+    }
+
+    private void updateFrameWithLastRoll(Frame frame, int numberOfPins) {
+        if (frame.getFirstRoll() == null) {
+            frame.setFirstRoll(numberOfPins);
+        } else if (frame.getSecondRoll() == null) {
+            frame.setSecondRoll(numberOfPins);
+        } else if (frame.isFinalFrame() && frame.hasBonus()) {
+            frame.setBonus(numberOfPins);
+        }
+    }
+
+    private void calculateBonusForEachFrame(Deque<Frame> boardFrames) {
+        CircularQueue<Integer> succeedingRolls = new CircularQueue<>(2);
+        Iterator<Frame> frameIterator = boardFrames.descendingIterator();
+
+        while (frameIterator.hasNext()) {
+            Frame currentFrame = frameIterator.next();
+            if (currentFrame.isRollsCompleted() && currentFrame.getBonus() == null) {
+                if (currentFrame.isStrike()) {
+                    currentFrame.setBonus(getSumPointsFromTwoSucceedingRolls(succeedingRolls));
+                } else if (currentFrame.isSpare()) {
+                    currentFrame.setBonus(getPointsFromSucceedingRoll(succeedingRolls));
+                } else if (currentFrame.getBonus() == null) {
+                    currentFrame.setBonus(0);
+                }
+            }
+            if (currentFrame.getSecondRoll() != null) {
+                succeedingRolls.addFirst(currentFrame.getSecondRoll());
+            }
+            if (currentFrame.getFirstRoll() != null) {
+                succeedingRolls.addFirst(currentFrame.getFirstRoll());
+            }
+        }
+    }
+
+    private void calculateScore(Deque<Frame> boardFrames) {
+        Integer cumulativeScore = 0;
+        for (Frame frame : boardFrames) {
+            if (frame.getBonus() != null) {
+                Integer frameTotal = frame.getFirstRoll() + frame.getBonus() + Optional.ofNullable(frame.getSecondRoll()).orElse(0);
+                cumulativeScore += frameTotal;
+                frame.setScore(cumulativeScore);
+            }
+        }
+    }
+
+    private Integer getPointsFromSucceedingRoll(CircularQueue<Integer> rollsInFront) {
+        if (!rollsInFront.isEmpty()) {
+            return rollsInFront.get(0);
+        }
+        return null;
+    }
+
+    private Integer getSumPointsFromTwoSucceedingRolls(CircularQueue<Integer> rollsInFront) {
+        if (rollsInFront.size() == 2) {
+            return rollsInFront.get(0) + rollsInFront.get(1);
+        }
+        return null;
+    }
+}
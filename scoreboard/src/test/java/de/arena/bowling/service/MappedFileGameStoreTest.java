@@ -0,0 +1,188 @@
+package de.arena.bowling.service;
+
+import de.arena.bowling.domain.GameState;
+import de.arena.bowling.domain.GameStatus;
+import de.arena.bowling.domain.GameSummary;
+import de.arena.bowling.domain.SinglePlayerGame;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for the {@link MappedFileGameStore}
+ */
+class MappedFileGameStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private MappedFileStoreProperties properties;
+    private MappedFileGameStore gameStore;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        properties = new MappedFileStoreProperties();
+        properties.setPath(directory.resolve("games.slots").toString());
+        properties.setSegmentSlots(4);
+        gameStore = open();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        gameStore.close();
+    }
+
+    @Test
+    @DisplayName("Test a game is saved roll by roll with a new version and loaded with its scoreboard")
+    void saveAll() {
+        //given
+        SinglePlayerGame game = gameStore.create(game(new GameState()));
+        //when
+        game.getState().roll(7);
+        gameStore.saveAll(Collections.singletonList(game));
+        game.getState().roll(2);
+        gameStore.saveAll(Collections.singletonList(game));
+        //then
+        assertThat(game.getGameId()).isNotNull();
+        assertThat(game.getVersion()).isEqualTo(2);
+        assertThat(gameStore.findById(game.getGameId())).hasValueSatisfying(loadedGame -> {
+            assertThat(loadedGame.getVersion()).isEqualTo(2);
+            assertThat(loadedGame.getState().getRollCount()).isEqualTo(2);
+            assertThat(loadedGame.getScoreboard().getTotalScore()).isEqualTo(9);
+        });
+        assertThat(gameStore.findById("unknown")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Test a game with an outdated version or an existing id is rejected")
+    void conflicts() {
+        //given
+        SinglePlayerGame game = gameStore.create(game(new GameState()));
+        SinglePlayerGame outdatedGame = gameStore.findById(game.getGameId()).orElseThrow(IllegalStateException::new);
+        game.getState().roll(3);
+        gameStore.saveAll(Collections.singletonList(game));
+        //when
+        outdatedGame.getState().roll(5);
+        //then
+        assertThatThrownBy(() -> gameStore.saveAll(Collections.singletonList(outdatedGame)))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+        assertThatThrownBy(() -> gameStore.insertAll(Collections.singletonList(game(game.getGameId()))))
+                .isInstanceOf(DuplicateKeyException.class);
+        assertThat(gameStore.findById(game.getGameId()).map(SinglePlayerGame::getVersion)).contains(1L);
+    }
+
+    @Test
+    @DisplayName("Test the index is rebuilt when the store is opened again and the file grows by segments")
+    void reopen() throws IOException {
+        //given
+        for (int game = 0; game < 6; game++) {
+            gameStore.create(game("game" + game));
+        }
+        //when
+        gameStore.close();
+        gameStore = open();
+        SinglePlayerGame createdGame = gameStore.create(game("game6"));
+        //then
+        assertThat(gameStore.findById("game5")).isPresent();
+        assertThat(createdGame.getVersion()).isZero();
+        assertThat(gameStore.findSummaries(GameStatus.IN_PROGRESS, 0, 10)).extracting(GameSummary::getGameId)
+                .containsExactly("game6", "game5", "game4", "game3", "game2", "game1", "game0");
+    }
+
+    @Test
+    @DisplayName("Test the previous version is loaded if the write of the latest version was torn")
+    void tornWrite() throws IOException {
+        //given
+        SinglePlayerGame game = gameStore.create(game(new GameState()));
+        game.getState().roll(7);
+        gameStore.saveAll(Collections.singletonList(game));
+        game.getState().roll(2);
+        gameStore.saveAll(Collections.singletonList(game));
+        gameStore.close();
+        //when
+        try (FileChannel file = FileChannel.open(Path.of(properties.getPath()), StandardOpenOption.WRITE)) {
+            // the version 2 is in the first copy, the version 1 in the second one
+            file.write(ByteBuffer.wrap(new byte[]{(byte) 0xFF}), MappedFileGameStore.HEADER_SIZE + 10);
+        }
+        gameStore = open();
+        //then
+        Optional<SinglePlayerGame> loadedGame = gameStore.findById(game.getGameId());
+        assertThat(loadedGame).hasValueSatisfying(previousVersion -> {
+            assertThat(previousVersion.getVersion()).isEqualTo(1);
+            assertThat(previousVersion.getState().getRollCount()).isEqualTo(1);
+        });
+        game.setVersion(1L);
+        gameStore.saveAll(Collections.singletonList(game));
+        assertThat(gameStore.findById(game.getGameId()).map(SinglePlayerGame::getVersion)).contains(2L);
+    }
+
+    @Test
+    @DisplayName("Test the completed games are listed with the latest completion first and streamed in the order of "
+            + "their creation")
+    void completedSummaries() {
+        //given
+        SinglePlayerGame firstGame = gameStore.create(game(new GameState()));
+        SinglePlayerGame secondGame = gameStore.create(game(new GameState()));
+        gameStore.create(game(new GameState()));
+        //when
+        completeWithStrikes(secondGame);
+        completeWithStrikes(firstGame);
+        List<GameSummary> summaries = gameStore.findSummaries(GameStatus.GAME_OVER, 0, 10);
+        //then
+        assertThat(summaries).extracting(GameSummary::getGameId)
+                .containsExactly(firstGame.getGameId(), secondGame.getGameId());
+        assertThat(summaries).extracting(GameSummary::getTotalScore).containsOnly(300);
+        assertThat(gameStore.findSummaries(GameStatus.GAME_OVER, 1, 1)).extracting(GameSummary::getGameId)
+                .containsExactly(secondGame.getGameId());
+        try (Stream<SinglePlayerGame> completedGames = gameStore.streamCompleted()) {
+            assertThat(completedGames).extracting(SinglePlayerGame::getGameId)
+                    .containsExactly(firstGame.getGameId(), secondGame.getGameId());
+        }
+    }
+
+    private MappedFileGameStore open() throws IOException {
+        MappedFileGameStore store = new MappedFileGameStore(properties);
+        store.open();
+        return store;
+    }
+
+    private void completeWithStrikes(SinglePlayerGame game) {
+        while (!game.getState().isGameOver()) {
+            game.getState().roll(10);
+        }
+        gameStore.saveAll(Collections.singletonList(game));
+        try {
+            // the completion times are stored in milliseconds
+            Thread.sleep(2);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static SinglePlayerGame game(GameState state) {
+        return SinglePlayerGame.builder().state(state).scoreboard(state.toScoreboard()).build();
+    }
+
+    private static SinglePlayerGame game(String gameId) {
+        SinglePlayerGame game = game(new GameState());
+        game.setGameId(gameId);
+        return game;
+    }
+}
@@ -0,0 +1,108 @@
+package de.arena.bowling.service;
+
+import de.arena.bowling.domain.GameState;
+import de.arena.bowling.domain.SinglePlayerGame;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the {@link MongoGameStore}
+ */
+@ExtendWith(MockitoExtension.class)
+class MongoGameStoreTest {
+
+    @Mock
+    private ScoreboardRepository repository;
+
+    private MongoGameStore gameStore;
+
+    @BeforeEach
+    void setUp() {
+        gameStore = new MongoGameStore(repository);
+    }
+
+    @Test
+    @DisplayName("Test a game written by the store is updated with the changed frames and an unknown game is saved whole")
+    void saveAll() {
+        //given
+        SinglePlayerGame created = created("created", 10, 10, 10);
+        SinglePlayerGame loaded = game("loaded", 4L, 3);
+        when(repository.saveAll(anyList())).thenAnswer(invocationOnMock -> invocationOnMock.getArgument(0));
+        doAnswer(invocationOnMock -> {
+            List<SinglePlayerGame> games = invocationOnMock.getArgument(0);
+            games.forEach(game -> game.setVersion(game.getVersion() + 1));
+            return null;
+        }).when(repository).updateFrames(anyList(), anyList());
+        created.getState().roll(5);
+        //when
+        List<SinglePlayerGame> savedGames = gameStore.saveAll(Arrays.asList(loaded, created));
+        //then
+        verify(repository).saveAll(Collections.singletonList(loaded));
+        verify(repository).updateFrames(Collections.singletonList(created), Collections.singletonList(1));
+        assertThat(savedGames).containsExactly(loaded, created);
+        assertThat(created.getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Test a game is saved whole after a conflicting partial update")
+    void saveAllAfterConflict() {
+        //given
+        SinglePlayerGame created = created("created", 3);
+        created.getState().roll(4);
+        doThrow(new OptimisticLockingFailureException("outdated")).when(repository).updateFrames(anyList(), anyList());
+        //when-then
+        assertThatThrownBy(() -> gameStore.saveAll(Collections.singletonList(created)))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+        gameStore.saveAll(Collections.singletonList(created));
+        verify(repository).saveAll(Collections.singletonList(created));
+    }
+
+    @Test
+    @DisplayName("Test a game released by the cache is saved whole")
+    void saveAllAfterRelease() {
+        //given
+        SinglePlayerGame created = created("created", 3);
+        created.getState().roll(4);
+        when(repository.saveAll(anyList())).thenAnswer(invocationOnMock -> invocationOnMock.getArgument(0));
+        //when
+        gameStore.release("created");
+        gameStore.saveAll(Collections.singletonList(created));
+        //then
+        verify(repository).saveAll(Collections.singletonList(created));
+        verify(repository, never()).updateFrames(anyList(), anyList());
+    }
+
+    private SinglePlayerGame created(String gameId, int... rolls) {
+        SinglePlayerGame game = game(gameId, 0L, rolls);
+        when(repository.save(any())).thenReturn(game);
+        return gameStore.create(game);
+    }
+
+    private SinglePlayerGame game(String gameId, Long version, int... rolls) {
+        GameState state = new GameState();
+        for (int numberOfPins : rolls) {
+            state.roll(numberOfPins);
+        }
+        return SinglePlayerGame.builder().gameId(gameId).version(version).scoreboard(state.toScoreboard())
+                .state(state).build();
+    }
+}
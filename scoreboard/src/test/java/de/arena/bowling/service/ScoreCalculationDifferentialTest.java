@@ -0,0 +1,103 @@
+package de.arena.bowling.service;
+
+import de.arena.bowling.domain.GameStatus;
+import de.arena.bowling.domain.Scoreboard;
+import de.arena.bowling.domain.SinglePlayerGame;
+import de.arena.bowling.exception.GenericScoreboardException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.LinkedList;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Differential tests comparing the scores of {@link ScoreboardServiceImpl} with the {@link LegacyScoreCalculator}
+ * after every single roll.
+ */
+@ExtendWith(MockitoExtension.class)
+class ScoreCalculationDifferentialTest {
+
+    private static final int RANDOM_GAMES = 5_000;
+
+    @Mock
+    private ScoreboardRepository repository;
+
+    private ScoreboardServiceImpl scoreboardService;
+
+    private final LegacyScoreCalculator legacyCalculator = new LegacyScoreCalculator();
+
+    @BeforeEach
+    void setUp() {
+        GameStore gameStore = new MongoGameStore(repository);
+        scoreboardService = new ScoreboardServiceImpl(gameStore, new WriteBehindGameCache(gameStore, new GameCacheProperties()),
+                mock(GameArchive.class), new GamePartitioner(new ClusterProperties(), event -> { }), event -> { },
+                new ScoreboardMetrics(new SimpleMeterRegistry()));
+    }
+
+    @Test
+    @DisplayName("Test the score calculation sets of the service tests against the legacy algorithm")
+    void knownGames() throws GenericScoreboardException {
+        assertSameScores(10, 5, 5, 10, 7, 3, 10, 10, 5, 5, 10, 7, 3, 10, 10, 5);
+        assertSameScores(3, 5, 4, 2, 6, 4, 2, 6, 2, 7, 4, 1, 3, 6, 1, 6, 2, 5, 10, 10, 10);
+        assertSameScores(10, 10, 10, 10, 10, 10, 10, 10, 10, 10, 10, 10);
+    }
+
+    @Test
+    @DisplayName("Test special games against the legacy algorithm")
+    void specialGames() throws GenericScoreboardException {
+        assertSameScores(0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0);
+        assertSameScores(5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5);
+        assertSameScores(0, 10, 10, 0, 10, 10, 10, 0, 0, 10, 10, 0, 10, 10, 10, 0);
+    }
+
+    @Test
+    @DisplayName("Test randomized games against the legacy algorithm")
+    void randomGames() throws GenericScoreboardException {
+        Random random = new Random(42);
+        for (int gameNumber = 0; gameNumber < RANDOM_GAMES; gameNumber++) {
+            SinglePlayerGame game = newGame();
+            Scoreboard reference = newScoreboard();
+            while (GameStatus.IN_PROGRESS == reference.getStatus()) {
+                int numberOfPins = random.nextInt(legacyCalculator.maxPossibleNumberOfPins(reference) + 1);
+                rollAndCompare(game, reference, numberOfPins);
+            }
+            assertThat(game.getScoreboard().getStatus()).isEqualTo(GameStatus.GAME_OVER);
+        }
+    }
+
+    private void assertSameScores(int... rolls) throws GenericScoreboardException {
+        SinglePlayerGame game = newGame();
+        Scoreboard reference = newScoreboard();
+        for (int numberOfPins : rolls) {
+            rollAndCompare(game, reference, numberOfPins);
+        }
+        assertThat(game.getScoreboard().getStatus()).isEqualTo(GameStatus.GAME_OVER);
+    }
+
+    private void rollAndCompare(SinglePlayerGame game, Scoreboard reference, int numberOfPins)
+            throws GenericScoreboardException {
+        scoreboardService.updateScore(game, numberOfPins);
+        legacyCalculator.roll(reference, numberOfPins);
+
+        Scoreboard actual = game.getScoreboard();
+        assertThat(actual.getFrames()).isEqualTo(reference.getFrames());
+        assertThat(actual.getTotalScore()).isEqualTo(reference.getTotalScore());
+        assertThat(actual.getStatus()).isEqualTo(reference.getStatus());
+    }
+
+    private SinglePlayerGame newGame() {
+        return SinglePlayerGame.builder().scoreboard(newScoreboard()).build();
+    }
+
+    private Scoreboard newScoreboard() {
+        return Scoreboard.builder().frames(new LinkedList<>()).status(GameStatus.IN_PROGRESS).build();
+    }
+}
@@ -0,0 +1,157 @@
+package de.arena.bowling.service;
+
+import de.arena.bowling.domain.GameState;
+import de.arena.bowling.domain.GameStatus;
+import de.arena.bowling.domain.JobCheckpoint;
+import de.arena.bowling.domain.Scoreboard;
+import de.arena.bowling.domain.SinglePlayerGame;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the {@link ScoreVerificationJob}
+ */
+@ExtendWith(MockitoExtension.class)
+class ScoreVerificationJobTest {
+
+    @Mock
+    private ScoreboardRepository scoreboardRepository;
+
+    @Mock
+    private JobCheckpointRepository checkpointRepository;
+
+    private ScoreVerificationProperties properties;
+
+    private ScoreVerificationJob job;
+
+    private Path reportFile;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        reportFile = Files.createTempFile("score-verification", ".csv");
+        properties = new ScoreVerificationProperties();
+        properties.setBatchSize(2);
+        properties.setParallelism(2);
+        properties.setReportFile(reportFile.toString());
+        job = new ScoreVerificationJob(scoreboardRepository, checkpointRepository, properties);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        Files.deleteIfExists(reportFile);
+    }
+
+    @Test
+    @DisplayName("Test the games with wrong scores are reported and only they are corrected in batches")
+    @SuppressWarnings("unchecked")
+    void verifyAndFix() throws Exception {
+        //given
+        properties.setFix(true);
+        SinglePlayerGame wrongTotal = game("5d0000000000000000000001", 10, 10, 3, 4);
+        wrongTotal.getScoreboard().setTotalScore(17);
+        SinglePlayerGame correct = game("5d0000000000000000000002", 3, 4);
+        SinglePlayerGame wrongFrame = game("5d0000000000000000000003", 7, 3, 5);
+        wrongFrame.getScoreboard().getFrames().getFirst().setScore(10);
+        when(checkpointRepository.findById(ScoreVerificationJob.JOB_NAME)).thenReturn(Optional.empty());
+        when(scoreboardRepository.streamAllOrderedById()).thenReturn(Stream.of(wrongTotal, correct, wrongFrame));
+        when(scoreboardRepository.replaceScoreboards(anyList()))
+                .thenAnswer(invocationOnMock -> invocationOnMock.<List<?>>getArgument(0).size());
+        //when
+        ScoreVerificationResult result = job.run();
+        //then
+        assertThat(result.getVerifiedGames()).isEqualTo(3);
+        assertThat(result.getDiscrepantGames()).isEqualTo(2);
+        assertThat(result.getCorrectedGames()).isEqualTo(2);
+        ArgumentCaptor<List<SinglePlayerGame>> corrections = ArgumentCaptor.forClass(List.class);
+        verify(scoreboardRepository, times(2)).replaceScoreboards(corrections.capture());
+        assertThat(corrections.getAllValues().get(0)).containsExactly(wrongTotal);
+        assertThat(wrongTotal.getScoreboard().getTotalScore()).isEqualTo(47);
+        assertThat(corrections.getAllValues().get(1)).containsExactly(wrongFrame);
+        assertThat(wrongFrame.getScoreboard().getFrames().getFirst().getScore()).isEqualTo(15);
+        assertThat(Files.readAllLines(reportFile, StandardCharsets.UTF_8)).containsExactly(
+                "gameId,field,stored,expected",
+                "5d0000000000000000000001,totalScore,17,47",
+                "5d0000000000000000000003,frame1.score,10,15");
+        verify(checkpointRepository).deleteById(ScoreVerificationJob.JOB_NAME);
+    }
+
+    @Test
+    @DisplayName("Test an interrupted verification is resumed after the game of the checkpoint")
+    void resume() throws Exception {
+        //given
+        JobCheckpoint checkpoint = JobCheckpoint.builder()
+                .jobName(ScoreVerificationJob.JOB_NAME)
+                .lastGameId("league-42")
+                .processedGames(42)
+                .discrepantGames(1)
+                .build();
+        SinglePlayerGame wrongStatus = game("league-43", 3, 4);
+        wrongStatus.getScoreboard().setStatus(GameStatus.GAME_OVER);
+        when(checkpointRepository.findById(ScoreVerificationJob.JOB_NAME)).thenReturn(Optional.of(checkpoint));
+        when(scoreboardRepository.streamAfterImportedId("league-42")).thenReturn(Stream.of(wrongStatus));
+        //when
+        ScoreVerificationResult result = job.run();
+        //then
+        assertThat(result.getVerifiedGames()).isEqualTo(43);
+        assertThat(result.getDiscrepantGames()).isEqualTo(2);
+        assertThat(result.getCorrectedGames()).isZero();
+        verify(scoreboardRepository, never()).replaceScoreboards(anyList());
+        assertThat(Files.readAllLines(reportFile, StandardCharsets.UTF_8))
+                .containsExactly("league-43,status,GAME_OVER,IN_PROGRESS");
+        verify(checkpointRepository).save(checkpoint);
+        assertThat(checkpoint.getLastGameId()).isEqualTo("league-43");
+    }
+
+    @Test
+    @DisplayName("Test a game saved in the meantime is skipped and the other games of the batch are corrected")
+    void skipConflictingGame() throws Exception {
+        //given
+        properties.setFix(true);
+        properties.setRestart(true);
+        SinglePlayerGame conflicting = game("5d0000000000000000000001", 3, 4);
+        conflicting.getScoreboard().setTotalScore(8);
+        SinglePlayerGame corrected = game("5d0000000000000000000002", 3, 4);
+        corrected.getScoreboard().setTotalScore(8);
+        when(scoreboardRepository.streamAllOrderedById()).thenReturn(Stream.of(conflicting, corrected));
+        // the conflicting game was saved by the application in the meantime, so its version does not match
+        when(scoreboardRepository.replaceScoreboards(Arrays.asList(conflicting, corrected))).thenReturn(1);
+        //when
+        ScoreVerificationResult result = job.run();
+        //then
+        assertThat(result.getCorrectedGames()).isEqualTo(1);
+        assertThat(result.getSkippedGames()).isEqualTo(1);
+        verify(scoreboardRepository, never()).saveAll(anyList());
+        verify(checkpointRepository, never()).findById(any());
+    }
+
+    private static SinglePlayerGame game(String gameId, int... rolls) {
+        byte[] pins = new byte[rolls.length];
+        for (int index = 0; index < rolls.length; index++) {
+            pins[index] = (byte) rolls[index];
+        }
+        Scoreboard scoreboard = GameState.of(pins, pins.length).toScoreboard();
+        return SinglePlayerGame.builder().gameId(gameId).scoreboard(scoreboard).build();
+    }
+}
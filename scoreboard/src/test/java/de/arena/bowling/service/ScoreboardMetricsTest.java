@@ -0,0 +1,109 @@
+package de.arena.bowling.service;
+
+import de.arena.bowling.domain.GameState;
+import de.arena.bowling.domain.SinglePlayerGame;
+import de.arena.bowling.exception.InvalidNumberOfPinsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import javax.validation.ConstraintViolationException;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the {@link ScoreboardMetrics}
+ */
+@ExtendWith(MockitoExtension.class)
+class ScoreboardMetricsTest {
+
+    @Mock
+    private ScoreboardRepository repository;
+
+    @Mock
+    private GameArchive gameArchive;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private SimpleMeterRegistry registry;
+    private ScoreboardMetrics metrics;
+    private WriteBehindGameCache gameCache;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new ScoreboardMetrics(registry);
+        gameCache = new WriteBehindGameCache(new MongoGameStore(repository), new GameCacheProperties());
+    }
+
+    @Test
+    @DisplayName("Test a roll is counted and timed in its stages")
+    void rollStages() throws Exception {
+        //given
+        ScoreboardServiceImpl scoreboardService =
+                new ScoreboardServiceImpl(new MongoGameStore(repository), gameCache, gameArchive,
+                        new GamePartitioner(new ClusterProperties(), eventPublisher), eventPublisher, metrics);
+        when(repository.save(any())).thenAnswer(invocation -> {
+            SinglePlayerGame game = invocation.getArgument(0);
+            game.setGameId("gameId");
+            return game;
+        });
+        scoreboardService.createNewGameScoreboard();
+        //when
+        SinglePlayerGame game = scoreboardService.fetchScoreboard("gameId").orElseThrow(IllegalStateException::new);
+        scoreboardService.updateScore(game, 7);
+        //then
+        assertThat(registry.get(ScoreboardMetrics.CREATED_GAMES).counter().count()).isEqualTo(1);
+        assertThat(registry.get(ScoreboardMetrics.ROLLS).counter().count()).isEqualTo(1);
+        for (String stage : new String[]{"fetch", "score", "store"}) {
+            assertThat(registry.get(ScoreboardMetrics.STAGE_TIMER).tag("stage", stage).timer().count()).isEqualTo(1);
+        }
+        assertThat(registry.get(ScoreboardMetrics.STAGE_TIMER).tag("stage", "render").timer().count()).isZero();
+        assertThat(registry.get(ScoreboardMetrics.LOOKUP_TIMER).tag("tier", "hot").functionTimer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Test the validation failures are counted by the type of the exception")
+    void validationFailures() {
+        //when
+        metrics.validationFailed(new InvalidNumberOfPinsException(11, 10));
+        metrics.validationFailed(new InvalidNumberOfPinsException(8, 3));
+        metrics.validationFailed(new ConstraintViolationException(Collections.emptySet()));
+        //then
+        assertThat(registry.get(ScoreboardMetrics.VALIDATION_FAILURES)
+                .tag("exception", "InvalidNumberOfPinsException").counter().count()).isEqualTo(2);
+        assertThat(registry.get(ScoreboardMetrics.VALIDATION_FAILURES)
+                .tag("exception", "ConstraintViolationException").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Test the cached games in progress are published as a gauge")
+    void gamesInProgress() {
+        //given
+        gameCache.bindTo(registry);
+        GameState completedState = new GameState();
+        for (int roll = 0; roll < 12; roll++) {
+            completedState.roll(10);
+        }
+        //when
+        gameCache.put(game("inProgress", new GameState()));
+        gameCache.put(game("completed", completedState));
+        //then
+        assertThat(registry.get("scoreboard.cache.size").gauge().value()).isEqualTo(2);
+        assertThat(registry.get("scoreboard.games.in.progress").gauge().value()).isEqualTo(1);
+    }
+
+    private static SinglePlayerGame game(String gameId, GameState state) {
+        return SinglePlayerGame.builder().gameId(gameId).state(state).scoreboard(state.toScoreboard()).build();
+    }
+}
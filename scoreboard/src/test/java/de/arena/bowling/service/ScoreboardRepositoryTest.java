@@ -0,0 +1,140 @@
+package de.arena.bowling.service;
+
+import de.arena.bowling.domain.GameState;
+import de.arena.bowling.domain.GameStatus;
+import de.arena.bowling.domain.SinglePlayerGame;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for the {@link ScoreboardRepository} against the embedded MongoDB.
+ */
+@ExtendWith(SpringExtension.class)
+@DataMongoTest
+class ScoreboardRepositoryTest {
+
+    @Autowired
+    private ScoreboardRepository repository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Test the indexes of the listings are created")
+    void indexes() {
+        //when
+        List<IndexInfo> indexes = mongoTemplate.indexOps(SinglePlayerGame.class).getIndexInfo();
+        //then
+        assertThat(indexes).extracting(IndexInfo::getName).contains("status_completed", "status_created");
+    }
+
+    @Test
+    @DisplayName("Test the partial update writes the same document as a save of the whole game")
+    void updateFrames() {
+        //given
+        GameState state = stateOf(10, 7);
+        SinglePlayerGame game = repository.save(game(state));
+        int previousRollCount = state.getRollCount();
+        state.roll(3);
+        state.roll(4);
+        game.setScoreboard(state.toScoreboard());
+        //when
+        repository.updateFrames(Collections.singletonList(game),
+                Collections.singletonList(state.firstChangedFrameIndex(previousRollCount)));
+        //then
+        SinglePlayerGame storedGame = repository.findById(game.getGameId()).get();
+        assertThat(storedGame.getVersion()).isEqualTo(1L);
+        assertThat(storedGame.getScoreboard()).isEqualTo(state.toScoreboard());
+        assertThat(storedGame.getScoreboard().getTotalScore()).isEqualTo(37);
+    }
+
+    @Test
+    @DisplayName("Test the partial update of an outdated version is rejected")
+    void updateOutdatedFrames() {
+        //given
+        GameState state = stateOf(3);
+        SinglePlayerGame game = repository.save(game(state));
+        repository.save(game);
+        game.setVersion(0L);
+        state.roll(4);
+        game.setScoreboard(state.toScoreboard());
+        //when-then
+        assertThatThrownBy(() -> repository.updateFrames(Collections.singletonList(game), Collections.singletonList(0)))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+        assertThat(repository.findById(game.getGameId()).get().getScoreboard().getTotalScore()).isNull();
+    }
+
+    @Test
+    @DisplayName("Test only the scoreboards of the games with their read version are replaced")
+    void replaceScoreboards() {
+        //given
+        SinglePlayerGame outdated = repository.save(game(stateOf(3)));
+        repository.save(outdated);
+        outdated.setVersion(0L);
+        SinglePlayerGame current = repository.save(game(stateOf(3)));
+        outdated.setScoreboard(stateOf(3, 4).toScoreboard());
+        current.setScoreboard(stateOf(3, 4).toScoreboard());
+        //when
+        int replacedGames = repository.replaceScoreboards(Arrays.asList(outdated, current));
+        //then
+        assertThat(replacedGames).isEqualTo(1);
+        assertThat(repository.findById(outdated.getGameId()).get().getScoreboard().getTotalScore()).isNull();
+        SinglePlayerGame replaced = repository.findById(current.getGameId()).get();
+        assertThat(replaced.getScoreboard().getTotalScore()).isEqualTo(7);
+        assertThat(replaced.getVersion()).isEqualTo(current.getVersion() + 1);
+    }
+
+    @Test
+    @DisplayName("Test the summaries are read without the frames, the latest completed game first")
+    void findSummariesByStatus() {
+        //given
+        SinglePlayerGame first = game(stateOf(0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0));
+        first.setCompleted(Instant.parse("2019-06-01T18:00:00Z"));
+        SinglePlayerGame second = game(stateOf(0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 9, 0));
+        second.setCompleted(Instant.parse("2019-06-01T19:00:00Z"));
+        repository.save(first);
+        repository.save(second);
+        repository.save(game(stateOf(3)));
+        //when
+        List<SinglePlayerGame> summaries = repository.findSummariesByStatus(GameStatus.GAME_OVER,
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "completed")));
+        //then
+        assertThat(summaries).extracting(game -> game.getScoreboard().getTotalScore()).containsExactly(9, 0);
+        assertThat(summaries).allSatisfy(game -> assertThat(game.getScoreboard().getFrames()).isNull());
+    }
+
+    private SinglePlayerGame game(GameState state) {
+        return SinglePlayerGame.builder().scoreboard(state.toScoreboard()).state(state).build();
+    }
+
+    private GameState stateOf(int... rolls) {
+        GameState state = new GameState();
+        for (int numberOfPins : rolls) {
+            state.roll(numberOfPins);
+        }
+        return state;
+    }
+}
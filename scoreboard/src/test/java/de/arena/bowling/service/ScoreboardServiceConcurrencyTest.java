@@ -0,0 +1,202 @@
+package de.arena.bowling.service;
+
+import de.arena.bowling.domain.GameState;
+import de.arena.bowling.domain.GameStatus;
+import de.arena.bowling.domain.GameSummary;
+import de.arena.bowling.domain.Scoreboard;
+import de.arena.bowling.domain.SinglePlayerGame;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.RepeatedTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Stress test for simultaneous rolls on the same games through the {@link ScoreboardServiceImpl}.
+ */
+class ScoreboardServiceConcurrencyTest {
+
+    private static final int GAMES = 50;
+    private static final int THREADS = 16;
+    /**
+     * Every roll hits one pin, so a game is over after 20 rolls.
+     */
+    private static final int ROLLS_PER_GAME = 20;
+
+    @RepeatedTest(5)
+    @DisplayName("Test no roll is lost when many threads roll on the same games while they are flushed and evicted")
+    void noLostRolls() throws Exception {
+        //given
+        VersionedGameStore gameStore = new VersionedGameStore();
+        GameCacheProperties properties = new GameCacheProperties();
+        properties.setMaximumSize(8);
+        properties.setFlushBatchSize(4);
+        WriteBehindGameCache gameCache = new WriteBehindGameCache(gameStore, properties);
+        ScoreboardServiceImpl scoreboardService = new ScoreboardServiceImpl(gameStore, gameCache, mock(GameArchive.class),
+                new GamePartitioner(new ClusterProperties(), event -> { }), event -> { }, new ScoreboardMetrics(new SimpleMeterRegistry()));
+
+        List<Callable<Void>> rolls = new ArrayList<>();
+        for (int game = 0; game < GAMES; game++) {
+            String gameId = scoreboardService.createNewGameScoreboard().getGameId();
+            for (int roll = 0; roll < ROLLS_PER_GAME; roll++) {
+                rolls.add(() -> {
+                    SinglePlayerGame fetchedGame = scoreboardService.fetchScoreboard(gameId)
+                            .orElseThrow(IllegalStateException::new);
+                    scoreboardService.updateScore(fetchedGame, 1);
+                    return null;
+                });
+            }
+        }
+        Collections.shuffle(rolls);
+
+        //when
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS + 1);
+        AtomicBoolean rolling = new AtomicBoolean(true);
+        Future<?> flusher = executor.submit(() -> {
+            while (rolling.get()) {
+                gameCache.flush();
+            }
+        });
+        List<Future<Void>> results = executor.invokeAll(rolls);
+        rolling.set(false);
+        flusher.get();
+        executor.shutdown();
+        for (Future<Void> result : results) {
+            result.get();
+        }
+        gameCache.flush();
+
+        //then
+        assertThat(gameStore.documents).hasSize(GAMES);
+        for (SinglePlayerGame storedGame : gameStore.documents.values()) {
+            assertThat(storedGame.getState().getRollCount()).isEqualTo(ROLLS_PER_GAME);
+            assertThat(storedGame.getScoreboard().getStatus()).isEqualTo(GameStatus.GAME_OVER);
+            assertThat(storedGame.getScoreboard().getTotalScore()).isEqualTo(ROLLS_PER_GAME);
+        }
+        assertThat(gameCache.getConflictCount()).isZero();
+    }
+
+    @RepeatedTest(5)
+    @DisplayName("Test the scoreboard of every roll shows all the rolls before it, if the game was fetched by "
+            + "simultaneous requests")
+    void consistentScoreboards() throws Exception {
+        //given
+        VersionedGameStore gameStore = new VersionedGameStore();
+        WriteBehindGameCache gameCache = new WriteBehindGameCache(gameStore, new GameCacheProperties());
+        ScoreboardServiceImpl scoreboardService = new ScoreboardServiceImpl(gameStore, gameCache, mock(GameArchive.class),
+                new GamePartitioner(new ClusterProperties(), event -> { }), event -> { }, new ScoreboardMetrics(new SimpleMeterRegistry()));
+
+        List<Callable<SinglePlayerGame>> rolls = new ArrayList<>();
+        for (int game = 0; game < GAMES; game++) {
+            String gameId = scoreboardService.createNewGameScoreboard().getGameId();
+            scoreboardService.updateScore(scoreboardService.fetchScoreboard(gameId).orElseThrow(IllegalStateException::new), 10);
+            scoreboardService.updateScore(scoreboardService.fetchScoreboard(gameId).orElseThrow(IllegalStateException::new), 10);
+            // all the requests fetch the game after the two strikes, before any of them rolls
+            for (int roll = 0; roll < THREADS; roll++) {
+                SinglePlayerGame fetchedGame = scoreboardService.fetchScoreboard(gameId).orElseThrow(IllegalStateException::new);
+                rolls.add(() -> {
+                    scoreboardService.updateScore(fetchedGame, 1);
+                    return fetchedGame;
+                });
+            }
+        }
+
+        //when
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<SinglePlayerGame>> results = executor.invokeAll(rolls);
+        executor.shutdown();
+
+        //then
+        for (Future<SinglePlayerGame> result : results) {
+            Scoreboard scoreboard = result.get().getScoreboard();
+            assertThat(scoreboard).isEqualTo(GameState.replay(scoreboard).toScoreboard());
+        }
+    }
+
+    /**
+     * Keeps copies of the games in memory and rejects the saves of outdated versions like MongoDB.
+     */
+    private static class VersionedGameStore implements GameStore {
+        private final Map<String, SinglePlayerGame> documents = new ConcurrentHashMap<>();
+        private final AtomicInteger lastId = new AtomicInteger();
+
+        @Override
+        public SinglePlayerGame create(SinglePlayerGame game) {
+            game.setGameId("game" + lastId.incrementAndGet());
+            game.setVersion(0L);
+            documents.put(game.getGameId(), copy(game));
+            return game;
+        }
+
+        @Override
+        public Optional<SinglePlayerGame> findById(String gameId) {
+            return Optional.ofNullable(documents.get(gameId)).map(this::copy);
+        }
+
+        @Override
+        public synchronized List<SinglePlayerGame> saveAll(List<SinglePlayerGame> games) {
+            List<SinglePlayerGame> savedGames = new ArrayList<>(games.size());
+            for (SinglePlayerGame game : games) {
+                SinglePlayerGame storedGame = documents.get(game.getGameId());
+                if (storedGame != null && !Objects.equals(storedGame.getVersion(), game.getVersion())) {
+                    throw new OptimisticLockingFailureException("Outdated version of game " + game.getGameId());
+                }
+                SinglePlayerGame savedGame = copy(game);
+                savedGame.setVersion(game.getVersion() == null ? 0L : game.getVersion() + 1);
+                documents.put(game.getGameId(), savedGame);
+                savedGames.add(copy(savedGame));
+            }
+            return savedGames;
+        }
+
+        @Override
+        public void insertAll(List<SinglePlayerGame> games) {
+            games.forEach(this::create);
+        }
+
+        @Override
+        public List<GameSummary> findSummaries(GameStatus status, int page, int size) {
+            return documents.values().stream()
+                    .filter(game -> game.getScoreboard().getStatus() == status)
+                    .skip((long) page * size)
+                    .limit(size)
+                    .map(GameSummary::of)
+                    .collect(Collectors.toList());
+        }
+
+        @Override
+        public Stream<SinglePlayerGame> streamCompleted() {
+            return documents.values().stream()
+                    .filter(game -> game.getScoreboard().getStatus() == GameStatus.GAME_OVER)
+                    .map(this::copy);
+        }
+
+        private SinglePlayerGame copy(SinglePlayerGame game) {
+            GameState state = GameState.replay(game.getScoreboard());
+            return SinglePlayerGame.builder()
+                    .gameId(game.getGameId())
+                    .version(game.getVersion())
+                    .state(state)
+                    .scoreboard(state.toScoreboard())
+                    .build();
+        }
+    }
+}
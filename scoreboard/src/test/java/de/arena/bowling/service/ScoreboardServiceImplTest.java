@@ -1,21 +1,34 @@
 package de.arena.bowling.service;
 
+import de.arena.bowling.domain.GameState;
 import de.arena.bowling.domain.GameStatus;
+import de.arena.bowling.domain.Roll;
+import de.arena.bowling.domain.RollResult;
 import de.arena.bowling.domain.Scoreboard;
 import de.arena.bowling.domain.SinglePlayerGame;
 import de.arena.bowling.exception.GenericScoreboardException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.util.Arrays;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 /**
@@ -27,9 +40,22 @@ class ScoreboardServiceImplTest {
     @Mock
     private ScoreboardRepository repository;
 
-    @InjectMocks
+    @Mock
+    private GameArchive gameArchive;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     private ScoreboardServiceImpl scoreboardService;
 
+    @BeforeEach
+    void setUp() {
+        GameStore gameStore = new MongoGameStore(repository);
+        scoreboardService = new ScoreboardServiceImpl(gameStore, new WriteBehindGameCache(gameStore, new GameCacheProperties()),
+                gameArchive, new GamePartitioner(new ClusterProperties(), eventPublisher), eventPublisher,
+                new ScoreboardMetrics(new SimpleMeterRegistry()));
+    }
+
     @Test
     @DisplayName("Test successful creation of a new game scoreboard")
     void createNewGameScoreboard() {
@@ -59,6 +85,39 @@ class ScoreboardServiceImplTest {
         assertThat(scoreboardService.fetchScoreboard(gameId)).hasValue(singlePlayerGame);
     }
 
+    @Test
+    @DisplayName("Test an archived game is fetched from the archive, if it is not in the collection of the games")
+    void fetchArchivedScoreboard() {
+        //given
+        SinglePlayerGame archivedGame = SinglePlayerGame.builder().gameId("archived").build();
+        when(repository.findById("archived")).thenReturn(Optional.empty());
+        when(gameArchive.findById("archived")).thenReturn(Optional.of(archivedGame));
+        //when
+        Optional<SinglePlayerGame> game = scoreboardService.fetchScoreboard("archived");
+        //then
+        assertThat(game).hasValue(archivedGame);
+        assertThat(scoreboardService.getHotLookups().getCount()).isEqualTo(1);
+        assertThat(scoreboardService.getArchiveLookups().getCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Test an unknown game is not looked up in the archive, if the store keeps its completed games")
+    void fetchUnknownScoreboard() {
+        //given
+        GameStore gameStore = mock(GameStore.class);
+        when(gameStore.findById("unknown")).thenReturn(Optional.empty());
+        when(gameStore.isArchived()).thenReturn(false);
+        scoreboardService = new ScoreboardServiceImpl(gameStore, new WriteBehindGameCache(gameStore, new GameCacheProperties()),
+                gameArchive, new GamePartitioner(new ClusterProperties(), eventPublisher), eventPublisher,
+                new ScoreboardMetrics(new SimpleMeterRegistry()));
+        //when
+        Optional<SinglePlayerGame> game = scoreboardService.fetchScoreboard("unknown");
+        //then
+        assertThat(game).isEmpty();
+        assertThat(scoreboardService.getArchiveLookups().getCount()).isZero();
+        verifyNoInteractions(gameArchive);
+    }
+
     @Test
     @DisplayName("Test score calculation set 1")
     void scoreCalculationTest1() throws GenericScoreboardException {
@@ -159,4 +218,56 @@ class ScoreboardServiceImplTest {
         assertThat(game.getScoreboard().getTotalScore()).isEqualTo(300);
         assertThat(game.getScoreboard().isPerfectGame()).isTrue();
     }
+
+    @Test
+    @DisplayName("Test a batch of rolls is applied per game in order and written with one bulk write")
+    void updateScores() {
+        //given
+        when(repository.findById("lane1")).thenReturn(Optional.of(SinglePlayerGame.builder()
+                .gameId("lane1")
+                .scoreboard(new GameState().toScoreboard())
+                .build()));
+        //when
+        List<RollResult> results = scoreboardService.updateScores(Arrays.asList(
+                new Roll("lane1", 3), new Roll("lane2", 5), new Roll("lane1", 8), new Roll("lane1", 6)));
+        //then
+        assertThat(results).extracting(RollResult::isAccepted).containsExactly(true, false, false, true);
+        assertThat(results.get(1).getErrorMessage()).contains("lane2");
+        assertThat(results.get(3).getTotalScore()).isEqualTo(9);
+        verify(repository, times(1)).findById("lane1");
+        verify(repository, times(1)).saveAll(any());
+        ArgumentCaptor<GameUpdatedEvent> event = ArgumentCaptor.forClass(GameUpdatedEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(event.capture());
+        assertThat(event.getValue().getPreviousRollCount()).isEqualTo(0);
+        assertThat(event.getValue().getState().getRollCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Test the rolls are accepted, even if a listener of the completed games fails")
+    void failingListener() throws GenericScoreboardException {
+        //given
+        GameState lastFrame = new GameState();
+        for (int roll = 0; roll < 18; roll++) {
+            lastFrame.roll(0);
+        }
+        when(repository.findById("lane1")).thenReturn(Optional.of(SinglePlayerGame.builder()
+                .gameId("lane1")
+                .scoreboard(lastFrame.toScoreboard())
+                .build()));
+        when(repository.saveAll(any())).thenAnswer(invocationOnMock -> invocationOnMock.getArgument(0));
+        doAnswer(invocationOnMock -> {
+            if (invocationOnMock.getArgument(0) instanceof GameCompletedEvent) {
+                throw new IllegalStateException("Statistics not available");
+            }
+            return null;
+        }).when(eventPublisher).publishEvent(any(Object.class));
+        //when
+        scoreboardService.updateScore(scoreboardService.fetchScoreboard("lane1").get(), 1);
+        List<RollResult> results = scoreboardService.updateScores(Arrays.asList(new Roll("lane1", 2), new Roll("lane1", 3)));
+        //then
+        assertThat(results).extracting(RollResult::isAccepted).containsExactly(true, false);
+        assertThat(results.get(0).getStatus()).isEqualTo(GameStatus.GAME_OVER);
+        assertThat(results.get(0).getTotalScore()).isEqualTo(3);
+        verify(eventPublisher, times(1)).publishEvent(any(GameCompletedEvent.class));
+    }
 }
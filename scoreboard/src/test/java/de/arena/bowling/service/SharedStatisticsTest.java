@@ -0,0 +1,104 @@
+package de.arena.bowling.service;
+
+import de.arena.bowling.domain.GameState;
+import de.arena.bowling.domain.LeaderboardEntry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the {@link SharedStatistics}
+ */
+@ExtendWith(MockitoExtension.class)
+class SharedStatisticsTest {
+
+    @Mock
+    private MongoOperations mongoOperations;
+
+    private SharedStatistics sharedStatistics;
+
+    @BeforeEach
+    void setUp() {
+        StatisticsProperties properties = new StatisticsProperties();
+        properties.setLeaderboardSize(3);
+        sharedStatistics = new SharedStatistics(mongoOperations, properties);
+    }
+
+    @Test
+    @DisplayName("Test a completed game increments the shared totals and the totals of its player in one update each")
+    void add() {
+        //given
+        GameState perfectGame = new GameState();
+        for (int roll = 0; roll < 12; roll++) {
+            perfectGame.roll(10);
+        }
+        //when
+        sharedStatistics.add("session1", " anna ", perfectGame.toScoreboard());
+        //then
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(mongoOperations, times(2)).upsert(queries.capture(), updates.capture(), eq(SharedStatistics.COLLECTION));
+        assertThat(queries.getAllValues()).extracting(query -> query.getQueryObject().get("_id"))
+                .containsExactly("total", "player:anna");
+
+        Document total = updates.getAllValues().get(0).getUpdateObject();
+        assertThat(total.get("$inc", Document.class)).containsEntry("games", 1L).containsEntry("perfectGames", 1L)
+                .containsEntry("strikes", 10L).containsEntry("totalScore", 300L);
+        assertThat(total.get("$max", Document.class)).containsEntry("highScore", 300);
+        Update.Modifiers leaderboard = (Update.Modifiers) total.get("$push", Document.class).get("leaderboard");
+        assertThat(leaderboard.getModifiers()).extracting(Update.Modifier::getKey)
+                .contains("$each", "$sort", "$slice");
+        assertThat(leaderboard.getModifiers()).filteredOn(modifier -> modifier.getKey().equals("$slice"))
+                .extracting(Update.Modifier::getValue).containsExactly(3);
+        assertThat(updates.getAllValues().get(1).getUpdateObject()).doesNotContainKey("$push");
+    }
+
+    @Test
+    @DisplayName("Test the seed is claimed by one node only")
+    void claimSeed() {
+        //given
+        when(mongoOperations.insert(any(Document.class), eq(SharedStatistics.COLLECTION)))
+                .thenReturn(new Document())
+                .thenThrow(new DuplicateKeyException("seed"));
+        //when-then
+        assertThat(sharedStatistics.claimSeed()).isTrue();
+        assertThat(sharedStatistics.claimSeed()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Test the shared leaderboard is read in the order of the ranks, up to the limit")
+    void fetchLeaderboard() {
+        //given
+        List<Document> rankedGames = Arrays.asList(
+                new Document("gameId", "session1").append("player", "anna").append("score", 300),
+                new Document("gameId", "game1").append("score", 250),
+                new Document("gameId", "game2").append("score", 90));
+        when(mongoOperations.findOne(any(Query.class), eq(Document.class), eq(SharedStatistics.COLLECTION)))
+                .thenReturn(new Document("leaderboard", rankedGames));
+        //when
+        List<LeaderboardEntry> leaderboard = sharedStatistics.fetchLeaderboard(2);
+        //then
+        assertThat(leaderboard).extracting(LeaderboardEntry::getRank).containsExactly(1, 2);
+        assertThat(leaderboard).extracting(LeaderboardEntry::getGameId).containsExactly("session1", "game1");
+        assertThat(leaderboard.get(0).getPlayer()).isEqualTo("anna");
+    }
+}
@@ -0,0 +1,244 @@
+package de.arena.bowling.service;
+
+import de.arena.bowling.domain.Bowler;
+import de.arena.bowling.domain.GameState;
+import de.arena.bowling.domain.GameStatistics;
+import de.arena.bowling.domain.LaneSession;
+import de.arena.bowling.domain.LeaderboardEntry;
+import de.arena.bowling.domain.PlayerStatistics;
+import de.arena.bowling.domain.SinglePlayerGame;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.util.CloseableIterator;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the {@link StatisticsServiceImpl}
+ */
+@ExtendWith(MockitoExtension.class)
+class StatisticsServiceImplTest {
+
+    @Mock
+    private GameStore gameStore;
+
+    @Mock
+    private LaneSessionRepository sessionRepository;
+
+    @Mock
+    private GameArchive gameArchive;
+
+    @Mock
+    private GamePartitioner partitioner;
+
+    @Mock
+    private SharedStatistics sharedStatistics;
+
+    private StatisticsProperties properties;
+
+    private StatisticsServiceImpl statisticsService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new StatisticsProperties();
+        properties.setLeaderboardSize(2);
+        statisticsService = new StatisticsServiceImpl(gameStore, sessionRepository, gameArchive, partitioner,
+                sharedStatistics, properties);
+    }
+
+    @Test
+    @DisplayName("Test the completed games update the aggregates and the bounded leaderboard")
+    void onGameCompleted() {
+        //given
+        GameState perfectGame = stateOf(10, 10, 10, 10, 10, 10, 10, 10, 10, 10, 10, 10);
+        GameState spares = stateOf(5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5);
+        GameState openFrames = stateOf(3, 4, 3, 4, 3, 4, 3, 4, 3, 4, 3, 4, 3, 4, 3, 4, 3, 4, 3, 4);
+        //when
+        statisticsService.onGameCompleted(new GameCompletedEvent("game1", null, openFrames));
+        statisticsService.onGameCompleted(new GameCompletedEvent("session1", "anna", perfectGame));
+        statisticsService.onGameCompleted(new GameCompletedEvent("session1", "bob", spares));
+        statisticsService.onGameCompleted(new GameCompletedEvent("session2", " anna ", spares));
+        //then
+        GameStatistics statistics = statisticsService.fetchStatistics();
+        assertThat(statistics.getTotal().getGames()).isEqualTo(4);
+        assertThat(statistics.getTotal().getAverageScore()).isEqualTo((70 + 300 + 150 + 150) / 4.0);
+        assertThat(statistics.getTotal().getPerfectGames()).isEqualTo(1);
+        assertThat(statistics.getLeaderboard()).extracting(LeaderboardEntry::getScore).containsExactly(300, 150);
+        assertThat(statistics.getLeaderboard().get(1).getPlayer()).isEqualTo("bob");
+
+        PlayerStatistics anna = statisticsService.fetchPlayerStatistics("anna").get();
+        assertThat(anna.getGames()).isEqualTo(2);
+        assertThat(anna.getHighScore()).isEqualTo(300);
+        assertThat(anna.getStrikeRate()).isEqualTo(0.5);
+        assertThat(anna.getSpareRate()).isEqualTo(1.0);
+        assertThat(statisticsService.fetchPlayerStatistics("carl")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Test the completed games stored before the start are aggregated on startup")
+    void rebuild() {
+        //given
+        GameState gameOver = stateOf(0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 9, 0);
+        when(gameStore.streamCompleted()).thenReturn(Stream.of(
+                SinglePlayerGame.builder().gameId("game1").scoreboard(gameOver.toScoreboard()).build()));
+        when(gameStore.isArchived()).thenReturn(true);
+        when(gameArchive.streamAll()).thenReturn(iterator(
+                SinglePlayerGame.builder().gameId("archived").scoreboard(gameOver.toScoreboard()).build()));
+        when(sessionRepository.streamAllBy()).thenReturn(Stream.of(LaneSession.builder()
+                .sessionId("session1")
+                .bowlers(Arrays.asList(
+                        Bowler.builder().name("anna").scoreboard(gameOver.toScoreboard()).build(),
+                        Bowler.builder().name("bob").scoreboard(stateOf(10).toScoreboard()).build()))
+                .build()));
+        //when
+        statisticsService.rebuild();
+        //then
+        assertThat(statisticsService.fetchStatistics().getTotal().getGames()).isEqualTo(3);
+        assertThat(statisticsService.fetchPlayerStatistics("anna").get().getAverageScore()).isEqualTo(9.0);
+        assertThat(statisticsService.fetchPlayerStatistics("bob")).isEmpty();
+        assertThat(statisticsService.fetchLeaderboard(5)).extracting(LeaderboardEntry::getGameId)
+                .containsExactly("game1", "archived");
+    }
+
+    @Test
+    @DisplayName("Test the rebuild on startup can be switched off")
+    void rebuildSwitchedOff() {
+        //given
+        properties.setRebuildOnStartup(false);
+        //when
+        statisticsService.rebuild();
+        //then
+        verifyNoInteractions(gameStore, sessionRepository, gameArchive);
+        assertThat(statisticsService.fetchLeaderboard(5)).isEqualTo(Collections.emptyList());
+    }
+
+    @Test
+    @DisplayName("Test the rebuild in the background adds a game completed during the rebuild only once")
+    void rebuildInBackground() {
+        //given
+        properties.setRebuildInBackground(true);
+        GameState nines = stateOf(0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 9, 0);
+        GameState perfectGame = stateOf(10, 10, 10, 10, 10, 10, 10, 10, 10, 10, 10, 10);
+        when(gameStore.streamCompleted()).thenAnswer(invocationOnMock -> {
+            statisticsService.onGameCompleted(new GameCompletedEvent("completed", null, perfectGame));
+            return Stream.of(
+                    SinglePlayerGame.builder().gameId("stored").scoreboard(nines.toScoreboard()).build(),
+                    SinglePlayerGame.builder().gameId("completed").scoreboard(perfectGame.toScoreboard()).build());
+        });
+        when(sessionRepository.streamAllBy()).thenReturn(Stream.empty());
+        //when
+        statisticsService.rebuild();
+        verifyNoInteractions(gameStore);
+        statisticsService.rebuildInBackground();
+        //then
+        verify(sessionRepository, timeout(5_000)).streamAllBy();
+        assertThat(statisticsService.fetchStatistics().getTotal().getGames()).isEqualTo(2);
+        assertThat(statisticsService.fetchLeaderboard(5)).extracting(LeaderboardEntry::getGameId)
+                .containsExactly("completed", "stored");
+    }
+
+    @Test
+    @DisplayName("Test the archive is not read on startup with a store, which keeps its completed games")
+    void rebuildWithoutArchive() {
+        //given
+        when(gameStore.streamCompleted()).thenReturn(Stream.of(SinglePlayerGame.builder()
+                .gameId("game1").scoreboard(stateOf(10, 10, 10, 10, 10, 10, 10, 10, 10, 10, 10, 10).toScoreboard()).build()));
+        when(sessionRepository.streamAllBy()).thenReturn(Stream.empty());
+        //when
+        statisticsService.rebuild();
+        //then
+        verifyNoInteractions(gameArchive);
+        assertThat(statisticsService.fetchStatistics().getTotal().getPerfectGames()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Test a completed game, which can not be aggregated, does not fail the roll completing it")
+    void onGameCompletedFailure() {
+        //given
+        GameCompletedEvent event = new GameCompletedEvent("game1", null, null);
+        //when
+        statisticsService.onGameCompleted(event);
+        //then
+        assertThat(statisticsService.fetchStatistics().getTotal().getGames()).isZero();
+    }
+
+    @Test
+    @DisplayName("Test the games completed on a node of a cluster are added to the shared statistics")
+    void onGameCompletedInCluster() {
+        //given
+        GameState perfectGame = stateOf(10, 10, 10, 10, 10, 10, 10, 10, 10, 10, 10, 10);
+        PlayerStatistics sharedTotal = PlayerStatistics.builder().games(7).build();
+        when(partitioner.isClustered()).thenReturn(true);
+        when(sharedStatistics.fetchTotal()).thenReturn(sharedTotal);
+        when(sharedStatistics.fetchLeaderboard(2)).thenReturn(Collections.emptyList());
+        //when
+        statisticsService.onGameCompleted(new GameCompletedEvent("session1", "anna", perfectGame));
+        GameStatistics statistics = statisticsService.fetchStatistics();
+        //then
+        verify(sharedStatistics).add("session1", "anna", perfectGame.toScoreboard());
+        assertThat(statistics.getTotal()).isSameAs(sharedTotal);
+        assertThat(statisticsService.fetchLeaderboard(5)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Test the stored games are only aggregated by the node of a cluster, which seeds the shared statistics")
+    void seedInCluster() {
+        //given
+        GameState gameOver = stateOf(0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 9, 0);
+        when(partitioner.isClustered()).thenReturn(true);
+        when(sharedStatistics.claimSeed()).thenReturn(true, false);
+        when(gameStore.streamCompleted()).thenReturn(Stream.of(
+                SinglePlayerGame.builder().gameId("game1").scoreboard(gameOver.toScoreboard()).build()));
+        when(sessionRepository.streamAllBy()).thenReturn(Stream.empty());
+        //when
+        statisticsService.rebuild();
+        statisticsService.rebuild();
+        //then
+        verify(gameStore, times(1)).streamCompleted();
+        verify(sharedStatistics, times(1)).seed(any(), eq(Collections.emptyMap()),
+                eq(Collections.singletonList(LeaderboardEntry.builder().rank(1).gameId("game1").score(9).build())));
+    }
+
+    private CloseableIterator<SinglePlayerGame> iterator(SinglePlayerGame... games) {
+        Iterator<SinglePlayerGame> iterator = Arrays.asList(games).iterator();
+        return new CloseableIterator<SinglePlayerGame>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public SinglePlayerGame next() {
+                return iterator.next();
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    private GameState stateOf(int... rolls) {
+        GameState state = new GameState();
+        for (int numberOfPins : rolls) {
+            state.roll(numberOfPins);
+        }
+        return state;
+    }
+}
@@ -0,0 +1,251 @@
+package de.arena.bowling.service;
+
+import de.arena.bowling.domain.GameState;
+import de.arena.bowling.domain.GameStatus;
+import de.arena.bowling.domain.SinglePlayerGame;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the {@link WriteBehindGameCache}
+ */
+@ExtendWith(MockitoExtension.class)
+class WriteBehindGameCacheTest {
+
+    @Mock
+    private ScoreboardRepository repository;
+
+    private GameCacheProperties properties;
+
+    private WriteBehindGameCache gameCache;
+
+    @BeforeEach
+    void setUp() {
+        properties = new GameCacheProperties();
+        gameCache = new WriteBehindGameCache(new MongoGameStore(repository), properties);
+    }
+
+    @Test
+    @DisplayName("Test a game is loaded from the repository only on the first fetch")
+    void hitAndMiss() {
+        //given
+        GameState state = new GameState();
+        state.roll(7);
+        when(repository.findById("gameId"))
+                .thenReturn(Optional.of(SinglePlayerGame.builder().gameId("gameId").scoreboard(state.toScoreboard()).build()));
+        //when
+        gameCache.get("gameId");
+        Optional<SinglePlayerGame> cachedGame = gameCache.get("gameId");
+        //then
+        verify(repository, times(1)).findById("gameId");
+        assertThat(cachedGame).hasValueSatisfying(game -> assertThat(game.getScoreboard()).isEqualTo(state.toScoreboard()));
+        assertThat(gameCache.getMissCount()).isEqualTo(1);
+        assertThat(gameCache.getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Test a fetched game keeps the state of its scoreboard, while later rolls change the cached state")
+    void fetchCopyOfState() {
+        //given
+        cachedGame("gameId");
+        SinglePlayerGame fetchedGame = gameCache.get("gameId").get();
+        //when
+        GameState cachedState = gameCache.currentState(fetchedGame);
+        cachedState.roll(7);
+        SinglePlayerGame refetchedGame = gameCache.get("gameId").get();
+        //then
+        assertThat(fetchedGame.getState()).isNotSameAs(cachedState);
+        assertThat(fetchedGame.getState().getRollCount()).isZero();
+        assertThat(GameState.rollCountOf(fetchedGame.getScoreboard())).isZero();
+        assertThat(refetchedGame.getState().getRollCount()).isEqualTo(1);
+        assertThat(GameState.rollCountOf(refetchedGame.getScoreboard())).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Test the rolls of a game are coalesced into one save on flush")
+    @SuppressWarnings("unchecked")
+    void coalesceRolls() {
+        //given
+        SinglePlayerGame game = cachedGame("gameId");
+        //when
+        for (int roll = 0; roll < 3; roll++) {
+            game.getState().roll(1);
+            gameCache.update(game);
+        }
+        verify(repository, never()).saveAll(any());
+        gameCache.flush();
+        gameCache.flush();
+        //then
+        ArgumentCaptor<List<SinglePlayerGame>> savedGames = ArgumentCaptor.forClass(List.class);
+        verify(repository, times(1)).saveAll(savedGames.capture());
+        assertThat(savedGames.getValue()).hasSize(1);
+        assertThat(savedGames.getValue().get(0).getScoreboard().getFrames()).hasSize(2);
+        assertThat(gameCache.getFlushedGameCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Test a completed game is written without waiting for the flush")
+    @SuppressWarnings("unchecked")
+    void writeCompletedGame() {
+        //given
+        SinglePlayerGame game = cachedGame("gameId");
+        //when
+        for (int roll = 0; roll < 12; roll++) {
+            game.getState().roll(10);
+        }
+        gameCache.update(game);
+        gameCache.flush();
+        //then
+        ArgumentCaptor<List<SinglePlayerGame>> savedGames = ArgumentCaptor.forClass(List.class);
+        verify(repository, times(1)).saveAll(savedGames.capture());
+        assertThat(savedGames.getValue()).hasSize(1);
+        assertThat(savedGames.getValue().get(0).getScoreboard().getStatus()).isEqualTo(GameStatus.GAME_OVER);
+    }
+
+    @Test
+    @DisplayName("Test a game is written again with the stored version, if the stored game has only earlier rolls")
+    @SuppressWarnings("unchecked")
+    void writeAfterOutdatedVersion() {
+        //given
+        SinglePlayerGame game = cachedGame("gameId");
+        game.getState().roll(3);
+        GameState storedState = game.getState().copy();
+        game.getState().roll(4);
+        gameCache.update(game);
+        when(repository.saveAll(any()))
+                .thenThrow(new OptimisticLockingFailureException("outdated"))
+                .thenAnswer(invocationOnMock -> invocationOnMock.getArgument(0));
+        when(repository.findById("gameId")).thenReturn(Optional.of(SinglePlayerGame.builder()
+                .gameId("gameId").version(3L).scoreboard(storedState.toScoreboard()).build()));
+        //when
+        gameCache.flush();
+        //then
+        ArgumentCaptor<List<SinglePlayerGame>> savedGames = ArgumentCaptor.forClass(List.class);
+        verify(repository, times(2)).saveAll(savedGames.capture());
+        assertThat(savedGames.getValue().get(0).getVersion()).isEqualTo(3L);
+        assertThat(savedGames.getValue().get(0).getState().getRollCount()).isEqualTo(2);
+        assertThat(gameCache.getConflictCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Test a game changed by another writer is dropped from the cache")
+    void dropConflictingGame() {
+        //given
+        SinglePlayerGame game = cachedGame("gameId");
+        game.getState().roll(3);
+        gameCache.update(game);
+        GameState storedState = new GameState();
+        storedState.roll(5);
+        when(repository.saveAll(any())).thenThrow(new OptimisticLockingFailureException("outdated"));
+        when(repository.findById("gameId")).thenReturn(Optional.of(SinglePlayerGame.builder()
+                .gameId("gameId").version(3L).scoreboard(storedState.toScoreboard()).build()));
+        //when
+        gameCache.flush();
+        //then
+        verify(repository, times(1)).saveAll(any());
+        assertThat(gameCache.getConflictCount()).isEqualTo(1);
+        assertThat(gameCache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Test a dirty game is written when it is evicted")
+    void writeEvictedGame() {
+        //given
+        properties.setMaximumSize(1);
+        SinglePlayerGame game = cachedGame("first");
+        game.getState().roll(3);
+        gameCache.update(game);
+        //when
+        cachedGame("second");
+        //then
+        verify(repository).saveAll(any());
+        assertThat(gameCache.size()).isEqualTo(1);
+        assertThat(gameCache.getEvictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Test the store forgets an evicted game, after it was written")
+    void releaseEvictedGame() {
+        //given
+        GameStore gameStore = mock(GameStore.class);
+        when(gameStore.saveAll(any())).thenAnswer(invocationOnMock -> invocationOnMock.getArgument(0));
+        properties.setMaximumSize(1);
+        gameCache = new WriteBehindGameCache(gameStore, properties);
+        SinglePlayerGame game = cachedGame("first");
+        game.getState().roll(3);
+        gameCache.update(game);
+        //when
+        cachedGame("second");
+        //then
+        InOrder inOrder = inOrder(gameStore);
+        inOrder.verify(gameStore).saveAll(any());
+        inOrder.verify(gameStore).release("first");
+        verify(gameStore, never()).release("second");
+    }
+
+    @Test
+    @DisplayName("Test the dirty games are written on shutdown")
+    void writeOnShutdown() {
+        //given
+        SinglePlayerGame game = cachedGame("gameId");
+        game.getState().roll(3);
+        gameCache.update(game);
+        //when
+        gameCache.shutdown();
+        //then
+        verify(repository).saveAll(any());
+        assertThat(gameCache.getFlushCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Test a kept game is released after the partitions changed, if another node wrote a newer version")
+    void releaseOutdatedGame() {
+        //given
+        SinglePlayerGame outdatedGame = cachedGame("outdated", 1L);
+        SinglePlayerGame currentGame = cachedGame("current", 1L);
+        when(repository.findById("outdated")).thenReturn(Optional.of(SinglePlayerGame.builder()
+                .gameId("outdated").version(4L).scoreboard(outdatedGame.getScoreboard()).build()));
+        when(repository.findById("current")).thenReturn(Optional.of(SinglePlayerGame.builder()
+                .gameId("current").version(1L).scoreboard(currentGame.getScoreboard()).build()));
+        List<String> nodes = Collections.singletonList("http://self");
+        //when
+        gameCache.onPartitionsChanged(new PartitionsChangedEvent(new ConsistentHashRing(nodes, 8), "http://self"));
+        //then
+        gameCache.get("current");
+        assertThat(gameCache.size()).isEqualTo(1);
+        assertThat(gameCache.getHitCount()).isEqualTo(1);
+        verify(repository, never()).saveAll(any());
+    }
+
+    private SinglePlayerGame cachedGame(String gameId) {
+        return cachedGame(gameId, null);
+    }
+
+    private SinglePlayerGame cachedGame(String gameId, Long version) {
+        GameState state = new GameState();
+        SinglePlayerGame game = SinglePlayerGame.builder().gameId(gameId).version(version).state(state)
+                .scoreboard(state.toScoreboard()).build();
+        gameCache.put(game);
+        return game;
+    }
+}